@@ -547,6 +547,16 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
     }
 
 
+    /**
+     * Reads the only element of given scalar array, either real or complex, straight from its buffer
+     */
+    protected static IComplexNumber complexScalar(INDArray scalar) {
+        if (scalar instanceof IComplexNDArray)
+            return Nd4j.createComplexNumber(scalar.data().getDouble(0), scalar.data().getDouble(1));
+
+        return Nd4j.createComplexNumber(scalar.getDouble(0), 0);
+    }
+
     @Override
     protected IComplexNDArray create(DataBuffer data, int[] shape, int[] strides) {
         return Nd4j.createComplex(data, shape, strides, offset(), ordering());
@@ -1126,7 +1136,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNumber normmaxComplex() {
-        return normmax(Integer.MAX_VALUE).getComplex(0);
+        return Nd4j.createComplexNumber(ComplexKernels.normmax(this), 0);
     }
 
     @Override
@@ -1141,7 +1151,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNumber prodComplex() {
-        return prod(Integer.MAX_VALUE).getComplex(0);
+        double[] prod = ComplexKernels.prod(this);
+        return Nd4j.createComplexNumber(prod[0], prod[1]);
     }
 
     @Override
@@ -1156,7 +1167,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNumber meanComplex() {
-        return mean(Integer.MAX_VALUE).getComplex(0);
+        double[] sum = ComplexKernels.sum(this);
+        return Nd4j.createComplexNumber(sum[0] / length(), sum[1] / length());
     }
 
     @Override
@@ -1201,7 +1213,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNumber sumComplex() {
-        return sum(Integer.MAX_VALUE).getComplex(0);
+        double[] sum = ComplexKernels.sum(this);
+        return Nd4j.createComplexNumber(sum[0], sum[1]);
     }
 
     @Override
@@ -1231,7 +1244,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNumber norm1Complex() {
-        return norm1(Integer.MAX_VALUE).getComplex(0);
+        return Nd4j.createComplexNumber(ComplexKernels.norm1(this), 0);
     }
 
     @Override
@@ -1261,7 +1274,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNumber norm2Complex() {
-        return norm2(Integer.MAX_VALUE).getComplex(0);
+        return Nd4j.createComplexNumber(ComplexKernels.norm2(this), 0);
     }
 
     /**
@@ -1991,7 +2004,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray divi(Number n) {
-        return divi(Nd4j.complexScalar(n));
+        return divi(n, this);
     }
 
     @Override
@@ -2001,7 +2014,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray muli(Number n) {
-        return muli(Nd4j.complexScalar(n));
+        return muli(n, this);
     }
 
     @Override
@@ -2011,7 +2024,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray subi(Number n) {
-        return subi(Nd4j.complexScalar(n));
+        return subi(n, this);
     }
 
     @Override
@@ -2021,7 +2034,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray addi(Number n) {
-        return addi(Nd4j.complexScalar(n));
+        return addi(n, this);
     }
 
     /**
@@ -2585,23 +2598,10 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
      */
     @Override
     public IComplexNDArray divi(INDArray other, INDArray result) {
-        IComplexNDArray cOther = (IComplexNDArray) other;
-        IComplexNDArray cResult = (IComplexNDArray) result;
-
-        IComplexNDArray linear = linearView();
-        IComplexNDArray cOtherLinear = cOther.linearView();
-        IComplexNDArray cResultLinear = cResult.linearView();
-
         if (other.isScalar())
-            return divi(cOther.getComplex(0), result);
+            return divi(complexScalar(other), result);
 
-
-        IComplexNumber c = Nd4j.createComplexNumber(0, 0);
-        IComplexNumber d = Nd4j.createComplexNumber(0, 0);
-
-        for (int i = 0; i < length; i++)
-            cResultLinear.putScalar(i, linear.getComplex(i, c).divi(cOtherLinear.getComplex(i, d)));
-        return cResult;
+        return ComplexKernels.pairwise(this, other, ComplexKernels.Op.DIV, (IComplexNDArray) result);
     }
 
     /**
@@ -2624,23 +2624,10 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
      */
     @Override
     public IComplexNDArray muli(INDArray other, INDArray result) {
-        IComplexNDArray cOther = (IComplexNDArray) other;
-        IComplexNDArray cResult = (IComplexNDArray) result;
-
-        IComplexNDArray linear = linearView();
-        IComplexNDArray cOtherLinear = cOther.linearView();
-        IComplexNDArray cResultLinear = cResult.linearView();
-
         if (other.isScalar())
-            return muli(cOther.getComplex(0), result);
+            return muli(complexScalar(other), result);
 
-
-        IComplexNumber c = Nd4j.createComplexNumber(0, 0);
-        IComplexNumber d = Nd4j.createComplexNumber(0, 0);
-
-        for (int i = 0; i < length; i++)
-            cResultLinear.putScalar(i, linear.getComplex(i, c).muli(cOtherLinear.getComplex(i, d)));
-        return cResult;
+        return ComplexKernels.pairwise(this, other, ComplexKernels.Op.MUL, (IComplexNDArray) result);
     }
 
     /**
@@ -2663,29 +2650,10 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
      */
     @Override
     public IComplexNDArray subi(INDArray other, INDArray result) {
-        IComplexNDArray cOther = (IComplexNDArray) other;
-        IComplexNDArray cResult = (IComplexNDArray) result;
-
         if (other.isScalar())
-            return subi(cOther.getComplex(0), result);
-
+            return subi(complexScalar(other), result);
 
-        if (result == this)
-            Nd4j.getBlasWrapper().axpy(Nd4j.NEG_UNIT, cOther, cResult);
-        else if (result == other) {
-            if (data.dataType() == (DataBuffer.Type.DOUBLE)) {
-                Nd4j.getBlasWrapper().scal(Nd4j.NEG_UNIT.asDouble(), cResult);
-                Nd4j.getBlasWrapper().axpy(Nd4j.UNIT, this, cResult);
-            } else {
-                Nd4j.getBlasWrapper().scal(Nd4j.NEG_UNIT.asFloat(), cResult);
-                Nd4j.getBlasWrapper().axpy(Nd4j.UNIT, this, cResult);
-            }
-
-        } else {
-            Nd4j.getBlasWrapper().copy(this, result);
-            Nd4j.getBlasWrapper().axpy(Nd4j.NEG_UNIT, cOther, cResult);
-        }
-        return cResult;
+        return ComplexKernels.pairwise(this, other, ComplexKernels.Op.SUB, (IComplexNDArray) result);
     }
 
     /**
@@ -2708,33 +2676,13 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
      */
     @Override
     public IComplexNDArray addi(INDArray other, INDArray result) {
-        IComplexNDArray cOther = (IComplexNDArray) other;
-        IComplexNDArray cResult = (IComplexNDArray) result;
-
-        if (cOther.isScalar()) {
-            return cResult.addi(cOther.getComplex(0), result);
-        }
-        if (isScalar()) {
-            return cOther.addi(getComplex(0), result);
-        }
-
-
-        if (result == this) {
-
-            Nd4j.getBlasWrapper().axpy(Nd4j.UNIT, cOther, cResult);
-        } else if (result == other) {
-            Nd4j.getBlasWrapper().axpy(Nd4j.UNIT, this, cResult);
-        } else {
-            INDArray resultLinear = result.linearView();
-            INDArray otherLinear = other.linearView();
-            INDArray linear = linearView();
-            for (int i = 0; i < resultLinear.length(); i++) {
-                resultLinear.putScalar(i, otherLinear.getDouble(i) + linear.getDouble(i));
-            }
+        if (other.isScalar())
+            return addi(complexScalar(other), result);
 
-        }
+        if (isScalar() && other instanceof IComplexNDArray)
+            return ((IComplexNDArray) other).addi(complexScalar(this), result);
 
-        return (IComplexNDArray) result;
+        return ComplexKernels.pairwise(this, other, ComplexKernels.Op.ADD, (IComplexNDArray) result);
     }
 
 
@@ -2745,11 +2693,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray rdivi(IComplexNumber n, INDArray result) {
-        IComplexNDArray cResult = (IComplexNDArray) result;
-        IComplexNDArray cResultLinear = cResult.linearView();
-        for (int i = 0; i < length; i++)
-            cResultLinear.putScalar(i, n.div(getComplex(i)));
-        return cResult;
+        return ComplexKernels.scalar(this, n, ComplexKernels.Op.RDIV, (IComplexNDArray) result);
     }
 
     @Override
@@ -2759,13 +2703,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray rsubi(IComplexNumber n, INDArray result) {
-        IComplexNDArray cResult = (IComplexNDArray) result;
-        IComplexNDArray cResultLinear = cResult.linearView();
-        IComplexNDArray thiLinear = linearView();
-
-        for (int i = 0; i < length; i++)
-            cResultLinear.putScalar(i, n.sub(thiLinear.getComplex(i)));
-        return cResult;
+        return ComplexKernels.scalar(this, n, ComplexKernels.Op.RSUB, (IComplexNDArray) result);
     }
 
     @Override
@@ -2775,12 +2713,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray divi(IComplexNumber n, INDArray result) {
-        IComplexNDArray cResult = (IComplexNDArray) result;
-        IComplexNDArray cResultLinear = cResult.linearView();
-        IComplexNDArray thisLinear = linearView();
-        for (int i = 0; i < length; i++)
-            cResultLinear.putScalar(i, thisLinear.getComplex(i).div(n));
-        return cResult;
+        return ComplexKernels.scalar(this, n, ComplexKernels.Op.DIV, (IComplexNDArray) result);
     }
 
     @Override
@@ -2790,12 +2723,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray muli(IComplexNumber n, INDArray result) {
-        IComplexNDArray cResult = (IComplexNDArray) result;
-        IComplexNDArray cResultLinear = cResult.linearView();
-        IComplexNDArray thiLinear = linearView();
-        for (int i = 0; i < length; i++)
-            cResultLinear.putScalar(i, thiLinear.getComplex(i).mul(n));
-        return cResult;
+        return ComplexKernels.scalar(this, n, ComplexKernels.Op.MUL, (IComplexNDArray) result);
     }
 
     @Override
@@ -2805,13 +2733,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray subi(IComplexNumber n, INDArray result) {
-        IComplexNDArray cResult = (IComplexNDArray) result;
-        IComplexNDArray cResultLinear = cResult.linearView();
-
-        IComplexNDArray linear = linearView();
-        for (int i = 0; i < length; i++)
-            cResultLinear.putScalar(i, linear.getComplex(i).sub(n));
-        return cResult;
+        return ComplexKernels.scalar(this, n, ComplexKernels.Op.SUB, (IComplexNDArray) result);
     }
 
     @Override
@@ -2821,14 +2743,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray addi(IComplexNumber n, INDArray result) {
-        IComplexNDArray linear = linearView();
-        IComplexNDArray cResult = (IComplexNDArray) result.linearView();
-
-        for (int i = 0; i < length(); i++) {
-            cResult.putScalar(i, linear.getComplex(i).add(n));
-        }
-
-        return (IComplexNDArray) result;
+        return ComplexKernels.scalar(this, n, ComplexKernels.Op.ADD, (IComplexNDArray) result);
     }
 
     @Override
@@ -3014,79 +2929,36 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray addi(IComplexNumber n, IComplexNDArray result) {
-        IComplexNDArray linear = linearView();
-        IComplexNDArray cResult = result.linearView();
-        for (int i = 0; i < length(); i++) {
-            cResult.putScalar(i, linear.getComplex(i).addi(n));
-        }
-
-        return result;
-
+        return ComplexKernels.scalar(this, n, ComplexKernels.Op.ADD, result);
     }
 
 
     @Override
     public IComplexNDArray subi(IComplexNumber n, IComplexNDArray result) {
-        IComplexNDArray linear = linearView();
-        IComplexNDArray cResult = result.linearView();
-        for (int i = 0; i < length(); i++) {
-            cResult.putScalar(i, linear.getComplex(i).subi(n));
-        }
-
-        return result;
-
+        return ComplexKernels.scalar(this, n, ComplexKernels.Op.SUB, result);
     }
 
 
     @Override
     public IComplexNDArray muli(IComplexNumber n, IComplexNDArray result) {
-        IComplexNDArray linear = linearView();
-        IComplexNDArray cResult = result.linearView();
-        for (int i = 0; i < length(); i++) {
-            IComplexNumber n3 = linear.getComplex(i);
-            cResult.putScalar(i, n3.mul(n));
-        }
-
-        return result;
-
+        return ComplexKernels.scalar(this, n, ComplexKernels.Op.MUL, result);
     }
 
 
     @Override
     public IComplexNDArray divi(IComplexNumber n, IComplexNDArray result) {
-        IComplexNDArray linear = linearView();
-        IComplexNDArray cResult = result.linearView();
-        for (int i = 0; i < length(); i++) {
-            cResult.putScalar(i, linear.getComplex(i).div(n));
-        }
-
-        return result;
-
+        return ComplexKernels.scalar(this, n, ComplexKernels.Op.DIV, result);
     }
 
 
     @Override
     public IComplexNDArray rsubi(IComplexNumber n, IComplexNDArray result) {
-        IComplexNDArray linear = linearView();
-        IComplexNDArray cResult = result.linearView();
-        for (int i = 0; i < length(); i++) {
-            cResult.putScalar(i, n.sub(linear.getComplex(i)));
-        }
-
-        return result;
-
+        return ComplexKernels.scalar(this, n, ComplexKernels.Op.RSUB, result);
     }
 
     @Override
     public IComplexNDArray rdivi(IComplexNumber n, IComplexNDArray result) {
-        IComplexNDArray linear = linearView();
-        IComplexNDArray cResult = result.linearView();
-        for (int i = 0; i < length(); i++) {
-            cResult.putScalar(i, n.div(linear.getComplex(i)));
-        }
-
-        return result;
-
+        return ComplexKernels.scalar(this, n, ComplexKernels.Op.RDIV, result);
     }
 
 
@@ -3170,7 +3042,10 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
      */
     @Override
     public IComplexNDArray rdivi(INDArray other, INDArray result) {
-        return (IComplexNDArray) other.divi(this, result);
+        if (other.isScalar())
+            return rdivi(complexScalar(other), result);
+
+        return ComplexKernels.pairwise(this, other, ComplexKernels.Op.RDIV, (IComplexNDArray) result);
     }
 
     /**
@@ -3212,7 +3087,10 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
      */
     @Override
     public IComplexNDArray rsubi(INDArray other, INDArray result) {
-        return (IComplexNDArray) other.subi(this, result);
+        if (other.isScalar())
+            return rsubi(complexScalar(other), result);
+
+        return ComplexKernels.pairwise(this, other, ComplexKernels.Op.RSUB, (IComplexNDArray) result);
     }
 
 
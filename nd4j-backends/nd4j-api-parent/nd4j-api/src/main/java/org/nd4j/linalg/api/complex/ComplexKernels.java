@@ -0,0 +1,412 @@
+package org.nd4j.linalg.api.complex;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Element-wise ops and reductions for complex arrays, working directly on interleaved real/imaginary storage.
+ *
+ * No IComplexNumber instances are created per element: operands are read from DataBuffer as pairs of doubles,
+ * and results are written back the same way. Contiguous arrays with matching ordering are walked linearly,
+ * everything else (i.e. strided views) is walked in c order using array strides. Long arrays are split into chunks,
+ * processed in parallel.
+ *
+ * Real arrays are accepted as the second operand, and are treated as complex arrays with zero imaginary part.
+ */
+public class ComplexKernels {
+    // minimal number of elements processed by single task
+    protected static final int CHUNK_LENGTH = 32 * 1024;
+
+    public enum Op {
+        ADD, SUB, MUL, DIV, RSUB, RDIV
+    }
+
+    private ComplexKernels() {}
+
+    /**
+     * This method applies op with complex scalar to every element of x: z = x op scalar
+     *
+     * @param x source array
+     * @param scalar scalar operand
+     * @param op op to apply
+     * @param z result array, can be x itself
+     * @return z
+     */
+    public static IComplexNDArray scalar(@NonNull IComplexNDArray x, @NonNull IComplexNumber scalar, @NonNull Op op,
+                    @NonNull IComplexNDArray z) {
+        return exec(x, null, scalar.realComponent().doubleValue(), scalar.imaginaryComponent().doubleValue(), op, z);
+    }
+
+    /**
+     * This method applies op to pairs of elements: z = x op y
+     *
+     * @param x first operand
+     * @param y second operand, complex or real, same shape as x
+     * @param op op to apply
+     * @param z result array, can be x or y
+     * @return z
+     */
+    public static IComplexNDArray pairwise(@NonNull IComplexNDArray x, @NonNull INDArray y, @NonNull Op op,
+                    @NonNull IComplexNDArray z) {
+        if (!Arrays.equals(x.shape(), y.shape()))
+            throw new IllegalArgumentException("Shapes should match, but got " + Arrays.toString(x.shape()) + " and "
+                            + Arrays.toString(y.shape()));
+
+        return exec(x, y, 0.0, 0.0, op, z);
+    }
+
+    /**
+     * This method returns sum of all elements, as {real, imaginary}
+     */
+    public static double[] sum(@NonNull IComplexNDArray x) {
+        double[][] partials = reduce(x, Reduction.SUM);
+        double[] result = new double[2];
+        for (double[] partial : partials) {
+            result[0] += partial[0];
+            result[1] += partial[1];
+        }
+        return result;
+    }
+
+    /**
+     * This method returns product of all elements, as {real, imaginary}
+     */
+    public static double[] prod(@NonNull IComplexNDArray x) {
+        double[][] partials = reduce(x, Reduction.PROD);
+        double re = 1.0, im = 0.0;
+        for (double[] partial : partials) {
+            double r = re * partial[0] - im * partial[1];
+            im = re * partial[1] + im * partial[0];
+            re = r;
+        }
+        return new double[] {re, im};
+    }
+
+    /**
+     * This method returns sum of absolute values
+     */
+    public static double norm1(@NonNull IComplexNDArray x) {
+        double result = 0.0;
+        for (double[] partial : reduce(x, Reduction.NORM1))
+            result += partial[0];
+        return result;
+    }
+
+    /**
+     * This method returns square root of sum of squared absolute values
+     */
+    public static double norm2(@NonNull IComplexNDArray x) {
+        double result = 0.0;
+        for (double[] partial : reduce(x, Reduction.NORM2))
+            result += partial[0];
+        return Math.sqrt(result);
+    }
+
+    /**
+     * This method returns max absolute value
+     */
+    public static double normmax(@NonNull IComplexNDArray x) {
+        double result = 0.0;
+        for (double[] partial : reduce(x, Reduction.NORMMAX))
+            result = Math.max(result, partial[0]);
+        return result;
+    }
+
+    /**
+     * This method returns absolute values of all elements, as real array of the same shape
+     */
+    public static INDArray abs(@NonNull final IComplexNDArray x) {
+        final INDArray z = Nd4j.create(x.shape(), x.ordering());
+        final INDArray[] operands = new INDArray[] {x, z};
+
+        prepare(x);
+        run(x.length(), new ChunkJob() {
+            @Override
+            public void process(long from, long to, int chunk) {
+                Walker walker = new Walker(operands);
+                walker.seek(from);
+
+                DataBuffer xb = x.data();
+                DataBuffer zb = z.data();
+                for (long i = from; i < to; i++) {
+                    long ox = walker.offsets[0];
+                    zb.put(walker.offsets[1], Math.hypot(xb.getDouble(ox), xb.getDouble(ox + 1)));
+                    walker.next();
+                }
+            }
+        });
+        Nd4j.getAffinityManager().tagLocation(z, AffinityManager.Location.HOST);
+
+        return z;
+    }
+
+    protected static IComplexNDArray exec(final IComplexNDArray x, final INDArray y, final double scalarReal,
+                    final double scalarImag, final Op op, final IComplexNDArray z) {
+        if (!Arrays.equals(x.shape(), z.shape()))
+            throw new IllegalArgumentException("Result shape should match, but got " + Arrays.toString(x.shape())
+                            + " and " + Arrays.toString(z.shape()));
+
+        final INDArray[] operands = y == null ? new INDArray[] {x, z} : new INDArray[] {x, z, y};
+        final boolean complexY = y instanceof IComplexNDArray;
+
+        prepare(x);
+        if (y != null)
+            prepare(y);
+
+        run(x.length(), new ChunkJob() {
+            @Override
+            public void process(long from, long to, int chunk) {
+                Walker walker = new Walker(operands);
+                walker.seek(from);
+
+                DataBuffer xb = x.data();
+                DataBuffer zb = z.data();
+                DataBuffer yb = y == null ? null : y.data();
+
+                double c = scalarReal;
+                double d = scalarImag;
+                for (long i = from; i < to; i++) {
+                    long ox = walker.offsets[0];
+                    long oz = walker.offsets[1];
+                    double a = xb.getDouble(ox);
+                    double b = xb.getDouble(ox + 1);
+
+                    if (yb != null) {
+                        long oy = walker.offsets[2];
+                        c = yb.getDouble(oy);
+                        d = complexY ? yb.getDouble(oy + 1) : 0.0;
+                    }
+
+                    double re, im;
+                    switch (op) {
+                        case ADD:
+                            re = a + c;
+                            im = b + d;
+                            break;
+                        case SUB:
+                            re = a - c;
+                            im = b - d;
+                            break;
+                        case RSUB:
+                            re = c - a;
+                            im = d - b;
+                            break;
+                        case MUL:
+                            re = a * c - b * d;
+                            im = a * d + b * c;
+                            break;
+                        case DIV: {
+                            double denominator = c * c + d * d;
+                            re = (a * c + b * d) / denominator;
+                            im = (b * c - a * d) / denominator;
+                            break;
+                        }
+                        case RDIV: {
+                            double denominator = a * a + b * b;
+                            re = (c * a + d * b) / denominator;
+                            im = (d * a - c * b) / denominator;
+                            break;
+                        }
+                        default:
+                            throw new IllegalStateException("Unknown op: " + op);
+                    }
+
+                    zb.put(oz, re);
+                    zb.put(oz + 1, im);
+                    walker.next();
+                }
+            }
+        });
+        Nd4j.getAffinityManager().tagLocation(z, AffinityManager.Location.HOST);
+
+        return z;
+    }
+
+    protected enum Reduction {
+        SUM, PROD, NORM1, NORM2, NORMMAX
+    }
+
+    /**
+     * Returns per-chunk partial results, {real, imaginary} each. Norms use real part only
+     */
+    protected static double[][] reduce(final IComplexNDArray x, final Reduction reduction) {
+        final INDArray[] operands = new INDArray[] {x};
+        final double[][] partials = new double[numChunks(x.length())][];
+
+        prepare(x);
+        run(x.length(), new ChunkJob() {
+            @Override
+            public void process(long from, long to, int chunk) {
+                Walker walker = new Walker(operands);
+                walker.seek(from);
+
+                DataBuffer xb = x.data();
+                double re = reduction == Reduction.PROD ? 1.0 : 0.0;
+                double im = 0.0;
+                for (long i = from; i < to; i++) {
+                    long ox = walker.offsets[0];
+                    double a = xb.getDouble(ox);
+                    double b = xb.getDouble(ox + 1);
+
+                    switch (reduction) {
+                        case SUM:
+                            re += a;
+                            im += b;
+                            break;
+                        case PROD: {
+                            double r = re * a - im * b;
+                            im = re * b + im * a;
+                            re = r;
+                            break;
+                        }
+                        case NORM1:
+                            re += Math.hypot(a, b);
+                            break;
+                        case NORM2:
+                            re += a * a + b * b;
+                            break;
+                        case NORMMAX:
+                            re = Math.max(re, Math.hypot(a, b));
+                            break;
+                        default:
+                            throw new IllegalStateException("Unknown reduction: " + reduction);
+                    }
+                    walker.next();
+                }
+
+                partials[chunk] = new double[] {re, im};
+            }
+        });
+
+        return partials;
+    }
+
+    protected static void prepare(INDArray array) {
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(array, AffinityManager.Location.HOST);
+    }
+
+    protected static int numChunks(long length) {
+        return (int) Math.max(1, (length + CHUNK_LENGTH - 1) / CHUNK_LENGTH);
+    }
+
+    protected static void run(long length, final ChunkJob job) {
+        int numChunks = numChunks(length);
+        if (numChunks == 1) {
+            job.process(0, length, 0);
+            return;
+        }
+
+        List<RecursiveAction> tasks = new ArrayList<>(numChunks);
+        for (int c = 0; c < numChunks; c++) {
+            final long from = (long) c * CHUNK_LENGTH;
+            final long to = Math.min(length, from + CHUNK_LENGTH);
+            final int chunk = c;
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    job.process(from, to, chunk);
+                }
+            });
+        }
+
+        final List<RecursiveAction> all = tasks;
+        ExecutorServiceProvider.getForkJoinPool().invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(all);
+            }
+        });
+    }
+
+    protected interface ChunkJob {
+        void process(long from, long to, int chunk);
+    }
+
+    /**
+     * Walks elements of several arrays of the same shape in the same logical order, tracking buffer offset of
+     * current element for each array. Offsets are relative to array's own data() buffer, and point to real part
+     * for complex arrays.
+     *
+     * If all arrays are contiguous with the same ordering, offset of i-th element is just i * elementWiseStride.
+     */
+    protected static class Walker {
+        protected final long[] offsets;
+        private final int[] shape;
+        private final int[][] strides;
+        private final long[] linearStrides;
+        private final int[] counter;
+        private final boolean linear;
+
+        protected Walker(INDArray[] arrays) {
+            this.offsets = new long[arrays.length];
+            this.shape = arrays[0].shape();
+            this.strides = new int[arrays.length][];
+            this.linearStrides = new long[arrays.length];
+            this.counter = new int[shape.length];
+
+            boolean linear = true;
+            for (int a = 0; a < arrays.length; a++) {
+                strides[a] = arrays[a].stride();
+                linearStrides[a] = arrays[a].elementWiseStride();
+                if (linearStrides[a] <= 0 || arrays[a].ordering() != arrays[0].ordering())
+                    linear = false;
+            }
+            this.linear = linear;
+        }
+
+        /**
+         * Moves to given element: linear index in common ordering for linear walk, or in c order otherwise
+         */
+        protected void seek(long index) {
+            if (linear) {
+                for (int a = 0; a < offsets.length; a++)
+                    offsets[a] = index * linearStrides[a];
+                return;
+            }
+
+            long remainder = index;
+            for (int d = shape.length - 1; d >= 0; d--) {
+                counter[d] = (int) (remainder % shape[d]);
+                remainder /= shape[d];
+            }
+
+            for (int a = 0; a < offsets.length; a++) {
+                long offset = 0;
+                for (int d = 0; d < shape.length; d++)
+                    offset += (long) counter[d] * strides[a][d];
+                offsets[a] = offset;
+            }
+        }
+
+        protected void next() {
+            if (linear) {
+                for (int a = 0; a < offsets.length; a++)
+                    offsets[a] += linearStrides[a];
+                return;
+            }
+
+            for (int d = shape.length - 1; d >= 0; d--) {
+                if (++counter[d] < shape[d]) {
+                    for (int a = 0; a < offsets.length; a++)
+                        offsets[a] += strides[a][d];
+                    return;
+                }
+
+                counter[d] = 0;
+                for (int a = 0; a < offsets.length; a++)
+                    offsets[a] -= (long) (shape[d] - 1) * strides[a][d];
+            }
+        }
+    }
+}
@@ -33,6 +33,7 @@ import org.nd4j.linalg.api.rng.Random;
 import org.nd4j.linalg.cache.TADManager;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.profiler.LightweightProfiler;
 import org.nd4j.linalg.profiler.OpProfiler;
 import org.nd4j.linalg.util.ArrayUtil;
 import java.util.List;
@@ -429,6 +430,8 @@ public class DefaultOpExecutioner implements OpExecutioner {
             case OPERATIONS:
                 OpProfiler.getInstance().processOpCall(op, tadBuffers);
                 break;
+            case LIGHTWEIGHT:
+                break;
             case DISABLED:
             default:
                 return 0L;
@@ -447,6 +450,8 @@ public class DefaultOpExecutioner implements OpExecutioner {
             case OPERATIONS:
                 OpProfiler.getInstance().processOpCall(op);
                 break;
+            case LIGHTWEIGHT:
+                break;
             case DISABLED:
             default:
                 return 0L;
@@ -467,6 +472,9 @@ public class DefaultOpExecutioner implements OpExecutioner {
             case OPERATIONS:
                 OpProfiler.getInstance().timeOpCall(op, timeStart);
                 break;
+            case LIGHTWEIGHT:
+                LightweightProfiler.getInstance().timeOpCall(op, timeStart);
+                break;
             case NAN_PANIC:
                 OpExecutionerUtil.checkForNaN(op);
                 break;
@@ -43,7 +43,11 @@ public interface OpExecutioner {
     }
 
     enum ProfilingMode {
-        DISABLED, NAN_PANIC, INF_PANIC, ANY_PANIC, OPERATIONS, METHODS, ALL
+        DISABLED, NAN_PANIC, INF_PANIC, ANY_PANIC, OPERATIONS, METHODS, ALL,
+        /**
+         * Op timings only, gathered by {@link org.nd4j.linalg.profiler.LightweightProfiler} without per-op allocations
+         */
+        LIGHTWEIGHT
     }
 
     /**
@@ -0,0 +1,453 @@
+package org.nd4j.linalg.api.rng;
+
+import org.bytedeco.javacpp.Pointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter-based Random implementation, built on Philox4x32-10 (Salmon et al., "Parallel Random Numbers: As Easy as 1, 2, 3").
+ *
+ * Every output block is a pure function of (key, stream, counter): key comes from seed, stream identifies substream,
+ * and counter is just block number within that stream. That gives:
+ * - no locks: scalar calls only bump atomic counter, and each call consumes exactly one block;
+ * - bulk fills reserve range of blocks once, and element i is always produced from block (start + i / valuesPerBlock),
+ *   so arrays are filled in parallel, with results independent of number of threads;
+ * - cheap substreams: {@link #split()} and {@link #split(long)} return generators with the same key and different stream,
+ *   {@link #jump(long)} skips given number of blocks.
+ *
+ * PLEASE NOTE: this implementation has no native state, so it can't be used with RandomOps.
+ */
+public class PhiloxRandom implements Random {
+    private static final int M0 = 0xD2511F53;
+    private static final int M1 = 0xCD9E8D57;
+    private static final int W0 = 0x9E3779B9;
+    private static final int W1 = 0xBB67AE85;
+    private static final int ROUNDS = 10;
+
+    private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+    private static final float FLOAT_UNIT = 1.0f / (1 << 24);
+
+    // minimal number of elements filled by single task
+    protected static final int CHUNK_LENGTH = 64 * 1024;
+
+    protected volatile long seed;
+    protected volatile long stream;
+    protected final AtomicLong counter = new AtomicLong(0);
+    protected final AtomicLong splits = new AtomicLong(0);
+
+    public PhiloxRandom() {
+        this(System.currentTimeMillis());
+    }
+
+    public PhiloxRandom(long seed) {
+        this(seed, 0L);
+    }
+
+    public PhiloxRandom(long seed, long stream) {
+        this.seed = seed;
+        this.stream = stream;
+    }
+
+    /**
+     * This method returns new generator, producing independent substream: same key, next unused stream id
+     */
+    public PhiloxRandom split() {
+        return split(mix(stream + splits.incrementAndGet() * 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * This method returns new generator for given substream of this generator's seed
+     *
+     * @param stream substream id
+     */
+    public PhiloxRandom split(long stream) {
+        return new PhiloxRandom(seed, stream);
+    }
+
+    /**
+     * This method skips given number of blocks. Every scalar call consumes one block
+     *
+     * @param blocks number of blocks to skip
+     */
+    public void jump(long blocks) {
+        if (blocks < 0)
+            throw new IllegalArgumentException("Can't jump backwards");
+
+        counter.addAndGet(blocks);
+    }
+
+    public long getStream() {
+        return stream;
+    }
+
+    public long getCounter() {
+        return counter.get();
+    }
+
+    @Override
+    public void setSeed(int seed) {
+        setSeed((long) seed);
+    }
+
+    @Override
+    public void setSeed(int[] seed) {
+        long value = 0;
+        for (int s : seed)
+            value = mix(value ^ s);
+
+        setSeed(value);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.counter.set(0);
+        this.splits.set(0);
+    }
+
+    @Override
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+        int[] block = new int[4];
+        for (int i = 0; i < bytes.length; i += 16) {
+            generate(seed, stream, counter.getAndIncrement(), block);
+            for (int j = 0; j < 16 && i + j < bytes.length; j++)
+                bytes[i + j] = (byte) (block[j / 4] >>> (8 * (j % 4)));
+        }
+    }
+
+    @Override
+    public int nextInt() {
+        return next()[0];
+    }
+
+    @Override
+    public int nextInt(int n) {
+        if (n <= 0)
+            throw new IllegalArgumentException("Bound should be positive");
+
+        return bounded(next()[0], n);
+    }
+
+    @Override
+    public long nextLong() {
+        int[] block = next();
+        return toLong(block[0], block[1]);
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return next()[0] < 0;
+    }
+
+    @Override
+    public float nextFloat() {
+        return toFloat(next()[0]);
+    }
+
+    @Override
+    public double nextDouble() {
+        int[] block = next();
+        return toDouble(block[0], block[1]);
+    }
+
+    @Override
+    public double nextGaussian() {
+        int[] block = next();
+        return gaussian(block, 0);
+    }
+
+    @Override
+    public INDArray nextGaussian(int[] shape) {
+        return nextGaussian(Nd4j.order(), shape);
+    }
+
+    @Override
+    public INDArray nextGaussian(char order, int[] shape) {
+        return fill(Nd4j.create(shape, order), Kind.GAUSSIAN, 0);
+    }
+
+    @Override
+    public INDArray nextDouble(int[] shape) {
+        return nextDouble(Nd4j.order(), shape);
+    }
+
+    @Override
+    public INDArray nextDouble(char order, int[] shape) {
+        return fill(Nd4j.create(shape, order), Kind.DOUBLE, 0);
+    }
+
+    @Override
+    public INDArray nextFloat(int[] shape) {
+        return nextFloat(Nd4j.order(), shape);
+    }
+
+    @Override
+    public INDArray nextFloat(char order, int[] shape) {
+        return fill(Nd4j.create(shape, order), Kind.FLOAT, 0);
+    }
+
+    @Override
+    public INDArray nextInt(int[] shape) {
+        return fill(Nd4j.create(shape), Kind.INT, 0);
+    }
+
+    @Override
+    public INDArray nextInt(int n, int[] shape) {
+        if (n <= 0)
+            throw new IllegalArgumentException("Bound should be positive");
+
+        return fill(Nd4j.create(shape), Kind.INT, n);
+    }
+
+    /**
+     * This method fills given array with uniform values from [0, 1), in parallel
+     *
+     * @param array array to fill, should be contiguous
+     * @return the same array
+     */
+    public INDArray fillUniform(INDArray array) {
+        return fill(array, Kind.DOUBLE, 0);
+    }
+
+    /**
+     * This method fills given array with values from standard normal distribution, in parallel
+     *
+     * @param array array to fill, should be contiguous
+     * @return the same array
+     */
+    public INDArray fillGaussian(INDArray array) {
+        return fill(array, Kind.GAUSSIAN, 0);
+    }
+
+    /**
+     * This method fills part of given array with uniform values from [0, 1), consuming one block per two values
+     *
+     * @param target array to fill
+     * @param offset first position to fill
+     * @param length number of values
+     */
+    public void nextDoubles(double[] target, int offset, int length) {
+        fill(target, offset, length, Kind.DOUBLE);
+    }
+
+    /**
+     * This method fills part of given array with values from standard normal distribution, consuming one block per two values
+     *
+     * @param target array to fill
+     * @param offset first position to fill
+     * @param length number of values
+     */
+    public void nextGaussians(double[] target, int offset, int length) {
+        fill(target, offset, length, Kind.GAUSSIAN);
+    }
+
+    protected void fill(double[] target, int offset, int length, Kind kind) {
+        int perBlock = kind.valuesPerBlock;
+        long firstBlock = counter.getAndAdd((length + perBlock - 1) / perBlock);
+        int[] block = new int[4];
+        for (int i = 0; i < length; i += perBlock) {
+            generate(seed, stream, firstBlock + i / perBlock, block);
+            int values = Math.min(perBlock, length - i);
+            for (int v = 0; v < values; v++)
+                target[offset + i + v] = value(kind, block, v, 0);
+        }
+    }
+
+    /**
+     * This method returns null: there's no native state
+     */
+    @Override
+    public Pointer getStatePointer() {
+        return null;
+    }
+
+    @Override
+    public DataBuffer getStateBuffer() {
+        return null;
+    }
+
+    @Override
+    public void reSeed() {
+        reSeed(System.currentTimeMillis());
+    }
+
+    @Override
+    public void reSeed(long seed) {
+        setSeed(seed);
+    }
+
+    @Override
+    public void close() throws Exception {
+        //
+    }
+
+    protected enum Kind {
+        DOUBLE(2), FLOAT(4), INT(4), GAUSSIAN(2);
+
+        private final int valuesPerBlock;
+
+        Kind(int valuesPerBlock) {
+            this.valuesPerBlock = valuesPerBlock;
+        }
+    }
+
+    protected INDArray fill(final INDArray array, final Kind kind, final int bound) {
+        if (array.elementWiseStride() != 1 || array.data().length() < array.length())
+            throw new IllegalArgumentException("Only contiguous arrays can be filled");
+
+        final long length = array.length();
+        final int perBlock = kind.valuesPerBlock;
+        final long firstBlock = counter.getAndAdd((length + perBlock - 1) / perBlock);
+        final long key = seed;
+        final long stream = this.stream;
+        final DataBuffer buffer = array.data();
+
+        // chunk boundaries are aligned to blocks, so no block is shared between tasks
+        long chunk = Math.max(perBlock, (CHUNK_LENGTH / perBlock) * perBlock);
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (long from = 0; from < length; from += chunk) {
+            final long start = from;
+            final long end = Math.min(length, from + chunk);
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    int[] block = new int[4];
+                    for (long i = start; i < end; i += perBlock) {
+                        generate(key, stream, firstBlock + i / perBlock, block);
+                        int values = (int) Math.min(perBlock, end - i);
+                        for (int v = 0; v < values; v++)
+                            buffer.put(i + v, value(kind, block, v, bound));
+                    }
+                }
+            });
+        }
+
+        Nd4j.getExecutioner().commit();
+        if (tasks.size() == 1) {
+            tasks.get(0).invoke();
+        } else {
+            final List<RecursiveAction> all = tasks;
+            ExecutorServiceProvider.getForkJoinPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(all);
+                }
+            });
+        }
+        Nd4j.getAffinityManager().tagLocation(array, AffinityManager.Location.HOST);
+
+        return array;
+    }
+
+    protected static double value(Kind kind, int[] block, int index, int bound) {
+        switch (kind) {
+            case DOUBLE:
+                return toDouble(block[2 * index], block[2 * index + 1]);
+            case FLOAT:
+                return toFloat(block[index]);
+            case INT:
+                return bound > 0 ? bounded(block[index], bound) : block[index];
+            case GAUSSIAN:
+                return gaussian(block, index);
+            default:
+                throw new IllegalStateException("Unknown kind: " + kind);
+        }
+    }
+
+    protected int[] next() {
+        int[] block = new int[4];
+        generate(seed, stream, counter.getAndIncrement(), block);
+        return block;
+    }
+
+    /**
+     * Philox4x32-10: counter is (block low, block high, stream low, stream high), key is (seed low, seed high)
+     */
+    protected static void generate(long key, long stream, long blockIndex, int[] out) {
+        int c0 = (int) blockIndex;
+        int c1 = (int) (blockIndex >>> 32);
+        int c2 = (int) stream;
+        int c3 = (int) (stream >>> 32);
+        int k0 = (int) key;
+        int k1 = (int) (key >>> 32);
+
+        for (int r = 0; r < ROUNDS; r++) {
+            if (r > 0) {
+                k0 += W0;
+                k1 += W1;
+            }
+
+            long p0 = (M0 & 0xFFFFFFFFL) * (c0 & 0xFFFFFFFFL);
+            long p1 = (M1 & 0xFFFFFFFFL) * (c2 & 0xFFFFFFFFL);
+
+            int n0 = (int) (p1 >>> 32) ^ c1 ^ k0;
+            int n1 = (int) p1;
+            int n2 = (int) (p0 >>> 32) ^ c3 ^ k1;
+            int n3 = (int) p0;
+
+            c0 = n0;
+            c1 = n1;
+            c2 = n2;
+            c3 = n3;
+        }
+
+        out[0] = c0;
+        out[1] = c1;
+        out[2] = c2;
+        out[3] = c3;
+    }
+
+    protected static long toLong(int low, int high) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    protected static double toDouble(int low, int high) {
+        return (toLong(low, high) >>> 11) * DOUBLE_UNIT;
+    }
+
+    protected static float toFloat(int value) {
+        return (value >>> 8) * FLOAT_UNIT;
+    }
+
+    /**
+     * Multiply-shift mapping into [0, n), bias is below n / 2^32
+     */
+    protected static int bounded(int value, int n) {
+        return (int) (((value & 0xFFFFFFFFL) * n) >>> 32);
+    }
+
+    /**
+     * Box-Muller transform of two uniform doubles taken from the block, index selects sine or cosine branch
+     */
+    protected static double gaussian(int[] block, int index) {
+        // 1 - u keeps logarithm argument within (0, 1]
+        double u1 = 1.0 - toDouble(block[0], block[1]);
+        double u2 = toDouble(block[2], block[3]);
+        double radius = Math.sqrt(-2.0 * Math.log(u1));
+        double angle = 2.0 * Math.PI * u2;
+        return index == 0 ? radius * Math.cos(angle) : radius * Math.sin(angle);
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    protected static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
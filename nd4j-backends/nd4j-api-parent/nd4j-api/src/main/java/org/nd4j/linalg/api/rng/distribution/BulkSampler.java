@@ -0,0 +1,329 @@
+package org.nd4j.linalg.api.rng.distribution;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.rng.PhiloxRandom;
+import org.nd4j.linalg.api.rng.Random;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bulk sampling for distributions, used when Random has no native state, so RandomOps can't be used.
+ *
+ * Output is split into fixed-size chunks, and every chunk is sampled from its own substream:
+ * single seed is drawn from the distribution's Random per call, and chunk c uses counter-based {@link PhiloxRandom}
+ * with that seed and stream c. So chunks are sampled in parallel, and results depend on Random state only,
+ * not on number of threads. Values are generated into heap blocks, and copied into destination buffer.
+ *
+ * Element order is always c order, so results don't depend on array ordering.
+ */
+public class BulkSampler {
+    // number of elements sampled from single substream
+    protected static final int CHUNK_LENGTH = 16 * 1024;
+
+    // binomial distributions with n * min(p, 1 - p) below this value are sampled by inversion, BTPE is used otherwise
+    protected static final double BTPE_THRESHOLD = 30.0;
+
+    private BulkSampler() {}
+
+    /**
+     * This method samples uniform distribution on [lower, upper)
+     */
+    public static INDArray uniform(@NonNull Random random, @NonNull int[] shape, final double lower,
+                    final double upper) {
+        return sample(random, shape, new ChunkSampler() {
+            @Override
+            public void sample(PhiloxRandom rng, long from, double[] out, int length) {
+                rng.nextDoubles(out, 0, length);
+                double range = upper - lower;
+                for (int i = 0; i < length; i++)
+                    out[i] = lower + out[i] * range;
+            }
+        });
+    }
+
+    /**
+     * This method samples normal distribution
+     *
+     * @param random source of randomness
+     * @param shape output shape
+     * @param mean mean, used if means is null
+     * @param standardDeviation standard deviation
+     * @param means optional per-element means, same shape as output
+     */
+    public static INDArray normal(@NonNull Random random, @NonNull int[] shape, final double mean,
+                    final double standardDeviation, INDArray means) {
+        final INDArray meansC = contiguous(means, shape);
+
+        return sample(random, shape, new ChunkSampler() {
+            @Override
+            public void sample(PhiloxRandom rng, long from, double[] out, int length) {
+                rng.nextGaussians(out, 0, length);
+                if (meansC == null) {
+                    for (int i = 0; i < length; i++)
+                        out[i] = out[i] * standardDeviation + mean;
+                } else {
+                    DataBuffer buffer = meansC.data();
+                    for (int i = 0; i < length; i++)
+                        out[i] = out[i] * standardDeviation + buffer.getDouble(from + i);
+                }
+            }
+        });
+    }
+
+    /**
+     * This method samples binomial distribution
+     *
+     * @param random source of randomness
+     * @param shape output shape
+     * @param trials number of trials
+     * @param probability probability of success, used if probabilities is null
+     * @param probabilities optional per-element probabilities, same shape as output
+     */
+    public static INDArray binomial(@NonNull Random random, @NonNull int[] shape, final int trials,
+                    final double probability, INDArray probabilities) {
+        final INDArray probabilitiesC = contiguous(probabilities, shape);
+
+        return sample(random, shape, new ChunkSampler() {
+            @Override
+            public void sample(PhiloxRandom rng, long from, double[] out, int length) {
+                Uniforms uniforms = new Uniforms(rng);
+                DataBuffer buffer = probabilitiesC == null ? null : probabilitiesC.data();
+                for (int i = 0; i < length; i++) {
+                    double p = buffer == null ? probability : buffer.getDouble(from + i);
+                    out[i] = binomial(uniforms, trials, p);
+                }
+            }
+        });
+    }
+
+    protected static INDArray sample(Random random, int[] shape, final ChunkSampler sampler) {
+        final INDArray result = Nd4j.createUninitialized(shape, 'c');
+        final long key = random.nextLong();
+        final long length = result.length();
+        final DataBuffer buffer = result.data();
+
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (long from = 0; from < length; from += CHUNK_LENGTH) {
+            final long start = from;
+            final int chunkLength = (int) Math.min(CHUNK_LENGTH, length - from);
+            final long stream = from / CHUNK_LENGTH;
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    double[] values = new double[chunkLength];
+                    sampler.sample(new PhiloxRandom(key, stream), start, values, chunkLength);
+                    for (int i = 0; i < chunkLength; i++)
+                        buffer.put(start + i, values[i]);
+                }
+            });
+        }
+
+        Nd4j.getExecutioner().commit();
+        if (tasks.size() == 1) {
+            tasks.get(0).invoke();
+        } else {
+            final List<RecursiveAction> all = tasks;
+            ExecutorServiceProvider.getForkJoinPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(all);
+                }
+            });
+        }
+        Nd4j.getAffinityManager().tagLocation(result, AffinityManager.Location.HOST);
+
+        return Nd4j.order() == 'c' ? result : result.dup(Nd4j.order());
+    }
+
+    /**
+     * Returns parameters array with elements in c order, directly addressable by element index
+     */
+    protected static INDArray contiguous(INDArray parameters, int[] shape) {
+        if (parameters == null)
+            return null;
+
+        // same length isn't enough: element i of parameters has to be element i of output in c order
+        if (!Arrays.equals(parameters.shape(), shape))
+            throw new IllegalArgumentException("Parameters shape " + Arrays.toString(parameters.shape())
+                            + " doesn't match output shape " + Arrays.toString(shape));
+
+        INDArray result = parameters.ordering() == 'c' && parameters.elementWiseStride() == 1
+                        && parameters.offset() == parameters.data().offset() ? parameters : parameters.dup('c');
+
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(result, AffinityManager.Location.HOST);
+        return result;
+    }
+
+    /**
+     * Samples binomial distribution: inversion for small mean, BTPE (Kachitvichyanukul and Schmeiser, 1988) otherwise
+     */
+    protected static double binomial(Uniforms uniforms, int n, double p) {
+        if (n <= 0 || p <= 0.0)
+            return 0;
+
+        if (p >= 1.0)
+            return n;
+
+        double r = Math.min(p, 1.0 - p);
+        long y = n * r < BTPE_THRESHOLD ? inversion(uniforms, n, r) : btpe(uniforms, n, r);
+
+        return p > 0.5 ? n - y : y;
+    }
+
+    protected static long inversion(Uniforms uniforms, int n, double r) {
+        double q = 1.0 - r;
+        double qn = Math.exp(n * Math.log(q));
+        double np = n * r;
+        double bound = Math.min(n, np + 10.0 * Math.sqrt(np * q + 1));
+
+        long x = 0;
+        double px = qn;
+        double u = uniforms.next();
+        while (u > px) {
+            x++;
+            if (x > bound) {
+                x = 0;
+                px = qn;
+                u = uniforms.next();
+            } else {
+                u -= px;
+                px = ((n - x + 1) * r * px) / (x * q);
+            }
+        }
+
+        return x;
+    }
+
+    protected static long btpe(Uniforms uniforms, int n, double r) {
+        double q = 1.0 - r;
+        double fm = n * r + r;
+        long m = (long) Math.floor(fm);
+        double p1 = Math.floor(2.195 * Math.sqrt(n * r * q) - 4.6 * q) + 0.5;
+        double xm = m + 0.5;
+        double xl = xm - p1;
+        double xr = xm + p1;
+        double c = 0.134 + 20.5 / (15.3 + m);
+        double a = (fm - xl) / (fm - xl * r);
+        double laml = a * (1.0 + a / 2.0);
+        a = (xr - fm) / (xr * q);
+        double lamr = a * (1.0 + a / 2.0);
+        double p2 = p1 * (1.0 + 2.0 * c);
+        double p3 = p2 + c / laml;
+        double p4 = p3 + c / lamr;
+        double nrq = n * r * q;
+
+        while (true) {
+            double u = uniforms.next() * p4;
+            double v = uniforms.next();
+            long y;
+
+            if (u <= p1) {
+                // triangular region, accepted immediately
+                return (long) Math.floor(xm - p1 * v + u);
+            } else if (u <= p2) {
+                // parallelogram region
+                double x = xl + (u - p1) / c;
+                v = v * c + 1.0 - Math.abs(m - x + 0.5) / p1;
+                if (v > 1.0)
+                    continue;
+                y = (long) Math.floor(x);
+            } else if (u <= p3) {
+                // left exponential tail
+                y = (long) Math.floor(xl + Math.log(v) / laml);
+                if (y < 0)
+                    continue;
+                v = v * (u - p2) * laml;
+            } else {
+                // right exponential tail
+                y = (long) Math.floor(xr - Math.log(v) / lamr);
+                if (y > n)
+                    continue;
+                v = v * (u - p3) * lamr;
+            }
+
+            long k = Math.abs(y - m);
+            if (k <= 20 || k >= nrq / 2.0 - 1) {
+                // explicit evaluation of f(y) / f(m)
+                double s = r / q;
+                double aa = s * (n + 1);
+                double f = 1.0;
+                if (m < y) {
+                    for (long i = m + 1; i <= y; i++)
+                        f *= (aa / i - s);
+                } else if (m > y) {
+                    for (long i = y + 1; i <= m; i++)
+                        f /= (aa / i - s);
+                }
+
+                if (v <= f)
+                    return y;
+                continue;
+            }
+
+            // squeeze using upper and lower bounds on log(f(y))
+            double rho = (k / nrq) * ((k * (k / 3.0 + 0.625) + 0.1666666666666) / nrq + 0.5);
+            double t = -k * k / (2.0 * nrq);
+            double logV = Math.log(v);
+            if (logV < t - rho)
+                return y;
+            if (logV > t + rho)
+                continue;
+
+            double x1 = y + 1;
+            double f1 = m + 1;
+            double z = n + 1 - m;
+            double w = n - y + 1;
+            double x2 = x1 * x1;
+            double f2 = f1 * f1;
+            double z2 = z * z;
+            double w2 = w * w;
+
+            double bound = xm * Math.log(f1 / x1) + (n - m + 0.5) * Math.log(z / w)
+                            + (y - m) * Math.log(w * r / (x1 * q)) + stirling(f1, f2) + stirling(z, z2)
+                            + stirling(x1, x2) + stirling(w, w2);
+
+            if (logV <= bound)
+                return y;
+        }
+    }
+
+    protected static double stirling(double x, double x2) {
+        return (13860. - (462. - (132. - (99. - 140. / x2) / x2) / x2) / x2) / x / 166320.;
+    }
+
+    protected interface ChunkSampler {
+        void sample(PhiloxRandom rng, long from, double[] out, int length);
+    }
+
+    /**
+     * Buffered uniform values, for samplers consuming variable number of uniforms per sample
+     */
+    protected static class Uniforms {
+        private final PhiloxRandom rng;
+        private final double[] buffer = new double[256];
+        private int position = buffer.length;
+
+        protected Uniforms(PhiloxRandom rng) {
+            this.rng = rng;
+        }
+
+        protected double next() {
+            if (position == buffer.length) {
+                rng.nextDoubles(buffer, 0, buffer.length);
+                position = 0;
+            }
+
+            return buffer[position++];
+        }
+    }
+}
@@ -23,17 +23,14 @@ import org.apache.commons.math3.exception.NotPositiveException;
 import org.apache.commons.math3.exception.NumberIsTooLargeException;
 import org.apache.commons.math3.exception.OutOfRangeException;
 import org.apache.commons.math3.exception.util.LocalizedFormats;
-import org.apache.commons.math3.random.RandomGenerator;
 import org.apache.commons.math3.special.Beta;
 import org.apache.commons.math3.util.FastMath;
-import org.nd4j.linalg.api.iter.NdIndexIterator;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.rng.Random;
 import org.nd4j.linalg.api.rng.distribution.BaseDistribution;
+import org.nd4j.linalg.api.rng.distribution.BulkSampler;
 import org.nd4j.linalg.factory.Nd4j;
 
-import java.util.Iterator;
-
 /**
  * Base distribution derived from apache commons math
  * http://commons.apache.org/proper/commons-math/
@@ -263,28 +260,7 @@ public class BinomialDistribution extends BaseDistribution {
                                                 probabilityOfSuccess), random);
             }
         } else {
-            INDArray ret = Nd4j.createUninitialized(shape, Nd4j.order());
-            Iterator<int[]> idxIter = new NdIndexIterator(shape); //For consistent values irrespective of c vs. fortran ordering
-            int len = ret.length();
-            if (p != null) {
-                for (int i = 0; i < len; i++) {
-                    int[] idx = idxIter.next();
-                    org.apache.commons.math3.distribution.BinomialDistribution binomialDistribution =
-                                    new org.apache.commons.math3.distribution.BinomialDistribution(
-                                                    (RandomGenerator) Nd4j.getRandom(), numberOfTrials,
-                                                    p.getDouble(idx));
-                    ret.putScalar(idx, binomialDistribution.sample());
-                }
-            } else {
-                org.apache.commons.math3.distribution.BinomialDistribution binomialDistribution =
-                                new org.apache.commons.math3.distribution.BinomialDistribution(
-                                                (RandomGenerator) Nd4j.getRandom(), numberOfTrials,
-                                                probabilityOfSuccess);
-                for (int i = 0; i < len; i++) {
-                    ret.putScalar(idxIter.next(), binomialDistribution.sample());
-                }
-            }
-            return ret;
+            return BulkSampler.binomial(random, shape, numberOfTrials, probabilityOfSuccess, p);
         }
 
     }
@@ -25,15 +25,13 @@ import org.apache.commons.math3.exception.OutOfRangeException;
 import org.apache.commons.math3.exception.util.LocalizedFormats;
 import org.apache.commons.math3.special.Erf;
 import org.apache.commons.math3.util.FastMath;
-import org.nd4j.linalg.api.iter.NdIndexIterator;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.random.impl.GaussianDistribution;
 import org.nd4j.linalg.api.rng.Random;
 import org.nd4j.linalg.api.rng.distribution.BaseDistribution;
+import org.nd4j.linalg.api.rng.distribution.BulkSampler;
 import org.nd4j.linalg.factory.Nd4j;
 
-import java.util.Iterator;
-
 /**
  * Base distribution derived from apache commons math
  * http://commons.apache.org/proper/commons-math/
@@ -338,20 +336,7 @@ public class NormalDistribution extends BaseDistribution {
                                 Nd4j.createUninitialized(shape, Nd4j.order()), mean, standardDeviation), random);
             }
         } else {
-            INDArray ret = Nd4j.createUninitialized(shape, Nd4j.order());
-            Iterator<int[]> idxIter = new NdIndexIterator(shape); //For consistent values irrespective of c vs. fortran ordering
-            int len = ret.length();
-            if (means != null) {
-                for (int i = 0; i < len; i++) {
-                    int[] idx = idxIter.next();
-                    ret.putScalar(idx, standardDeviation * random.nextGaussian() + means.getDouble(idx));
-                }
-            } else {
-                for (int i = 0; i < len; i++) {
-                    ret.putScalar(idxIter.next(), standardDeviation * random.nextGaussian() + mean);
-                }
-            }
-            return ret;
+            return BulkSampler.normal(random, shape, mean, standardDeviation, means);
         }
     }
 }
@@ -22,13 +22,11 @@ package org.nd4j.linalg.api.rng.distribution.impl;
 import org.apache.commons.math3.exception.NumberIsTooLargeException;
 import org.apache.commons.math3.exception.OutOfRangeException;
 import org.apache.commons.math3.exception.util.LocalizedFormats;
-import org.nd4j.linalg.api.iter.NdIndexIterator;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.rng.distribution.BaseDistribution;
+import org.nd4j.linalg.api.rng.distribution.BulkSampler;
 import org.nd4j.linalg.factory.Nd4j;
 
-import java.util.Iterator;
-
 /**
  * Base distribution derived from apache commons math
  * http://commons.apache.org/proper/commons-math/
@@ -196,13 +194,7 @@ public class UniformDistribution extends BaseDistribution {
             return Nd4j.getExecutioner().exec(new org.nd4j.linalg.api.ops.random.impl.UniformDistribution(
                             Nd4j.createUninitialized(shape, Nd4j.order()), lower, upper), random);
         } else {
-            INDArray ret = Nd4j.createUninitialized(shape, Nd4j.order());
-            Iterator<int[]> idxIter = new NdIndexIterator(shape); //For consistent values irrespective of c vs. fortran ordering
-            int len = ret.length();
-            for (int i = 0; i < len; i++) {
-                ret.putScalar(idxIter.next(), sample());
-            }
-            return ret;
+            return BulkSampler.uniform(random, shape, lower, upper);
         }
     }
 }
@@ -1,103 +1,709 @@
 package org.nd4j.linalg.dataset;
 
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.DataSetUtil;
 import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.dataset.api.preprocessor.DataNormalization;
+import org.nd4j.linalg.factory.Nd4j;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
 
 /**
  * Auto balance mini batches by label.
+ *
+ * Examples are bucketed by label (argmax of 2D labels) on a background thread: rows of each incoming DataSet are
+ * gathered per label in bulk, and kept in memory as label chunks. Once chunks take more than memoryBudget bytes,
+ * they're spilled to disk, into append-only segment files under rootDir, using {@link ExternalDataSetShuffler}
+ * partition layout.
+ *
+ * Meanwhile, {@link #iterator()} assembles balanced minibatches on demand: every minibatch is filled in rounds,
+ * taking one example of every label that still has examples left, until it has at least miniBatchSize examples.
+ * Rows are copied from label chunks straight into minibatch arrays.
+ *
+ * {@link #balance()} writes the same minibatches into rootSaveDir, readable by {@link ExistingMiniBatchDataSetIterator}.
+ *
  * @author Adam Gibson
  */
+@Slf4j
 @AllArgsConstructor
 @Builder
 @Data
 public class BalanceMinibatches {
+    protected static final long DEFAULT_MEMORY_BUDGET = 256L * 1024L * 1024L;
+
     private DataSetIterator dataSetIterator;
     private int numLabels;
-    private Map<Integer, List<File>> paths = Maps.newHashMap();
+
+    /**
+     * Minimal number of examples per minibatch. If not set, it's inferred from the first DataSet of the iterator
+     */
     private int miniBatchSize = -1;
+
+    /**
+     * Directory for label segment files. Segments are removed once consumed
+     */
     private File rootDir = new File("minibatches");
     private File rootSaveDir = new File("minibatchessave");
-    private List<File> labelRootDirs = new ArrayList<>();
     private DataNormalization dataNormalization;
 
+    /**
+     * Approximate number of bytes of label chunks kept in memory, before they're spilled to disk
+     */
+    private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+
+    public static class BalanceMinibatchesBuilder {
+        private int miniBatchSize = -1;
+        private File rootDir = new File("minibatches");
+        private File rootSaveDir = new File("minibatchessave");
+        private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+    }
+
     /**
      * Generate a balanced
      * dataset minibatch fileset.
      */
     public void balance() {
-        if (!rootDir.exists())
-            rootDir.mkdirs();
         if (!rootSaveDir.exists())
             rootSaveDir.mkdirs();
 
-        if (paths == null)
-            paths = Maps.newHashMap();
-        if (labelRootDirs == null)
-            labelRootDirs = Lists.newArrayList();
-
-        for (int i = 0; i < numLabels; i++) {
-            paths.put(i, new ArrayList<File>());
-            labelRootDirs.add(new File(rootDir, String.valueOf(i)));
-        }
-
-
-        //lay out each example in their respective label directories tracking the paths along the way
-        while (dataSetIterator.hasNext()) {
-            DataSet next = dataSetIterator.next();
-            //infer minibatch size from iterator
-            if (miniBatchSize < 0)
-                miniBatchSize = next.numExamples();
-            for (int i = 0; i < next.numExamples(); i++) {
-                DataSet currExample = next.get(i);
-                if (!labelRootDirs.get(currExample.outcome()).exists())
-                    labelRootDirs.get(currExample.outcome()).mkdirs();
-
-                //individual example will be saved to: labelrootdir/examples.size()
-                File example = new File(labelRootDirs.get(currExample.outcome()),
-                                String.valueOf(paths.get(currExample.outcome()).size()));
-                currExample.save(example);
-                paths.get(currExample.outcome()).add(example);
-            }
-        }
-
-        int numsSaved = 0;
-        //loop till all file paths have been removed
-        while (!paths.isEmpty()) {
-            List<DataSet> miniBatch = new ArrayList<>();
-            while (miniBatch.size() < miniBatchSize && !paths.isEmpty()) {
-                for (int i = 0; i < numLabels; i++) {
-                    if (paths.get(i) != null && !paths.get(i).isEmpty()) {
-                        DataSet d = new DataSet();
-                        d.load(paths.get(i).remove(0));
-                        miniBatch.add(d);
-                    } else
-                        paths.remove(i);
+        BalancedIterator iterator = iterator();
+        try {
+            //save with an incremental count of the number of minibatches saved
+            int numsSaved = 0;
+            while (iterator.hasNext())
+                iterator.next().save(new File(rootSaveDir, String.format(ExistingMiniBatchDataSetIterator.DEFAULT_PATTERN, numsSaved++)));
+        } finally {
+            iterator.close();
+        }
+    }
+
+    /**
+     * This method returns iterator over balanced minibatches. Bucketing of source iterator starts immediately,
+     * in background thread. Background thread and segment files are released once all minibatches are consumed;
+     * call {@link BalancedIterator#close()} if iteration is abandoned earlier
+     */
+    public BalancedIterator iterator() {
+        if (dataSetIterator == null)
+            throw new IllegalStateException("DataSetIterator wasn't set");
+
+        if (numLabels < 1)
+            throw new IllegalStateException("Number of labels should be positive value");
+
+        return new BalancedIterator();
+    }
+
+    public class BalancedIterator implements DataSetIterator, Closeable {
+        private Pass pass;
+        private int cursor;
+        private DataSetPreProcessor preProcessor;
+
+        protected BalancedIterator() {
+            pass = new Pass();
+            pass.start();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pass.hasNext();
+        }
+
+        @Override
+        public DataSet next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            DataSet next = pass.next();
+            cursor += next.numExamples();
+
+            if (dataNormalization != null)
+                dataNormalization.transform(next);
+
+            if (preProcessor != null)
+                preProcessor.preProcess(next);
+
+            return next;
+        }
+
+        @Override
+        public DataSet next(int num) {
+            throw new UnsupportedOperationException("Minibatch size is defined by BalanceMinibatches");
+        }
+
+        @Override
+        public int totalExamples() {
+            return dataSetIterator.totalExamples();
+        }
+
+        @Override
+        public int inputColumns() {
+            return dataSetIterator.inputColumns();
+        }
+
+        @Override
+        public int totalOutcomes() {
+            return dataSetIterator.totalOutcomes();
+        }
+
+        @Override
+        public boolean resetSupported() {
+            return dataSetIterator.resetSupported();
+        }
+
+        @Override
+        public boolean asyncSupported() {
+            // bucketing is already done in background
+            return false;
+        }
+
+        @Override
+        public void reset() {
+            pass.close();
+            dataSetIterator.reset();
+
+            cursor = 0;
+            pass = new Pass();
+            pass.start();
+        }
+
+        /**
+         * Minimal number of examples per minibatch. If it's inferred from the source iterator, this method
+         * waits for the first DataSet
+         */
+        @Override
+        public int batch() {
+            return pass.batchSize();
+        }
+
+        @Override
+        public int cursor() {
+            return cursor;
+        }
+
+        @Override
+        public int numExamples() {
+            return dataSetIterator.numExamples();
+        }
+
+        @Override
+        public void setPreProcessor(DataSetPreProcessor preProcessor) {
+            this.preProcessor = preProcessor;
+        }
+
+        @Override
+        public DataSetPreProcessor getPreProcessor() {
+            return preProcessor;
+        }
+
+        @Override
+        public List<String> getLabels() {
+            return dataSetIterator.getLabels();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * This method stops bucketing of the source iterator, and removes segment files left
+         */
+        @Override
+        public void close() {
+            pass.close();
+        }
+    }
+
+    /**
+     * Single pass over source iterator: bucketing on background thread, and minibatch assembly on consumer thread.
+     * Everything except consumer-side reading state of buckets is guarded by this.
+     */
+    protected class Pass implements Runnable {
+        private final File directory;
+        private final Bucket[] buckets;
+        private final boolean[] exhausted;
+        private int batchSize;
+        private long buffered;
+        private int numSegments;
+        private boolean complete;
+        private Throwable error;
+        private volatile boolean running = true;
+        private Thread thread;
+
+        protected Pass() {
+            directory = new File(rootDir, "balance-" + UUID.randomUUID().toString());
+            buckets = new Bucket[numLabels];
+            for (int i = 0; i < numLabels; i++)
+                buckets[i] = new Bucket();
+
+            exhausted = new boolean[numLabels];
+            batchSize = miniBatchSize;
+        }
+
+        protected void start() {
+            thread = new Thread(this, "BalanceMinibatches-bucketing");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running && dataSetIterator.hasNext())
+                    bucket(dataSetIterator.next());
+            } catch (Throwable t) {
+                synchronized (this) {
+                    error = t;
+                }
+            } finally {
+                synchronized (this) {
+                    complete = true;
+                    notifyAll();
                 }
             }
+        }
 
-            if (!rootSaveDir.exists())
-                rootSaveDir.mkdirs();
-            //save with an incremental count of the number of minibatches saved
-            if (!miniBatch.isEmpty()) {
-                DataSet merge = DataSet.merge(miniBatch);
-                if (dataNormalization != null)
-                    dataNormalization.transform(merge);
-                merge.save(new File(rootSaveDir, String.format("dataset-%d.bin", numsSaved++)));
+        protected void bucket(DataSet dataSet) throws IOException {
+            int examples = dataSet.numExamples();
+            if (examples == 0)
+                return;
+
+            INDArray labels = dataSet.getLabels();
+            if (labels == null || labels.rank() != 2)
+                throw new IllegalStateException("BalanceMinibatches requires 2D labels");
+
+            INDArray outcomes = Nd4j.argMax(labels, 1);
+            int[] assignment = new int[examples];
+            int[] counts = new int[numLabels];
+            for (int i = 0; i < examples; i++) {
+                assignment[i] = (int) outcomes.getDouble(i);
+                if (assignment[i] >= numLabels)
+                    throw new IllegalStateException("Found label " + assignment[i] + ", but number of labels is " + numLabels);
+
+                counts[assignment[i]]++;
+            }
+
+            int[][] indexes = new int[numLabels][];
+            for (int l = 0; l < numLabels; l++)
+                indexes[l] = new int[counts[l]];
+
+            int[] positions = new int[numLabels];
+            for (int i = 0; i < examples; i++)
+                indexes[assignment[i]][positions[assignment[i]]++] = i;
+
+            for (int l = 0; l < numLabels; l++) {
+                if (counts[l] == 0)
+                    continue;
+
+                DataSet chunk = ExternalDataSetShuffler.select(dataSet, indexes[l]);
+                Segment segment = new Segment(chunk, counts[l], ExternalDataSetShuffler.bytesOf(chunk));
+
+                synchronized (this) {
+                    buckets[l].queue.addLast(segment);
+                    buckets[l].available += counts[l];
+                    buffered += segment.bytes;
+                    notifyAll();
+                }
             }
 
+            boolean overflow;
+            synchronized (this) {
+                // minibatch size is inferred from the first DataSet
+                if (batchSize < 0) {
+                    batchSize = examples;
+                    notifyAll();
+                }
+
+                overflow = buffered > memoryBudget;
+            }
 
+            if (overflow)
+                spill();
         }
 
+        /**
+         * This method moves in-memory chunks of every label into new segment file
+         */
+        protected void spill() throws IOException {
+            List<Segment> spilled = new ArrayList<>();
+            synchronized (this) {
+                for (int l = 0; l < numLabels; l++) {
+                    LinkedList<Segment> queue = buckets[l].queue;
+
+                    // in-memory segments are always at the tail of the queue
+                    LinkedList<DataSet> chunks = new LinkedList<>();
+                    int examples = 0;
+                    long bytes = 0;
+                    while (!queue.isEmpty() && queue.getLast().file == null) {
+                        Segment segment = queue.removeLast();
+                        chunks.addAll(0, segment.chunks);
+                        examples += segment.examples;
+                        bytes += segment.bytes;
+                    }
+
+                    if (chunks.isEmpty())
+                        continue;
+
+                    // chunks are kept until segment is written, so it can be consumed right away
+                    Segment segment = new Segment(chunks, examples, bytes,
+                                    new File(directory, "label-" + l + "-segment-" + (numSegments++) + ".bin"));
+                    queue.addLast(segment);
+                    spilled.add(segment);
+                }
+            }
+
+            if (!directory.exists() && !directory.mkdirs())
+                throw new IllegalStateException("Unable to create directory [" + directory.getAbsolutePath() + "]");
+
+            for (Segment segment : spilled) {
+                try (FileOutputStream fos = new FileOutputStream(segment.file); FileChannel channel = fos.getChannel()) {
+                    for (DataSet chunk : segment.chunks)
+                        ExternalDataSetShuffler.append(chunk, channel);
+                }
+
+                synchronized (this) {
+                    segment.chunks = null;
+                    buffered -= segment.bytes;
+
+                    if (segment.consumed)
+                        segment.file.delete();
+                }
+            }
+        }
+
+        protected synchronized int batchSize() {
+            while (batchSize < 0 && !complete)
+                await();
+
+            return batchSize;
+        }
+
+        protected boolean hasNext() {
+            synchronized (this) {
+                while (!complete && available() == 0)
+                    await();
+
+                checkError();
+                if (available() > 0)
+                    return true;
+            }
+
+            // everything is consumed
+            close();
+            return false;
+        }
+
+        protected DataSet next() {
+            int[] plan;
+            int size = 0;
+            int[] taken = new int[numLabels];
+
+            synchronized (this) {
+                while (batchSize < 0 && !complete)
+                    await();
+
+                checkError();
+
+                // rounds over labels that still have examples, until minibatch is full
+                plan = new int[Math.max(batchSize, 1) + numLabels];
+                boolean progress = true;
+                while (size < batchSize && progress) {
+                    progress = false;
+                    for (int l = 0; l < numLabels; l++) {
+                        if (exhausted[l])
+                            continue;
+
+                        while (buckets[l].available == 0 && !complete)
+                            await();
+
+                        checkError();
+
+                        if (buckets[l].available > 0) {
+                            buckets[l].available--;
+                            taken[l]++;
+                            plan[size++] = l;
+                            progress = true;
+                        } else {
+                            exhausted[l] = true;
+                        }
+                    }
+                }
+            }
+
+            try {
+                List<List<Piece>> pieces = new ArrayList<>(numLabels);
+                for (int l = 0; l < numLabels; l++)
+                    pieces.add(pull(l, taken[l]));
+
+                return assemble(Arrays.copyOf(plan, size), taken, pieces);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        /**
+         * This method takes given number of examples from the head of label queue
+         */
+        protected List<Piece> pull(int label, int count) throws IOException {
+            Bucket bucket = buckets[label];
+            List<Piece> pieces = new ArrayList<>();
+
+            while (count > 0) {
+                if (bucket.chunk != null && bucket.position < bucket.chunk.numExamples()) {
+                    int length = Math.min(count, bucket.chunk.numExamples() - bucket.position);
+                    pieces.add(new Piece(bucket.chunk, bucket.position, length));
+                    bucket.position += length;
+                    count -= length;
+                    continue;
+                }
+
+                if (bucket.chunks != null && bucket.chunks.hasNext()) {
+                    bucket.chunk = bucket.chunks.next();
+                    bucket.position = 0;
+                    continue;
+                }
+
+                bucket.closeReader();
+
+                // examples were counted as available, so queue can't be empty here
+                Segment segment;
+                List<DataSet> chunks;
+                synchronized (this) {
+                    segment = bucket.queue.removeFirst();
+                    segment.consumed = true;
+                    chunks = segment.chunks;
+
+                    if (segment.file == null)
+                        buffered -= segment.bytes;
+                }
+
+                if (chunks != null) {
+                    bucket.chunks = chunks.iterator();
+                } else {
+                    bucket.reader = new ExternalDataSetShuffler.PartitionReader(segment.file);
+                    bucket.readerFile = segment.file;
+                    bucket.chunks = bucket.reader;
+                }
+            }
+
+            return pieces;
+        }
+
+        protected DataSet assemble(int[] plan, int[] taken, List<List<Piece>> pieces) {
+            if (plan.length == 0)
+                return new DataSet();
+
+            // target positions of every label within minibatch
+            int[][] positions = new int[numLabels][];
+            int[] filled = new int[numLabels];
+            for (int l = 0; l < numLabels; l++)
+                positions[l] = new int[taken[l]];
+            for (int p = 0; p < plan.length; p++)
+                positions[plan[p]][filled[plan[p]]++] = p;
+
+            INDArray[] reference = null;
+            boolean uniform = true;
+            for (List<Piece> list : pieces) {
+                for (Piece piece : list) {
+                    INDArray[] arrays = ExternalDataSetShuffler.arraysOf(piece.chunk);
+                    if (reference == null)
+                        reference = arrays;
+                    else
+                        uniform &= sameExampleShape(reference, arrays);
+                }
+            }
+
+            if (!uniform)
+                return merge(plan, pieces);
+
+            INDArray[] result = new INDArray[reference.length];
+            for (int a = 0; a < reference.length; a++) {
+                if (reference[a] == null)
+                    continue;
+
+                int[] shape = reference[a].shape().clone();
+                shape[0] = plan.length;
+                result[a] = Nd4j.createUninitialized(shape, 'c');
+            }
+
+            for (int l = 0; l < numLabels; l++) {
+                int offset = 0;
+                for (Piece piece : pieces.get(l)) {
+                    int[] from = new int[piece.length];
+                    for (int i = 0; i < piece.length; i++)
+                        from[i] = piece.start + i;
+
+                    int[] to = Arrays.copyOfRange(positions[l], offset, offset + piece.length);
+                    offset += piece.length;
+
+                    INDArray[] arrays = ExternalDataSetShuffler.arraysOf(piece.chunk);
+                    for (int a = 0; a < arrays.length; a++)
+                        if (arrays[a] != null)
+                            DataSetUtil.copyExamples(arrays[a], from, result[a], to);
+                }
+            }
+
+            // labels are null here only if they're the same array as features
+            return new DataSet(result[0], result[1] == null ? result[0] : result[1], result[2], result[3]);
+        }
+
+        /**
+         * Fallback for examples of different shapes, i.e. time series of different length
+         */
+        protected DataSet merge(int[] plan, List<List<Piece>> pieces) {
+            List<List<DataSet>> examples = new ArrayList<>(numLabels);
+            for (List<Piece> list : pieces) {
+                List<DataSet> single = new ArrayList<>();
+                for (Piece piece : list)
+                    for (int i = 0; i < piece.length; i++)
+                        single.add((DataSet) piece.chunk.getRange(piece.start + i, piece.start + i + 1));
+                examples.add(single);
+            }
+
+            int[] next = new int[numLabels];
+            List<DataSet> ordered = new ArrayList<>(plan.length);
+            for (int label : plan)
+                ordered.add(examples.get(label).get(next[label]++));
+
+            return DataSet.merge(ordered);
+        }
+
+        protected boolean sameExampleShape(INDArray[] first, INDArray[] second) {
+            for (int a = 0; a < first.length; a++) {
+                if ((first[a] == null) != (second[a] == null))
+                    return false;
+
+                if (first[a] != null && !Arrays.equals(Arrays.copyOfRange(first[a].shape(), 1, first[a].rank()),
+                                Arrays.copyOfRange(second[a].shape(), 1, second[a].rank())))
+                    return false;
+            }
+
+            return true;
+        }
+
+        protected int available() {
+            int available = 0;
+            for (Bucket bucket : buckets)
+                available += bucket.available;
+
+            return available;
+        }
+
+        protected void await() {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+
+        protected void checkError() {
+            if (error != null)
+                throw new RuntimeException("Bucketing of DataSetIterator failed", error);
+        }
+
+        /**
+         * This method stops bucketing, and removes remaining segment files
+         */
+        protected void close() {
+            running = false;
+            try {
+                if (thread != null)
+                    thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+
+            for (Bucket bucket : buckets) {
+                try {
+                    bucket.closeReader();
+                } catch (IOException e) {
+                    log.warn("Unable to close segment reader", e);
+                }
+            }
+
+            try {
+                FileUtils.deleteDirectory(directory);
+            } catch (IOException e) {
+                log.warn("Unable to remove directory [{}]", directory.getAbsolutePath(), e);
+            }
+        }
+    }
+
+    /**
+     * Sequence of label chunks, either in memory, or in segment file
+     */
+    protected static class Segment {
+        protected final File file;
+        protected final int examples;
+        protected final long bytes;
+
+        // null once segment is written
+        protected List<DataSet> chunks;
+        protected boolean consumed;
+
+        protected Segment(DataSet chunk, int examples, long bytes) {
+            this(new ArrayList<>(Arrays.asList(chunk)), examples, bytes, null);
+        }
+
+        protected Segment(List<DataSet> chunks, int examples, long bytes, File file) {
+            this.chunks = chunks;
+            this.examples = examples;
+            this.bytes = bytes;
+            this.file = file;
+        }
+    }
+
+    protected static class Bucket {
+        // producer side, guarded by Pass
+        protected final LinkedList<Segment> queue = new LinkedList<>();
+        protected int available;
+
+        // consumer side
+        protected Iterator<DataSet> chunks;
+        protected ExternalDataSetShuffler.PartitionReader reader;
+        protected File readerFile;
+        protected DataSet chunk;
+        protected int position;
+
+        protected void closeReader() throws IOException {
+            if (reader == null)
+                return;
+
+            reader.close();
+            readerFile.delete();
+            reader = null;
+            readerFile = null;
+        }
     }
 
+    protected static class Piece {
+        protected final DataSet chunk;
+        protected final int start;
+        protected final int length;
+
+        protected Piece(DataSet chunk, int start, int length) {
+            this.chunk = chunk;
+            this.start = start;
+            this.length = length;
+        }
+    }
 }
@@ -20,7 +20,6 @@
 package org.nd4j.linalg.dataset;
 
 import com.google.common.base.Function;
-import com.google.common.collect.Lists;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.math3.util.Pair;
 import org.nd4j.linalg.api.ndarray.INDArray;
@@ -642,16 +641,47 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
 
     /**
      * Partitions a dataset in to mini batches where
-     * each dataset in each list is of the specified number of examples
+     * each dataset in each list is of the specified number of examples.
+     *
+     * Mini batches hold copies of the data, so they stay valid if this dataset is changed.
+     * Each array is copied with a single dup() of contiguous range of examples.
      *
      * @param num the number to split by
      * @return the partitioned datasets
      */
     @Override
     public List<DataSet> batchBy(int num) {
-        List<DataSet> batched = Lists.newArrayList();
-        for (List<DataSet> splitBatch : Lists.partition(asList(), num)) {
-            batched.add(DataSet.merge(splitBatch));
+        return batchBy(num, false);
+    }
+
+    /**
+     * Same as {@link #batchBy(int)}, but mini batches are views of this dataset, no data is copied.
+     * Changes to this dataset are visible in the mini batches, and vice versa.
+     *
+     * @param num the number to split by
+     * @return the partitioned datasets
+     */
+    public List<DataSet> batchByViews(int num) {
+        return batchBy(num, true);
+    }
+
+    protected List<DataSet> batchBy(int num, boolean views) {
+        if (num < 1)
+            throw new IllegalArgumentException("Batch size should be positive value");
+
+        int numExamples = numExamples();
+        List<DataSet> batched = new ArrayList<>(numExamples / num + 1);
+        for (int i = 0; i < numExamples; i += num) {
+            int end = Math.min(numExamples, i + num);
+            DataSet batch = (DataSet) getRange(i, end);
+            if (!views)
+                batch = new DataSet(batch.getFeatures().dup(), batch.getLabels().dup(),
+                                batch.getFeaturesMaskArray() == null ? null : batch.getFeaturesMaskArray().dup(),
+                                batch.getLabelsMaskArray() == null ? null : batch.getLabelsMaskArray().dup());
+
+            if (exampleMetaData != null && exampleMetaData.size() >= end)
+                batch.setExampleMetaData(new ArrayList<>(exampleMetaData.subList(i, end)));
+            batched.add(batch);
         }
         return batched;
     }
@@ -726,18 +756,14 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
 
     /**
      * Partitions the data transform by the specified number.
+     * Same as {@link #batchBy(int)}, mini batches hold copies of the data
      *
      * @param num the number to split by
      * @return the partitioned data transform
      */
     @Override
     public List<DataSet> dataSetBatches(int num) {
-        List<List<DataSet>> list = Lists.partition(asList(), num);
-        List<DataSet> ret = new ArrayList<>();
-        for (List<DataSet> l : list)
-            ret.add(DataSet.merge(l));
-        return ret;
-
+        return batchBy(num);
     }
 
     /**
@@ -1108,22 +1134,29 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
      */
     @Override
     public DataSet sample(int numSamples, org.nd4j.linalg.api.rng.Random rng, boolean withReplacement) {
-        INDArray examples = Nd4j.create(numSamples, getFeatures().columns());
-        INDArray outcomes = Nd4j.create(numSamples, numOutcomes());
+        int numExamples = numExamples();
+        if (!withReplacement && numSamples > numExamples)
+            throw new IllegalArgumentException("Can't sample " + numSamples + " examples without replacement out of "
+                            + numExamples + " examples");
+
+        int[] picked = new int[numSamples];
         Set<Integer> added = new HashSet<>();
         for (int i = 0; i < numSamples; i++) {
-            int picked = rng.nextInt(numExamples());
-            if (!withReplacement)
-                while (added.contains(picked))
-                    picked = rng.nextInt(numExamples());
-
-
-            examples.putRow(i, get(picked).getFeatures());
-            outcomes.putRow(i, get(picked).getLabels());
+            int example = rng.nextInt(numExamples);
+            if (!withReplacement) {
+                while (added.contains(example))
+                    example = rng.nextInt(numExamples);
+                added.add(example);
+            }
 
+            picked[i] = example;
         }
-        return new DataSet(examples, outcomes);
 
+        // all picked examples are gathered at once, without intermediate per-example DataSets
+        return new DataSet(DataSetUtil.gatherExamples(getFeatures(), picked, null),
+                        DataSetUtil.gatherExamples(getLabels(), picked, null),
+                        featuresMask == null ? null : DataSetUtil.gatherExamples(featuresMask, picked, null),
+                        labelsMask == null ? null : DataSetUtil.gatherExamples(labelsMask, picked, null));
     }
 
     @Override
@@ -0,0 +1,485 @@
+package org.nd4j.linalg.dataset;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.DataSetUtil;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+import org.nd4j.serde.binary.BinarySerde;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Out-of-core shuffle for DataSets that don't fit into memory.
+ *
+ * Shuffle is done in two passes:
+ * 1) Scatter: every example of the source iterator is sent to random partition. Partitions are buffered in memory,
+ *    and once buffers take half of memory budget, they are appended to partition files on disk in parallel,
+ *    using raw {@link BinarySerde} layout. Next buffer is filled while previous one is being written.
+ * 2) Gather: partitions are loaded one by one, shuffled in memory, and re-batched into minibatch files via
+ *    {@link MiniBatchFileWriter}. Partitions exceeding half of memory budget are scattered again, recursively.
+ *
+ * Result is directory of minibatches readable by {@link ExistingMiniBatchDataSetIterator}.
+ * All minibatches, except the last one, have exactly batchSize examples.
+ *
+ * PLEASE NOTE: example metadata and label names aren't preserved
+ */
+@Slf4j
+@Builder
+public class ExternalDataSetShuffler {
+    // oversized partitions are split recursively, but only up to this depth
+    protected static final int MAX_DEPTH = 8;
+
+    private static final byte FEATURES = 1;
+    private static final byte LABELS = 1 << 1;
+    private static final byte LABELS_SAME_AS_FEATURES = 1 << 2;
+    private static final byte FEATURES_MASK = 1 << 3;
+    private static final byte LABELS_MASK = 1 << 4;
+    private static final byte[] BITS = new byte[] {FEATURES, LABELS, FEATURES_MASK, LABELS_MASK};
+
+    /**
+     * Directory for resulting minibatches. Should be empty, or not exist yet
+     */
+    @Getter protected File outputDirectory;
+
+    /**
+     * Directory for partition files. If not set, random directory within java.io.tmpdir is used.
+     * Directory is removed once shuffle is finished.
+     */
+    @Getter protected File tempDirectory;
+
+    @Getter protected int batchSize;
+
+    /**
+     * Number of partitions used on the first pass
+     */
+    @Getter protected int numPartitions;
+
+    /**
+     * Approximate number of bytes to be used for in-memory buffers, in addition to writer buffers
+     */
+    @Getter protected long memoryBudget;
+
+    /**
+     * Number of partitions or minibatches being written at the same time
+     */
+    @Getter protected int numWriters;
+
+    @Getter protected long seed;
+
+    /**
+     * File name pattern of resulting minibatches, used with {@code String.format(pattern, idx)}
+     */
+    @Getter protected String pattern;
+
+    public static class ExternalDataSetShufflerBuilder {
+        private int batchSize = 32;
+        private int numPartitions = 16;
+        private long memoryBudget = 256L * 1024L * 1024L;
+        private int numWriters = Runtime.getRuntime().availableProcessors();
+        private long seed = System.currentTimeMillis();
+        private String pattern = ExistingMiniBatchDataSetIterator.DEFAULT_PATTERN;
+    }
+
+    /**
+     * This method shuffles all examples provided by given iterator, and writes them into output directory as minibatches
+     *
+     * @param source iterator to shuffle. It's consumed once, from its current position
+     * @return iterator over shuffled minibatches
+     */
+    public ExistingMiniBatchDataSetIterator shuffle(@NonNull Iterator<DataSet> source) {
+        if (outputDirectory == null)
+            throw new IllegalStateException("Output directory wasn't set");
+
+        if (numPartitions < 1 || numWriters < 1 || memoryBudget < 2)
+            throw new IllegalStateException("Number of partitions, number of writers and memory budget should be positive values");
+
+        File root = new File(tempDirectory != null ? tempDirectory : new File(System.getProperty("java.io.tmpdir")),
+                        "shuffle-" + UUID.randomUUID().toString());
+        if (!root.mkdirs())
+            throw new IllegalStateException("Unable to create directory [" + root.getAbsolutePath() + "]");
+
+        Random random = new Random(seed);
+        MiniBatchFileWriter writer = new MiniBatchFileWriter(outputDirectory, batchSize, numWriters, pattern);
+        try {
+            List<Partition> partitions = scatter(source, root, numPartitions, random);
+            gather(partitions, writer, random, 1);
+            writer.close();
+
+            log.info("Shuffled {} examples into {} minibatches", writer.getNumberOfExamples(), writer.getNumberOfBatches());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            try {
+                FileUtils.deleteDirectory(root);
+            } catch (IOException e) {
+                log.warn("Unable to remove directory [{}]", root.getAbsolutePath(), e);
+            }
+        }
+
+        return new ExistingMiniBatchDataSetIterator(outputDirectory, pattern);
+    }
+
+    protected List<Partition> scatter(Iterator<DataSet> source, File directory, int fanout, Random random) throws IOException {
+        if (!directory.exists() && !directory.mkdirs())
+            throw new IllegalStateException("Unable to create directory [" + directory.getAbsolutePath() + "]");
+
+        List<Partition> partitions = new ArrayList<>(fanout);
+        for (int i = 0; i < fanout; i++)
+            partitions.add(new Partition(new File(directory, "partition-" + i + ".bin")));
+
+        long flushThreshold = memoryBudget / 2;
+        long buffered = 0;
+        List<Future<?>> inFlight = new ArrayList<>();
+
+        while (source.hasNext()) {
+            DataSet dataSet = source.next();
+            int examples = dataSet.numExamples();
+            if (examples == 0)
+                continue;
+
+            int[] assignment = new int[examples];
+            int[] counts = new int[fanout];
+            for (int i = 0; i < examples; i++) {
+                assignment[i] = random.nextInt(fanout);
+                counts[assignment[i]]++;
+            }
+
+            int[][] indexes = new int[fanout][];
+            for (int p = 0; p < fanout; p++)
+                indexes[p] = new int[counts[p]];
+
+            int[] positions = new int[fanout];
+            for (int i = 0; i < examples; i++)
+                indexes[assignment[i]][positions[assignment[i]]++] = i;
+
+            for (int p = 0; p < fanout; p++) {
+                if (counts[p] == 0)
+                    continue;
+
+                DataSet chunk = select(dataSet, indexes[p]);
+                partitions.get(p).buffered.add(chunk);
+                buffered += bytesOf(chunk);
+            }
+
+            if (buffered >= flushThreshold) {
+                // previous buffers must be on disk before next ones are appended, to keep partition files consistent
+                waitFor(inFlight);
+                inFlight = flush(partitions);
+                buffered = 0;
+            }
+        }
+
+        waitFor(inFlight);
+        waitFor(flush(partitions));
+
+        return partitions;
+    }
+
+    protected void gather(List<Partition> partitions, MiniBatchFileWriter writer, Random random, int depth) throws IOException {
+        long partitionLimit = memoryBudget / 2;
+
+        for (int p = 0; p < partitions.size(); p++) {
+            Partition partition = partitions.get(p);
+            if (partition.examples == 0)
+                continue;
+
+            if (partition.bytes > partitionLimit && partition.examples > 1 && depth < MAX_DEPTH) {
+                int fanout = (int) Math.min(Math.max(numPartitions, 2), partition.bytes / partitionLimit + 2);
+                File directory = new File(partition.file.getParentFile(), "split-" + depth + "-" + p);
+
+                List<Partition> split;
+                try (PartitionReader reader = new PartitionReader(partition.file)) {
+                    split = scatter(reader, directory, fanout, random);
+                }
+
+                partition.file.delete();
+                gather(split, writer, random, depth + 1);
+                continue;
+            }
+
+            if (partition.bytes > partitionLimit)
+                log.warn("Partition of {} bytes exceeds memory budget, but can't be split any further", partition.bytes);
+
+            List<DataSet> chunks = new ArrayList<>();
+            try (PartitionReader reader = new PartitionReader(partition.file)) {
+                while (reader.hasNext())
+                    chunks.add(reader.next());
+            }
+
+            partition.file.delete();
+
+            DataSet merged = chunks.size() == 1 ? chunks.get(0) : DataSet.merge(chunks);
+            chunks.clear();
+
+            int[] order = new int[merged.numExamples()];
+            for (int i = 0; i < order.length; i++)
+                order[i] = i;
+
+            for (int i = order.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = order[i];
+                order[i] = order[j];
+                order[j] = tmp;
+            }
+
+            writer.write(select(merged, order));
+        }
+    }
+
+    /**
+     * This method schedules writes of all buffered chunks, one task per partition
+     */
+    protected List<Future<?>> flush(List<Partition> partitions) {
+        ExecutorService executor = ExecutorServiceProvider.getExecutorService(ExecutorServiceProvider.IO);
+        final Semaphore writers = new Semaphore(numWriters);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (final Partition partition : partitions) {
+            if (partition.buffered.isEmpty())
+                continue;
+
+            final List<DataSet> chunks = partition.buffered;
+            partition.buffered = new ArrayList<>();
+
+            for (DataSet chunk : chunks) {
+                partition.examples += chunk.numExamples();
+                partition.bytes += bytesOf(chunk);
+            }
+
+            try {
+                writers.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+
+            futures.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try (FileOutputStream fos = new FileOutputStream(partition.file, true);
+                                    FileChannel channel = fos.getChannel()) {
+                        for (DataSet chunk : chunks)
+                            append(chunk, channel);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    } finally {
+                        writers.release();
+                    }
+                }
+            }));
+        }
+
+        return futures;
+    }
+
+    protected void waitFor(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Unable to write partition", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Chunk layout:
+     * 1 byte for present arrays flags
+     * 4 bytes int for serialized length of each present array
+     * {@link BinarySerde} layout of each present array
+     */
+    protected static void append(DataSet chunk, FileChannel channel) throws IOException {
+        INDArray[] arrays = arraysOf(chunk);
+
+        byte flags = 0;
+        int count = 0;
+        for (int i = 0; i < arrays.length; i++) {
+            if (arrays[i] != null) {
+                arrays[i] = BinarySerde.prepare(arrays[i]);
+                flags |= BITS[i];
+                count++;
+            }
+        }
+
+        if (chunk.getLabels() != null && chunk.getLabels() == chunk.getFeatures())
+            flags |= LABELS_SAME_AS_FEATURES;
+
+        ByteBuffer header = ByteBuffer.allocate(1 + count * 4).order(ByteOrder.nativeOrder());
+        header.put(flags);
+        for (INDArray array : arrays)
+            if (array != null)
+                header.putInt(BinarySerde.byteBufferSizeFor(array));
+
+        header.flip();
+        writeFully(header, channel);
+
+        for (INDArray array : arrays) {
+            if (array == null)
+                continue;
+
+            writeFully(BinarySerde.headerFor(array), channel);
+            writeFully(BinarySerde.dataBufferFor(array), channel);
+        }
+    }
+
+    /**
+     * Returns features, labels, features mask and labels mask. Labels are null if they're the same object as features
+     */
+    protected static INDArray[] arraysOf(DataSet dataSet) {
+        INDArray features = dataSet.getFeatures();
+        INDArray labels = dataSet.getLabels();
+
+        return new INDArray[] {features, labels == features ? null : labels, dataSet.getFeaturesMaskArray(),
+                        dataSet.getLabelsMaskArray()};
+    }
+
+    protected static void writeFully(ByteBuffer buffer, FileChannel channel) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    protected static DataSet select(DataSet dataSet, int[] examples) {
+        INDArray features = dataSet.getFeatures();
+        INDArray labels = dataSet.getLabels();
+
+        INDArray f = features == null ? null : DataSetUtil.gatherExamples(features, examples, null);
+        INDArray l = labels == null ? null : labels == features ? f : DataSetUtil.gatherExamples(labels, examples, null);
+        INDArray fm = dataSet.getFeaturesMaskArray() == null ? null
+                        : DataSetUtil.gatherExamples(dataSet.getFeaturesMaskArray(), examples, null);
+        INDArray lm = dataSet.getLabelsMaskArray() == null ? null
+                        : DataSetUtil.gatherExamples(dataSet.getLabelsMaskArray(), examples, null);
+
+        return new DataSet(f, l, fm, lm);
+    }
+
+    protected static long bytesOf(DataSet dataSet) {
+        long bytes = 0;
+        for (INDArray array : arraysOf(dataSet))
+            if (array != null)
+                bytes += array.length() * (long) array.data().getElementSize();
+
+        return bytes;
+    }
+
+    protected static class Partition {
+        protected final File file;
+        protected List<DataSet> buffered = new ArrayList<>();
+
+        // these are updated as buffers get flushed
+        protected long examples;
+        protected long bytes;
+
+        protected Partition(File file) {
+            this.file = file;
+        }
+    }
+
+    /**
+     * Iterator over chunks stored in partition file
+     */
+    protected static class PartitionReader implements Iterator<DataSet>, Closeable {
+        protected final FileInputStream stream;
+        protected final FileChannel channel;
+        protected ByteBuffer buffer;
+
+        protected PartitionReader(File file) throws IOException {
+            this.stream = new FileInputStream(file);
+            this.channel = stream.getChannel();
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return channel.position() < channel.size();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public DataSet next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            try {
+                ByteBuffer flagsBuffer = read(1);
+                byte flags = flagsBuffer.get();
+
+                int count = 0;
+                for (byte bit : BITS)
+                    if ((flags & bit) != 0)
+                        count++;
+
+                ByteBuffer lengthsBuffer = read(count * 4);
+                int[] lengths = new int[count];
+                for (int i = 0; i < count; i++)
+                    lengths[i] = lengthsBuffer.getInt();
+
+                int idx = 0;
+                INDArray features = (flags & FEATURES) != 0 ? BinarySerde.toArray(read(lengths[idx++]), 0) : null;
+                INDArray labels = (flags & LABELS) != 0 ? BinarySerde.toArray(read(lengths[idx++]), 0) : null;
+                INDArray featuresMask = (flags & FEATURES_MASK) != 0 ? BinarySerde.toArray(read(lengths[idx++]), 0) : null;
+                INDArray labelsMask = (flags & LABELS_MASK) != 0 ? BinarySerde.toArray(read(lengths[idx++]), 0) : null;
+
+                if ((flags & LABELS_SAME_AS_FEATURES) != 0)
+                    labels = features;
+
+                return new DataSet(features, labels, featuresMask, labelsMask);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        /**
+         * This method reads given number of bytes into reusable direct buffer
+         */
+        protected ByteBuffer read(int length) throws IOException {
+            if (buffer == null || buffer.capacity() < length)
+                buffer = ByteBuffer.allocateDirect(Math.max(length, 1024)).order(ByteOrder.nativeOrder());
+
+            buffer.clear();
+            buffer.limit(length);
+            while (buffer.hasRemaining())
+                if (channel.read(buffer) < 0)
+                    throw new IOException("Unexpected end of partition file");
+
+            buffer.flip();
+            return buffer;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+            stream.close();
+        }
+    }
+}
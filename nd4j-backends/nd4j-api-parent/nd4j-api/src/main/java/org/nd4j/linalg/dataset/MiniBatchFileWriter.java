@@ -0,0 +1,201 @@
+package org.nd4j.linalg.dataset;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes DataSets of arbitrary size into directory as minibatches of fixed size,
+ * one file per minibatch, readable by {@link ExistingMiniBatchDataSetIterator}.
+ *
+ * Incoming examples are re-batched in order, and every full minibatch is saved asynchronously on IO executor.
+ * Number of minibatches being saved at the same time is limited by numWriters, so memory used by writer
+ * is bounded by (numWriters + 1) minibatches.
+ *
+ * Minibatches handed over to IO executor are always detached copies, so caller is free to modify or reuse
+ * given DataSets once write() returns.
+ *
+ * PLEASE NOTE: example metadata and label names aren't saved, same as in {@link DataSet#save(File)}
+ */
+public class MiniBatchFileWriter implements Closeable {
+    @Getter protected final File directory;
+    @Getter protected final int batchSize;
+    protected final String pattern;
+
+    protected final ExecutorService executor;
+    protected final Semaphore writers;
+    protected final int numWriters;
+    protected final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    protected final List<DataSet> pending = new ArrayList<>();
+    protected int pendingExamples;
+
+    @Getter protected int numberOfBatches;
+    @Getter protected long numberOfExamples;
+    protected boolean closed;
+
+    /**
+     * @param directory directory to write minibatches to. Should be empty, or not exist yet
+     * @param batchSize number of examples per minibatch. Last minibatch might be smaller
+     */
+    public MiniBatchFileWriter(@NonNull File directory, int batchSize) {
+        this(directory, batchSize, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param directory directory to write minibatches to. Should be empty, or not exist yet
+     * @param batchSize number of examples per minibatch. Last minibatch might be smaller
+     * @param numWriters maximal number of minibatches being saved at the same time
+     */
+    public MiniBatchFileWriter(@NonNull File directory, int batchSize, int numWriters) {
+        this(directory, batchSize, numWriters, ExistingMiniBatchDataSetIterator.DEFAULT_PATTERN);
+    }
+
+    /**
+     * @param directory directory to write minibatches to. Should be empty, or not exist yet
+     * @param batchSize number of examples per minibatch. Last minibatch might be smaller
+     * @param numWriters maximal number of minibatches being saved at the same time
+     * @param pattern file name pattern, used with {@code String.format(pattern, idx)}
+     */
+    public MiniBatchFileWriter(@NonNull File directory, int batchSize, int numWriters, @NonNull String pattern) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size should be positive value");
+
+        if (numWriters < 1)
+            throw new IllegalArgumentException("Number of writers should be positive value");
+
+        if (!directory.exists() && !directory.mkdirs())
+            throw new IllegalStateException("Unable to create directory [" + directory.getAbsolutePath() + "]");
+
+        if (!directory.isDirectory())
+            throw new IllegalArgumentException("[" + directory.getAbsolutePath() + "] isn't a directory");
+
+        // ExistingMiniBatchDataSetIterator counts files, so anything else in this directory would break it
+        String[] existing = directory.list();
+        if (existing != null && existing.length > 0)
+            throw new IllegalArgumentException("Directory [" + directory.getAbsolutePath() + "] isn't empty");
+
+        this.directory = directory;
+        this.batchSize = batchSize;
+        this.numWriters = numWriters;
+        this.pattern = pattern;
+        this.writers = new Semaphore(numWriters);
+        this.executor = ExecutorServiceProvider.getExecutorService(ExecutorServiceProvider.IO);
+    }
+
+    /**
+     * This method appends examples of given DataSet. Full minibatches are scheduled for saving immediately,
+     * remaining examples are kept until next call.
+     *
+     * @param dataSet
+     */
+    public void write(@NonNull DataSet dataSet) {
+        if (closed)
+            throw new IllegalStateException("Writer was closed already");
+
+        checkError();
+
+        int examples = dataSet.numExamples();
+        if (examples == 0)
+            return;
+
+        pendingExamples += examples;
+
+        if (pendingExamples < batchSize) {
+            // caller might reuse its DataSet after this call, so we keep our own copy of it
+            pending.add(dataSet.copy());
+            return;
+        }
+
+        pending.add(dataSet);
+        DataSet merged = pending.size() == 1 ? pending.get(0) : DataSet.merge(pending);
+        pending.clear();
+
+        // getRange() returns views of merged arrays (or of caller's arrays), so every batch is copied before save
+        int full = pendingExamples / batchSize;
+        for (int i = 0; i < full; i++)
+            save(merged.getRange(i * batchSize, (i + 1) * batchSize).copy());
+
+        int left = pendingExamples - full * batchSize;
+        pendingExamples = 0;
+        if (left > 0) {
+            // copy detaches leftover examples from merged arrays, so those can be released
+            pending.add(merged.getRange(full * batchSize, full * batchSize + left).copy());
+            pendingExamples = left;
+        }
+    }
+
+    /**
+     * This method saves remaining examples as the last minibatch, and blocks until all minibatches are saved
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+
+        closed = true;
+
+        if (pendingExamples > 0) {
+            // pending DataSets are our own copies already, and merge() produces new arrays
+            DataSet merged = pending.size() == 1 ? pending.get(0) : DataSet.merge(pending);
+            pending.clear();
+            pendingExamples = 0;
+            save(merged);
+        }
+
+        try {
+            writers.acquire(numWriters);
+            writers.release(numWriters);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+
+        checkError();
+    }
+
+    protected void save(final DataSet batch) {
+        final File file = new File(directory, String.format(pattern, numberOfBatches));
+        numberOfBatches++;
+        numberOfExamples += batch.numExamples();
+
+        try {
+            writers.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        batch.save(file);
+                    } catch (Throwable t) {
+                        error.compareAndSet(null, t);
+                    } finally {
+                        writers.release();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            writers.release();
+            throw e;
+        }
+    }
+
+    protected void checkError() {
+        Throwable t = error.get();
+        if (t != null)
+            throw new RuntimeException("Unable to save minibatch", t);
+    }
+}
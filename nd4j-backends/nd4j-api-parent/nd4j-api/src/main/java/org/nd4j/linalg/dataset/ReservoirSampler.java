@@ -0,0 +1,443 @@
+package org.nd4j.linalg.dataset;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.DataSetUtil;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Fixed-size random sample of examples from a stream of DataSets, that doesn't need to fit into memory.
+ *
+ * Sampling is done with A-ExpJ (Efraimidis and Spirakis): every example gets key u^(1/w), and examples with the
+ * largest keys are kept. Once reservoir is full, exponential jumps are used, so random numbers are drawn only for
+ * examples that actually enter the reservoir. Without weights this is uniform sampling without replacement,
+ * with weights (e.g. {@link #classWeights(double...)}) the sample follows A-Res weighted sampling.
+ *
+ * Reservoir is stored in preallocated arrays of [capacity, ...] shape, and selected examples of each incoming
+ * DataSet are copied into their slots in bulk, via {@link DataSetUtil#copyExamples(INDArray, int[], INDArray, int[])}.
+ *
+ * PLEASE NOTE: example metadata and label names aren't preserved, and example order within reservoir isn't random
+ */
+@Builder
+public class ReservoirSampler {
+    /**
+     * Maximum number of examples kept
+     */
+    @Getter protected int capacity;
+
+    @Getter protected long seed;
+
+    /**
+     * Per-example weights. If not set, all examples have equal weight
+     */
+    @Getter protected ExampleWeights weights;
+
+    public static class ReservoirSamplerBuilder {
+        private int capacity = 1000;
+        private long seed = System.currentTimeMillis();
+    }
+
+    /**
+     * This method samples all examples provided by given iterator
+     *
+     * @param source iterator to sample from. It's consumed once, from its current position
+     * @return filled reservoir
+     */
+    public Reservoir sample(@NonNull Iterator<DataSet> source) {
+        Reservoir reservoir = reservoir();
+        while (source.hasNext())
+            reservoir.add(source.next());
+
+        return reservoir;
+    }
+
+    /**
+     * This method returns empty reservoir, that can be fed with DataSets one by one
+     */
+    public Reservoir reservoir() {
+        if (capacity < 1)
+            throw new IllegalStateException("Capacity should be positive value");
+
+        return new Reservoir(capacity, new Random(seed), weights);
+    }
+
+    /**
+     * This method returns weights based on example class, i.e. argmax of its labels. Labels should be 2D
+     *
+     * @param weights weight for each class
+     */
+    public static ExampleWeights classWeights(@NonNull double... weights) {
+        return new ClassWeights(weights);
+    }
+
+    /**
+     * Weights of examples within DataSet, i.e. using labels or example metadata.
+     * Examples with zero weight are never sampled.
+     */
+    public interface ExampleWeights extends Serializable {
+        double[] weightsOf(DataSet dataSet);
+    }
+
+    protected static class ClassWeights implements ExampleWeights {
+        private final double[] weights;
+
+        protected ClassWeights(double[] weights) {
+            this.weights = weights;
+        }
+
+        @Override
+        public double[] weightsOf(DataSet dataSet) {
+            INDArray labels = dataSet.getLabels();
+            if (labels == null || labels.rank() != 2)
+                throw new IllegalStateException("Class weights require 2D labels");
+
+            if (labels.size(1) != weights.length)
+                throw new IllegalStateException("Number of class weights " + weights.length
+                                + " doesn't match number of classes " + labels.size(1));
+
+            INDArray classes = Nd4j.argMax(labels, 1);
+            double[] result = new double[labels.size(0)];
+            for (int i = 0; i < result.length; i++)
+                result[i] = weights[(int) classes.getDouble(i)];
+
+            return result;
+        }
+    }
+
+    /**
+     * Sampled examples, with sampling state
+     */
+    public static class Reservoir {
+        private final int capacity;
+        private final Random random;
+        private final ExampleWeights weights;
+
+        // reservoir arrays are allocated once first DataSet arrives, labels may be the same object as features
+        private INDArray features;
+        private INDArray labels;
+        private INDArray featuresMask;
+        private INDArray labelsMask;
+
+        // log-keys of slots, and min-heap of slots ordered by their keys
+        private final double[] keys;
+        private final int[] heap;
+        private int size;
+
+        // remaining weight to skip before next example enters the reservoir
+        private double skip;
+
+        @Getter private long numberOfExamplesSeen;
+
+        protected Reservoir(int capacity, Random random, ExampleWeights weights) {
+            this.capacity = capacity;
+            this.random = random;
+            this.weights = weights;
+            this.keys = new double[capacity];
+            this.heap = new int[capacity];
+        }
+
+        /**
+         * This method offers all examples of given DataSet to the reservoir
+         */
+        public void add(@NonNull DataSet dataSet) {
+            int examples = dataSet.numExamples();
+            if (examples == 0)
+                return;
+
+            double[] w = weights == null ? null : weights.weightsOf(dataSet);
+            if (w != null && w.length != examples)
+                throw new IllegalStateException("Expected " + examples + " weights, got " + w.length);
+
+            // slot -> example, later replacements of the same slot win
+            Map<Integer, Integer> replacements = new LinkedHashMap<>();
+            for (int i = 0; i < examples; i++) {
+                double weight = w == null ? 1.0 : w[i];
+                if (weight < 0.0 || Double.isNaN(weight))
+                    throw new IllegalArgumentException("Weights should be non-negative, got " + weight);
+
+                if (weight == 0.0)
+                    continue;
+
+                if (size < capacity) {
+                    int slot = size++;
+                    keys[slot] = Math.log(uniform()) / weight;
+                    heap[slot] = slot;
+                    siftUp(slot);
+                    replacements.put(slot, i);
+
+                    if (size == capacity)
+                        jump();
+
+                    continue;
+                }
+
+                skip -= weight;
+                if (skip > 0)
+                    continue;
+
+                // new key is drawn from (t, 1], so it's guaranteed to exceed current minimum
+                int slot = heap[0];
+                double t = Math.exp(weight * keys[slot]);
+                keys[slot] = Math.log(t + (1.0 - t) * uniform()) / weight;
+                siftDown(0);
+                replacements.put(slot, i);
+                jump();
+            }
+
+            numberOfExamplesSeen += examples;
+
+            if (!replacements.isEmpty())
+                copy(dataSet, replacements);
+        }
+
+        /**
+         * Returns number of examples in the reservoir
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * This method returns sampled examples. Arrays are views of the reservoir
+         */
+        public DataSet getDataSet() {
+            if (size == 0)
+                return new DataSet();
+
+            INDArray f = head(features);
+            return new DataSet(f, labels == features ? f : head(labels), head(featuresMask), head(labelsMask));
+        }
+
+        /**
+         * This method returns iterator over sampled examples, in minibatches of given size.
+         * Minibatches are views of the reservoir, unless preprocessor is set
+         */
+        public DataSetIterator iterator(int batchSize) {
+            return new ReservoirIterator(getDataSet(), batchSize);
+        }
+
+        protected INDArray head(INDArray array) {
+            if (array == null || size == capacity)
+                return array;
+
+            return array.get(NDArrayIndex.interval(0, size));
+        }
+
+        protected void copy(DataSet dataSet, Map<Integer, Integer> replacements) {
+            INDArray f = dataSet.getFeatures();
+            INDArray l = dataSet.getLabels();
+            INDArray fm = dataSet.getFeaturesMaskArray();
+            INDArray lm = dataSet.getLabelsMaskArray();
+
+            if (features == null) {
+                features = allocate(f);
+                labels = l == f ? features : allocate(l);
+                featuresMask = allocate(fm);
+                labelsMask = allocate(lm);
+            } else if ((f == null) != (features == null) || (l == null) != (labels == null)
+                            || (fm == null) != (featuresMask == null) || (lm == null) != (labelsMask == null)) {
+                throw new IllegalStateException("All DataSets should have the same set of arrays and masks");
+            }
+
+            int[] to = new int[replacements.size()];
+            int[] from = new int[replacements.size()];
+            int cnt = 0;
+            for (Map.Entry<Integer, Integer> entry : replacements.entrySet()) {
+                to[cnt] = entry.getKey();
+                from[cnt++] = entry.getValue();
+            }
+
+            copy(f, from, features, to);
+            if (labels != features)
+                copy(l, from, labels, to);
+            copy(fm, from, featuresMask, to);
+            copy(lm, from, labelsMask, to);
+        }
+
+        protected void copy(INDArray source, int[] from, INDArray target, int[] to) {
+            if (source == null)
+                return;
+
+            if (!Arrays.equals(Arrays.copyOfRange(source.shape(), 1, source.rank()),
+                            Arrays.copyOfRange(target.shape(), 1, target.rank())))
+                throw new IllegalStateException("All DataSets should have the same example shape: "
+                                + Arrays.toString(source.shape()) + " vs " + Arrays.toString(target.shape()));
+
+            DataSetUtil.copyExamples(source, from, target, to);
+        }
+
+        protected INDArray allocate(INDArray source) {
+            if (source == null)
+                return null;
+
+            int[] shape = source.shape().clone();
+            shape[0] = capacity;
+            return Nd4j.createUninitialized(shape, 'c');
+        }
+
+        /**
+         * Returns uniform value from (0, 1]
+         */
+        protected double uniform() {
+            return 1.0 - random.nextDouble();
+        }
+
+        protected void jump() {
+            skip = Math.log(uniform()) / keys[heap[0]];
+        }
+
+        protected void siftUp(int position) {
+            int slot = heap[position];
+            while (position > 0) {
+                int parent = (position - 1) / 2;
+                if (keys[heap[parent]] <= keys[slot])
+                    break;
+
+                heap[position] = heap[parent];
+                position = parent;
+            }
+            heap[position] = slot;
+        }
+
+        protected void siftDown(int position) {
+            int slot = heap[position];
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= size)
+                    break;
+
+                if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]])
+                    child++;
+
+                if (keys[slot] <= keys[heap[child]])
+                    break;
+
+                heap[position] = heap[child];
+                position = child;
+            }
+            heap[position] = slot;
+        }
+    }
+
+    protected static class ReservoirIterator implements DataSetIterator {
+        private final DataSet data;
+        private final int batchSize;
+        private int position = 0;
+        private DataSetPreProcessor preProcessor;
+
+        protected ReservoirIterator(DataSet data, int batchSize) {
+            if (batchSize < 1)
+                throw new IllegalArgumentException("Batch size should be positive value");
+
+            this.data = data;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < numExamples();
+        }
+
+        @Override
+        public DataSet next() {
+            return next(batchSize);
+        }
+
+        @Override
+        public DataSet next(int num) {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            int size = Math.min(num, numExamples() - position);
+            DataSet result = (DataSet) data.getRange(position, position + size);
+            position += size;
+
+            if (preProcessor != null) {
+                // preprocessor shouldn't modify reservoir
+                result = result.copy();
+                preProcessor.preProcess(result);
+            }
+
+            return result;
+        }
+
+        @Override
+        public int totalExamples() {
+            return numExamples();
+        }
+
+        @Override
+        public int inputColumns() {
+            return data.numInputs();
+        }
+
+        @Override
+        public int totalOutcomes() {
+            return data.numOutcomes();
+        }
+
+        @Override
+        public boolean resetSupported() {
+            return true;
+        }
+
+        @Override
+        public boolean asyncSupported() {
+            return false;
+        }
+
+        @Override
+        public void reset() {
+            position = 0;
+        }
+
+        @Override
+        public int batch() {
+            return batchSize;
+        }
+
+        @Override
+        public int cursor() {
+            return position;
+        }
+
+        @Override
+        public int numExamples() {
+            return data.getFeatures() == null ? 0 : data.numExamples();
+        }
+
+        @Override
+        public void setPreProcessor(DataSetPreProcessor preProcessor) {
+            this.preProcessor = preProcessor;
+        }
+
+        @Override
+        public DataSetPreProcessor getPreProcessor() {
+            return preProcessor;
+        }
+
+        @Override
+        public List<String> getLabels() {
+            return null;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -3,12 +3,16 @@ package org.nd4j.linalg.dataset.api;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.math3.util.Pair;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.Pointer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastMulOp;
 import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.indexing.INDArrayIndex;
 import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.linalg.util.ArrayUtil;
 
 import java.util.Arrays;
 
@@ -502,4 +506,95 @@ public class DataSetUtil {
 
         return new Pair<>(out, outMask);
     }
+
+    /**
+     * Copy the specified examples (along dimension 0) of the source array into the target array, in the given order.
+     * If target is null, or has a different shape, a new c-order array is allocated. So, target array can be
+     * reused between calls for gathering equally sized batches.
+     *
+     * For c-order contiguous arrays each example is copied with single memcpy call.
+     *
+     * @param source   Array to gather examples from
+     * @param examples Indexes of examples to gather
+     * @param target   Array to gather into. May be null
+     * @return Target array, or newly allocated array if target is null or of incompatible shape
+     */
+    public static INDArray gatherExamples(@NonNull INDArray source, @NonNull int[] examples, INDArray target) {
+        int[] shape = source.shape().clone();
+        shape[0] = examples.length;
+        if (target == null || !Arrays.equals(shape, target.shape()))
+            target = Nd4j.createUninitialized(shape, 'c');
+
+        int[] positions = new int[examples.length];
+        for (int i = 0; i < positions.length; i++)
+            positions[i] = i;
+
+        copyExamples(source, examples, target, positions);
+        return target;
+    }
+
+    /**
+     * Copy the specified examples (along dimension 0) of the source array into the specified examples of the
+     * target array: example from[i] of source is written to example to[i] of target. Source and target must have
+     * the same shape apart from dimension 0.
+     *
+     * For c-order contiguous arrays each example is copied with single memcpy call.
+     *
+     * @param source Array to copy examples from
+     * @param from   Indexes of source examples
+     * @param target Array to copy examples into
+     * @param to     Indexes of target examples
+     */
+    public static void copyExamples(@NonNull INDArray source, @NonNull int[] from, @NonNull INDArray target,
+                    @NonNull int[] to) {
+        if (from.length != to.length)
+            throw new IllegalArgumentException("Number of source and target indexes should match: " + from.length
+                            + " vs " + to.length);
+
+        int[] sourceShape = source.shape();
+        int[] targetShape = target.shape();
+        if (sourceShape.length != targetShape.length || !Arrays.equals(Arrays.copyOfRange(sourceShape, 1, sourceShape.length),
+                        Arrays.copyOfRange(targetShape, 1, targetShape.length)))
+            throw new IllegalArgumentException("Examples of source and target should have the same shape: "
+                            + Arrays.toString(sourceShape) + " vs " + Arrays.toString(targetShape));
+
+        int numExamples = source.size(0);
+        for (int example : from)
+            if (example < 0 || example >= numExamples)
+                throw new IllegalArgumentException("Invalid example index: " + example + ", source has " + numExamples + " examples");
+
+        int numTargetExamples = target.size(0);
+        for (int example : to)
+            if (example < 0 || example >= numTargetExamples)
+                throw new IllegalArgumentException("Invalid example index: " + example + ", target has " + numTargetExamples + " examples");
+
+        if (from.length == 0)
+            return;
+
+        Nd4j.getCompressor().autoDecompress(source);
+
+        if (isCompactC(source) && isCompactC(target) && source.data().dataType() == target.data().dataType()) {
+            Nd4j.getExecutioner().commit();
+            Nd4j.getAffinityManager().ensureLocation(source, AffinityManager.Location.HOST);
+            Nd4j.getAffinityManager().ensureLocation(target, AffinityManager.Location.HOST);
+
+            long exampleBytes = (source.length() / numExamples) * (long) source.data().getElementSize();
+            BytePointer src = new BytePointer(source.data().addressPointer());
+            BytePointer dst = new BytePointer(target.data().addressPointer());
+            for (int i = 0; i < from.length; i++) {
+                src.position(from[i] * exampleBytes);
+                dst.position(to[i] * exampleBytes);
+                Pointer.memcpy(dst, src, exampleBytes);
+            }
+
+            Nd4j.getAffinityManager().tagLocation(target, AffinityManager.Location.HOST);
+        } else {
+            for (int i = 0; i < from.length; i++)
+                target.get(NDArrayIndex.interval(to[i], to[i] + 1)).assign(source.get(NDArrayIndex.interval(from[i], from[i] + 1)));
+        }
+    }
+
+    protected static boolean isCompactC(INDArray array) {
+        return array.ordering() == 'c' && Arrays.equals(array.stride(), ArrayUtil.calcStrides(array.shape()));
+    }
 }
@@ -1,15 +1,23 @@
 package org.nd4j.linalg.dataset.api.iterator;
 
+import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.dataset.DataSet;
 import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.DataSetUtil;
+import org.nd4j.linalg.factory.Nd4j;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Splits a dataset into k folds.
- * DataSet is duplicated in memory once
- * call .next() to get the k-1 folds to train on and call .testfold() to get the corresponding kth fold for testing
+ * DataSet is duplicated in memory once, so later changes to the original DataSet don't affect the folds.
+ * Folds and minibatches may be views of that private copy: shuffling only permutes example order, and k-1 folds
+ * are concatenated only if they aren't contiguous. Modify returned DataSets in place only after copying them.
+ * call .next() to get the k-1 folds to train on and call .testfold() to get the corresponding kth fold for testing.
+ * To iterate over k-1 folds in minibatches, without materializing their concatenation, use .trainIterator(batchSize)
+ * after .next() call.
  * @author Susan Eraly
  */
 public class KFoldIterator implements DataSetIterator {
@@ -22,6 +30,13 @@ public class KFoldIterator implements DataSetIterator {
     private DataSet train;
     protected DataSetPreProcessor preProcessor;
 
+    // example order after reset(), null stands for original order
+    private int[] order;
+
+    // boundaries of the current test fold
+    private int left;
+    private int right;
+
     public KFoldIterator(DataSet singleFold) {
         this(10, singleFold);
     }
@@ -52,9 +67,12 @@ public class KFoldIterator implements DataSetIterator {
         }
     }
 
+    /**
+     * Not supported: folds have fixed size. Use {@link #trainIterator(int)} to iterate over train folds in minibatches
+     */
     @Override
     public DataSet next(int num) throws UnsupportedOperationException {
-        return null;
+        throw new UnsupportedOperationException("KFoldIterator doesn't support custom batch size. Use trainIterator(int) instead");
     }
 
     /**
@@ -88,14 +106,29 @@ public class KFoldIterator implements DataSetIterator {
     }
 
     /**
-     * Shuffles the dataset and resets to the first fold
+     * Shuffles the dataset and resets to the first fold.
+     * Underlying DataSet isn't modified: only order of examples is shuffled
      *
      * @return void
      */
     @Override
     public void reset() {
         //shuffle and return new k folds
-        singleFold.shuffle();
+        int numExamples = totalExamples();
+        if (order == null) {
+            order = new int[numExamples];
+            for (int i = 0; i < numExamples; i++)
+                order[i] = i;
+        }
+
+        org.nd4j.linalg.api.rng.Random rng = Nd4j.getRandom();
+        for (int i = numExamples - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
         kCursor = 0;
     }
 
@@ -158,8 +191,18 @@ public class KFoldIterator implements DataSetIterator {
         return kCursor < k;
     }
 
+    /**
+     * Returns k-1 folds to train on. If held out fold is the first or the last one, and dataset wasn't shuffled,
+     * view of the iterator's copy of the dataset is returned. Otherwise k-1 folds are copied into new DataSet,
+     * use {@link #trainIterator(int)} to avoid that.
+     *
+     * @return
+     */
     @Override
     public DataSet next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
         nextFold();
         return train;
     }
@@ -170,36 +213,219 @@ public class KFoldIterator implements DataSetIterator {
     }
 
     private void nextFold() {
-        int left;
-        int right;
+        int numExamples = totalExamples();
         if (kCursor == k - 1) {
-            left = totalExamples() - lastBatch;
-            right = totalExamples();
+            left = numExamples - lastBatch;
+            right = numExamples;
         } else {
             left = kCursor * batch;
             right = left + batch;
         }
 
-        List<DataSet> kMinusOneFoldList = new ArrayList<DataSet>();
-        if (right < totalExamples()) {
-            if (left > 0) {
-                kMinusOneFoldList.add((DataSet) singleFold.getRange(0, left));
+        if (order == null) {
+            List<DataSet> kMinusOneFoldList = new ArrayList<DataSet>();
+            if (right < numExamples) {
+                if (left > 0) {
+                    kMinusOneFoldList.add((DataSet) singleFold.getRange(0, left));
+                    kMinusOneFoldList.add((DataSet) singleFold.getRange(right, numExamples));
+                    train = DataSet.merge(kMinusOneFoldList);
+                } else {
+                    train = (DataSet) singleFold.getRange(right, numExamples);
+                }
+            } else {
+                train = (DataSet) singleFold.getRange(0, left);
             }
-            kMinusOneFoldList.add((DataSet) singleFold.getRange(right, totalExamples()));
-            train = DataSet.merge(kMinusOneFoldList);
+            test = (DataSet) singleFold.getRange(left, right);
         } else {
-            train = (DataSet) singleFold.getRange(0, left);
+            int[] trainExamples = new int[numExamples - (right - left)];
+            for (int i = 0; i < trainExamples.length; i++)
+                trainExamples[i] = order[trainPosition(i)];
+
+            int[] testExamples = new int[right - left];
+            System.arraycopy(order, left, testExamples, 0, testExamples.length);
+
+            train = gather(trainExamples, null);
+            test = gather(testExamples, null);
         }
-        test = (DataSet) singleFold.getRange(left, right);
 
         kCursor++;
 
     }
 
+    /**
+     * Maps position within k-1 train folds to position within the whole dataset
+     */
+    private int trainPosition(int position) {
+        return position < left ? position : position + (right - left);
+    }
+
+    private DataSet gather(int[] examples, DataSet target) {
+        INDArray featuresMask = singleFold.getFeaturesMaskArray();
+        INDArray labelsMask = singleFold.getLabelsMaskArray();
+
+        return new DataSet(DataSetUtil.gatherExamples(singleFold.getFeatures(), examples, target == null ? null : target.getFeatures()),
+                        DataSetUtil.gatherExamples(singleFold.getLabels(), examples, target == null ? null : target.getLabels()),
+                        featuresMask == null ? null : DataSetUtil.gatherExamples(featuresMask, examples, target == null ? null : target.getFeaturesMaskArray()),
+                        labelsMask == null ? null : DataSetUtil.gatherExamples(labelsMask, examples, target == null ? null : target.getLabelsMaskArray()));
+    }
+
+    /**
+     * Returns iterator over k-1 folds of the current split (i.e. the folds returned by the last .next() call), in minibatches.
+     * k-1 folds are never concatenated: minibatches are views of the iterator's copy of the dataset whenever possible.
+     * Minibatches crossing the held out fold, or minibatches of the shuffled dataset, are gathered into the buffer
+     * reused between .next() calls of the returned iterator, so each minibatch is valid only until the next one is requested.
+     *
+     * @param batchSize minibatch size
+     * @return
+     */
+    public DataSetIterator trainIterator(int batchSize) {
+        if (kCursor == 0)
+            throw new IllegalStateException("next() should be called before trainIterator()");
+
+        return new TrainFoldIterator(batchSize, left, right);
+    }
+
     /**
      * @return the held out fold as a dataset
      */
     public DataSet testFold() {
         return test;
     }
+
+    protected class TrainFoldIterator implements DataSetIterator {
+        private final int batchSize;
+        private final int foldLeft;
+        private final int foldRight;
+        private final int numExamples;
+        private int position = 0;
+        private DataSet buffer;
+        private DataSetPreProcessor trainPreProcessor;
+
+        protected TrainFoldIterator(int batchSize, int foldLeft, int foldRight) {
+            if (batchSize < 1)
+                throw new IllegalArgumentException("Batch size should be positive value");
+
+            this.batchSize = batchSize;
+            this.foldLeft = foldLeft;
+            this.foldRight = foldRight;
+            this.numExamples = KFoldIterator.this.totalExamples() - (foldRight - foldLeft);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < numExamples;
+        }
+
+        @Override
+        public DataSet next() {
+            return next(batchSize);
+        }
+
+        @Override
+        public DataSet next(int num) {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            int size = Math.min(num, numExamples - position);
+            int first = map(position);
+            int last = map(position + size - 1);
+
+            DataSet result;
+            if (order == null && last - first == size - 1 && trainPreProcessor == null) {
+                // contiguous range of examples. With preprocessor set we copy, to keep original data intact
+                result = (DataSet) singleFold.getRange(first, last + 1);
+            } else {
+                int[] examples = new int[size];
+                for (int i = 0; i < size; i++) {
+                    int example = map(position + i);
+                    examples[i] = order == null ? example : order[example];
+                }
+
+                // buffer is allocated for full batch, and reused afterwards
+                if (size == batchSize) {
+                    buffer = gather(examples, buffer);
+                    result = buffer;
+                } else {
+                    result = gather(examples, null);
+                }
+            }
+
+            position += size;
+
+            if (trainPreProcessor != null)
+                trainPreProcessor.preProcess(result);
+
+            return result;
+        }
+
+        private int map(int position) {
+            return position < foldLeft ? position : position + (foldRight - foldLeft);
+        }
+
+        @Override
+        public int totalExamples() {
+            return numExamples;
+        }
+
+        @Override
+        public int inputColumns() {
+            return KFoldIterator.this.inputColumns();
+        }
+
+        @Override
+        public int totalOutcomes() {
+            return KFoldIterator.this.totalOutcomes();
+        }
+
+        @Override
+        public boolean resetSupported() {
+            return true;
+        }
+
+        @Override
+        public boolean asyncSupported() {
+            // buffer is reused
+            return false;
+        }
+
+        @Override
+        public void reset() {
+            position = 0;
+        }
+
+        @Override
+        public int batch() {
+            return batchSize;
+        }
+
+        @Override
+        public int cursor() {
+            return position;
+        }
+
+        @Override
+        public int numExamples() {
+            return numExamples;
+        }
+
+        @Override
+        public void setPreProcessor(DataSetPreProcessor preProcessor) {
+            this.trainPreProcessor = preProcessor;
+        }
+
+        @Override
+        public DataSetPreProcessor getPreProcessor() {
+            return trainPreProcessor;
+        }
+
+        @Override
+        public List<String> getLabels() {
+            return KFoldIterator.this.getLabels();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
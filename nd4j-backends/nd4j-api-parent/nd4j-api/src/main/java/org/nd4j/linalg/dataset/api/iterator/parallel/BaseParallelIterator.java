@@ -0,0 +1,548 @@
+package org.nd4j.linalg.dataset.api.iterator.parallel;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.dataset.api.iterator.enums.InequalityHandling;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Basic multi-producer iterator implementation.
+ *
+ * Each source iterator is served by its own background producer thread, attached to device via AffinityManager
+ * (producers are distributed over available devices in round-robin manner). Every producer fills its own bounded queue.
+ * Consumers attached to specific producer take data from its queue only, while next()/hasNext() go over producers
+ * in round-robin manner.
+ *
+ * Once one of producers runs out of data, behavior is defined by {@link InequalityHandling}.
+ *
+ * PLEASE NOTE: Consumers block on producer queues without holding lock used by shutdown() and reset(),
+ * so these methods can be called from any thread, and consumers blocked at that moment are woken up.
+ */
+@Slf4j
+public abstract class BaseParallelIterator<T> {
+    // queue marker, put by producer once it has nothing else to produce
+    protected static final Object TERMINATOR = new Object();
+
+    @Getter protected final InequalityHandling inequalityHandling;
+    @Getter protected final int bufferSize;
+    protected final int numProducers;
+    protected final List<ProducerState> states;
+
+    protected final ThreadLocal<Integer> attachedConsumer = new ThreadLocal<>();
+
+    // guards cursor & leftover. consumers might hold it while waiting for producers
+    protected final Object cursorLock = new Object();
+
+    // guards producers start & shutdown. never held while waiting for producers
+    protected final Object stateLock = new Object();
+
+    // round-robin position for next() calls
+    protected int cursor;
+
+    // examples left over by last next(int) call, returned by next() calls first
+    protected T leftover;
+
+    // incremented upon every start of producers, so consumers know when cursor & leftover are stale
+    protected volatile int generation;
+    protected int cursorGeneration;
+    protected volatile boolean stopped;
+    protected volatile boolean started;
+
+    protected BaseParallelIterator(int numProducers, @NonNull InequalityHandling inequalityHandling, int bufferSize) {
+        if (numProducers < 1)
+            throw new IllegalArgumentException("At least one source iterator is required");
+
+        if (bufferSize < 1)
+            throw new IllegalArgumentException("Buffer size should be positive value");
+
+        this.numProducers = numProducers;
+        this.inequalityHandling = inequalityHandling;
+        this.bufferSize = bufferSize;
+
+        int numDevices = Math.max(1, Nd4j.getAffinityManager().getNumberOfDevices());
+        this.states = new ArrayList<>(numProducers);
+        for (int i = 0; i < numProducers; i++)
+            states.add(new ProducerState(i, i % numDevices));
+    }
+
+    protected abstract boolean sourceHasNext(int producer);
+
+    protected abstract T sourceNext(int producer);
+
+    protected abstract boolean sourceResetSupported(int producer);
+
+    protected abstract void sourceReset(int producer);
+
+    /**
+     * This method is called in producer thread, for each element produced
+     */
+    protected abstract void preProcess(T item);
+
+    /**
+     * This method moves given element to specified device
+     */
+    protected abstract T relocate(T item, int deviceId);
+
+    protected abstract int numExamples(T item);
+
+    /**
+     * This method splits given element into single-example elements
+     */
+    protected abstract List<T> split(T item);
+
+    protected abstract T merge(List<T> items);
+
+    /**
+     * This method sets consumer affinity to specific producer
+     */
+    public void attachThread(int producer) {
+        attachedConsumer.set(producer);
+    }
+
+    public boolean hasNextFor() {
+        return hasNextFor(attachedProducer());
+    }
+
+    public boolean hasNextFor(int consumer) {
+        ensureStarted();
+        ProducerState own = states.get(consumer % numProducers);
+
+        switch (inequalityHandling) {
+            case STOP_EVERYONE:
+                return !stopped && fetch(own) && !stopped;
+            case PASS_NULL:
+            case RELOCATE:
+                return fetch(own) || anyAvailable();
+            case RESET:
+            default:
+                return fetch(own);
+        }
+    }
+
+    protected T nextForInternal(int consumer) {
+        ensureStarted();
+        ProducerState own = states.get(consumer % numProducers);
+
+        switch (inequalityHandling) {
+            case STOP_EVERYONE:
+                if (stopped || !fetch(own) || stopped)
+                    throw new NoSuchElementException();
+                return take(own);
+            case PASS_NULL:
+                // null is returned if attached producer has nothing left
+                return take(own);
+            case RELOCATE: {
+                T item = take(own);
+                if (item != null)
+                    return item;
+
+                for (int i = 1; i < numProducers; i++) {
+                    ProducerState other = states.get((own.index + i) % numProducers);
+                    item = take(other);
+                    if (item != null)
+                        return relocateIfNeeded(item, other);
+                }
+                throw new NoSuchElementException();
+            }
+            case RESET:
+            default: {
+                T item = take(own);
+                if (item == null)
+                    throw new NoSuchElementException();
+                return item;
+            }
+        }
+    }
+
+    public boolean hasNext() {
+        synchronized (cursorLock) {
+            ensureStarted();
+
+            if (cursorGeneration != generation) {
+                cursorGeneration = generation;
+                cursor = 0;
+                leftover = null;
+            }
+
+            if (leftover != null)
+                return true;
+
+            switch (inequalityHandling) {
+                case STOP_EVERYONE:
+                    return !stopped && fetch(states.get(cursor % numProducers)) && !stopped;
+                case PASS_NULL:
+                    return anyAvailable();
+                case RESET:
+                case RELOCATE:
+                default:
+                    for (int i = 0; i < numProducers; i++)
+                        if (fetch(states.get((cursor + i) % numProducers)))
+                            return true;
+                    return false;
+            }
+        }
+    }
+
+    protected T nextInternal() {
+        synchronized (cursorLock) {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            if (leftover != null) {
+                T item = leftover;
+                leftover = null;
+                return item;
+            }
+
+            switch (inequalityHandling) {
+                case STOP_EVERYONE:
+                case PASS_NULL: {
+                    ProducerState state = states.get(cursor % numProducers);
+                    cursor = (cursor + 1) % numProducers;
+                    return take(state);
+                }
+                case RESET:
+                case RELOCATE:
+                default:
+                    for (int i = 0; i < numProducers; i++) {
+                        ProducerState state = states.get((cursor + i) % numProducers);
+                        T item = take(state);
+                        if (item != null) {
+                            cursor = (state.index + 1) % numProducers;
+                            return relocateIfNeeded(item, state);
+                        }
+                    }
+                    throw new NoSuchElementException();
+            }
+        }
+    }
+
+    /**
+     * This method returns exactly num examples taken from next() elements, or less if there's not enough examples left.
+     * Examples left over from the last element are returned by subsequent next() calls.
+     *
+     * @param num number of examples
+     */
+    protected T nextInternal(int num) {
+        if (num < 1)
+            throw new IllegalArgumentException("Number of examples should be positive value");
+
+        synchronized (cursorLock) {
+            List<T> collected = new ArrayList<>();
+            int count = 0;
+            while (count < num && hasNext()) {
+                T item = nextInternal();
+                // PASS_NULL mode returns null for exhausted producers
+                if (item == null)
+                    continue;
+
+                int examples = numExamples(item);
+                if (count + examples > num) {
+                    List<T> split = split(item);
+                    collected.add(merge(split.subList(0, num - count)));
+                    leftover = merge(split.subList(num - count, split.size()));
+                    count = num;
+                } else {
+                    collected.add(item);
+                    count += examples;
+                }
+            }
+
+            if (collected.isEmpty())
+                throw new NoSuchElementException();
+
+            return collected.size() == 1 ? collected.get(0) : merge(collected);
+        }
+    }
+
+    /**
+     * This method stops all producers, resets underlying iterators, and starts producers again upon next request
+     */
+    public void reset() {
+        synchronized (stateLock) {
+            shutdown();
+
+            for (int i = 0; i < numProducers; i++)
+                if (sourceResetSupported(i))
+                    sourceReset(i);
+
+            stopped = false;
+        }
+    }
+
+    /**
+     * This method stops all producer threads. Data left in queues is discarded.
+     * Consumers waiting for data at the moment of this call are woken up, and see no more data.
+     */
+    public void shutdown() {
+        synchronized (stateLock) {
+            if (!started)
+                return;
+
+            for (ProducerState state : states)
+                state.running = false;
+
+            for (ProducerState state : states) {
+                Thread thread = state.thread;
+                try {
+                    // producers might be blocked on full queue, so we keep draining it until they're gone
+                    while (thread != null && thread.isAlive()) {
+                        state.queue.clear();
+                        thread.join(10);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+
+                // stopped producer doesn't put terminator, so consumers blocked on its queue are woken up here.
+                // consumer-side state is cleared only upon restart, so consumers never wait on queue that nobody feeds
+                state.queue.clear();
+                state.queue.offer(TERMINATOR);
+            }
+
+            started = false;
+        }
+    }
+
+    /**
+     * This method returns statistics for all producers
+     *
+     * @return
+     */
+    public List<ProducerMetrics> getProducerMetrics() {
+        List<ProducerMetrics> metrics = new ArrayList<>(numProducers);
+        for (ProducerState state : states) {
+            long produced = state.produced.get();
+            long elapsed = state.startTime > 0 ? System.nanoTime() - state.startTime : 0;
+
+            metrics.add(ProducerMetrics.builder().producer(state.index).deviceId(state.deviceId)
+                            .queueDepth(state.queue.size()).producedBatches(produced)
+                            .consumedBatches(state.consumed.get())
+                            .throughput(elapsed > 0 ? produced / (elapsed / 1e9) : 0.0)
+                            .averageProducingTime(produced > 0 ? state.producingTime.get() / produced : 0)
+                            .starvationTime(state.starvationTime.get()).build());
+        }
+
+        return metrics;
+    }
+
+    protected int attachedProducer() {
+        Integer consumer = attachedConsumer.get();
+        if (consumer == null)
+            throw new IllegalStateException("Current thread isn't attached to any producer. Call attachThread() first");
+
+        return consumer;
+    }
+
+    protected void ensureStarted() {
+        if (started)
+            return;
+
+        synchronized (stateLock) {
+            if (started)
+                return;
+
+            for (ProducerState state : states) {
+                // consumers can't be blocked in fetch() here: all queues were terminated by shutdown()
+                state.clear();
+                state.start();
+            }
+
+            generation++;
+            started = true;
+        }
+    }
+
+    protected boolean anyAvailable() {
+        for (ProducerState state : states)
+            if (fetch(state))
+                return true;
+
+        return false;
+    }
+
+    protected T relocateIfNeeded(T item, ProducerState state) {
+        if (Nd4j.getAffinityManager().getNumberOfDevices() < 2)
+            return item;
+
+        Integer deviceId = Nd4j.getAffinityManager().getDeviceForCurrentThread();
+        if (deviceId == null || deviceId == state.deviceId)
+            return item;
+
+        return relocate(item, deviceId);
+    }
+
+    protected boolean allCycled() {
+        for (ProducerState state : states)
+            if (!state.cycled)
+                return false;
+
+        return true;
+    }
+
+    /**
+     * This method blocks until producer has next element available, or until producer is done
+     *
+     * @return true if element is available, false otherwise
+     */
+    protected boolean fetch(ProducerState state) {
+        synchronized (state) {
+            if (state.peeked != null)
+                return true;
+
+            if (state.done)
+                return false;
+
+            Object item = state.queue.poll();
+            if (item == null) {
+                long time = System.nanoTime();
+                try {
+                    item = state.queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+                state.starvationTime.addAndGet(System.nanoTime() - time);
+            }
+
+            if (item == TERMINATOR) {
+                state.done = true;
+
+                if (state.error != null)
+                    throw new RuntimeException("Producer [" + state.index + "] failed", state.error);
+
+                if (inequalityHandling == InequalityHandling.STOP_EVERYONE)
+                    stopped = true;
+
+                return false;
+            }
+
+            state.peeked = item;
+            return true;
+        }
+    }
+
+    /**
+     * This method returns next element of given producer, or null if producer is done
+     */
+    protected T take(ProducerState state) {
+        synchronized (state) {
+            if (!fetch(state))
+                return null;
+
+            T item = (T) state.peeked;
+            state.peeked = null;
+            state.consumed.incrementAndGet();
+            return item;
+        }
+    }
+
+    protected class ProducerState implements Runnable {
+        protected final int index;
+        protected final int deviceId;
+        protected final BlockingQueue<Object> queue = new LinkedBlockingQueue<>(bufferSize);
+
+        // consumer side, guarded by this
+        protected Object peeked;
+        protected boolean done;
+
+        protected volatile boolean running;
+        protected volatile boolean cycled;
+        protected volatile Throwable error;
+        protected volatile Thread thread;
+        protected volatile long startTime;
+
+        protected final AtomicLong produced = new AtomicLong(0);
+        protected final AtomicLong consumed = new AtomicLong(0);
+        protected final AtomicLong producingTime = new AtomicLong(0);
+        protected final AtomicLong starvationTime = new AtomicLong(0);
+
+        protected ProducerState(int index, int deviceId) {
+            this.index = index;
+            this.deviceId = deviceId;
+        }
+
+        protected void start() {
+            running = true;
+            startTime = System.nanoTime();
+
+            thread = new Thread(this, "ParallelIterator-producer-" + index);
+            thread.setDaemon(true);
+            Nd4j.getAffinityManager().attachThreadToDevice(thread, deviceId);
+            thread.start();
+        }
+
+        protected synchronized void clear() {
+            queue.clear();
+            peeked = null;
+            done = false;
+            cycled = false;
+            error = null;
+            thread = null;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    if (inequalityHandling == InequalityHandling.RESET && allCycled())
+                        break;
+
+                    if (!sourceHasNext(index)) {
+                        if (inequalityHandling != InequalityHandling.RESET)
+                            break;
+
+                        // iteration ends once every producer was exhausted at least once
+                        cycled = true;
+                        if (allCycled() || !sourceResetSupported(index))
+                            break;
+
+                        sourceReset(index);
+                        if (!sourceHasNext(index))
+                            break;
+
+                        continue;
+                    }
+
+                    long time = System.nanoTime();
+                    T item = sourceNext(index);
+                    if (item == null)
+                        continue;
+
+                    preProcess(item);
+                    producingTime.addAndGet(System.nanoTime() - time);
+                    produced.incrementAndGet();
+
+                    // iterator might be shut down while we were busy producing this item
+                    if (!running)
+                        break;
+
+                    queue.put(item);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable t) {
+                log.error("Producer [{}] failed", index, t);
+                error = t;
+            } finally {
+                cycled = true;
+            }
+
+            try {
+                if (running)
+                    queue.put(TERMINATOR);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
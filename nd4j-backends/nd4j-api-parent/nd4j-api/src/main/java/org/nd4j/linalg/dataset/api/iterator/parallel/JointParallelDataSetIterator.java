@@ -0,0 +1,215 @@
+package org.nd4j.linalg.dataset.api.iterator.parallel;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.ParallelDataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.enums.InequalityHandling;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ParallelDataSetIterator implementation, that runs each of source iterators in its own background thread.
+ */
+public class JointParallelDataSetIterator extends BaseParallelIterator<DataSet> implements ParallelDataSetIterator {
+    public static final int DEFAULT_BUFFER_SIZE = 4;
+
+    protected final List<DataSetIterator> iterators;
+    protected DataSetPreProcessor preProcessor;
+
+    // number of examples returned since last reset
+    protected final AtomicLong examples = new AtomicLong(0);
+
+    public JointParallelDataSetIterator(@NonNull List<DataSetIterator> iterators,
+                    @NonNull InequalityHandling inequalityHandling) {
+        this(iterators, inequalityHandling, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     *
+     * @param iterators source iterators, each one gets its own producer thread
+     * @param inequalityHandling behavior once one of producers runs out of data
+     * @param bufferSize number of DataSets prefetched by each producer
+     */
+    public JointParallelDataSetIterator(@NonNull List<DataSetIterator> iterators,
+                    @NonNull InequalityHandling inequalityHandling, int bufferSize) {
+        super(iterators.size(), inequalityHandling, bufferSize);
+        this.iterators = new ArrayList<>(iterators);
+    }
+
+    @Override
+    protected boolean sourceHasNext(int producer) {
+        return iterators.get(producer).hasNext();
+    }
+
+    @Override
+    protected DataSet sourceNext(int producer) {
+        return iterators.get(producer).next();
+    }
+
+    @Override
+    protected boolean sourceResetSupported(int producer) {
+        return iterators.get(producer).resetSupported();
+    }
+
+    @Override
+    protected void sourceReset(int producer) {
+        iterators.get(producer).reset();
+    }
+
+    @Override
+    protected void preProcess(DataSet item) {
+        if (preProcessor != null)
+            preProcessor.preProcess(item);
+    }
+
+    @Override
+    protected DataSet relocate(DataSet item, int deviceId) {
+        return new DataSet(replicate(item.getFeatures(), deviceId), replicate(item.getLabels(), deviceId),
+                        replicate(item.getFeaturesMaskArray(), deviceId), replicate(item.getLabelsMaskArray(), deviceId));
+    }
+
+    protected static INDArray replicate(INDArray array, int deviceId) {
+        return array == null ? null : Nd4j.getAffinityManager().replicateToDevice(deviceId, array);
+    }
+
+    @Override
+    protected int numExamples(DataSet item) {
+        return item.numExamples();
+    }
+
+    @Override
+    protected List<DataSet> split(DataSet item) {
+        return item.asList();
+    }
+
+    @Override
+    protected DataSet merge(List<DataSet> items) {
+        return DataSet.merge(items);
+    }
+
+    protected DataSet count(DataSet item) {
+        if (item != null)
+            examples.addAndGet(item.numExamples());
+
+        return item;
+    }
+
+    @Override
+    public DataSet nextFor(int consumer) {
+        return count(nextForInternal(consumer));
+    }
+
+    @Override
+    public DataSet nextFor() {
+        return count(nextForInternal(attachedProducer()));
+    }
+
+    @Override
+    public DataSet next() {
+        return count(nextInternal());
+    }
+
+    /**
+     * This method returns DataSet with exactly num examples, merged from the next DataSets, or less if there's not enough examples left.
+     * Examples left over from the last merged DataSet are returned by subsequent next() calls.
+     *
+     * PLEASE NOTE: nextFor() calls don't take leftover examples into account
+     *
+     * @param num number of examples
+     * @return
+     */
+    @Override
+    public DataSet next(int num) {
+        return count(nextInternal(num));
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        examples.set(0);
+    }
+
+    @Override
+    public int totalExamples() {
+        int result = 0;
+        for (DataSetIterator iterator : iterators)
+            result += iterator.totalExamples();
+
+        return result;
+    }
+
+    @Override
+    public int inputColumns() {
+        return iterators.get(0).inputColumns();
+    }
+
+    @Override
+    public int totalOutcomes() {
+        return iterators.get(0).totalOutcomes();
+    }
+
+    @Override
+    public boolean resetSupported() {
+        for (DataSetIterator iterator : iterators)
+            if (!iterator.resetSupported())
+                return false;
+
+        return true;
+    }
+
+    @Override
+    public boolean asyncSupported() {
+        // this iterator is asynchronous already
+        return false;
+    }
+
+    @Override
+    public int batch() {
+        return iterators.get(0).batch();
+    }
+
+    /**
+     * This method returns number of examples returned by this iterator since last reset
+     *
+     * @return
+     */
+    @Override
+    public int cursor() {
+        return (int) examples.get();
+    }
+
+    @Override
+    public int numExamples() {
+        int result = 0;
+        for (DataSetIterator iterator : iterators)
+            result += iterator.numExamples();
+
+        return result;
+    }
+
+    @Override
+    public void setPreProcessor(DataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public DataSetPreProcessor getPreProcessor() {
+        return preProcessor;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return iterators.get(0).getLabels();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
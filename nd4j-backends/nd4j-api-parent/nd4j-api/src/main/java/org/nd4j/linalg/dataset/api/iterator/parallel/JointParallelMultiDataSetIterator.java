@@ -0,0 +1,159 @@
+package org.nd4j.linalg.dataset.api.iterator.parallel;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.MultiDataSet;
+import org.nd4j.linalg.dataset.api.MultiDataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.MultiDataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.ParallelMultiDataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.enums.InequalityHandling;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ParallelMultiDataSetIterator implementation, that runs each of source iterators in its own background thread.
+ */
+public class JointParallelMultiDataSetIterator extends BaseParallelIterator<MultiDataSet>
+                implements ParallelMultiDataSetIterator {
+    public static final int DEFAULT_BUFFER_SIZE = 4;
+
+    protected final List<MultiDataSetIterator> iterators;
+    protected MultiDataSetPreProcessor preProcessor;
+
+    public JointParallelMultiDataSetIterator(@NonNull List<MultiDataSetIterator> iterators,
+                    @NonNull InequalityHandling inequalityHandling) {
+        this(iterators, inequalityHandling, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     *
+     * @param iterators source iterators, each one gets its own producer thread
+     * @param inequalityHandling behavior once one of producers runs out of data
+     * @param bufferSize number of MultiDataSets prefetched by each producer
+     */
+    public JointParallelMultiDataSetIterator(@NonNull List<MultiDataSetIterator> iterators,
+                    @NonNull InequalityHandling inequalityHandling, int bufferSize) {
+        super(iterators.size(), inequalityHandling, bufferSize);
+        this.iterators = new ArrayList<>(iterators);
+    }
+
+    @Override
+    protected boolean sourceHasNext(int producer) {
+        return iterators.get(producer).hasNext();
+    }
+
+    @Override
+    protected MultiDataSet sourceNext(int producer) {
+        return iterators.get(producer).next();
+    }
+
+    @Override
+    protected boolean sourceResetSupported(int producer) {
+        return iterators.get(producer).resetSupported();
+    }
+
+    @Override
+    protected void sourceReset(int producer) {
+        iterators.get(producer).reset();
+    }
+
+    @Override
+    protected void preProcess(MultiDataSet item) {
+        if (preProcessor != null)
+            preProcessor.preProcess(item);
+    }
+
+    @Override
+    protected MultiDataSet relocate(MultiDataSet item, int deviceId) {
+        return new org.nd4j.linalg.dataset.MultiDataSet(replicate(item.getFeatures(), deviceId),
+                        replicate(item.getLabels(), deviceId), replicate(item.getFeaturesMaskArrays(), deviceId),
+                        replicate(item.getLabelsMaskArrays(), deviceId));
+    }
+
+    protected static INDArray[] replicate(INDArray[] arrays, int deviceId) {
+        if (arrays == null)
+            return null;
+
+        INDArray[] result = new INDArray[arrays.length];
+        for (int i = 0; i < arrays.length; i++)
+            result[i] = arrays[i] == null ? null : Nd4j.getAffinityManager().replicateToDevice(deviceId, arrays[i]);
+
+        return result;
+    }
+
+    @Override
+    public MultiDataSet nextFor(int consumer) {
+        return nextForInternal(consumer);
+    }
+
+    @Override
+    public MultiDataSet nextFor() {
+        return nextForInternal(attachedProducer());
+    }
+
+    @Override
+    public MultiDataSet next() {
+        return nextInternal();
+    }
+
+    @Override
+    protected int numExamples(MultiDataSet item) {
+        return item.getFeatures(0).size(0);
+    }
+
+    @Override
+    protected List<MultiDataSet> split(MultiDataSet item) {
+        return item.asList();
+    }
+
+    @Override
+    protected MultiDataSet merge(List<MultiDataSet> items) {
+        return org.nd4j.linalg.dataset.MultiDataSet.merge(items);
+    }
+
+    /**
+     * This method returns MultiDataSet with exactly num examples, merged from the next MultiDataSets, or less if there's not enough examples left.
+     * Examples left over from the last merged MultiDataSet are returned by subsequent next() calls.
+     *
+     * PLEASE NOTE: nextFor() calls don't take leftover examples into account
+     *
+     * @param num number of examples
+     * @return
+     */
+    @Override
+    public MultiDataSet next(int num) {
+        return nextInternal(num);
+    }
+
+    @Override
+    public void setPreProcessor(MultiDataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public MultiDataSetPreProcessor getPreProcessor() {
+        return preProcessor;
+    }
+
+    @Override
+    public boolean resetSupported() {
+        for (MultiDataSetIterator iterator : iterators)
+            if (!iterator.resetSupported())
+                return false;
+
+        return true;
+    }
+
+    @Override
+    public boolean asyncSupported() {
+        // this iterator is asynchronous already
+        return false;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
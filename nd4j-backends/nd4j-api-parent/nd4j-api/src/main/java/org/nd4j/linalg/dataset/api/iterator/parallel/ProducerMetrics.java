@@ -0,0 +1,30 @@
+package org.nd4j.linalg.dataset.api.iterator.parallel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Point-in-time snapshot of statistics for single producer of parallel iterator
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProducerMetrics {
+    private int producer;
+    private int deviceId;
+    private int queueDepth;
+    private long producedBatches;
+    private long consumedBatches;
+
+    // batches per second, since producer was started
+    private double throughput;
+
+    // times are in nanoseconds
+    private long averageProducingTime;
+
+    // total time consumers spent waiting for this producer
+    private long starvationTime;
+}
@@ -158,7 +158,7 @@ public abstract class AbstractMultiDataSetNormalizer<S extends NormalizerStats>
     }
 
     /**
-     * Pre process a MultiDataSet
+     * Pre process a MultiDataSet. All features and labels arrays are processed concurrently, in-place
      *
      * @param toPreProcess the data set to pre process
      */
@@ -167,14 +167,19 @@ public abstract class AbstractMultiDataSetNormalizer<S extends NormalizerStats>
         int numFeatures = toPreProcess.numFeatureArrays();
         int numLabels = toPreProcess.numLabelsArrays();
 
+        List<FusedNormalization.Job> jobs = new ArrayList<>(numFeatures + numLabels);
         for (int i = 0; i < numFeatures; i++) {
-            strategy.preProcess(toPreProcess.getFeatures(i), toPreProcess.getFeaturesMaskArray(i), getFeatureStats(i));
+            jobs.add(FusedNormalization.job(strategy, toPreProcess.getFeatures(i), toPreProcess.getFeaturesMaskArray(i),
+                            getFeatureStats(i), false));
         }
         if (isFitLabel()) {
             for (int i = 0; i < numLabels; i++) {
-                strategy.preProcess(toPreProcess.getLabels(i), toPreProcess.getLabelsMaskArray(i), getLabelStats(i));
+                jobs.add(FusedNormalization.job(strategy, toPreProcess.getLabels(i), toPreProcess.getLabelsMaskArray(i),
+                                getLabelStats(i), false));
             }
         }
+
+        FusedNormalization.execute(jobs);
     }
 
     /**
@@ -183,8 +188,20 @@ public abstract class AbstractMultiDataSetNormalizer<S extends NormalizerStats>
      * @param data the dataset to revert back
      */
     public void revert(@NonNull MultiDataSet data) {
-        revertFeatures(data.getFeatures(), data.getFeaturesMaskArrays());
-        revertLabels(data.getLabels(), data.getLabelsMaskArrays());
+        List<FusedNormalization.Job> jobs = new ArrayList<>();
+        addRevertJobs(jobs, data.getFeatures(), data.getFeaturesMaskArrays(), false);
+        if (isFitLabel())
+            addRevertJobs(jobs, data.getLabels(), data.getLabelsMaskArrays(), true);
+
+        FusedNormalization.execute(jobs);
+    }
+
+    private void addRevertJobs(List<FusedNormalization.Job> jobs, INDArray[] arrays, INDArray[] masks, boolean labels) {
+        for (int i = 0; i < arrays.length; i++) {
+            INDArray mask = (masks == null ? null : masks[i]);
+            jobs.add(FusedNormalization.job(strategy, arrays[i], mask, labels ? getLabelStats(i) : getFeatureStats(i),
+                            true));
+        }
     }
 
     /**
@@ -202,10 +219,9 @@ public abstract class AbstractMultiDataSetNormalizer<S extends NormalizerStats>
      * @param features Features to revert the normalization on
      */
     public void revertFeatures(@NonNull INDArray[] features, INDArray[] maskArrays) {
-        for (int i = 0; i < features.length; i++) {
-            INDArray mask = (maskArrays == null ? null : maskArrays[i]);
-            revertFeatures(features[i], mask, i);
-        }
+        List<FusedNormalization.Job> jobs = new ArrayList<>(features.length);
+        addRevertJobs(jobs, features, maskArrays, false);
+        FusedNormalization.execute(jobs);
     }
 
     /**
@@ -239,10 +255,12 @@ public abstract class AbstractMultiDataSetNormalizer<S extends NormalizerStats>
      * @param labels Labels arrays to revert the normalization on
      */
     public void revertLabels(@NonNull INDArray[] labels, INDArray[] labelsMask) {
-        for (int i = 0; i < labels.length; i++) {
-            INDArray mask = (labelsMask == null ? null : labelsMask[i]);
-            revertLabels(labels[i], mask, i);
-        }
+        if (!isFitLabel())
+            return;
+
+        List<FusedNormalization.Job> jobs = new ArrayList<>(labels.length);
+        addRevertJobs(jobs, labels, labelsMask, true);
+        FusedNormalization.execute(jobs);
     }
 
     /**
@@ -0,0 +1,461 @@
+package org.nd4j.linalg.dataset.api.preprocessor;
+
+import lombok.NonNull;
+import org.bytedeco.javacpp.BytePointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastAddOp;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastDivOp;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastMulOp;
+import org.nd4j.linalg.dataset.api.DataSetUtil;
+import org.nd4j.linalg.dataset.api.preprocessor.stats.NormalizerStats;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.ArrayUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * In-place affine transform along dimension 1: x = (x + offset[i]) / divisor[i] * scale[i] + shift[i], where i is index
+ * along dimension 1, and divisor is optional. That's how both standardization and min-max scaling (and their reverts)
+ * can be expressed, so subtraction and division (or scaling and shifting) are done in one pass over data, without
+ * temporary arrays. Operations are applied in the same order as separate ops would be, and division isn't replaced
+ * with multiplication by reciprocal, so results are the same as with separate ops, even for FLOAT arrays.
+ *
+ * For c-ordered compact FLOAT and DOUBLE arrays data is processed directly in host memory, optionally split in
+ * chunks of rows. Other arrays fall back to broadcast ops.
+ *
+ * Multiple arrays can be processed concurrently via {@link #execute(List)}, which is used by MultiDataSet normalizers.
+ */
+public class FusedNormalization {
+    // minimal number of elements processed by single task
+    protected static final int CHUNK_LENGTH = 32 * 1024;
+
+    // number of elements copied to heap at once, small enough to stay in cache
+    protected static final int BLOCK_LENGTH = 4096;
+
+    private static final ThreadLocal<float[]> FLOAT_BLOCK = new ThreadLocal<float[]>() {
+        @Override
+        protected float[] initialValue() {
+            return new float[BLOCK_LENGTH];
+        }
+    };
+
+    private static final ThreadLocal<double[]> DOUBLE_BLOCK = new ThreadLocal<double[]>() {
+        @Override
+        protected double[] initialValue() {
+            return new double[BLOCK_LENGTH];
+        }
+    };
+
+    private FusedNormalization() {}
+
+    /**
+     * Strategies implementing this interface can express their transforms as affine transform along dimension 1
+     */
+    public interface AffineStrategy<S extends NormalizerStats> extends NormalizerStrategy<S> {
+        /**
+         * @return offset, scale, shift and optional divisor arrays, so that normalized value is
+         *         (x + offset) / divisor * scale + shift
+         */
+        double[][] preProcessParams(S stats);
+
+        /**
+         * @return offset, scale, shift and optional divisor arrays, so that reverted value is
+         *         (x + offset) / divisor * scale + shift
+         */
+        double[][] revertParams(S stats);
+    }
+
+    /**
+     * This method applies affine transform to given array in-place, in current thread, and zeroes masked values
+     *
+     * @param array array to transform
+     * @param mask optional mask array
+     * @param params offset, scale, shift and optional divisor
+     */
+    public static void transform(@NonNull INDArray array, INDArray mask, @NonNull double[][] params) {
+        execute(Arrays.asList(job(array, mask, params)), false);
+    }
+
+    /**
+     * This method creates job for affine transform of given array
+     */
+    public static Job job(@NonNull INDArray array, INDArray mask, @NonNull double[][] params) {
+        return new Job(array, mask, params, null);
+    }
+
+    /**
+     * This method creates job for arbitrary transform, i.e. strategy that can't be expressed as affine transform
+     */
+    public static Job job(@NonNull Runnable runnable) {
+        return new Job(null, null, null, runnable);
+    }
+
+    /**
+     * This method creates job applying given strategy to given array. If strategy implements {@link AffineStrategy},
+     * fused transform is used, otherwise strategy is called as is.
+     *
+     * @param strategy normalization strategy
+     * @param array array to transform
+     * @param mask optional mask array
+     * @param stats statistics for given array
+     * @param revert if TRUE, normalization will be reverted
+     * @return
+     */
+    public static <S extends NormalizerStats> Job job(@NonNull final NormalizerStrategy<S> strategy,
+                    @NonNull final INDArray array, final INDArray mask, @NonNull final S stats, final boolean revert) {
+        if (strategy instanceof AffineStrategy) {
+            AffineStrategy<S> affine = (AffineStrategy<S>) strategy;
+            return job(array, mask, revert ? affine.revertParams(stats) : affine.preProcessParams(stats));
+        }
+
+        return job(new Runnable() {
+            @Override
+            public void run() {
+                if (revert)
+                    strategy.revert(array, mask, stats);
+                else
+                    strategy.preProcess(array, mask, stats);
+            }
+        });
+    }
+
+    /**
+     * This method executes all given jobs, using ForkJoinPool, if there's enough work to be split
+     *
+     * @param jobs
+     */
+    public static void execute(@NonNull List<Job> jobs) {
+        execute(jobs, true);
+    }
+
+    protected static void execute(List<Job> jobs, boolean parallel) {
+        List<RecursiveAction> tasks = new ArrayList<>();
+        long totalLength = 0;
+
+        for (final Job job : jobs) {
+            if (job.runnable != null) {
+                tasks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        job.runnable.run();
+                    }
+                });
+                totalLength += CHUNK_LENGTH;
+                continue;
+            }
+
+            final INDArray array = job.array;
+            if (array.length() == 0)
+                continue;
+
+            int numFeatures = array.rank() > 1 ? array.size(1) : array.length();
+            if (job.offset.length != numFeatures || job.scale.length != numFeatures || job.shift.length != numFeatures
+                            || (job.divisor != null && job.divisor.length != numFeatures))
+                throw new IllegalArgumentException("Array has " + numFeatures + " features along dimension 1, but "
+                                + job.scale.length + " parameters were provided");
+
+            totalLength += array.length();
+
+            if (!canTransformDirectly(array)) {
+                tasks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        transformBroadcast(job);
+                    }
+                });
+                continue;
+            }
+
+            Nd4j.getExecutioner().commit();
+            Nd4j.getAffinityManager().ensureLocation(array, AffinityManager.Location.HOST);
+
+            int rows = array.rank() > 1 ? array.size(0) : 1;
+            int rowLength = array.length() / rows;
+            int rowsPerChunk = Math.max(1, CHUNK_LENGTH / Math.max(1, rowLength));
+            if (!parallel)
+                rowsPerChunk = rows;
+
+            for (int r = 0; r < rows; r += rowsPerChunk) {
+                final int from = r * rowLength;
+                final int to = Math.min(rows, r + rowsPerChunk) * rowLength;
+                tasks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        transformDirectly(job, from, to);
+                    }
+                });
+            }
+        }
+
+        run(tasks, parallel && tasks.size() > 1 && totalLength > CHUNK_LENGTH);
+
+        // masks are applied once all chunks of the array are done
+        List<RecursiveAction> masks = new ArrayList<>();
+        for (final Job job : jobs) {
+            if (job.array == null)
+                continue;
+
+            if (canTransformDirectly(job.array))
+                Nd4j.getAffinityManager().tagLocation(job.array, AffinityManager.Location.HOST);
+
+            if (job.mask != null)
+                masks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        DataSetUtil.setMaskedValuesToZero(job.array, job.mask);
+                    }
+                });
+        }
+
+        run(masks, parallel && masks.size() > 1);
+    }
+
+    protected static void run(final List<RecursiveAction> tasks, boolean parallel) {
+        if (tasks.isEmpty())
+            return;
+
+        if (!parallel) {
+            for (RecursiveAction task : tasks)
+                task.invoke();
+            return;
+        }
+
+        // invokeAll from within pool worker is fine, so nested calls won't deadlock
+        ExecutorServiceProvider.getForkJoinPool().invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+    }
+
+    protected static boolean canTransformDirectly(INDArray array) {
+        DataBuffer.Type type = array.data().dataType();
+        if (type != DataBuffer.Type.FLOAT && type != DataBuffer.Type.DOUBLE)
+            return false;
+
+        if (array.isCompressed() || array.offset() != array.data().offset())
+            return false;
+
+        return array.ordering() == 'c' && Arrays.equals(array.stride(), ArrayUtil.calcStrides(array.shape()));
+    }
+
+    /**
+     * Transforms elements [from, to) of c-ordered compact array, in single pass over memory.
+     * Data is copied block by block into heap scratch array, so JIT can vectorize the loop.
+     */
+    protected static void transformDirectly(Job job, int from, int to) {
+        INDArray array = job.array;
+        int numFeatures = job.scale.length;
+        int rows = array.rank() > 1 ? array.size(0) : 1;
+        // number of consecutive elements sharing the same feature, i.e. timesteps or pixels
+        int inner = array.rank() > 1 ? array.length() / rows / numFeatures : 1;
+
+        int elementSize = array.data().getElementSize();
+        ByteBuffer bytes = new BytePointer(array.data().addressPointer()).capacity(array.length() * (long) elementSize)
+                        .asByteBuffer().order(ByteOrder.nativeOrder());
+
+        if (array.data().dataType() == DataBuffer.Type.FLOAT) {
+            FloatBuffer buffer = bytes.asFloatBuffer();
+            float[] offset = job.floatParams(0);
+            float[] scale = job.floatParams(1);
+            float[] shift = job.floatParams(2);
+            float[] divisor = job.floatParams(3);
+            float[] block = FLOAT_BLOCK.get();
+
+            for (int e = from; e < to; e += BLOCK_LENGTH) {
+                int length = Math.min(BLOCK_LENGTH, to - e);
+                buffer.position(e);
+                buffer.get(block, 0, length);
+
+                int i = 0;
+                if (inner == 1) {
+                    // rank 2 array: feature changes with every element, so we go over row segments instead
+                    int feature = e % numFeatures;
+                    while (i < length) {
+                        int n = Math.min(length - i, numFeatures - feature);
+                        if (divisor == null) {
+                            for (int j = 0; j < n; j++)
+                                block[i + j] = (block[i + j] + offset[feature + j]) * scale[feature + j] + shift[feature + j];
+                        } else {
+                            for (int j = 0; j < n; j++)
+                                block[i + j] = (block[i + j] + offset[feature + j]) / divisor[feature + j]
+                                                * scale[feature + j] + shift[feature + j];
+                        }
+
+                        i += n;
+                        feature = 0;
+                    }
+                } else {
+                    while (i < length) {
+                        int idx = (e + i) / inner;
+                        int feature = idx % numFeatures;
+                        int end = Math.min(length, (idx + 1) * inner - e);
+                        float o = offset[feature];
+                        float sc = scale[feature];
+                        float sh = shift[feature];
+                        if (divisor == null) {
+                            for (int j = i; j < end; j++)
+                                block[j] = (block[j] + o) * sc + sh;
+                        } else {
+                            float d = divisor[feature];
+                            for (int j = i; j < end; j++)
+                                block[j] = (block[j] + o) / d * sc + sh;
+                        }
+
+                        i = end;
+                    }
+                }
+
+                buffer.position(e);
+                buffer.put(block, 0, length);
+            }
+        } else {
+            DoubleBuffer buffer = bytes.asDoubleBuffer();
+            double[] offset = job.offset;
+            double[] scale = job.scale;
+            double[] shift = job.shift;
+            double[] divisor = job.divisor;
+            double[] block = DOUBLE_BLOCK.get();
+
+            for (int e = from; e < to; e += BLOCK_LENGTH) {
+                int length = Math.min(BLOCK_LENGTH, to - e);
+                buffer.position(e);
+                buffer.get(block, 0, length);
+
+                int i = 0;
+                if (inner == 1) {
+                    // rank 2 array: feature changes with every element, so we go over row segments instead
+                    int feature = e % numFeatures;
+                    while (i < length) {
+                        int n = Math.min(length - i, numFeatures - feature);
+                        if (divisor == null) {
+                            for (int j = 0; j < n; j++)
+                                block[i + j] = (block[i + j] + offset[feature + j]) * scale[feature + j] + shift[feature + j];
+                        } else {
+                            for (int j = 0; j < n; j++)
+                                block[i + j] = (block[i + j] + offset[feature + j]) / divisor[feature + j]
+                                                * scale[feature + j] + shift[feature + j];
+                        }
+
+                        i += n;
+                        feature = 0;
+                    }
+                } else {
+                    while (i < length) {
+                        int idx = (e + i) / inner;
+                        int feature = idx % numFeatures;
+                        int end = Math.min(length, (idx + 1) * inner - e);
+                        double o = offset[feature];
+                        double sc = scale[feature];
+                        double sh = shift[feature];
+                        if (divisor == null) {
+                            for (int j = i; j < end; j++)
+                                block[j] = (block[j] + o) * sc + sh;
+                        } else {
+                            double d = divisor[feature];
+                            for (int j = i; j < end; j++)
+                                block[j] = (block[j] + o) / d * sc + sh;
+                        }
+
+                        i = end;
+                    }
+                }
+
+                buffer.position(e);
+                buffer.put(block, 0, length);
+            }
+        }
+    }
+
+    protected static void transformBroadcast(Job job) {
+        INDArray array = job.array;
+        INDArray offset = Nd4j.create(job.offset);
+        INDArray scale = Nd4j.create(job.scale);
+        INDArray shift = Nd4j.create(job.shift);
+        INDArray divisor = job.divisor == null ? null : Nd4j.create(job.divisor);
+
+        if (array.rank() <= 2) {
+            array.addiRowVector(offset);
+            if (divisor != null)
+                array.diviRowVector(divisor);
+            array.muliRowVector(scale);
+            array.addiRowVector(shift);
+        } else {
+            Nd4j.getExecutioner().execAndReturn(new BroadcastAddOp(array, offset, array, 1));
+            if (divisor != null)
+                Nd4j.getExecutioner().execAndReturn(new BroadcastDivOp(array, divisor, array, 1));
+            Nd4j.getExecutioner().execAndReturn(new BroadcastMulOp(array, scale, array, 1));
+            Nd4j.getExecutioner().execAndReturn(new BroadcastAddOp(array, shift, array, 1));
+        }
+    }
+
+    /**
+     * This method returns values of given vector as double array
+     */
+    public static double[] toDoubles(@NonNull INDArray vector) {
+        if (vector.isView() || vector.data().length() != vector.length())
+            vector = vector.dup();
+
+        return vector.data().asDouble();
+    }
+
+    /**
+     * Single array to be transformed
+     */
+    public static class Job {
+        protected final INDArray array;
+        protected final INDArray mask;
+        protected final double[] offset;
+        protected final double[] scale;
+        protected final double[] shift;
+        protected final double[] divisor;
+        protected final Runnable runnable;
+        protected volatile float[][] floatParams;
+
+        protected Job(INDArray array, INDArray mask, double[][] params, Runnable runnable) {
+            if (params != null && params.length != 3 && params.length != 4)
+                throw new IllegalArgumentException("Offset, scale, shift and optional divisor are expected");
+
+            this.array = array;
+            this.mask = mask;
+            this.offset = params == null ? null : params[0];
+            this.scale = params == null ? null : params[1];
+            this.shift = params == null ? null : params[2];
+            this.divisor = params == null || params.length < 4 ? null : params[3];
+            this.runnable = runnable;
+        }
+
+        /**
+         * Parameters converted to float, shared by all chunks of this job
+         */
+        protected float[] floatParams(int index) {
+            if (floatParams == null) {
+                double[][] source = new double[][] {offset, scale, shift, divisor};
+                float[][] params = new float[4][];
+                for (int p = 0; p < 4; p++) {
+                    if (source[p] == null)
+                        continue;
+
+                    params[p] = new float[source[p].length];
+                    for (int i = 0; i < source[p].length; i++)
+                        params[p][i] = (float) source[p][i];
+                }
+                floatParams = params;
+            }
+
+            return floatParams[index];
+        }
+    }
+}
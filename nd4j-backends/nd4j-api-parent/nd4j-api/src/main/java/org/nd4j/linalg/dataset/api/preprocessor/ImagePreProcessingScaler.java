@@ -1,11 +1,14 @@
 package org.nd4j.linalg.dataset.api.preprocessor;
 
+import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.dataset.api.DataSet;
 import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.dataset.api.preprocessor.serializer.NormalizerType;
 
+import java.nio.ByteBuffer;
+
 /**
  * Created by susaneraly on 6/23/16.
  * A preprocessor specifically for images that applies min max scaling
@@ -14,6 +17,9 @@ import org.nd4j.linalg.dataset.api.preprocessor.serializer.NormalizerType;
  * If pixel values are not 8 bits, you can specify the number of bits as the third argument in the constructor
  * For values that are already floating point, specify the number of bits as 1
  *
+ * 8-bit images can be passed as raw bytes too, see {@link #preProcess(ByteBuffer, int[], QuantizedImageTransform.Layout, QuantizedImageTransform.Layout)}:
+ * that way float array is created and scaled in a single pass, without separate float copy of pixels.
+ *
  */
 @Slf4j
 public class ImagePreProcessingScaler implements DataNormalization {
@@ -82,6 +88,44 @@ public class ImagePreProcessingScaler implements DataNormalization {
             features.addi(this.minRange); //Offset by minRange
     }
 
+    /**
+     * This method converts uint8 image batch into new array of scaled values, in a single pass over data.
+     *
+     * @param pixels image bytes, starting at current buffer position
+     * @param shape shape of the input batch, in input layout order: [n, c, h, w] for NCHW or [n, h, w, c] for NHWC
+     * @param inputLayout layout of input bytes
+     * @param outputLayout layout of returned array
+     * @return scaled features, allocated in current workspace if any
+     */
+    public INDArray preProcess(@NonNull ByteBuffer pixels, @NonNull int[] shape,
+                    @NonNull QuantizedImageTransform.Layout inputLayout,
+                    @NonNull QuantizedImageTransform.Layout outputLayout) {
+        int channels = inputLayout == QuantizedImageTransform.Layout.NCHW ? shape[1] : shape[shape.length - 1];
+        return QuantizedImageTransform.transform(pixels, shape, inputLayout, outputLayout, quantizedParams(channels));
+    }
+
+    /**
+     * This method converts uint8 image batch into new NCHW array of scaled values, in a single pass over data.
+     *
+     * @param pixels image bytes
+     * @param shape shape of the input batch, in input layout order
+     * @param inputLayout layout of input bytes
+     * @return scaled features, in NCHW layout
+     */
+    public INDArray preProcess(@NonNull byte[] pixels, @NonNull int[] shape,
+                    @NonNull QuantizedImageTransform.Layout inputLayout) {
+        return preProcess(ByteBuffer.wrap(pixels), shape, inputLayout, QuantizedImageTransform.Layout.NCHW);
+    }
+
+    protected double[][] quantizedParams(int channels) {
+        double[][] params = new double[3][channels];
+        for (int c = 0; c < channels; c++) {
+            params[1][c] = (maxRange - minRange) / maxPixelVal;
+            params[2][c] = minRange;
+        }
+        return params;
+    }
+
     /**
      * Transform the data
      * @param toPreProcess the dataset to transform
@@ -3,11 +3,6 @@ package org.nd4j.linalg.dataset.api.preprocessor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastAddOp;
-import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastDivOp;
-import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastMulOp;
-import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastSubOp;
-import org.nd4j.linalg.dataset.api.DataSetUtil;
 import org.nd4j.linalg.dataset.api.preprocessor.stats.MinMaxStats;
 import org.nd4j.linalg.dataset.api.preprocessor.stats.NormalizerStats;
 import org.nd4j.linalg.factory.Nd4j;
@@ -22,7 +17,8 @@ import java.io.Serializable;
  */
 @Getter
 @EqualsAndHashCode
-public class MinMaxStrategy implements NormalizerStrategy<MinMaxStats>, Serializable {
+public class MinMaxStrategy implements NormalizerStrategy<MinMaxStats>, FusedNormalization.AffineStrategy<MinMaxStats>,
+                Serializable {
     private double minRange;
     private double maxRange;
 
@@ -47,26 +43,10 @@ public class MinMaxStrategy implements NormalizerStrategy<MinMaxStats>, Serializ
      */
     @Override
     public void preProcess(INDArray array, INDArray maskArray, MinMaxStats stats) {
-        if (array.rank() <= 2) {
-            array.subiRowVector(stats.getLower());
-            array.diviRowVector(stats.getRange());
-        }
         // if feature Rank is 3 (time series) samplesxfeaturesxtimesteps
         // if feature Rank is 4 (images) samplesxchannelsxrowsxcols
-        // both cases operations should be carried out in dimension 1
-        else {
-            Nd4j.getExecutioner().execAndReturn(new BroadcastSubOp(array, stats.getLower(), array, 1));
-            Nd4j.getExecutioner().execAndReturn(new BroadcastDivOp(array, stats.getRange(), array, 1));
-        }
-
-        // Scale by target range
-        array.muli(maxRange - minRange);
-        // Add target range minimum values
-        array.addi(minRange);
-
-        if (maskArray != null) {
-            DataSetUtil.setMaskedValuesToZero(array, maskArray);
-        }
+        // in all cases operations are carried out along dimension 1
+        FusedNormalization.transform(array, maskArray, preProcessParams(stats));
     }
 
     /**
@@ -77,22 +57,45 @@ public class MinMaxStrategy implements NormalizerStrategy<MinMaxStats>, Serializ
      */
     @Override
     public void revert(INDArray array, INDArray maskArray, MinMaxStats stats) {
-        // Subtract target range minimum value
-        array.subi(minRange);
-        // Scale by target range
-        array.divi(maxRange - minRange);
+        FusedNormalization.transform(array, maskArray, revertParams(stats));
+    }
 
-        if (array.rank() <= 2) {
-            array.muliRowVector(stats.getRange());
-            array.addiRowVector(stats.getLower());
-        } else {
-            Nd4j.getExecutioner().execAndReturn(new BroadcastMulOp(array, stats.getRange(), array, 1));
-            Nd4j.getExecutioner().execAndReturn(new BroadcastAddOp(array, stats.getLower(), array, 1));
+    /**
+     * ((x - lower) / range) * (maxRange - minRange) + minRange is applied as (x + (-lower)) / range * scale + minRange
+     */
+    @Override
+    public double[][] preProcessParams(MinMaxStats stats) {
+        double[] lower = FusedNormalization.toDoubles(stats.getLower());
+        double[] range = FusedNormalization.toDoubles(stats.getRange());
+
+        double[] offset = new double[range.length];
+        double[] scale = new double[range.length];
+        double[] shift = new double[range.length];
+        for (int i = 0; i < range.length; i++) {
+            offset[i] = -lower[i];
+            scale[i] = maxRange - minRange;
+            shift[i] = minRange;
         }
 
-        if (maskArray != null) {
-            DataSetUtil.setMaskedValuesToZero(array, maskArray);
+        return new double[][] {offset, scale, shift, range};
+    }
+
+    /**
+     * (x - minRange) / (maxRange - minRange) * range + lower
+     */
+    @Override
+    public double[][] revertParams(MinMaxStats stats) {
+        double[] lower = FusedNormalization.toDoubles(stats.getLower());
+        double[] range = FusedNormalization.toDoubles(stats.getRange());
+
+        double[] offset = new double[range.length];
+        double[] divisor = new double[range.length];
+        for (int i = 0; i < range.length; i++) {
+            offset[i] = -minRange;
+            divisor[i] = maxRange - minRange;
         }
+
+        return new double[][] {offset, range, lower, divisor};
     }
 
     /**
@@ -11,7 +11,9 @@ import org.nd4j.linalg.dataset.api.preprocessor.serializer.NormalizerType;
 import org.nd4j.linalg.dataset.api.preprocessor.stats.NormalizerStats;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -293,23 +295,31 @@ public class MultiNormalizerHybrid extends AbstractNormalizer implements MultiDa
         preProcess(data);
     }
 
+    /**
+     * Pre process a MultiDataSet. All inputs and outputs are processed concurrently
+     *
+     * @param data the data set to pre process
+     */
     @Override
     public void preProcess(@NonNull MultiDataSet data) {
-        preProcess(data.getFeatures(), data.getFeaturesMaskArrays(), globalInputStrategy, perInputStrategies,
-                        getInputStats());
-        preProcess(data.getLabels(), data.getLabelsMaskArrays(), globalOutputStrategy, perOutputStrategies,
-                        getOutputStats());
+        List<FusedNormalization.Job> jobs = new ArrayList<>();
+        addJobs(jobs, data.getFeatures(), data.getFeaturesMaskArrays(), globalInputStrategy, perInputStrategies,
+                        getInputStats(), false);
+        addJobs(jobs, data.getLabels(), data.getLabelsMaskArrays(), globalOutputStrategy, perOutputStrategies,
+                        getOutputStats(), false);
+        FusedNormalization.execute(jobs);
     }
 
-    private void preProcess(INDArray[] arrays, INDArray[] masks, NormalizerStrategy globalStrategy,
-                    Map<Integer, NormalizerStrategy> perArrayStrategy, Map<Integer, NormalizerStats> stats) {
+    private void addJobs(List<FusedNormalization.Job> jobs, INDArray[] arrays, INDArray[] masks,
+                    NormalizerStrategy globalStrategy, Map<Integer, NormalizerStrategy> perArrayStrategy,
+                    Map<Integer, NormalizerStats> stats, boolean revert) {
 
         if (arrays != null) {
             for (int i = 0; i < arrays.length; i++) {
                 NormalizerStrategy strategy = getStrategy(globalStrategy, perArrayStrategy, i);
                 if (strategy != null) {
-                    //noinspection unchecked
-                    strategy.preProcess(arrays[i], masks == null ? null : masks[i], stats.get(i));
+                    jobs.add(FusedNormalization.job(strategy, arrays[i], masks == null ? null : masks[i],
+                                    stats.get(i), revert));
                 }
             }
         }
@@ -322,8 +332,12 @@ public class MultiNormalizerHybrid extends AbstractNormalizer implements MultiDa
      */
     @Override
     public void revert(@NonNull MultiDataSet data) {
-        revertFeatures(data.getFeatures(), data.getFeaturesMaskArrays());
-        revertLabels(data.getLabels(), data.getLabelsMaskArrays());
+        List<FusedNormalization.Job> jobs = new ArrayList<>();
+        addJobs(jobs, data.getFeatures(), data.getFeaturesMaskArrays(), globalInputStrategy, perInputStrategies,
+                        getInputStats(), true);
+        addJobs(jobs, data.getLabels(), data.getLabelsMaskArrays(), globalOutputStrategy, perOutputStrategies,
+                        getOutputStats(), true);
+        FusedNormalization.execute(jobs);
     }
 
     @Override
@@ -349,9 +363,9 @@ public class MultiNormalizerHybrid extends AbstractNormalizer implements MultiDa
      */
     @Override
     public void revertFeatures(@NonNull INDArray[] features, INDArray[] maskArrays) {
-        for (int i = 0; i < features.length; i++) {
-            revertFeatures(features, maskArrays, i);
-        }
+        List<FusedNormalization.Job> jobs = new ArrayList<>();
+        addJobs(jobs, features, maskArrays, globalInputStrategy, perInputStrategies, getInputStats(), true);
+        FusedNormalization.execute(jobs);
     }
 
     /**
@@ -388,9 +402,9 @@ public class MultiNormalizerHybrid extends AbstractNormalizer implements MultiDa
      */
     @Override
     public void revertLabels(@NonNull INDArray[] labels, INDArray[] maskArrays) {
-        for (int i = 0; i < labels.length; i++) {
-            revertLabels(labels, maskArrays, i);
-        }
+        List<FusedNormalization.Job> jobs = new ArrayList<>();
+        addJobs(jobs, labels, maskArrays, globalOutputStrategy, perOutputStrategies, getOutputStats(), true);
+        FusedNormalization.execute(jobs);
     }
 
     /**
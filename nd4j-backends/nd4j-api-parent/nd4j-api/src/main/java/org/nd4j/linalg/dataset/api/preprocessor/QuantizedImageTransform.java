@@ -0,0 +1,266 @@
+package org.nd4j.linalg.dataset.api.preprocessor;
+
+import lombok.NonNull;
+import org.bytedeco.javacpp.BytePointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class converts batches of 8-bit images into floating point feature arrays.
+ *
+ * Conversion, per-channel affine normalization (same (x + offset) * scale + shift form as {@link FusedNormalization})
+ * and optional layout change are done in a single pass: every byte is read once, and every output element is written once.
+ * Since there are only 256 possible input values, normalized values are taken from per-channel lookup tables.
+ *
+ * Output array is created via Nd4j.createUninitialized(), so if workspace is open in current thread, output is allocated in it.
+ */
+public class QuantizedImageTransform {
+    // number of pixels converted at once
+    protected static final int BLOCK_PIXELS = 1024;
+
+    private QuantizedImageTransform() {}
+
+    /**
+     * Memory layout of image batch
+     */
+    public enum Layout {
+        /**
+         * [minibatch, channels, height, width], used by nd4j/dl4j convolution layers
+         */
+        NCHW,
+        /**
+         * [minibatch, height, width, channels], interleaved channels, as produced by most image decoders
+         */
+        NHWC
+    }
+
+    /**
+     * This method converts given uint8 image batch into new floating point array
+     *
+     * @param pixels image bytes, starting at current buffer position. Buffer position isn't changed
+     * @param shape shape of the input batch, in input layout order: i.e. [n, c, h, w] for NCHW or [n, h, w, c] for NHWC
+     * @param inputLayout layout of input bytes
+     * @param outputLayout layout of output array
+     * @param params offset, scale and shift, one value per channel each
+     * @return array of shape [n, c, h, w] or [n, h, w, c], depending on output layout
+     */
+    public static INDArray transform(@NonNull ByteBuffer pixels, @NonNull int[] shape, @NonNull Layout inputLayout,
+                    @NonNull Layout outputLayout, @NonNull double[][] params) {
+        if (shape.length != 4)
+            throw new IllegalArgumentException("Image batch shape should have 4 dimensions, but got " + shape.length);
+
+        final int numExamples = shape[0];
+        final int channels = inputLayout == Layout.NCHW ? shape[1] : shape[3];
+        final int height = inputLayout == Layout.NCHW ? shape[2] : shape[1];
+        final int width = inputLayout == Layout.NCHW ? shape[3] : shape[2];
+
+        if (params.length != 3 || params[0].length != channels || params[1].length != channels
+                        || params[2].length != channels)
+            throw new IllegalArgumentException("Offset, scale and shift are expected for each of " + channels + " channels");
+
+        final int imageLength = channels * height * width;
+        if (pixels.remaining() < (long) numExamples * imageLength)
+            throw new IllegalArgumentException("Image batch of shape " + Arrays.toString(shape) + " requires "
+                            + ((long) numExamples * imageLength) + " bytes, but only " + pixels.remaining()
+                            + " are available");
+
+        int[] outputShape = outputLayout == Layout.NCHW ? new int[] {numExamples, channels, height, width}
+                        : new int[] {numExamples, height, width, channels};
+
+        final Kernel kernel = new Kernel(pixels.slice(), channels, height * width, inputLayout, outputLayout, params);
+
+        DataBuffer.Type type = Nd4j.dataType();
+        if (type != DataBuffer.Type.FLOAT && type != DataBuffer.Type.DOUBLE) {
+            // HALF etc: convert via heap, and let DataBuffer do the rest
+            float[] data = new float[numExamples * imageLength];
+            FloatBuffer buffer = FloatBuffer.wrap(data);
+            for (int e = 0; e < numExamples; e++)
+                kernel.convert(e, buffer);
+
+            return Nd4j.create(data, outputShape, 'c');
+        }
+
+        final INDArray result = Nd4j.createUninitialized(outputShape, 'c');
+        if (result.length() == 0)
+            return result;
+
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(result, AffinityManager.Location.HOST);
+
+        final ByteBuffer output = new BytePointer(result.data().addressPointer())
+                        .capacity(result.length() * (long) result.data().getElementSize()).asByteBuffer()
+                        .order(ByteOrder.nativeOrder());
+
+        // each task gets at least CHUNK_LENGTH elements
+        int examplesPerTask = Math.max(1, FusedNormalization.CHUNK_LENGTH / Math.max(1, imageLength));
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (int e = 0; e < numExamples; e += examplesPerTask) {
+            final int from = e;
+            final int to = Math.min(numExamples, e + examplesPerTask);
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    // every task needs its own buffer views, since position is used
+                    ByteBuffer view = output.duplicate().order(ByteOrder.nativeOrder());
+                    if (result.data().dataType() == DataBuffer.Type.FLOAT) {
+                        FloatBuffer buffer = view.asFloatBuffer();
+                        for (int i = from; i < to; i++)
+                            kernel.convert(i, buffer);
+                    } else {
+                        DoubleBuffer buffer = view.asDoubleBuffer();
+                        for (int i = from; i < to; i++)
+                            kernel.convert(i, buffer);
+                    }
+                }
+            });
+        }
+
+        FusedNormalization.run(tasks, tasks.size() > 1);
+
+        Nd4j.getAffinityManager().tagLocation(result, AffinityManager.Location.HOST);
+
+        return result;
+    }
+
+    /**
+     * This method converts given uint8 image batch into new floating point array
+     *
+     * @param pixels image bytes
+     * @param shape shape of the input batch, in input layout order
+     * @param inputLayout layout of input bytes
+     * @param outputLayout layout of output array
+     * @param params offset, scale and shift, one value per channel each
+     * @return
+     */
+    public static INDArray transform(@NonNull byte[] pixels, @NonNull int[] shape, @NonNull Layout inputLayout,
+                    @NonNull Layout outputLayout, @NonNull double[][] params) {
+        return transform(ByteBuffer.wrap(pixels), shape, inputLayout, outputLayout, params);
+    }
+
+    /**
+     * Converts single image at a time, block of pixels by block of pixels
+     */
+    protected static class Kernel {
+        protected final ByteBuffer pixels;
+        protected final int channels;
+        protected final int planeLength;
+        protected final Layout inputLayout;
+        protected final Layout outputLayout;
+        protected final float[][] floatTable;
+        protected final double[][] doubleTable;
+
+        protected Kernel(ByteBuffer pixels, int channels, int planeLength, Layout inputLayout, Layout outputLayout,
+                        double[][] params) {
+            this.pixels = pixels;
+            this.channels = channels;
+            this.planeLength = planeLength;
+            this.inputLayout = inputLayout;
+            this.outputLayout = outputLayout;
+
+            this.floatTable = new float[channels][256];
+            this.doubleTable = new double[channels][256];
+            for (int c = 0; c < channels; c++)
+                for (int v = 0; v < 256; v++) {
+                    doubleTable[c][v] = (v + params[0][c]) * params[1][c] + params[2][c];
+                    floatTable[c][v] = (float) doubleTable[c][v];
+                }
+        }
+
+        /**
+         * Reads block of pixels [p, p + length) of given image into src, in input layout
+         */
+        protected void read(ByteBuffer view, int image, int p, int length, byte[] src) {
+            int imageOffset = image * channels * planeLength;
+            if (inputLayout == Layout.NHWC) {
+                view.position(imageOffset + p * channels);
+                view.get(src, 0, length * channels);
+            } else {
+                for (int c = 0; c < channels; c++) {
+                    view.position(imageOffset + c * planeLength + p);
+                    view.get(src, c * length, length);
+                }
+            }
+        }
+
+        protected void convert(int image, FloatBuffer output) {
+            ByteBuffer view = pixels.duplicate();
+            byte[] src = new byte[BLOCK_PIXELS * channels];
+            float[] dst = new float[BLOCK_PIXELS * channels];
+            int imageOffset = image * channels * planeLength;
+
+            for (int p = 0; p < planeLength; p += BLOCK_PIXELS) {
+                int length = Math.min(BLOCK_PIXELS, planeLength - p);
+                read(view, image, p, length, src);
+
+                int srcPixelStride = inputLayout == Layout.NHWC ? channels : 1;
+                int srcChannelStride = inputLayout == Layout.NHWC ? 1 : length;
+                int dstPixelStride = outputLayout == Layout.NHWC ? channels : 1;
+                int dstChannelStride = outputLayout == Layout.NHWC ? 1 : length;
+
+                for (int c = 0; c < channels; c++) {
+                    float[] table = floatTable[c];
+                    int s = c * srcChannelStride;
+                    int d = c * dstChannelStride;
+                    for (int i = 0; i < length; i++, s += srcPixelStride, d += dstPixelStride)
+                        dst[d] = table[src[s] & 0xFF];
+                }
+
+                if (outputLayout == Layout.NHWC) {
+                    output.position(imageOffset + p * channels);
+                    output.put(dst, 0, length * channels);
+                } else {
+                    for (int c = 0; c < channels; c++) {
+                        output.position(imageOffset + c * planeLength + p);
+                        output.put(dst, c * length, length);
+                    }
+                }
+            }
+        }
+
+        protected void convert(int image, DoubleBuffer output) {
+            ByteBuffer view = pixels.duplicate();
+            byte[] src = new byte[BLOCK_PIXELS * channels];
+            double[] dst = new double[BLOCK_PIXELS * channels];
+            int imageOffset = image * channels * planeLength;
+
+            for (int p = 0; p < planeLength; p += BLOCK_PIXELS) {
+                int length = Math.min(BLOCK_PIXELS, planeLength - p);
+                read(view, image, p, length, src);
+
+                int srcPixelStride = inputLayout == Layout.NHWC ? channels : 1;
+                int srcChannelStride = inputLayout == Layout.NHWC ? 1 : length;
+                int dstPixelStride = outputLayout == Layout.NHWC ? channels : 1;
+                int dstChannelStride = outputLayout == Layout.NHWC ? 1 : length;
+
+                for (int c = 0; c < channels; c++) {
+                    double[] table = doubleTable[c];
+                    int s = c * srcChannelStride;
+                    int d = c * dstChannelStride;
+                    for (int i = 0; i < length; i++, s += srcPixelStride, d += dstPixelStride)
+                        dst[d] = table[src[s] & 0xFF];
+                }
+
+                if (outputLayout == Layout.NHWC) {
+                    output.position(imageOffset + p * channels);
+                    output.put(dst, 0, length * channels);
+                } else {
+                    for (int c = 0; c < channels; c++) {
+                        output.position(imageOffset + c * planeLength + p);
+                        output.put(dst, c * length, length);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -2,16 +2,8 @@ package org.nd4j.linalg.dataset.api.preprocessor;
 
 import lombok.EqualsAndHashCode;
 import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastAddOp;
-import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastDivOp;
-import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastMulOp;
-import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastSubOp;
-import org.nd4j.linalg.dataset.api.DataSetUtil;
 import org.nd4j.linalg.dataset.api.preprocessor.stats.DistributionStats;
 import org.nd4j.linalg.dataset.api.preprocessor.stats.NormalizerStats;
-import org.nd4j.linalg.factory.Nd4j;
-import org.nd4j.linalg.indexing.BooleanIndexing;
-import org.nd4j.linalg.indexing.conditions.Conditions;
 
 /**
  * {@link NormalizerStrategy} implementation that will standardize and de-standardize data arrays, based on statistics
@@ -20,7 +12,8 @@ import org.nd4j.linalg.indexing.conditions.Conditions;
  * @author Ede Meijer
  */
 @EqualsAndHashCode
-public class StandardizeStrategy implements NormalizerStrategy<DistributionStats> {
+public class StandardizeStrategy implements NormalizerStrategy<DistributionStats>,
+                FusedNormalization.AffineStrategy<DistributionStats> {
     /**
      * Normalize a data array
      *
@@ -29,21 +22,10 @@ public class StandardizeStrategy implements NormalizerStrategy<DistributionStats
      */
     @Override
     public void preProcess(INDArray array, INDArray maskArray, DistributionStats stats) {
-        if (array.rank() <= 2) {
-            array.subiRowVector(stats.getMean());
-            array.diviRowVector(filteredStd(stats));
-        }
         // if array Rank is 3 (time series) samplesxfeaturesxtimesteps
         // if array Rank is 4 (images) samplesxchannelsxrowsxcols
-        // both cases operations should be carried out in dimension 1
-        else {
-            Nd4j.getExecutioner().execAndReturn(new BroadcastSubOp(array, stats.getMean(), array, 1));
-            Nd4j.getExecutioner().execAndReturn(new BroadcastDivOp(array, filteredStd(stats), array, 1));
-        }
-
-        if (maskArray != null) {
-            DataSetUtil.setMaskedValuesToZero(array, maskArray);
-        }
+        // in all cases operations are carried out along dimension 1
+        FusedNormalization.transform(array, maskArray, preProcessParams(stats));
     }
 
     /**
@@ -54,17 +36,34 @@ public class StandardizeStrategy implements NormalizerStrategy<DistributionStats
      */
     @Override
     public void revert(INDArray array, INDArray maskArray, DistributionStats stats) {
-        if (array.rank() <= 2) {
-            array.muliRowVector(filteredStd(stats));
-            array.addiRowVector(stats.getMean());
-        } else {
-            Nd4j.getExecutioner().execAndReturn(new BroadcastMulOp(array, filteredStd(stats), array, 1));
-            Nd4j.getExecutioner().execAndReturn(new BroadcastAddOp(array, stats.getMean(), array, 1));
-        }
+        FusedNormalization.transform(array, maskArray, revertParams(stats));
+    }
 
-        if (maskArray != null) {
-            DataSetUtil.setMaskedValuesToZero(array, maskArray);
+    /**
+     * (x - mean) / std is applied as (x + (-mean)) / std
+     */
+    @Override
+    public double[][] preProcessParams(DistributionStats stats) {
+        double[] mean = FusedNormalization.toDoubles(stats.getMean());
+        double[] std = filteredStd(stats);
+
+        double[] offset = new double[std.length];
+        double[] scale = new double[std.length];
+        for (int i = 0; i < std.length; i++) {
+            offset[i] = -mean[i];
+            scale[i] = 1.0;
         }
+
+        return new double[][] {offset, scale, new double[std.length], std};
+    }
+
+    /**
+     * x * std + mean
+     */
+    @Override
+    public double[][] revertParams(DistributionStats stats) {
+        double[] std = filteredStd(stats);
+        return new double[][] {new double[std.length], std, FusedNormalization.toDoubles(stats.getMean())};
     }
 
     /**
@@ -78,12 +77,15 @@ public class StandardizeStrategy implements NormalizerStrategy<DistributionStats
         return new DistributionStats.Builder();
     }
 
-    private static INDArray filteredStd(DistributionStats stats) {
+    private static double[] filteredStd(DistributionStats stats) {
         /*
             To avoid division by zero when the std deviation is zero, replace zeros by one
          */
-        INDArray stdCopy = stats.getStd();
-        BooleanIndexing.replaceWhere(stdCopy, 1.0, Conditions.equals(0));
-        return stdCopy;
+        double[] std = FusedNormalization.toDoubles(stats.getStd());
+        for (int i = 0; i < std.length; i++)
+            if (std[i] == 0.0)
+                std[i] = 1.0;
+
+        return std;
     }
 }
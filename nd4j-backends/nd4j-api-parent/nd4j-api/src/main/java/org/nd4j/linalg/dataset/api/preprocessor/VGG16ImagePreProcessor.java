@@ -1,5 +1,6 @@
 package org.nd4j.linalg.dataset.api.preprocessor;
 
+import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastAddOp;
@@ -9,10 +10,14 @@ import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.dataset.api.preprocessor.serializer.NormalizerType;
 import org.nd4j.linalg.factory.Nd4j;
 
+import java.nio.ByteBuffer;
+
 /**
  * This is a preprocessor specifically for VGG16.
  * It subtracts the mean RGB value, computed on the training set, from each pixel as reported in:
  * https://arxiv.org/pdf/1409.1556.pdf
+ *
+ * 8-bit images can be passed as raw bytes too, so float array is created and mean is subtracted in a single pass.
  * @author susaneraly
  */
 @Slf4j
@@ -53,6 +58,41 @@ public class VGG16ImagePreProcessor implements DataNormalization {
         Nd4j.getExecutioner().execAndReturn(new BroadcastSubOp(features.dup(), VGG_MEAN_OFFSET_BGR, features, 1));
     }
 
+    /**
+     * This method converts uint8 image batch with 3 channels into new array with mean subtracted, in a single pass over data.
+     *
+     * @param pixels image bytes, starting at current buffer position
+     * @param shape shape of the input batch, in input layout order: [n, 3, h, w] for NCHW or [n, h, w, 3] for NHWC
+     * @param inputLayout layout of input bytes
+     * @param outputLayout layout of returned array
+     * @return features, allocated in current workspace if any
+     */
+    public INDArray preProcess(@NonNull ByteBuffer pixels, @NonNull int[] shape,
+                    @NonNull QuantizedImageTransform.Layout inputLayout,
+                    @NonNull QuantizedImageTransform.Layout outputLayout) {
+        double[] mean = FusedNormalization.toDoubles(VGG_MEAN_OFFSET_BGR);
+        double[][] params = new double[3][mean.length];
+        for (int c = 0; c < mean.length; c++) {
+            params[0][c] = -mean[c];
+            params[1][c] = 1.0;
+        }
+
+        return QuantizedImageTransform.transform(pixels, shape, inputLayout, outputLayout, params);
+    }
+
+    /**
+     * This method converts uint8 image batch with 3 channels into new NCHW array with mean subtracted
+     *
+     * @param pixels image bytes
+     * @param shape shape of the input batch, in input layout order
+     * @param inputLayout layout of input bytes
+     * @return features, in NCHW layout
+     */
+    public INDArray preProcess(@NonNull byte[] pixels, @NonNull int[] shape,
+                    @NonNull QuantizedImageTransform.Layout inputLayout) {
+        return preProcess(ByteBuffer.wrap(pixels), shape, inputLayout, QuantizedImageTransform.Layout.NCHW);
+    }
+
     /**
      * Transform the data
      * @param toPreProcess the dataset to transform
@@ -3,7 +3,6 @@ package org.nd4j.linalg.dataset.api.preprocessor.serializer;
 
 import lombok.NonNull;
 import org.nd4j.linalg.dataset.api.preprocessor.NormalizerMinMaxScaler;
-import org.nd4j.linalg.factory.Nd4j;
 
 import java.io.*;
 
@@ -12,7 +11,29 @@ import java.io.*;
  *
  * @author Ede Meijer
  */
-public class MinMaxSerializerStrategy implements NormalizerSerializerStrategy<NormalizerMinMaxScaler> {
+public class MinMaxSerializerStrategy implements NormalizerSerializerStrategy<NormalizerMinMaxScaler>,
+                StatsFormat.Aware {
+    private final StatsFormat format;
+
+    /**
+     * Creates strategy writing stats in {@link StatsFormat#LEGACY} format
+     */
+    public MinMaxSerializerStrategy() {
+        this(StatsFormat.LEGACY);
+    }
+
+    /**
+     * @param format format used for writing stats. Stats written in any format can be restored
+     */
+    public MinMaxSerializerStrategy(@NonNull StatsFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public StatsFormat getStatsFormat() {
+        return format;
+    }
+
     @Override
     public void write(@NonNull NormalizerMinMaxScaler normalizer, @NonNull OutputStream stream) throws IOException {
         try (DataOutputStream dos = new DataOutputStream(stream)) {
@@ -20,12 +41,12 @@ public class MinMaxSerializerStrategy implements NormalizerSerializerStrategy<No
             dos.writeDouble(normalizer.getTargetMin());
             dos.writeDouble(normalizer.getTargetMax());
 
-            Nd4j.write(normalizer.getMin(), dos);
-            Nd4j.write(normalizer.getMax(), dos);
+            format.write(normalizer.getMin(), dos);
+            format.write(normalizer.getMax(), dos);
 
             if (normalizer.isFitLabel()) {
-                Nd4j.write(normalizer.getLabelMin(), dos);
-                Nd4j.write(normalizer.getLabelMax(), dos);
+                format.write(normalizer.getLabelMin(), dos);
+                format.write(normalizer.getLabelMax(), dos);
             }
             dos.flush();
         }
@@ -33,7 +54,7 @@ public class MinMaxSerializerStrategy implements NormalizerSerializerStrategy<No
 
     @Override
     public NormalizerMinMaxScaler restore(@NonNull InputStream stream) throws IOException {
-        DataInputStream dis = new DataInputStream(stream);
+        DataInputStream dis = new DataInputStream(StatsFormat.markable(stream));
 
         boolean fitLabels = dis.readBoolean();
         double targetMin = dis.readDouble();
@@ -41,9 +62,9 @@ public class MinMaxSerializerStrategy implements NormalizerSerializerStrategy<No
 
         NormalizerMinMaxScaler result = new NormalizerMinMaxScaler(targetMin, targetMax);
         result.fitLabel(fitLabels);
-        result.setFeatureStats(Nd4j.read(dis), Nd4j.read(dis));
+        result.setFeatureStats(StatsFormat.read(dis), StatsFormat.read(dis));
         if (fitLabels) {
-            result.setLabelStats(Nd4j.read(dis), Nd4j.read(dis));
+            result.setLabelStats(StatsFormat.read(dis), StatsFormat.read(dis));
         }
 
         return result;
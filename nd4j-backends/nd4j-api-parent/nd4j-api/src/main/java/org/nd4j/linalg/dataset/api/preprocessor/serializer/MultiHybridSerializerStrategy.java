@@ -8,7 +8,6 @@ import org.nd4j.linalg.dataset.api.preprocessor.StandardizeStrategy;
 import org.nd4j.linalg.dataset.api.preprocessor.stats.DistributionStats;
 import org.nd4j.linalg.dataset.api.preprocessor.stats.MinMaxStats;
 import org.nd4j.linalg.dataset.api.preprocessor.stats.NormalizerStats;
-import org.nd4j.linalg.factory.Nd4j;
 
 import java.io.*;
 import java.util.HashMap;
@@ -20,7 +19,29 @@ import java.util.Set;
  *
  * @author Ede Meijer
  */
-public class MultiHybridSerializerStrategy implements NormalizerSerializerStrategy<MultiNormalizerHybrid> {
+public class MultiHybridSerializerStrategy implements NormalizerSerializerStrategy<MultiNormalizerHybrid>,
+                StatsFormat.Aware {
+    private final StatsFormat format;
+
+    /**
+     * Creates strategy writing stats in {@link StatsFormat#LEGACY} format
+     */
+    public MultiHybridSerializerStrategy() {
+        this(StatsFormat.LEGACY);
+    }
+
+    /**
+     * @param format format used for writing stats. Stats written in any format can be restored
+     */
+    public MultiHybridSerializerStrategy(@NonNull StatsFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public StatsFormat getStatsFormat() {
+        return format;
+    }
+
     /**
      * Serialize a MultiNormalizerHybrid to a output stream
      *
@@ -47,7 +68,7 @@ public class MultiHybridSerializerStrategy implements NormalizerSerializerStrate
      * @throws IOException
      */
     public MultiNormalizerHybrid restore(@NonNull InputStream stream) throws IOException {
-        DataInputStream dis = new DataInputStream(stream);
+        DataInputStream dis = new DataInputStream(StatsFormat.markable(stream));
 
         MultiNormalizerHybrid result = new MultiNormalizerHybrid();
         result.setInputStats(readStatsMap(dis));
@@ -65,7 +86,7 @@ public class MultiHybridSerializerStrategy implements NormalizerSerializerStrate
         return NormalizerType.MULTI_HYBRID;
     }
 
-    private static void writeStatsMap(Map<Integer, NormalizerStats> statsMap, DataOutputStream dos) throws IOException {
+    private void writeStatsMap(Map<Integer, NormalizerStats> statsMap, DataOutputStream dos) throws IOException {
         Set<Integer> indices = statsMap.keySet();
         dos.writeInt(indices.size());
         for (int index : indices) {
@@ -84,7 +105,7 @@ public class MultiHybridSerializerStrategy implements NormalizerSerializerStrate
         return result;
     }
 
-    private static void writeNormalizerStats(NormalizerStats normalizerStats, DataOutputStream dos) throws IOException {
+    private void writeNormalizerStats(NormalizerStats normalizerStats, DataOutputStream dos) throws IOException {
         if (normalizerStats instanceof DistributionStats) {
             writeDistributionStats((DistributionStats) normalizerStats, dos);
         } else if (normalizerStats instanceof MinMaxStats) {
@@ -106,25 +127,25 @@ public class MultiHybridSerializerStrategy implements NormalizerSerializerStrate
         }
     }
 
-    private static void writeDistributionStats(DistributionStats normalizerStats, DataOutputStream dos)
+    private void writeDistributionStats(DistributionStats normalizerStats, DataOutputStream dos)
                     throws IOException {
         dos.writeInt(Strategy.STANDARDIZE.ordinal());
-        Nd4j.write(normalizerStats.getMean(), dos);
-        Nd4j.write(normalizerStats.getStd(), dos);
+        format.write(normalizerStats.getMean(), dos);
+        format.write(normalizerStats.getStd(), dos);
     }
 
     private static NormalizerStats readDistributionStats(DataInputStream dis) throws IOException {
-        return new DistributionStats(Nd4j.read(dis), Nd4j.read(dis));
+        return new DistributionStats(StatsFormat.read(dis), StatsFormat.read(dis));
     }
 
-    private static void writeMinMaxStats(MinMaxStats normalizerStats, DataOutputStream dos) throws IOException {
+    private void writeMinMaxStats(MinMaxStats normalizerStats, DataOutputStream dos) throws IOException {
         dos.writeInt(Strategy.MIN_MAX.ordinal());
-        Nd4j.write(normalizerStats.getLower(), dos);
-        Nd4j.write(normalizerStats.getUpper(), dos);
+        format.write(normalizerStats.getLower(), dos);
+        format.write(normalizerStats.getUpper(), dos);
     }
 
     private static NormalizerStats readMinMaxStats(DataInputStream dis) throws IOException {
-        return new MinMaxStats(Nd4j.read(dis), Nd4j.read(dis));
+        return new MinMaxStats(StatsFormat.read(dis), StatsFormat.read(dis));
     }
 
     private static void writeStrategyMap(Map<Integer, NormalizerStrategy> strategyMap, DataOutputStream dos)
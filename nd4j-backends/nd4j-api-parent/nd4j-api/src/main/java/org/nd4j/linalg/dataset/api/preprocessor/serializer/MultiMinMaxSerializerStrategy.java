@@ -3,7 +3,6 @@ package org.nd4j.linalg.dataset.api.preprocessor.serializer;
 import lombok.NonNull;
 import org.nd4j.linalg.dataset.api.preprocessor.MultiNormalizerMinMaxScaler;
 import org.nd4j.linalg.dataset.api.preprocessor.stats.MinMaxStats;
-import org.nd4j.linalg.factory.Nd4j;
 
 import java.io.*;
 import java.util.ArrayList;
@@ -14,7 +13,29 @@ import java.util.List;
  *
  * @author Ede Meijer
  */
-public class MultiMinMaxSerializerStrategy implements NormalizerSerializerStrategy<MultiNormalizerMinMaxScaler> {
+public class MultiMinMaxSerializerStrategy implements NormalizerSerializerStrategy<MultiNormalizerMinMaxScaler>,
+                StatsFormat.Aware {
+    private final StatsFormat format;
+
+    /**
+     * Creates strategy writing stats in {@link StatsFormat#LEGACY} format
+     */
+    public MultiMinMaxSerializerStrategy() {
+        this(StatsFormat.LEGACY);
+    }
+
+    /**
+     * @param format format used for writing stats. Stats written in any format can be restored
+     */
+    public MultiMinMaxSerializerStrategy(@NonNull StatsFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public StatsFormat getStatsFormat() {
+        return format;
+    }
+
     /**
      * Serialize a MultiNormalizerMinMaxScaler to a output stream
      *
@@ -32,13 +53,13 @@ public class MultiMinMaxSerializerStrategy implements NormalizerSerializerStrate
             dos.writeDouble(normalizer.getTargetMax());
 
             for (int i = 0; i < normalizer.numInputs(); i++) {
-                Nd4j.write(normalizer.getMin(i), dos);
-                Nd4j.write(normalizer.getMax(i), dos);
+                format.write(normalizer.getMin(i), dos);
+                format.write(normalizer.getMax(i), dos);
             }
             if (normalizer.isFitLabel()) {
                 for (int i = 0; i < normalizer.numOutputs(); i++) {
-                    Nd4j.write(normalizer.getLabelMin(i), dos);
-                    Nd4j.write(normalizer.getLabelMax(i), dos);
+                    format.write(normalizer.getLabelMin(i), dos);
+                    format.write(normalizer.getLabelMax(i), dos);
                 }
             }
             dos.flush();
@@ -53,7 +74,7 @@ public class MultiMinMaxSerializerStrategy implements NormalizerSerializerStrate
      * @throws IOException
      */
     public MultiNormalizerMinMaxScaler restore(@NonNull InputStream stream) throws IOException {
-        DataInputStream dis = new DataInputStream(stream);
+        DataInputStream dis = new DataInputStream(StatsFormat.markable(stream));
 
         boolean fitLabels = dis.readBoolean();
         int numInputs = dis.readInt();
@@ -66,14 +87,14 @@ public class MultiMinMaxSerializerStrategy implements NormalizerSerializerStrate
 
         List<MinMaxStats> featureStats = new ArrayList<>();
         for (int i = 0; i < numInputs; i++) {
-            featureStats.add(new MinMaxStats(Nd4j.read(dis), Nd4j.read(dis)));
+            featureStats.add(new MinMaxStats(StatsFormat.read(dis), StatsFormat.read(dis)));
         }
         result.setFeatureStats(featureStats);
 
         if (fitLabels) {
             List<MinMaxStats> labelStats = new ArrayList<>();
             for (int i = 0; i < numOutputs; i++) {
-                labelStats.add(new MinMaxStats(Nd4j.read(dis), Nd4j.read(dis)));
+                labelStats.add(new MinMaxStats(StatsFormat.read(dis), StatsFormat.read(dis)));
             }
             result.setLabelStats(labelStats);
         }
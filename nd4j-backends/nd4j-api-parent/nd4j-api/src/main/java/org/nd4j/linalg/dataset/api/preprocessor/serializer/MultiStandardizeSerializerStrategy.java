@@ -3,7 +3,6 @@ package org.nd4j.linalg.dataset.api.preprocessor.serializer;
 import lombok.NonNull;
 import org.nd4j.linalg.dataset.api.preprocessor.MultiNormalizerStandardize;
 import org.nd4j.linalg.dataset.api.preprocessor.stats.DistributionStats;
-import org.nd4j.linalg.factory.Nd4j;
 
 import java.io.*;
 import java.util.ArrayList;
@@ -14,7 +13,29 @@ import java.util.List;
  *
  * @author Ede Meijer
  */
-public class MultiStandardizeSerializerStrategy implements NormalizerSerializerStrategy<MultiNormalizerStandardize> {
+public class MultiStandardizeSerializerStrategy implements NormalizerSerializerStrategy<MultiNormalizerStandardize>,
+                StatsFormat.Aware {
+    private final StatsFormat format;
+
+    /**
+     * Creates strategy writing stats in {@link StatsFormat#LEGACY} format
+     */
+    public MultiStandardizeSerializerStrategy() {
+        this(StatsFormat.LEGACY);
+    }
+
+    /**
+     * @param format format used for writing stats. Stats written in any format can be restored
+     */
+    public MultiStandardizeSerializerStrategy(@NonNull StatsFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public StatsFormat getStatsFormat() {
+        return format;
+    }
+
     /**
      * Serialize a MultiNormalizerStandardize to a output stream
      *
@@ -29,13 +50,13 @@ public class MultiStandardizeSerializerStrategy implements NormalizerSerializerS
             dos.writeInt(normalizer.isFitLabel() ? normalizer.numOutputs() : -1);
 
             for (int i = 0; i < normalizer.numInputs(); i++) {
-                Nd4j.write(normalizer.getFeatureMean(i), dos);
-                Nd4j.write(normalizer.getFeatureStd(i), dos);
+                format.write(normalizer.getFeatureMean(i), dos);
+                format.write(normalizer.getFeatureStd(i), dos);
             }
             if (normalizer.isFitLabel()) {
                 for (int i = 0; i < normalizer.numOutputs(); i++) {
-                    Nd4j.write(normalizer.getLabelMean(i), dos);
-                    Nd4j.write(normalizer.getLabelStd(i), dos);
+                    format.write(normalizer.getLabelMean(i), dos);
+                    format.write(normalizer.getLabelStd(i), dos);
                 }
             }
             dos.flush();
@@ -50,7 +71,7 @@ public class MultiStandardizeSerializerStrategy implements NormalizerSerializerS
      * @throws IOException
      */
     public MultiNormalizerStandardize restore(@NonNull InputStream stream) throws IOException {
-        DataInputStream dis = new DataInputStream(stream);
+        DataInputStream dis = new DataInputStream(StatsFormat.markable(stream));
         boolean fitLabels = dis.readBoolean();
         int numInputs = dis.readInt();
         int numOutputs = dis.readInt();
@@ -60,14 +81,14 @@ public class MultiStandardizeSerializerStrategy implements NormalizerSerializerS
 
         List<DistributionStats> featureStats = new ArrayList<>();
         for (int i = 0; i < numInputs; i++) {
-            featureStats.add(new DistributionStats(Nd4j.read(dis), Nd4j.read(dis)));
+            featureStats.add(new DistributionStats(StatsFormat.read(dis), StatsFormat.read(dis)));
         }
         result.setFeatureStats(featureStats);
 
         if (fitLabels) {
             List<DistributionStats> labelStats = new ArrayList<>();
             for (int i = 0; i < numOutputs; i++) {
-                labelStats.add(new DistributionStats(Nd4j.read(dis), Nd4j.read(dis)));
+                labelStats.add(new DistributionStats(StatsFormat.read(dis), StatsFormat.read(dis)));
             }
             result.setLabelStats(labelStats);
         }
@@ -2,9 +2,15 @@ package org.nd4j.linalg.dataset.api.preprocessor.serializer;
 
 import lombok.NonNull;
 import lombok.Value;
+import org.nd4j.linalg.dataset.api.preprocessor.DataNormalization;
+import org.nd4j.linalg.dataset.api.preprocessor.MultiDataNormalization;
 import org.nd4j.linalg.dataset.api.preprocessor.Normalizer;
 
 import java.io.*;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,6 +21,8 @@ import java.util.List;
  */
 public class NormalizerSerializer {
     private static final String HEADER = "NORMALIZER";
+    // version 1: stats in legacy format only, version 2: stats might be in bulk format
+    private static final int MAX_VERSION = 2;
     private static NormalizerSerializer defaultSerializer;
 
     private List<NormalizerSerializerStrategy> strategies = new ArrayList<>();
@@ -100,6 +108,49 @@ public class NormalizerSerializer {
         return (T) getStrategy(header).restore(stream);
     }
 
+    /**
+     * Restore a normalizer from the given file lazily: only the file header is read here, and statistics are loaded
+     * upon first use of returned normalizer, i.e. first transform() call. That's useful for services that load
+     * many normalizers on start, but don't use all of them right away.
+     *
+     * PLEASE NOTE: returned object implements {@link DataNormalization} or {@link MultiDataNormalization} (depending
+     * on the normalizer type), but it's not an instance of the actual normalizer class, so it can be cast to one of
+     * these interfaces only. Custom normalizers are restored immediately.
+     *
+     * @param file the file containing a serialized normalizer
+     * @return the normalizer, backed by given file
+     * @throws IOException
+     */
+    public Normalizer restoreLazily(@NonNull final File file) throws Exception {
+        final Header header;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            header = parseHeader(in);
+        }
+
+        Class<?> type;
+        switch (header.normalizerType) {
+            case STANDARDIZE:
+            case MIN_MAX:
+            case IMAGE_MIN_MAX:
+            case IMAGE_VGG16:
+                type = DataNormalization.class;
+                break;
+            case MULTI_STANDARDIZE:
+            case MULTI_MIN_MAX:
+            case MULTI_HYBRID:
+                type = MultiDataNormalization.class;
+                break;
+            default:
+                return restore(file);
+        }
+
+        // fail early, if there's no strategy for this type
+        getStrategy(header);
+
+        return (Normalizer) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                        new LazyNormalizerHandler(file, header.normalizerType));
+    }
+
     /**
      * Get the default serializer configured with strategies for the built-in normalizer implementations
      *
@@ -210,8 +261,7 @@ public class NormalizerSerializer {
         // The next byte is an integer indicating the version
         int version = dis.readInt();
 
-        // Right now, we only support version 1
-        if (version != 1) {
+        if (version < 1 || version > MAX_VERSION) {
             throw new IllegalArgumentException("Could not restore normalizer: invalid version (" + version + ")");
         }
         // The next value is a string indicating the normalizer type
@@ -220,9 +270,10 @@ public class NormalizerSerializer {
             // For custom serializers, the next value is a string with the class name
             String strategyClassName = dis.readUTF();
             //noinspection unchecked
-            return new Header(type, (Class<? extends NormalizerSerializerStrategy>) Class.forName(strategyClassName));
+            return new Header(type, (Class<? extends NormalizerSerializerStrategy>) Class.forName(strategyClassName),
+                            version);
         } else {
-            return new Header(type, null);
+            return new Header(type, null, version);
         }
     }
 
@@ -237,8 +288,8 @@ public class NormalizerSerializer {
         DataOutputStream dos = new DataOutputStream(stream);
         dos.writeUTF(HEADER);
 
-        // Write the current version
-        dos.writeInt(1);
+        // Write the version, which depends on format of stats
+        dos.writeInt(header.version);
 
         // Write the normalizer type
         dos.writeUTF(header.normalizerType.toString());
@@ -249,6 +300,43 @@ public class NormalizerSerializer {
         }
     }
 
+    /**
+     * Restores normalizer on first method call, and delegates everything to it
+     */
+    private class LazyNormalizerHandler implements InvocationHandler {
+        private final File file;
+        private final NormalizerType type;
+        private volatile Normalizer normalizer;
+
+        private LazyNormalizerHandler(File file, NormalizerType type) {
+            this.file = file;
+            this.type = type;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // type is known from header already
+            if (method.getName().equals("getType") && method.getParameterTypes().length == 0)
+                return type;
+
+            try {
+                return method.invoke(get(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private Normalizer get() throws Exception {
+            if (normalizer == null) {
+                synchronized (this) {
+                    if (normalizer == null)
+                        normalizer = restore(file);
+                }
+            }
+            return normalizer;
+        }
+    }
+
     /**
      * Represents the header of a serialized normalizer file
      */
@@ -256,12 +344,16 @@ public class NormalizerSerializer {
     private static class Header {
         NormalizerType normalizerType;
         Class<? extends NormalizerSerializerStrategy> customStrategyClass;
+        int version;
 
         public static Header fromStrategy(NormalizerSerializerStrategy strategy) {
+            int version = strategy instanceof StatsFormat.Aware
+                            ? ((StatsFormat.Aware) strategy).getStatsFormat().getSerializerVersion() : 1;
+
             if (strategy instanceof CustomSerializerStrategy) {
-                return new Header(strategy.getSupportedType(), strategy.getClass());
+                return new Header(strategy.getSupportedType(), strategy.getClass(), version);
             } else {
-                return new Header(strategy.getSupportedType(), null);
+                return new Header(strategy.getSupportedType(), null, version);
             }
         }
     }
@@ -2,7 +2,6 @@ package org.nd4j.linalg.dataset.api.preprocessor.serializer;
 
 import lombok.NonNull;
 import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
-import org.nd4j.linalg.factory.Nd4j;
 
 import java.io.*;
 
@@ -11,18 +10,40 @@ import java.io.*;
  *
  * @author Ede Meijer
  */
-public class StandardizeSerializerStrategy implements NormalizerSerializerStrategy<NormalizerStandardize> {
+public class StandardizeSerializerStrategy implements NormalizerSerializerStrategy<NormalizerStandardize>,
+                StatsFormat.Aware {
+    private final StatsFormat format;
+
+    /**
+     * Creates strategy writing stats in {@link StatsFormat#LEGACY} format
+     */
+    public StandardizeSerializerStrategy() {
+        this(StatsFormat.LEGACY);
+    }
+
+    /**
+     * @param format format used for writing stats. Stats written in any format can be restored
+     */
+    public StandardizeSerializerStrategy(@NonNull StatsFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public StatsFormat getStatsFormat() {
+        return format;
+    }
+
     @Override
     public void write(@NonNull NormalizerStandardize normalizer, @NonNull OutputStream stream) throws IOException {
         try (DataOutputStream dos = new DataOutputStream(stream)) {
             dos.writeBoolean(normalizer.isFitLabel());
 
-            Nd4j.write(normalizer.getMean(), dos);
-            Nd4j.write(normalizer.getStd(), dos);
+            format.write(normalizer.getMean(), dos);
+            format.write(normalizer.getStd(), dos);
 
             if (normalizer.isFitLabel()) {
-                Nd4j.write(normalizer.getLabelMean(), dos);
-                Nd4j.write(normalizer.getLabelStd(), dos);
+                format.write(normalizer.getLabelMean(), dos);
+                format.write(normalizer.getLabelStd(), dos);
             }
             dos.flush();
         }
@@ -30,14 +51,14 @@ public class StandardizeSerializerStrategy implements NormalizerSerializerStrate
 
     @Override
     public NormalizerStandardize restore(@NonNull InputStream stream) throws IOException {
-        DataInputStream dis = new DataInputStream(stream);
+        DataInputStream dis = new DataInputStream(StatsFormat.markable(stream));
 
         boolean fitLabels = dis.readBoolean();
 
-        NormalizerStandardize result = new NormalizerStandardize(Nd4j.read(dis), Nd4j.read(dis));
+        NormalizerStandardize result = new NormalizerStandardize(StatsFormat.read(dis), StatsFormat.read(dis));
         result.fitLabel(fitLabels);
         if (fitLabels) {
-            result.setLabelStats(Nd4j.read(dis), Nd4j.read(dis));
+            result.setLabelStats(StatsFormat.read(dis), StatsFormat.read(dis));
         }
 
         return result;
@@ -0,0 +1,130 @@
+package org.nd4j.linalg.dataset.api.preprocessor.serializer;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.serde.binary.BinarySerde;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Binary format used by serializer strategies for normalizer statistics arrays.
+ *
+ * LEGACY is the original {@link Nd4j#write(INDArray, DataOutputStream)} format, which goes element by element.
+ * It's used by default, so files can be read by older versions as well.
+ * BULK is opt-in: it writes marker, format version and byte order, followed by raw array buffer as produced by
+ * {@link BinarySerde}, so both writing and reading are bulk copies.
+ *
+ * Reading doesn't depend on the format used for writing: legacy arrays always start with zero byte
+ * (length of allocation mode string), so they can't be confused with BULK marker. That way old files still load.
+ * Files with BULK stats get higher version in {@link NormalizerSerializer} header, so older readers reject them
+ * with "invalid version" error, instead of failing somewhere in the middle of the stats.
+ */
+public enum StatsFormat {
+    LEGACY(1), BULK(2);
+
+    // "NBLK"
+    protected static final int MARKER = 0x4E424C4B;
+    // version 2: BinarySerde payload starts with its own byte order mark
+    protected static final int VERSION = 2;
+
+    private final int serializerVersion;
+
+    StatsFormat(int serializerVersion) {
+        this.serializerVersion = serializerVersion;
+    }
+
+    /**
+     * Serializer strategies implementing this interface report format they write stats in
+     */
+    public interface Aware {
+        StatsFormat getStatsFormat();
+    }
+
+    /**
+     * @return version of {@link NormalizerSerializer} header for files with stats written in this format
+     */
+    public int getSerializerVersion() {
+        return serializerVersion;
+    }
+
+    /**
+     * This method writes given array in this format
+     *
+     * @param array array to write
+     * @param dos stream to write to
+     * @throws IOException
+     */
+    public void write(@NonNull INDArray array, @NonNull DataOutputStream dos) throws IOException {
+        if (this == LEGACY) {
+            Nd4j.write(array, dos);
+            return;
+        }
+
+        ByteBuffer buffer = BinarySerde.toByteBuffer(array);
+
+        dos.writeInt(MARKER);
+        dos.writeInt(VERSION);
+        dos.writeBoolean(ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN);
+        dos.writeInt(buffer.remaining());
+
+        // channel isn't closed here, since that would close underlying stream
+        WritableByteChannel channel = Channels.newChannel(dos);
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    /**
+     * This method reads array written in any of supported formats
+     *
+     * @param dis stream to read from, should support mark/reset. See {@link #markable(InputStream)}
+     * @return restored array
+     * @throws IOException
+     */
+    public static INDArray read(@NonNull DataInputStream dis) throws IOException {
+        if (!dis.markSupported())
+            throw new IllegalArgumentException("Stream should support mark/reset to detect array format");
+
+        dis.mark(4);
+        if (dis.readInt() != MARKER) {
+            dis.reset();
+            return Nd4j.read(dis);
+        }
+
+        int version = dis.readInt();
+        if (version != VERSION)
+            throw new IllegalStateException("Unsupported stats format version: " + version);
+
+        // byte order of the writer: BinarySerde detects it on its own, and converts data if needed
+        dis.readBoolean();
+
+        int length = dis.readInt();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(length).order(ByteOrder.nativeOrder());
+
+        // channel isn't closed here, since that would close underlying stream
+        ReadableByteChannel channel = Channels.newChannel(dis);
+        while (buffer.hasRemaining())
+            if (channel.read(buffer) < 0)
+                throw new EOFException("Unexpected end of stream: " + buffer.remaining() + " bytes of array are missing");
+
+        buffer.flip();
+        return BinarySerde.toArray(buffer);
+    }
+
+    /**
+     * This method returns stream supporting mark/reset, as required by {@link #read(DataInputStream)}
+     */
+    public static InputStream markable(@NonNull InputStream stream) {
+        return stream.markSupported() ? stream : new BufferedInputStream(stream);
+    }
+}
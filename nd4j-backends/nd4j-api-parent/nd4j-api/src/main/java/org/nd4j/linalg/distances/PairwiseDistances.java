@@ -0,0 +1,393 @@
+package org.nd4j.linalg.distances;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.BooleanIndexing;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.linalg.indexing.conditions.Conditions;
+import org.nd4j.linalg.ops.transforms.Transforms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * All-pairs distances and brute-force k-nearest-neighbour search between rows of two matrices.
+ *
+ * Instead of one accumulation op per pair of vectors, dot products for whole blocks of rows are computed with single GEMM,
+ * and distances are derived from them: ||a - b||^2 = ||a||^2 + ||b||^2 - 2ab, and cos(a, b) = ab / (||a|| * ||b||).
+ *
+ * Work is split into tiles, so temporary memory is bounded by tile size: kNN search never materializes
+ * full query-vs-corpus matrix, instead it keeps bounded heap per query, updated tile by tile.
+ * Query blocks are processed in parallel.
+ *
+ * PLEASE NOTE: GEMM expansion loses precision for nearly identical vectors, squared distances are clamped at 0.
+ */
+public class PairwiseDistances {
+    // number of query rows processed by single task
+    protected static final int QUERY_BLOCK = 256;
+
+    // number of corpus rows within single tile
+    protected static final int CORPUS_TILE = 1024;
+
+    // max number of elements in temporary tile, used for full distance matrices
+    protected static final int TILE_LENGTH = QUERY_BLOCK * CORPUS_TILE;
+
+    public enum Metric {
+        SQUARED_EUCLIDEAN, EUCLIDEAN, COSINE_SIMILARITY, COSINE_DISTANCE, DOT;
+
+        /**
+         * Similarities are "closer" when larger, distances are "closer" when smaller
+         */
+        public boolean isSimilarity() {
+            return this == COSINE_SIMILARITY || this == DOT;
+        }
+
+        protected boolean isEuclidean() {
+            return this == SQUARED_EUCLIDEAN || this == EUCLIDEAN;
+        }
+
+        protected boolean isCosine() {
+            return this == COSINE_SIMILARITY || this == COSINE_DISTANCE;
+        }
+    }
+
+    private PairwiseDistances() {}
+
+    /**
+     * This method returns distances between all rows of a and all rows of b
+     *
+     * @param a matrix of shape [n, d]
+     * @param b matrix of shape [m, d]
+     * @param metric metric to use
+     * @return matrix of shape [n, m]
+     */
+    public static INDArray pairwise(@NonNull INDArray a, @NonNull INDArray b, @NonNull Metric metric) {
+        validate(a, b);
+
+        int n = a.rows();
+        int m = b.rows();
+        INDArray result = Nd4j.create(n, m);
+
+        INDArray aNorms = norms(a, metric);
+        INDArray bNorms = norms(b, metric);
+        int block = Math.max(1, Math.min(n, TILE_LENGTH / m));
+
+        for (int from = 0; from < n; from += block) {
+            int to = Math.min(n, from + block);
+            INDArray rows = a.get(NDArrayIndex.interval(from, to), NDArrayIndex.all());
+            INDArray tile = Nd4j.createUninitialized(new int[] {to - from, m}, 'f');
+
+            Nd4j.gemm(rows, b, tile, false, true, metric.isEuclidean() ? -2.0 : 1.0, 0.0);
+
+            if (metric.isEuclidean()) {
+                tile.addiColumnVector(aNorms.get(NDArrayIndex.interval(from, to), NDArrayIndex.all()));
+                tile.addiRowVector(bNorms.transpose());
+                Transforms.max(tile, 0.0, false);
+
+                if (metric == Metric.EUCLIDEAN)
+                    Transforms.sqrt(tile, false);
+            } else if (metric.isCosine()) {
+                tile.diviColumnVector(aNorms.get(NDArrayIndex.interval(from, to), NDArrayIndex.all()));
+                tile.diviRowVector(bNorms.transpose());
+
+                if (metric == Metric.COSINE_DISTANCE)
+                    tile.rsubi(1.0);
+            }
+
+            result.get(NDArrayIndex.interval(from, to), NDArrayIndex.all()).assign(tile);
+        }
+
+        return result;
+    }
+
+    /**
+     * This method returns distances between all rows of given matrix
+     *
+     * @param a matrix of shape [n, d]
+     * @param metric metric to use
+     * @return matrix of shape [n, n]
+     */
+    public static INDArray pairwise(@NonNull INDArray a, @NonNull Metric metric) {
+        return pairwise(a, a, metric);
+    }
+
+    /**
+     * This method finds k nearest corpus rows for each query row
+     *
+     * @param queries matrix of shape [n, d]
+     * @param corpus matrix of shape [m, d]
+     * @param k number of neighbours to find
+     * @param metric metric to use
+     * @return matrix of distances (or similarities) and matrix of corpus row indices, both of shape [n, k],
+     *         sorted from nearest to farthest. Ties are resolved in favor of lower corpus index
+     */
+    public static INDArray[] kNearest(@NonNull INDArray queries, @NonNull INDArray corpus, int k,
+                    @NonNull Metric metric) {
+        return kNearest(queries, corpus, k, metric, QUERY_BLOCK, CORPUS_TILE);
+    }
+
+    /**
+     * This method finds k nearest corpus rows for each query row
+     *
+     * @param queries matrix of shape [n, d]
+     * @param corpus matrix of shape [m, d]
+     * @param k number of neighbours to find
+     * @param metric metric to use
+     * @param queryBlock number of queries processed by single task
+     * @param corpusTile number of corpus rows processed at once. Temporary memory used by each task is queryBlock * corpusTile
+     * @return matrix of distances (or similarities) and matrix of corpus row indices, both of shape [n, k],
+     *         sorted from nearest to farthest. Ties are resolved in favor of lower corpus index
+     */
+    public static INDArray[] kNearest(@NonNull INDArray queries, @NonNull INDArray corpus, int k,
+                    @NonNull Metric metric, int queryBlock, int corpusTile) {
+        validate(queries, corpus);
+        if (k < 1 || k > corpus.rows())
+            throw new IllegalArgumentException("k should be in range [1, " + corpus.rows() + "], but got " + k);
+
+        if (queryBlock < 1 || corpusTile < 1)
+            throw new IllegalArgumentException("Block and tile sizes should be positive");
+
+        int n = queries.rows();
+        final double[] queryNorms = norms(queries, metric).dup().data().asDouble();
+        final double[] corpusNorms = norms(corpus, metric).dup().data().asDouble();
+
+        final INDArray distances = Nd4j.create(new int[] {n, k}, 'c');
+        final INDArray indices = Nd4j.create(new int[] {n, k}, 'c');
+
+        List<SearchTask> tasks = new ArrayList<>();
+        for (int from = 0; from < n; from += queryBlock) {
+            int to = Math.min(n, from + queryBlock);
+            tasks.add(new SearchTask(queries.get(NDArrayIndex.interval(from, to), NDArrayIndex.all()), from, corpus,
+                            queryNorms, corpusNorms, metric, k, corpusTile, distances, indices));
+        }
+
+        if (tasks.size() == 1) {
+            tasks.get(0).invoke();
+        } else {
+            final List<SearchTask> all = tasks;
+            ExecutorServiceProvider.getForkJoinPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(all);
+                }
+            });
+        }
+
+        Nd4j.getAffinityManager().tagLocation(distances, AffinityManager.Location.HOST);
+        Nd4j.getAffinityManager().tagLocation(indices, AffinityManager.Location.HOST);
+
+        return new INDArray[] {distances, indices};
+    }
+
+    protected static void validate(INDArray a, INDArray b) {
+        if (a.rank() != 2 || b.rank() != 2)
+            throw new IllegalArgumentException("Matrices expected, but got arrays of rank " + a.rank() + " and " + b.rank());
+
+        if (a.columns() != b.columns())
+            throw new IllegalArgumentException("Number of columns should match, but got " + a.columns() + " and " + b.columns());
+    }
+
+    /**
+     * Per-row values needed by metric, as column vector: squared norms for euclidean metrics,
+     * norms for cosine metrics (zero norms replaced with 1, so zero vectors get zero similarity)
+     */
+    protected static INDArray norms(INDArray matrix, Metric metric) {
+        if (metric.isEuclidean()) {
+            INDArray norms = matrix.norm2(1);
+            return norms.muli(norms).reshape(matrix.rows(), 1);
+        } else if (metric.isCosine()) {
+            INDArray norms = matrix.norm2(1);
+            BooleanIndexing.replaceWhere(norms, 1.0, Conditions.equals(0.0));
+            return norms.reshape(matrix.rows(), 1);
+        } else {
+            return Nd4j.ones(matrix.rows(), 1);
+        }
+    }
+
+    /**
+     * Search for single block of queries. Each tile holds dot products of corpus tile rows with all queries of the block,
+     * stored so that products for single query are contiguous.
+     */
+    protected static class SearchTask extends RecursiveAction {
+        private final INDArray block;
+        private final int blockOffset;
+        private final INDArray corpus;
+        private final double[] queryNorms;
+        private final double[] corpusNorms;
+        private final Metric metric;
+        private final int k;
+        private final int corpusTile;
+        private final INDArray distances;
+        private final INDArray indices;
+
+        protected SearchTask(INDArray block, int blockOffset, INDArray corpus, double[] queryNorms,
+                        double[] corpusNorms, Metric metric, int k, int corpusTile, INDArray distances,
+                        INDArray indices) {
+            this.block = block;
+            this.blockOffset = blockOffset;
+            this.corpus = corpus;
+            this.queryNorms = queryNorms;
+            this.corpusNorms = corpusNorms;
+            this.metric = metric;
+            this.k = k;
+            this.corpusTile = corpusTile;
+            this.distances = distances;
+            this.indices = indices;
+        }
+
+        @Override
+        protected void compute() {
+            int numQueries = block.rows();
+            int m = corpus.rows();
+
+            // heaps are keyed on score, where lower score is better. Root holds the worst of selected values
+            double[] heapScores = new double[numQueries * k];
+            int[] heapIndices = new int[numQueries * k];
+            int[] sizes = new int[numQueries];
+
+            INDArray tile = null;
+            for (int from = 0; from < m; from += corpusTile) {
+                int to = Math.min(m, from + corpusTile);
+                int tileRows = to - from;
+
+                if (tile == null || tile.rows() != tileRows)
+                    tile = Nd4j.createUninitialized(new int[] {tileRows, numQueries}, 'f');
+
+                Nd4j.gemm(corpus.get(NDArrayIndex.interval(from, to), NDArrayIndex.all()), block, tile, false, true,
+                                1.0, 0.0);
+
+                Nd4j.getExecutioner().commit();
+                Nd4j.getAffinityManager().ensureLocation(tile, AffinityManager.Location.HOST);
+                DataBuffer buffer = tile.data();
+
+                for (int q = 0; q < numQueries; q++) {
+                    double queryNorm = queryNorms[blockOffset + q];
+                    int heap = q * k;
+                    long base = (long) q * tileRows;
+
+                    for (int c = 0; c < tileRows; c++) {
+                        double score = score(buffer.getDouble(base + c), queryNorm, corpusNorms[from + c]);
+                        int index = from + c;
+
+                        if (sizes[q] < k) {
+                            heapScores[heap + sizes[q]] = score;
+                            heapIndices[heap + sizes[q]] = index;
+                            siftUp(heapScores, heapIndices, heap, sizes[q]++);
+                        } else if (score < heapScores[heap]) {
+                            // equal score never replaces root, since corpus is scanned in index order
+                            heapScores[heap] = score;
+                            heapIndices[heap] = index;
+                            siftDown(heapScores, heapIndices, heap, 0, k);
+                        }
+                    }
+                }
+            }
+
+            DataBuffer distanceBuffer = distances.data();
+            DataBuffer indexBuffer = indices.data();
+            for (int q = 0; q < numQueries; q++) {
+                int heap = q * k;
+                long row = (long) (blockOffset + q) * k;
+
+                // popping the worst value goes to the end
+                for (int size = k; size > 0; size--) {
+                    distanceBuffer.put(row + size - 1, value(heapScores[heap]));
+                    indexBuffer.put(row + size - 1, heapIndices[heap]);
+
+                    heapScores[heap] = heapScores[heap + size - 1];
+                    heapIndices[heap] = heapIndices[heap + size - 1];
+                    siftDown(heapScores, heapIndices, heap, 0, size - 1);
+                }
+            }
+        }
+
+        /**
+         * Converts dot product into score, lower is better
+         */
+        protected double score(double dot, double queryNorm, double corpusNorm) {
+            switch (metric) {
+                case SQUARED_EUCLIDEAN:
+                case EUCLIDEAN:
+                    return Math.max(0.0, queryNorm + corpusNorm - 2.0 * dot);
+                case COSINE_SIMILARITY:
+                case COSINE_DISTANCE:
+                    return -dot / (queryNorm * corpusNorm);
+                default:
+                    return -dot;
+            }
+        }
+
+        /**
+         * Converts score back into metric value
+         */
+        protected double value(double score) {
+            switch (metric) {
+                case EUCLIDEAN:
+                    return Math.sqrt(score);
+                case COSINE_DISTANCE:
+                    return 1.0 + score;
+                case SQUARED_EUCLIDEAN:
+                    return score;
+                default:
+                    return -score;
+            }
+        }
+    }
+
+    /**
+     * Worse entry has higher score, or the same score and higher index
+     */
+    protected static boolean worse(double score, int index, double otherScore, int otherIndex) {
+        return score > otherScore || (score == otherScore && index > otherIndex);
+    }
+
+    protected static void siftUp(double[] scores, int[] indices, int heap, int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!worse(scores[heap + position], indices[heap + position], scores[heap + parent],
+                            indices[heap + parent]))
+                break;
+
+            swap(scores, indices, heap + parent, heap + position);
+            position = parent;
+        }
+    }
+
+    protected static void siftDown(double[] scores, int[] indices, int heap, int position, int size) {
+        while (true) {
+            int worst = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+
+            if (left < size && worse(scores[heap + left], indices[heap + left], scores[heap + worst],
+                            indices[heap + worst]))
+                worst = left;
+
+            if (right < size && worse(scores[heap + right], indices[heap + right], scores[heap + worst],
+                            indices[heap + worst]))
+                worst = right;
+
+            if (worst == position)
+                return;
+
+            swap(scores, indices, heap + worst, heap + position);
+            position = worst;
+        }
+    }
+
+    protected static void swap(double[] scores, int[] indices, int a, int b) {
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+
+        int index = indices[a];
+        indices[a] = indices[b];
+        indices[b] = index;
+    }
+}
@@ -0,0 +1,59 @@
+package org.nd4j.linalg.executors;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * This class is configuration bean for named executors, registered in ExecutorServiceProvider.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutorConfiguration implements Serializable {
+    protected String name;
+
+    /**
+     * This variable specifies number of threads. Values below 1 mean number of available processors
+     */
+    protected int threads;
+
+    /**
+     * This variable specifies capacity of task queue. Values below 1 mean unbounded queue
+     */
+    protected int queueCapacity;
+
+    /**
+     * This variable defines behaviour of bounded queue, once it's full
+     */
+    protected RejectionPolicy rejectionPolicy;
+
+    protected long keepAliveSeconds;
+
+    protected boolean daemon;
+
+    /**
+     * If TRUE, and JVM supports them, virtual threads will be used instead of platform threads. Makes sense for blocking I/O tasks only.
+     * Platform threads are used if virtual threads aren't available.
+     */
+    protected boolean virtualThreads;
+
+    /**
+     * If set, all threads of this executor will be attached to specified device via AffinityManager
+     */
+    protected Integer deviceId;
+
+    public static class ExecutorConfigurationBuilder {
+        private int threads = 0;
+        private int queueCapacity = 0;
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.BLOCK;
+        private long keepAliveSeconds = 60L;
+        private boolean daemon = true;
+        private boolean virtualThreads = false;
+        private Integer deviceId = null;
+    }
+}
@@ -0,0 +1,29 @@
+package org.nd4j.linalg.executors;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Point-in-time snapshot of executor statistics
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutorMetrics {
+    private String name;
+    private int poolSize;
+    private int activeThreads;
+    private int queueDepth;
+    private long submittedTasks;
+    private long completedTasks;
+    private long failedTasks;
+    private long rejectedTasks;
+
+    // latencies are in nanoseconds
+    private long averageQueueTime;
+    private long averageExecutionTime;
+    private long maxExecutionTime;
+}
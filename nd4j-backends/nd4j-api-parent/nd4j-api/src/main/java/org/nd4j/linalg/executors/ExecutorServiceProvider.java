@@ -1,16 +1,38 @@
 package org.nd4j.linalg.executors;
 
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
 
+/**
+ * Registry of named executors used across ND4J.
+ *
+ * Three executors are registered by default: COMPUTE (used by getExecutorService()), IO and SERDE.
+ * Their configuration can be altered via system properties, or replaced with register() call before first use.
+ */
 public class ExecutorServiceProvider {
 
     public static final String EXEC_THREADS = "org.nd4j.parallel.threads";
     public final static String ENABLED = "org.nd4j.parallel.enabled";
 
+    public static final String IO_THREADS = "org.nd4j.parallel.io.threads";
+    public static final String IO_VIRTUAL = "org.nd4j.parallel.io.virtual";
+    public static final String SERDE_THREADS = "org.nd4j.parallel.serde.threads";
+    public static final String SERDE_QUEUE = "org.nd4j.parallel.serde.queue";
+
+    public static final String COMPUTE = "compute";
+    public static final String IO = "io";
+    public static final String SERDE = "serde";
+
     private static final int nThreads;
-    private static ExecutorService executorService;
     private static ForkJoinPool forkJoinPool;
 
+    private static final Map<String, ExecutorConfiguration> configurations = new ConcurrentHashMap<>();
+    private static final Map<String, InstrumentedExecutorService> executors = new ConcurrentHashMap<>();
+
     static {
         int defaultThreads = Runtime.getRuntime().availableProcessors();
         boolean enabled = Boolean.parseBoolean(System.getProperty(ENABLED, "true"));
@@ -18,24 +40,113 @@ public class ExecutorServiceProvider {
             nThreads = 1;
         else
             nThreads = Integer.parseInt(System.getProperty(EXEC_THREADS, String.valueOf(defaultThreads)));
+
+        configurations.put(COMPUTE, ExecutorConfiguration.builder().name(COMPUTE).threads(nThreads).build());
+
+        configurations.put(IO, ExecutorConfiguration.builder().name(IO)
+                        .threads(Integer.parseInt(System.getProperty(IO_THREADS, String.valueOf(nThreads * 4))))
+                        .virtualThreads(Boolean.parseBoolean(System.getProperty(IO_VIRTUAL, "false"))).build());
+
+        configurations.put(SERDE, ExecutorConfiguration.builder().name(SERDE)
+                        .threads(Integer.parseInt(System.getProperty(SERDE_THREADS, String.valueOf(nThreads))))
+                        .queueCapacity(Integer.parseInt(System.getProperty(SERDE_QUEUE, "1024")))
+                        .rejectionPolicy(RejectionPolicy.BLOCK).build());
     }
 
-    public static synchronized ExecutorService getExecutorService() {
+    /**
+     * This method returns COMPUTE executor
+     *
+     * @return
+     */
+    public static ExecutorService getExecutorService() {
+        return getExecutorService(COMPUTE);
+    }
+
+    /**
+     * This method returns executor registered with given name. Executor is created upon first request.
+     *
+     * @param name
+     * @return
+     */
+    public static synchronized ExecutorService getExecutorService(@NonNull String name) {
+        InstrumentedExecutorService executorService = executors.get(name);
         if (executorService != null)
             return executorService;
 
-        executorService = new ThreadPoolExecutor(nThreads, nThreads, 60L, TimeUnit.SECONDS,
-                        new LinkedTransferQueue<Runnable>(), new ThreadFactory() {
-                            @Override
-                            public Thread newThread(Runnable r) {
-                                Thread t = Executors.defaultThreadFactory().newThread(r);
-                                t.setDaemon(true);
-                                return t;
-                            }
-                        });
+        ExecutorConfiguration configuration = configurations.get(name);
+        if (configuration == null)
+            throw new IllegalArgumentException("Unknown executor requested: [" + name + "]");
+
+        executorService = new InstrumentedExecutorService(configuration);
+        executors.put(name, executorService);
+
         return executorService;
     }
 
+    /**
+     * This method registers executor configuration. If executor with the same name was created before - new executor
+     * will be created upon next request. Previous executor isn't shut down, since it might be still used by whoever
+     * obtained it before, but its idle threads are released after keep-alive time.
+     *
+     * @param configuration
+     */
+    public static synchronized void register(@NonNull ExecutorConfiguration configuration) {
+        if (configuration.getName() == null)
+            throw new IllegalArgumentException("Executor name can't be null");
+
+        configurations.put(configuration.getName(), configuration);
+
+        InstrumentedExecutorService previous = executors.remove(configuration.getName());
+        if (previous != null && previous.getKeepAliveTime(TimeUnit.NANOSECONDS) > 0)
+            previous.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * This method returns configuration of executor registered with given name, or null if there's no such executor
+     *
+     * @param name
+     * @return
+     */
+    public static ExecutorConfiguration getConfiguration(@NonNull String name) {
+        return configurations.get(name);
+    }
+
+    /**
+     * This method returns statistics for executor with given name, or null if this executor wasn't created yet
+     *
+     * @param name
+     * @return
+     */
+    public static ExecutorMetrics getMetrics(@NonNull String name) {
+        InstrumentedExecutorService executorService = executors.get(name);
+        return executorService == null ? null : executorService.getMetrics();
+    }
+
+    /**
+     * This method returns statistics for all executors created so far
+     *
+     * @return
+     */
+    public static List<ExecutorMetrics> getMetrics() {
+        List<ExecutorMetrics> metrics = new ArrayList<>();
+        for (InstrumentedExecutorService executorService : executors.values())
+            metrics.add(executorService.getMetrics());
+
+        return metrics;
+    }
+
+    /**
+     * This method shuts down executor with given name, if it was created. Configuration stays registered,
+     * so new executor will be created upon next request.
+     *
+     * @param name
+     */
+    public static synchronized void shutdown(@NonNull String name) {
+        InstrumentedExecutorService executorService = executors.remove(name);
+        if (executorService != null)
+            executorService.shutdown();
+    }
+
     public static synchronized ForkJoinPool getForkJoinPool() {
         if (forkJoinPool != null)
             return forkJoinPool;
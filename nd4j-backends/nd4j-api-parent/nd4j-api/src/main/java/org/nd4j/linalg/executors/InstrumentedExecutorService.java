@@ -0,0 +1,287 @@
+package org.nd4j.linalg.executors;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ThreadPoolExecutor implementation, that keeps track of queue times, execution times and rejections.
+ *
+ * Threads are created according to ExecutorConfiguration: optionally attached to specific device, and optionally virtual.
+ * Virtual threads aren't pooled: every task gets its own thread, so number of threads and queue capacity are ignored.
+ */
+@Slf4j
+public class InstrumentedExecutorService extends ThreadPoolExecutor {
+    @Getter protected final ExecutorConfiguration configuration;
+
+    protected final AtomicLong submittedTasks = new AtomicLong(0);
+    protected final AtomicLong completedTasks = new AtomicLong(0);
+    protected final AtomicLong failedTasks = new AtomicLong(0);
+    protected final AtomicLong rejectedTasks = new AtomicLong(0);
+    protected final AtomicLong queueTime = new AtomicLong(0);
+    protected final AtomicLong executionTime = new AtomicLong(0);
+    protected final AtomicLong maxExecutionTime = new AtomicLong(0);
+
+    protected final ThreadLocal<Long> startTime = new ThreadLocal<>();
+
+    public InstrumentedExecutorService(@NonNull ExecutorConfiguration configuration) {
+        this(configuration, new InstrumentedThreadFactory(configuration));
+    }
+
+    protected InstrumentedExecutorService(ExecutorConfiguration configuration, InstrumentedThreadFactory factory) {
+        super(factory.virtual ? 0 : numberOfThreads(configuration),
+                        factory.virtual ? Integer.MAX_VALUE : numberOfThreads(configuration),
+                        factory.virtual ? 0 : configuration.getKeepAliveSeconds(), TimeUnit.SECONDS,
+                        factory.virtual ? new SynchronousQueue<Runnable>() : createQueue(configuration), factory);
+
+        this.configuration = configuration;
+        setRejectedExecutionHandler(new InstrumentedRejectionHandler(configuration.getRejectionPolicy()));
+    }
+
+    protected static int numberOfThreads(ExecutorConfiguration configuration) {
+        return configuration.getThreads() > 0 ? configuration.getThreads() : Runtime.getRuntime().availableProcessors();
+    }
+
+    protected static BlockingQueue<Runnable> createQueue(ExecutorConfiguration configuration) {
+        if (configuration.getQueueCapacity() > 0)
+            return new ArrayBlockingQueue<>(configuration.getQueueCapacity());
+
+        return new LinkedTransferQueue<>();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null)
+            throw new NullPointerException();
+
+        submittedTasks.incrementAndGet();
+        super.execute(new TimedTask(command));
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        super.beforeExecute(t, r);
+
+        long time = System.nanoTime();
+        if (r instanceof TimedTask)
+            queueTime.addAndGet(time - ((TimedTask) r).enqueued);
+
+        startTime.set(time);
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        super.afterExecute(r, t);
+
+        Long start = startTime.get();
+        if (start != null) {
+            long time = System.nanoTime() - start;
+            executionTime.addAndGet(time);
+
+            long max;
+            while (time > (max = maxExecutionTime.get()) && !maxExecutionTime.compareAndSet(max, time));
+        }
+
+        // tasks passed via submit() are wrapped into FutureTask, which keeps exception to itself
+        Runnable task = unwrap(r);
+        if (t == null && task instanceof Future<?> && ((Future<?>) task).isDone()) {
+            try {
+                ((Future<?>) task).get();
+            } catch (CancellationException e) {
+                t = e;
+            } catch (ExecutionException e) {
+                t = e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (t != null)
+            failedTasks.incrementAndGet();
+
+        completedTasks.incrementAndGet();
+    }
+
+    /**
+     * This method returns snapshot of tasks waiting in queue, as they were passed to this executor
+     *
+     * PLEASE NOTE: Changes to returned queue aren't reflected in executor
+     * @return
+     */
+    @Override
+    public BlockingQueue<Runnable> getQueue() {
+        BlockingQueue<Runnable> queue = super.getQueue();
+        BlockingQueue<Runnable> result = new LinkedBlockingQueue<>();
+        for (Runnable r : queue)
+            result.add(unwrap(r));
+
+        return result;
+    }
+
+    @Override
+    public boolean remove(Runnable task) {
+        for (Runnable r : super.getQueue()) {
+            if (unwrap(r).equals(task))
+                return super.remove(r);
+        }
+
+        return false;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> tasks = super.shutdownNow();
+        List<Runnable> result = new ArrayList<>(tasks.size());
+        for (Runnable r : tasks)
+            result.add(unwrap(r));
+
+        return result;
+    }
+
+    protected static Runnable unwrap(Runnable r) {
+        return r instanceof TimedTask ? ((TimedTask) r).task : r;
+    }
+
+    /**
+     * This method returns snapshot of executor statistics
+     *
+     * @return
+     */
+    public ExecutorMetrics getMetrics() {
+        long completed = completedTasks.get();
+
+        return ExecutorMetrics.builder().name(configuration.getName()).poolSize(getPoolSize())
+                        .activeThreads(getActiveCount()).queueDepth(super.getQueue().size())
+                        .submittedTasks(submittedTasks.get()).completedTasks(completed)
+                        .failedTasks(failedTasks.get()).rejectedTasks(rejectedTasks.get())
+                        .averageQueueTime(completed > 0 ? queueTime.get() / completed : 0)
+                        .averageExecutionTime(completed > 0 ? executionTime.get() / completed : 0)
+                        .maxExecutionTime(maxExecutionTime.get()).build();
+    }
+
+    protected static class TimedTask implements Runnable {
+        protected final Runnable task;
+        protected final long enqueued;
+
+        protected TimedTask(Runnable task) {
+            this.task = task;
+            this.enqueued = System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+    protected class InstrumentedRejectionHandler implements RejectedExecutionHandler {
+        protected final RejectionPolicy policy;
+
+        protected InstrumentedRejectionHandler(RejectionPolicy policy) {
+            this.policy = policy == null ? RejectionPolicy.ABORT : policy;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                rejectedTasks.incrementAndGet();
+                throw new RejectedExecutionException("Executor [" + configuration.getName() + "] was shut down");
+            }
+
+            // rejected task is already wrapped, so it goes to raw queue, bypassing execute() of this class
+            switch (policy) {
+                case BLOCK:
+                    BlockingQueue<Runnable> queue = InstrumentedExecutorService.super.getQueue();
+                    try {
+                        // executor might be shut down while we're waiting, and then nobody would take this task
+                        while (!queue.offer(r, 100, TimeUnit.MILLISECONDS)) {
+                            if (executor.isShutdown()) {
+                                rejectedTasks.incrementAndGet();
+                                throw new RejectedExecutionException("Executor [" + configuration.getName() + "] was shut down");
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        rejectedTasks.incrementAndGet();
+                        throw new RejectedExecutionException(e);
+                    }
+
+                    // shutdown could happen right before task was queued
+                    if (executor.isShutdown() && queue.remove(r)) {
+                        rejectedTasks.incrementAndGet();
+                        throw new RejectedExecutionException("Executor [" + configuration.getName() + "] was shut down");
+                    }
+                    break;
+                case CALLER_RUNS:
+                    rejectedTasks.incrementAndGet();
+                    r.run();
+                    break;
+                case DISCARD:
+                    rejectedTasks.incrementAndGet();
+                    break;
+                case DISCARD_OLDEST:
+                    rejectedTasks.incrementAndGet();
+                    InstrumentedExecutorService.super.getQueue().poll();
+                    InstrumentedExecutorService.super.execute(r);
+                    break;
+                case ABORT:
+                default:
+                    rejectedTasks.incrementAndGet();
+                    throw new RejectedExecutionException("Executor [" + configuration.getName() + "] queue is full");
+            }
+        }
+    }
+
+    protected static class InstrumentedThreadFactory implements ThreadFactory {
+        protected final ExecutorConfiguration configuration;
+        protected final ThreadFactory factory;
+        protected final boolean virtual;
+        protected final AtomicLong counter = new AtomicLong(0);
+
+        protected InstrumentedThreadFactory(ExecutorConfiguration configuration) {
+            this.configuration = configuration;
+
+            ThreadFactory virtualFactory = configuration.isVirtualThreads() ? virtualThreadFactory() : null;
+            if (configuration.isVirtualThreads() && virtualFactory == null)
+                log.warn("Virtual threads aren't supported by this JVM, executor [{}] will use platform threads", configuration.getName());
+
+            this.virtual = virtualFactory != null;
+            this.factory = virtualFactory != null ? virtualFactory : Executors.defaultThreadFactory();
+        }
+
+        /**
+         * Virtual threads are available since Java 21 only, so we're looking for them via reflection
+         */
+        protected static ThreadFactory virtualThreadFactory() {
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+                return (ThreadFactory) factory.invoke(builder);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = factory.newThread(r);
+            t.setName("nd4j-" + configuration.getName() + "-" + counter.incrementAndGet());
+
+            // virtual threads are always daemon threads
+            if (!virtual)
+                t.setDaemon(configuration.isDaemon());
+
+            if (configuration.getDeviceId() != null)
+                Nd4j.getAffinityManager().attachThreadToDevice(t, configuration.getDeviceId());
+
+            return t;
+        }
+    }
+}
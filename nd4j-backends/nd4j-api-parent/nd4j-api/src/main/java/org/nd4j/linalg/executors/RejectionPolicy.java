@@ -0,0 +1,31 @@
+package org.nd4j.linalg.executors;
+
+/**
+ * This enum describes behavior of bounded executor, once its queue is full
+ */
+public enum RejectionPolicy {
+    /**
+     * RejectedExecutionException will be thrown
+     */
+    ABORT,
+
+    /**
+     * Task will be executed by submitting thread
+     */
+    CALLER_RUNS,
+
+    /**
+     * Submitting thread will be blocked until queue has free slot
+     */
+    BLOCK,
+
+    /**
+     * Task will be silently discarded
+     */
+    DISCARD,
+
+    /**
+     * Oldest queued task will be discarded, to free slot for new one
+     */
+    DISCARD_OLDEST,
+}
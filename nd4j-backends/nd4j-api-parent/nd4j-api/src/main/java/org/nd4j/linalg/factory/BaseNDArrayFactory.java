@@ -20,17 +20,21 @@
 package org.nd4j.linalg.factory;
 
 
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.Pointer;
 import org.nd4j.linalg.api.blas.*;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.complex.IComplexDouble;
 import org.nd4j.linalg.api.complex.IComplexFloat;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.rng.distribution.Distribution;
 import org.nd4j.linalg.indexing.INDArrayIndex;
 import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.util.ArrayUtil;
+import org.nd4j.linalg.util.ScatterUtil;
 
 import java.util.*;
 
@@ -836,6 +840,48 @@ public abstract class BaseNDArrayFactory implements NDArrayFactory {
         return pullRows(source, sourceDimension, indexes, Nd4j.order());
     }
 
+    /**
+     * This method copies slices of source array with given indexes along some dimension into target array
+     *
+     * @param source    source tensor
+     * @param dimension dimension slices are indexed along
+     * @param indexes   indexes of source slices
+     * @param target    target tensor
+     * @return target
+     */
+    @Override
+    public INDArray gather(INDArray source, int dimension, int[] indexes, INDArray target) {
+        return ScatterUtil.gather(source, dimension, indexes, target);
+    }
+
+    /**
+     * This method copies slices of updates array into target slices with given indexes along some dimension
+     *
+     * @param target    target tensor
+     * @param dimension dimension slices are indexed along
+     * @param indexes   indexes of target slices
+     * @param updates   updates tensor
+     * @return target
+     */
+    @Override
+    public INDArray scatter(INDArray target, int dimension, int[] indexes, INDArray updates) {
+        return ScatterUtil.scatter(target, dimension, indexes, updates);
+    }
+
+    /**
+     * This method adds slices of updates array to target slices with given indexes along some dimension
+     *
+     * @param target    target tensor
+     * @param dimension dimension slices are indexed along
+     * @param indexes   indexes of target slices
+     * @param updates   updates tensor
+     * @return target
+     */
+    @Override
+    public INDArray scatterAdd(INDArray target, int dimension, int[] indexes, INDArray updates) {
+        return ScatterUtil.scatterAdd(target, dimension, indexes, updates);
+    }
+
     /**
      * Creates a matrix of zeros
      *
@@ -1126,6 +1172,95 @@ public abstract class BaseNDArrayFactory implements NDArrayFactory {
 
     }
 
+    /**
+     * Concatenate ndarrays along a dimension, into given target array
+     *
+     * @param target    array to store result into, its shape should match shape of concatenated arrays
+     * @param dimension the dimension to concatenate along
+     * @param toConcat  the ndarrays to concatenate
+     * @return target array
+     */
+    @Override
+    public INDArray concat(INDArray target, int dimension, INDArray... toConcat) {
+        int[] outputShape = concatShape(dimension, toConcat);
+        if (!Arrays.equals(outputShape, target.shape()))
+            throw new IllegalArgumentException("Target shape " + Arrays.toString(target.shape())
+                            + " doesn't match concatenated shape " + Arrays.toString(outputShape));
+
+        for (INDArray array : toConcat)
+            Nd4j.getCompressor().autoDecompress(array);
+
+        if (dimension == 0 && isCompactC(target)) {
+            // every input occupies continuous block of target buffer, so compact inputs are copied with memcpy
+            long elementSize = target.data().getElementSize();
+            long rowLength = target.size(0) == 0 ? 0 : target.lengthLong() / target.size(0);
+            BytePointer dst = new BytePointer(target.data().addressPointer());
+            int row = 0;
+            for (INDArray array : toConcat) {
+                if (isCompactC(array) && array.data().dataType() == target.data().dataType()) {
+                    Nd4j.getExecutioner().commit();
+                    Nd4j.getAffinityManager().ensureLocation(target, AffinityManager.Location.HOST);
+                    Nd4j.getAffinityManager().ensureLocation(array, AffinityManager.Location.HOST);
+
+                    dst.position(row * rowLength * elementSize);
+                    Pointer.memcpy(dst, array.data().addressPointer(), array.lengthLong() * elementSize);
+
+                    Nd4j.getAffinityManager().tagLocation(target, AffinityManager.Location.HOST);
+                } else {
+                    target.get(NDArrayIndex.interval(row, row + array.size(0))).assign(array);
+                }
+                row += array.size(0);
+            }
+
+            return target;
+        }
+
+        INDArrayIndex[] indexes = new INDArrayIndex[target.rank()];
+        for (int i = 0; i < indexes.length; i++)
+            indexes[i] = NDArrayIndex.all();
+
+        int offset = 0;
+        for (INDArray array : toConcat) {
+            indexes[dimension] = NDArrayIndex.interval(offset, offset + array.size(dimension));
+            target.get(indexes).assign(array);
+            offset += array.size(dimension);
+        }
+
+        return target;
+    }
+
+    /**
+     * This method returns shape of arrays concatenated along given dimension, or throws exception if
+     * arrays can't be concatenated
+     */
+    protected static int[] concatShape(int dimension, INDArray... toConcat) {
+        if (toConcat == null || toConcat.length == 0)
+            throw new IllegalArgumentException("Input arrays are missing");
+
+        int[] outputShape = ArrayUtil.copy(toConcat[0].shape());
+        if (dimension < 0 || dimension >= outputShape.length)
+            throw new IllegalArgumentException("Illegal concatenation dimension " + dimension + " for arrays of rank "
+                            + outputShape.length);
+
+        for (int i = 1; i < toConcat.length; i++) {
+            if (toConcat[i].rank() != outputShape.length)
+                throw new IllegalArgumentException("Illegal concatenation at array " + i + ": rank mismatch");
+
+            for (int j = 0; j < outputShape.length; j++)
+                if (j != dimension && toConcat[i].size(j) != outputShape[j])
+                    throw new IllegalArgumentException("Illegal concatenation at array " + i + " and shape element " + j);
+
+            outputShape[dimension] += toConcat[i].size(dimension);
+        }
+
+        return outputShape;
+    }
+
+    protected static boolean isCompactC(INDArray array) {
+        return array.ordering() == 'c' && !array.isCompressed()
+                        && Arrays.equals(array.stride(), ArrayUtil.calcStrides(array.shape()));
+    }
+
     /**
      * concatenate ndarrays along a dimension
      *
@@ -1991,5 +2126,23 @@ public abstract class BaseNDArrayFactory implements NDArrayFactory {
         return create(Nd4j.createBuffer(data), shape, stride, order, offset);
     }
 
+    /**
+     * This method sums given arrays to target, and optionally copies resulting target back to all input arrays.
+     * Backends able to do that in a single pass should override it
+     *
+     * @param target
+     * @param arrays
+     * @param propagate
+     * @return
+     */
+    @Override
+    public INDArray accumulate(INDArray target, INDArray[] arrays, boolean propagate) {
+        accumulate(target, arrays);
+
+        if (propagate)
+            for (INDArray array : arrays)
+                array.assign(target);
 
+        return target;
+    }
 }
@@ -0,0 +1,211 @@
+package org.nd4j.linalg.factory;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.linalg.util.ArrayUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Growable array, that collects rows (or blocks of rows) along dimension 0, i.e. for building big matrices
+ * incrementally. Building the same matrix with repeated Nd4j.vstack() calls copies O(n^2) bytes, here every
+ * appended row is copied once into chunked storage, and once more if compacted array is requested.
+ *
+ * Storage is the list of c-ordered chunks. Chunk sizes double as builder grows, so number of chunks stays
+ * logarithmic, and chunks already filled are never reallocated or copied.
+ *
+ * Collected rows are available either as single compacted array via {@link #build()}, or without copying,
+ * as views of the chunks via {@link #chunks()} and {@link #getRow(int)}, which is enough for row-wise ops.
+ */
+public class NDArrayBuilder {
+    protected static final int DEFAULT_INITIAL_ROWS = 64;
+
+    // chunks stop growing once they reach this number of elements
+    protected static final long MAX_CHUNK_LENGTH = 1L << 24;
+
+    private final int[] rowShape;
+    private final int rowLength;
+    private final int initialRows;
+
+    private final List<INDArray> chunks = new ArrayList<>();
+    // index of chunk being filled, and number of rows already stored in it
+    private int current = 0;
+    private int used = 0;
+    private int size = 0;
+
+    /**
+     * @param rowShape shape of single row, i.e. {columns} for matrix, or {channels, height, width} for images
+     */
+    public NDArrayBuilder(@NonNull int[] rowShape) {
+        this(rowShape, DEFAULT_INITIAL_ROWS);
+    }
+
+    /**
+     * @param rowShape    shape of single row
+     * @param initialRows number of rows in the first chunk
+     */
+    public NDArrayBuilder(@NonNull int[] rowShape, int initialRows) {
+        if (rowShape.length == 0)
+            throw new IllegalArgumentException("Row shape can't be empty");
+
+        if (initialRows < 1)
+            throw new IllegalArgumentException("Initial number of rows should be positive value");
+
+        this.rowShape = rowShape.clone();
+        this.rowLength = ArrayUtil.prod(rowShape);
+        this.initialRows = initialRows;
+    }
+
+    /**
+     * This method appends given array to the end of builder.
+     * Array should have shape {rows, rowShape...}, or equal to row shape if single row is appended
+     *
+     * @param array rows to append
+     * @return this builder
+     */
+    public NDArrayBuilder append(@NonNull INDArray array) {
+        INDArray block = asBlock(array);
+        int rows = block.size(0);
+        int position = 0;
+
+        while (position < rows) {
+            INDArray chunk = chunk();
+            int num = Math.min(rows - position, chunk.size(0) - used);
+
+            INDArray source = num == rows ? block : block.get(NDArrayIndex.interval(position, position + num));
+            Nd4j.concat(chunk.get(NDArrayIndex.interval(used, used + num)), 0, source);
+
+            used += num;
+            size += num;
+            position += num;
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns number of rows appended so far
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns shape of single row
+     */
+    public int[] getRowShape() {
+        return rowShape.clone();
+    }
+
+    /**
+     * This method returns view of the row with given index, as array of {1, rowShape...} shape
+     *
+     * @param row row index
+     */
+    public INDArray getRow(int row) {
+        if (row < 0 || row >= size)
+            throw new IndexOutOfBoundsException("Row " + row + " requested, but builder has " + size + " rows");
+
+        for (INDArray chunk : chunks) {
+            if (row < chunk.size(0))
+                return chunk.get(NDArrayIndex.interval(row, row + 1));
+
+            row -= chunk.size(0);
+        }
+
+        throw new IllegalStateException("Row not found");
+    }
+
+    /**
+     * This method returns appended rows as list of views, concatenation of which along dimension 0 is
+     * equal to {@link #build()} result. No data is copied
+     */
+    public List<INDArray> chunks() {
+        if (size == 0)
+            return Collections.emptyList();
+
+        List<INDArray> result = new ArrayList<>(current + 1);
+        for (int i = 0; i < current; i++)
+            result.add(chunks.get(i));
+
+        if (used > 0)
+            result.add(used == chunks.get(current).size(0) ? chunks.get(current)
+                            : chunks.get(current).get(NDArrayIndex.interval(0, used)));
+
+        return result;
+    }
+
+    /**
+     * This method returns new c-ordered array of {size, rowShape...} shape, with all appended rows
+     */
+    public INDArray build() {
+        if (size == 0)
+            throw new IllegalStateException("Can't build array: no rows were appended");
+
+        return build(Nd4j.createUninitialized(shape(), 'c'));
+    }
+
+    /**
+     * This method copies all appended rows into given array, i.e. workspace allocation.
+     * Target shape should be {size, rowShape...}
+     *
+     * @param target array to copy rows into
+     * @return target array
+     */
+    public INDArray build(@NonNull INDArray target) {
+        if (!Arrays.equals(shape(), target.shape()))
+            throw new IllegalArgumentException("Target shape " + Arrays.toString(target.shape())
+                            + " doesn't match builder shape " + Arrays.toString(shape()));
+
+        List<INDArray> views = chunks();
+        return Nd4j.concat(target, 0, views.toArray(new INDArray[views.size()]));
+    }
+
+    /**
+     * This method removes all rows. Allocated chunks are kept, and reused by subsequent appends
+     */
+    public void clear() {
+        current = 0;
+        used = 0;
+        size = 0;
+    }
+
+    protected int[] shape() {
+        return ArrayUtil.combine(new int[] {size}, rowShape);
+    }
+
+    protected INDArray asBlock(INDArray array) {
+        int[] shape = array.shape();
+        if (shape.length == rowShape.length + 1 && Arrays.equals(Arrays.copyOfRange(shape, 1, shape.length), rowShape))
+            return array;
+
+        if (Arrays.equals(shape, rowShape))
+            return array.reshape(ArrayUtil.combine(new int[] {1}, rowShape));
+
+        throw new IllegalArgumentException("Array of shape " + Arrays.toString(shape)
+                        + " can't be appended to rows of shape " + Arrays.toString(rowShape));
+    }
+
+    /**
+     * Returns chunk with free space, allocating next one if needed
+     */
+    protected INDArray chunk() {
+        if (!chunks.isEmpty() && used == chunks.get(current).size(0)) {
+            current++;
+            used = 0;
+        }
+
+        if (current == chunks.size()) {
+            // each chunk is as big as all previous chunks together, so growth is amortized
+            long rows = Math.max(initialRows, size);
+            rows = Math.max(1, Math.min(rows, MAX_CHUNK_LENGTH / rowLength));
+            chunks.add(Nd4j.createUninitialized(ArrayUtil.combine(new int[] {(int) rows}, rowShape), 'c'));
+        }
+
+        return chunks.get(current);
+    }
+}
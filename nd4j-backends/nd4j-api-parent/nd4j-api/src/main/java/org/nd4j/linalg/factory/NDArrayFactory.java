@@ -395,6 +395,17 @@ public interface NDArrayFactory {
      */
     INDArray concat(int dimension, INDArray... toConcat);
 
+    /**
+     * Concatneate ndarrays along a dimension, into given target array.
+     * No new array is allocated, so target can be i.e. workspace allocation or view of bigger array
+     *
+     * @param target    the array to store result into, its shape should match shape of concatneated arrays
+     * @param dimension the dimension to concatneate along
+     * @param toConcat  the ndarrays to concateneate
+     * @return target array
+     */
+    INDArray concat(INDArray target, int dimension, INDArray... toConcat);
+
     /**
      * Concatenate ndarrays along a dimension
      *
@@ -427,6 +438,42 @@ public interface NDArrayFactory {
      */
     INDArray pullRows(INDArray source, int sourceDimension, int[] indexes, char order);
 
+    /**
+     * This method copies slices of source array with given indexes along some dimension into target array:
+     * target[i] = source[indexes[i]]
+     *
+     * @param source    source tensor
+     * @param dimension dimension slices are indexed along
+     * @param indexes   indexes of source slices
+     * @param target    target tensor, of source shape with indexes.length at dimension
+     * @return target
+     */
+    INDArray gather(INDArray source, int dimension, int[] indexes, INDArray target);
+
+    /**
+     * This method copies slices of updates array into target slices with given indexes along some dimension:
+     * target[indexes[i]] = updates[i]. For duplicate indexes last update wins
+     *
+     * @param target    target tensor
+     * @param dimension dimension slices are indexed along
+     * @param indexes   indexes of target slices
+     * @param updates   updates tensor, of target shape with indexes.length at dimension
+     * @return target
+     */
+    INDArray scatter(INDArray target, int dimension, int[] indexes, INDArray updates);
+
+    /**
+     * This method adds slices of updates array to target slices with given indexes along some dimension:
+     * target[indexes[i]] += updates[i]. Updates for duplicate indexes are accumulated
+     *
+     * @param target    target tensor
+     * @param dimension dimension slices are indexed along
+     * @param indexes   indexes of target slices
+     * @param updates   updates tensor, of target shape with indexes.length at dimension
+     * @return target
+     */
+    INDArray scatterAdd(INDArray target, int dimension, int[] indexes, INDArray updates);
+
 
     /**
      * In place shuffle of an ndarray
@@ -492,6 +539,16 @@ public interface NDArrayFactory {
      */
     INDArray accumulate(INDArray target, INDArray... arrays);
 
+    /**
+     * This method sums given arrays to target, and optionally copies resulting target back to all input arrays
+     *
+     * @param target
+     * @param arrays
+     * @param propagate
+     * @return
+     */
+    INDArray accumulate(INDArray target, INDArray[] arrays, boolean propagate);
+
 
     /**
      * This method averages input arrays, and returns averaged array
@@ -47,6 +47,7 @@ import org.nd4j.linalg.api.concurrency.AffinityManager;
 import org.nd4j.linalg.api.concurrency.BasicAffinityManager;
 import org.nd4j.linalg.api.instrumentation.InMemoryInstrumentation;
 import org.nd4j.linalg.api.instrumentation.Instrumentation;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.api.memory.MemoryWorkspaceManager;
 import org.nd4j.linalg.api.ndarray.BaseShapeInfoProvider;
 import org.nd4j.linalg.api.ndarray.INDArray;
@@ -81,6 +82,7 @@ import org.nd4j.linalg.memory.MemoryManager;
 import org.nd4j.linalg.memory.provider.BasicWorkspaceManager;
 import org.nd4j.linalg.string.NDArrayStrings;
 import org.nd4j.linalg.util.ArrayUtil;
+import org.nd4j.linalg.util.SortUtil;
 
 import java.io.*;
 import java.lang.ref.ReferenceQueue;
@@ -1382,6 +1384,39 @@ public class Nd4j {
         return ret;
     }
 
+    /**
+     * Create a buffer of the given data type and length, without going through intermediate JVM arrays.
+     * If there's workspace active for current thread - buffer will be attached to it.
+     *
+     * @param type the data type of the buffer
+     * @param length the length of the buffer
+     * @param initialize whether the buffer should be zeroed out
+     * @return the created buffer
+     */
+    public static DataBuffer createBuffer(DataBuffer.Type type, long length, boolean initialize) {
+        MemoryWorkspace workspace = Nd4j.getMemoryManager().getCurrentWorkspace();
+        DataBuffer ret;
+        switch (type) {
+            case INT:
+                ret = workspace == null ? DATA_BUFFER_FACTORY_INSTANCE.createInt(length, initialize) : DATA_BUFFER_FACTORY_INSTANCE.createInt(length, initialize, workspace);
+                break;
+            case HALF:
+                ret = workspace == null ? DATA_BUFFER_FACTORY_INSTANCE.createHalf(length, initialize) : DATA_BUFFER_FACTORY_INSTANCE.createHalf(length, initialize, workspace);
+                break;
+            case FLOAT:
+                ret = workspace == null ? DATA_BUFFER_FACTORY_INSTANCE.createFloat(length, initialize) : DATA_BUFFER_FACTORY_INSTANCE.createFloat(length, initialize, workspace);
+                break;
+            case DOUBLE:
+                ret = workspace == null ? DATA_BUFFER_FACTORY_INSTANCE.createDouble(length, initialize) : DATA_BUFFER_FACTORY_INSTANCE.createDouble(length, initialize, workspace);
+                break;
+            default:
+                throw new IllegalArgumentException("Illegal type " + type);
+        }
+
+        logCreationIfNecessary(ret);
+        return ret;
+    }
+
     /**
      * Create a buffer based on the data type
      *
@@ -1587,57 +1622,7 @@ public class Nd4j {
      * @return the indices and the sorted ndarray
      */
     public static INDArray[] sortWithIndices(INDArray ndarray, int dimension, boolean ascending) {
-        INDArray indices = Nd4j.create(ndarray.shape());
-        INDArray[] ret = new INDArray[2];
-
-        for (int i = 0; i < ndarray.vectorsAlongDimension(dimension); i++) {
-            INDArray vec = ndarray.vectorAlongDimension(i, dimension);
-            INDArray indexVector = indices.vectorAlongDimension(i, dimension);
-            final Double[] data = new Double[vec.length()];
-            final Double[] index = new Double[vec.length()];
-
-            for (int j = 0; j < vec.length(); j++) {
-                data[j] = vec.getDouble(j);
-                index[j] = (double) j;
-            }
-
-            /**
-             * Inject a comparator that sorts indices relative to
-             * the actual values in the data.
-             * This allows us to retain the indices
-             * and how they were rearranged.
-             */
-
-            Arrays.sort(index, new Comparator<Double>() {
-                @Override
-                public int compare(Double o1, Double o2) {
-                    int o = (int) o1.doubleValue();
-                    int oo2 = (int) o2.doubleValue();
-                    return Double.compare(data[o], data[oo2]);
-                }
-            });
-
-            if (ascending)
-                for (int j = 0; j < vec.length(); j++) {
-                    vec.putScalar(j, data[(int) index[j].doubleValue()]);
-                    indexVector.putScalar(j, index[j]);
-                }
-            else {
-                int count = data.length - 1;
-                for (int j = 0; j < vec.length(); j++) {
-                    int currCount2 = count;
-                    count--;
-                    vec.putScalar(j, data[(int) index[currCount2].doubleValue()]);
-                    indexVector.putScalar(j, index[currCount2]);
-                }
-            }
-
-        }
-
-        ret[0] = indices;
-        ret[1] = ndarray;
-
-        return ret;
+        return SortUtil.sortWithIndices(ndarray, dimension, ascending);
     }
 
     /**
@@ -1689,28 +1674,33 @@ public class Nd4j {
      * @return the sorted ndarray
      */
     public static INDArray sort(INDArray ndarray, int dimension, boolean ascending) {
-        for (int i = 0; i < ndarray.vectorsAlongDimension(dimension); i++) {
-            INDArray vec = ndarray.vectorAlongDimension(i, dimension);
-            double[] data = new double[vec.length()];
-            for (int j = 0; j < vec.length(); j++) {
-                data[j] = vec.getDouble(j);
-            }
-
-            Arrays.sort(data);
-
-            if (ascending)
-                for (int j = 0; j < vec.length(); j++)
-                    vec.putScalar(j, data[j]);
-            else {
-                int count = data.length - 1;
-                for (int j = 0; j < vec.length(); j++) {
-                    vec.putScalar(j, data[count--]);
-                }
-            }
+        return SortUtil.sort(ndarray, dimension, ascending);
+    }
 
-        }
+    /**
+     * Returns positions that would sort an ndarray along a particular dimension.
+     * Original ndarray is unmodified
+     *
+     * @param ndarray   the ndarray to sort
+     * @param dimension the dimension to sort
+     * @param ascending true if smallest-to-largest; false if largest-to-smallest
+     * @return the indices, same shape as the ndarray
+     */
+    public static INDArray argsort(INDArray ndarray, int dimension, boolean ascending) {
+        return SortUtil.argsort(ndarray, dimension, ascending);
+    }
 
-        return ndarray;
+    /**
+     * Selects k largest values along a particular dimension, without sorting whole ndarray.
+     * Original ndarray is unmodified
+     *
+     * @param ndarray   the ndarray to select from
+     * @param k         number of values to select
+     * @param dimension the dimension to select along
+     * @return the values and their indices, both sorted largest-to-smallest
+     */
+    public static INDArray[] topK(INDArray ndarray, int k, int dimension) {
+        return SortUtil.topK(ndarray, k, dimension);
     }
 
     /**Sort (shuffle) the rows of a 2d array according to the value at a specified column.
@@ -1735,24 +1725,8 @@ public class Nd4j {
         if (colIdx < 0 || colIdx >= in.columns())
             throw new IllegalArgumentException("Cannot sort on values in column " + colIdx + ", nCols=" + in.columns());
 
-        INDArray out = Nd4j.create(in.shape());
-        int nRows = in.rows();
-        ArrayList<Integer> list = new ArrayList<>(nRows);
-        for (int i = 0; i < nRows; i++)
-            list.add(i);
-        Collections.sort(list, new Comparator<Integer>() {
-            @Override
-            public int compare(Integer o1, Integer o2) {
-                if (ascending)
-                    return Double.compare(in.getDouble(o1, colIdx), in.getDouble(o2, colIdx));
-                else
-                    return -Double.compare(in.getDouble(o1, colIdx), in.getDouble(o2, colIdx));
-            }
-        });
-        for (int i = 0; i < nRows; i++) {
-            out.putRow(i, in.getRow(list.get(i)));
-        }
-        return out;
+        int[] order = SortUtil.argsortVector(in.getColumn(colIdx), ascending);
+        return SortUtil.permuteRows(in, order);
     }
 
     /**Sort (shuffle) the columns of a 2d array according to the value at a specified row.
@@ -1777,24 +1751,8 @@ public class Nd4j {
         if (rowIdx < 0 || rowIdx >= in.rows())
             throw new IllegalArgumentException("Cannot sort on values in row " + rowIdx + ", nRows=" + in.rows());
 
-        INDArray out = Nd4j.create(in.shape());
-        int nCols = in.columns();
-        ArrayList<Integer> list = new ArrayList<>(nCols);
-        for (int i = 0; i < nCols; i++)
-            list.add(i);
-        Collections.sort(list, new Comparator<Integer>() {
-            @Override
-            public int compare(Integer o1, Integer o2) {
-                if (ascending)
-                    return Double.compare(in.getDouble(rowIdx, o1), in.getDouble(rowIdx, o2));
-                else
-                    return -Double.compare(in.getDouble(rowIdx, o1), in.getDouble(rowIdx, o2));
-            }
-        });
-        for (int i = 0; i < nCols; i++) {
-            out.putColumn(i, in.getColumn(list.get(i)));
-        }
-        return out;
+        int[] order = SortUtil.argsortVector(in.getRow(rowIdx), ascending);
+        return SortUtil.permuteColumns(in, order);
     }
 
     /**
@@ -5528,6 +5486,22 @@ public class Nd4j {
         return factory().accumulate(target, arrays);
     }
 
+    /**
+     * This method sums given arrays and stores them to a given target array.
+     * On top of that, if propagate is true, resulting target is copied to all input arrays, in the same pass
+     *
+     * @param target
+     * @param arrays
+     * @param propagate
+     * @return
+     */
+    public static INDArray accumulate(INDArray target, INDArray[] arrays, boolean propagate) {
+        if (arrays == null|| arrays.length == 0)
+            return target;
+
+        return factory().accumulate(target, arrays, propagate);
+    }
+
     /**
      * This method produces concatenated array, that consist from tensors, fetched from source array, against some dimension and specified indexes
      *
@@ -5573,6 +5547,74 @@ public class Nd4j {
         return ret;
     }
 
+    /**
+     * This method gathers slices of source array with given indexes along some dimension:
+     * result[i] = source[indexes[i]]. Unlike pullRows(), dimension here is the one indexes refer to,
+     * so i.e. gather(matrix, 0, indexes) returns rows of matrix
+     *
+     * @param source source tensor
+     * @param dimension dimension slices are indexed along
+     * @param indexes indexes of source slices
+     * @return new array, of source shape with indexes.length at dimension
+     */
+    public static INDArray gather(INDArray source, int dimension, int[] indexes) {
+        if (indexes == null || indexes.length == 0)
+            throw new IllegalStateException("Indexes shouldn't be empty");
+
+        if (dimension < 0 || dimension >= source.rank())
+            throw new IllegalStateException("Dimension can't be higher the rank of source tensor");
+
+        int[] shape = source.shape().clone();
+        shape[dimension] = indexes.length;
+
+        INDArray ret = INSTANCE.gather(source, dimension, indexes, Nd4j.createUninitialized(shape, Nd4j.order()));
+        logCreationIfNecessary(ret);
+        return ret;
+    }
+
+    /**
+     * This method gathers slices of source array with given indexes along some dimension into target array:
+     * target[i] = source[indexes[i]]
+     *
+     * @param source source tensor
+     * @param dimension dimension slices are indexed along
+     * @param indexes indexes of source slices
+     * @param target target tensor, of source shape with indexes.length at dimension
+     * @return target
+     */
+    public static INDArray gather(INDArray source, int dimension, int[] indexes, INDArray target) {
+        return INSTANCE.gather(source, dimension, indexes, target);
+    }
+
+    /**
+     * This method stores slices of updates array into target slices with given indexes along some dimension:
+     * target[indexes[i]] = updates[i]. For duplicate indexes last update wins
+     *
+     * @param target target tensor
+     * @param dimension dimension slices are indexed along
+     * @param indexes indexes of target slices
+     * @param updates updates tensor, of target shape with indexes.length at dimension
+     * @return target
+     */
+    public static INDArray scatter(INDArray target, int dimension, int[] indexes, INDArray updates) {
+        return INSTANCE.scatter(target, dimension, indexes, updates);
+    }
+
+    /**
+     * This method adds slices of updates array to target slices with given indexes along some dimension:
+     * target[indexes[i]] += updates[i]. Updates for duplicate indexes are accumulated,
+     * so i.e. sparse embedding update is scatterAdd(syn0, 0, rows, gradients)
+     *
+     * @param target target tensor
+     * @param dimension dimension slices are indexed along
+     * @param indexes indexes of target slices
+     * @param updates updates tensor, of target shape with indexes.length at dimension
+     * @return target
+     */
+    public static INDArray scatterAdd(INDArray target, int dimension, int[] indexes, INDArray updates) {
+        return INSTANCE.scatterAdd(target, dimension, indexes, updates);
+    }
+
     /**
      * Concatneate ndarrays along a dimension
      *
@@ -5588,6 +5630,19 @@ public class Nd4j {
         return ret;
     }
 
+    /**
+     * Concatneate ndarrays along a dimension, into given target array.
+     * Target shape should be equal to shape of concatenated arrays
+     *
+     * @param target    the array to store result into
+     * @param dimension the dimension to concatneate along
+     * @param toConcat  the ndarrays to concat
+     * @return target array
+     */
+    public static INDArray concat(INDArray target, int dimension, INDArray... toConcat) {
+        return INSTANCE.concat(target, dimension, toConcat);
+    }
+
     /**
      * Concatneate ndarrays along a dimension
      *
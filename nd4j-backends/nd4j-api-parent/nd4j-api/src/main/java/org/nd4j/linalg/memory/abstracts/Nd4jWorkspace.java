@@ -12,6 +12,8 @@ import org.nd4j.linalg.api.ops.executioner.GridExecutioner;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.memory.MemoryManager;
+import org.nd4j.linalg.memory.provider.SharedWorkspacePool;
+import org.nd4j.linalg.memory.tracing.WorkspaceTracer;
 import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
 import org.nd4j.linalg.api.memory.pointers.PagedPointer;
@@ -39,6 +41,12 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
 
     protected static final long SAFETY_OFFSET = 1024L;
 
+    // chained segments smaller then this aren't worth separate native allocation
+    protected static final long MIN_SEGMENT_SIZE = 1024L * 1024L;
+
+    // chained segments that weren't used for this number of cycles are released in reset()
+    protected static final long SEGMENT_RETENTION_CYCLES = 10;
+
     @Getter protected String id;
 
     protected AtomicLong currentSize = new AtomicLong(0);
@@ -87,6 +95,12 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
     // pinned allocations are purged with delay, used for circular mode only
     protected Queue<PointersPair> pinnedAllocations = new LinkedTransferQueue<>();
 
+    // chained segments, used for SEGMENTED spill policy only. allocationCycle holds number of the last cycle segment was used in
+    protected List<PointersPair> segments = new ArrayList<>();
+    protected AtomicInteger currentSegment = new AtomicInteger(0);
+    protected AtomicLong segmentOffset = new AtomicLong(0);
+    protected AtomicLong segmentsSize = new AtomicLong(0);
+
     protected MemoryWorkspace previousWorkspace;
     protected MemoryWorkspace borrowingWorkspace;
 
@@ -94,6 +108,15 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
 
     protected String guid;
 
+    // optional allocations tracer, null unless tracing was enabled
+    protected volatile WorkspaceTracer tracer;
+
+    // shared pool this workspace was leased from, null for thread-local workspaces
+    protected volatile SharedWorkspacePool pool;
+
+    // number of scopes opened within current lease, workspace goes back to the pool once it's 0
+    protected AtomicInteger leaseDepth = new AtomicInteger(0);
+
     // this memory manager implementation will be used to allocate real memory for this workspace
 
     public Nd4jWorkspace(@NonNull WorkspaceConfiguration configuration) {
@@ -157,6 +180,24 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
         return initialBlockSize.get();
     }
 
+    /**
+     * This method returns number of chained segments currently held by this workspace.
+     *
+     * PLEASE NOTE: This method can return non-zero values only for SEGMENTED spill policy
+     * @return
+     */
+    public int getNumberOfSegments() {
+        return segments.size();
+    }
+
+    /**
+     * This method returns number of bytes in chained segments, excluding main workspace block.
+     * @return
+     */
+    public long getSegmentsSize() {
+        return segmentsSize.get();
+    }
+
     /**
      * This method returns parent Workspace, if any. Null if there's none.
      *
@@ -210,6 +251,68 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
         }
     }
 
+    /**
+     * This method attaches given tracer to this workspace. Pass null to disable tracing.
+     *
+     * @param tracer
+     */
+    public void enableTracing(WorkspaceTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * This method returns tracer attached to this workspace, or null if tracing is disabled
+     * @return
+     */
+    public WorkspaceTracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * This method returns unique identifier of this workspace instance. Unlike id & thread id pair, it doesn't change when pooled workspace is leased by another thread
+     * @return
+     */
+    public String getUniqueId() {
+        return guid;
+    }
+
+    /**
+     * This method attaches this workspace to current thread, as leased from given pool.
+     * Workspace will be returned to the pool once outermost scope is closed.
+     *
+     * @param pool
+     */
+    public void attachToPool(@NonNull SharedWorkspacePool pool) {
+        this.pool = pool;
+        this.threadId = Thread.currentThread().getId();
+        leaseDepth.set(0);
+    }
+
+    /**
+     * This method detaches this workspace from the pool it was leased from, so closing scopes won't return it to the pool anymore
+     */
+    public void detachFromPool() {
+        this.pool = null;
+        leaseDepth.set(0);
+    }
+
+    /**
+     * This method returns shared pool this workspace was leased from, or null for thread-local workspace
+     * @return
+     */
+    public SharedWorkspacePool getPool() {
+        return pool;
+    }
+
+    /**
+     * This method closes one scope of the current lease, and returns workspace to the pool if it was the outermost one
+     */
+    protected void releaseLease() {
+        SharedWorkspacePool pool = this.pool;
+        if (pool != null && leaseDepth.decrementAndGet() == 0)
+            pool.release(this);
+    }
+
     public PagedPointer alloc(long requiredMemory, DataBuffer.Type type, boolean initialize) {
         return alloc(requiredMemory, MemoryKind.HOST, type, initialize);
     }
@@ -246,6 +349,9 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
 
             externalAllocations.add(new PointersPair(pointer, null));
 
+            if (tracer != null)
+                tracer.recordSpill(cyclesCount.get(), requiredMemory);
+
             return pointer;
         }
 
@@ -271,6 +377,9 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
 
             PagedPointer ptr = workspace.getHostPointer().withOffset(prevOffset, numElements);
 
+            if (tracer != null)
+                tracer.recordAllocation(cyclesCount.get(), requiredMemory, prevOffset);
+
             if (isDebug.get())
                 log.info("Workspace [{}]: Allocating array of {} bytes, capacity of {} elements, prevOffset: {}; currentOffset: {}; address: {}", id, requiredMemory, numElements, prevOffset, hostOffset.get(), ptr.address());
 
@@ -288,6 +397,10 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
                 return alloc(requiredMemory, kind, type, initialize);
             }
 
+            // in case of chained segments - we just continue bump allocation in the next segment
+            if (workspaceConfiguration.getPolicySpill() == SpillPolicy.SEGMENTED && workspaceConfiguration.getPolicyReset() == ResetPolicy.BLOCK_LEFT && !trimmer)
+                return allocFromSegments(requiredMemory, numElements, initialize);
+
             // updating respective counters
             if (!trimmer)
                 spilledAllocationsSize.addAndGet(requiredMemory);
@@ -298,6 +411,7 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
                 log.info("Workspace [{}]: step: {}, spilled  {} bytes, capacity of {} elements",  id, stepsCount.get(), requiredMemory, numElements);
 
             switch (workspaceConfiguration.getPolicySpill()) {
+                case SEGMENTED:
                 case REALLOCATE:
                 case EXTERNAL:
                     cycleAllocations.addAndGet(requiredMemory);
@@ -308,6 +422,9 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
 
                         externalAllocations.add(new PointersPair(pointer, null));
 
+                        if (tracer != null)
+                            tracer.recordSpill(cyclesCount.get(), requiredMemory);
+
                         return pointer;
                     } else {
                         pinnedCount.incrementAndGet();
@@ -315,6 +432,8 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
 
                         pinnedAllocations.add(new PointersPair(stepsCount.get(), requiredMemory, pointer, null));
 
+                        if (tracer != null)
+                            tracer.recordPinned(cyclesCount.get(), requiredMemory);
 
                         return pointer;
                     }
@@ -326,6 +445,108 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
         }
     }
 
+    /**
+     * This method serves allocation from chained segments. If none of existing segments has enough space left - new segment is appended.
+     *
+     * @param requiredMemory aligned number of bytes
+     * @param numElements
+     * @param initialize
+     * @return
+     */
+    protected PagedPointer allocFromSegments(long requiredMemory, long numElements, boolean initialize) {
+        cycleAllocations.addAndGet(requiredMemory);
+
+        // segments are used sequentially, so we just skip the ones that can't fit this allocation
+        while (currentSegment.get() < segments.size() && segmentOffset.get() + requiredMemory > segments.get(currentSegment.get()).getRequiredMemory()) {
+            currentSegment.incrementAndGet();
+            segmentOffset.set(0);
+        }
+
+        if (currentSegment.get() == segments.size()) {
+            long lastSize = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).getRequiredMemory();
+
+            // every next segment is at least twice larger then previous one, so number of segments stays low
+            long size = Math.max(Math.max(currentSize.get(), lastSize * 2), MIN_SEGMENT_SIZE);
+            if (workspaceConfiguration.getMaxSize() > 0) {
+                long remaining = workspaceConfiguration.getMaxSize() - currentSize.get() - segmentsSize.get();
+                remaining -= remaining % 8;
+
+                // workspace never grows past maxSize: allocations that don't fit into remaining budget go out of workspace
+                if (requiredMemory > remaining)
+                    return allocExternal(requiredMemory, numElements, initialize);
+
+                size = Math.min(size, remaining);
+            }
+
+            size = Math.max(size, requiredMemory);
+            if (size % 8 != 0)
+                size += 8 - (size % 8);
+
+            if (isDebug.get())
+                log.info("Workspace [{}]: cycle: {}, appending segment #{} of {} bytes", id, cyclesCount.get(), segments.size(), size);
+
+            PagedPointer pointer = new PagedPointer(memoryManager.allocate(size, MemoryKind.HOST, false));
+            segments.add(new PointersPair(cyclesCount.get(), size, pointer, null));
+            segmentsSize.addAndGet(size);
+            segmentOffset.set(0);
+
+            if (tracer != null)
+                tracer.recordSegment(cyclesCount.get(), requiredMemory, currentSize.get() + segmentsSize.get());
+        }
+
+        PointersPair segment = segments.get(currentSegment.get());
+        segment.setAllocationCycle(cyclesCount.get());
+
+        long prevOffset = segmentOffset.getAndAdd(requiredMemory);
+        PagedPointer ptr = segment.getHostPointer().withOffset(prevOffset, numElements);
+
+        if (tracer != null)
+            tracer.recordAllocation(cyclesCount.get(), requiredMemory, prevOffset);
+
+        if (initialize)
+            Pointer.memset(ptr, 0, requiredMemory);
+
+        return ptr;
+    }
+
+    /**
+     * This method serves allocation out of workspace, as spilled allocation released at the end of the block
+     *
+     * @param requiredMemory aligned number of bytes
+     * @param numElements
+     * @param initialize
+     * @return
+     */
+    protected PagedPointer allocExternal(long requiredMemory, long numElements, boolean initialize) {
+        if (isDebug.get())
+            log.info("Workspace [{}]: cycle: {}, max size reached, spilled {} bytes", id, cyclesCount.get(), requiredMemory);
+
+        spilledAllocationsSize.addAndGet(requiredMemory);
+        externalCount.incrementAndGet();
+
+        PagedPointer pointer = new PagedPointer(memoryManager.allocate(requiredMemory, MemoryKind.HOST, initialize), numElements);
+
+        externalAllocations.add(new PointersPair(pointer, null));
+
+        if (tracer != null)
+            tracer.recordSpill(cyclesCount.get(), requiredMemory);
+
+        return pointer;
+    }
+
+    /**
+     * This method releases all chained segments
+     */
+    protected void clearSegments() {
+        for (PointersPair segment : segments)
+            memoryManager.release(segment.getHostPointer(), MemoryKind.HOST);
+
+        segments.clear();
+        currentSegment.set(0);
+        segmentOffset.set(0);
+        segmentsSize.set(0);
+    }
+
     public void free(Pointer pointer) {
         // no-op for main page(s), purge for external stuff
     }
@@ -381,6 +602,10 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
                     resetPlanned.set(false);
                 }
 
+                // chained segments aren't needed anymore, main block will be large enough
+                if (!segments.isEmpty())
+                    clearSegments();
+
                 // calling for implementation-specific workspace initialization. basically allocation happens there
                 init();
             }
@@ -423,6 +648,7 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
         workspace.setHostPointer(null);
         currentSize.set(0);
         reset();
+        clearSegments();
 
         if (extended) {
             clearExternalAllocations();
@@ -468,6 +694,8 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
             if (tagScope.decrementAndGet() == 0){
                 Nd4j.getMemoryManager().setCurrentWorkspace(this);
             }
+
+            releaseLease();
             return;
         }
 
@@ -562,7 +790,13 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
             }
         }
 
+        if (tracer != null)
+            tracer.recordCycle(cyclesCount.get() - 1, lastCycleAllocations.get(), currentSize.get() + segmentsSize.get());
+
         cycleAllocations.set(0);
+
+        // leased workspace goes back to the pool, if that was the outermost scope
+        releaseLease();
     }
 
     protected abstract void clearPinnedAllocations(boolean extended);
@@ -576,6 +810,9 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
 
         MemoryWorkspace prev = Nd4j.getMemoryManager().getCurrentWorkspace();
 
+        if (pool != null)
+            leaseDepth.incrementAndGet();
+
         // if we're opening the same workspace - just increase counter, and skip everything else
         if (prev == this && isOpen.get()) {
             tagScope.incrementAndGet();
@@ -614,6 +851,31 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
         //log.info("Resetting at device: {}; host: {};", deviceOffset.get(), hostOffset.get());
         hostOffset.set(0);
         deviceOffset.set(0);
+
+        if (!segments.isEmpty())
+            resetSegments();
+    }
+
+    /**
+     * This method rewinds chained segments, and releases trailing segments that weren't used recently
+     */
+    protected void resetSegments() {
+        currentSegment.set(0);
+        segmentOffset.set(0);
+
+        // segments are filled sequentially, so unused segments are always at the tail
+        while (!segments.isEmpty()) {
+            PointersPair segment = segments.get(segments.size() - 1);
+            if (cyclesCount.get() - segment.getAllocationCycle() <= SEGMENT_RETENTION_CYCLES)
+                break;
+
+            if (isDebug.get())
+                log.info("Workspace [{}]: cycle: {}, releasing segment #{} of {} bytes", id, cyclesCount.get(), segments.size() - 1, segment.getRequiredMemory());
+
+            memoryManager.release(segment.getHostPointer(), MemoryKind.HOST);
+            segmentsSize.addAndGet(-segment.getRequiredMemory());
+            segments.remove(segments.size() - 1);
+        }
     }
 
     protected abstract void resetWorkspace();
@@ -677,6 +939,10 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
 
     @Override
     public MemoryWorkspace tagOutOfScopeUse() {
+        // out-of-scope block is closed via close() as well, so it's accounted as nested scope of current lease
+        if (pool != null)
+            leaseDepth.incrementAndGet();
+
         tagScope.incrementAndGet();
         return this;
     }
@@ -696,6 +962,7 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
         private Long threadId;
         private Queue<PointersPair> pinnedPointers;
         private List<PointersPair> externalPointers;
+        private List<PointersPair> segmentPointers;
         private String key;
 
         public GarbageWorkspaceReference(MemoryWorkspace referent, ReferenceQueue<? super MemoryWorkspace> queue) {
@@ -706,8 +973,9 @@ public abstract class Nd4jWorkspace implements MemoryWorkspace {
             this.threadId = referent.getThreadId();
             this.pinnedPointers = ((Nd4jWorkspace) referent).pinnedAllocations;
             this.externalPointers = ((Nd4jWorkspace) referent).externalAllocations;
+            this.segmentPointers = ((Nd4jWorkspace) referent).segments;
 
-            this.key = id + "_" + threadId;
+            this.key = ((Nd4jWorkspace) referent).guid;
         }
     }
 }
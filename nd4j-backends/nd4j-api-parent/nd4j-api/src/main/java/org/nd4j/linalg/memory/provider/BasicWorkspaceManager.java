@@ -11,10 +11,18 @@ import org.nd4j.linalg.api.memory.pointers.PointersPair;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.memory.abstracts.DummyWorkspace;
 import org.nd4j.linalg.memory.abstracts.Nd4jWorkspace;
+import org.nd4j.linalg.memory.tracing.WorkspaceAdvice;
+import org.nd4j.linalg.memory.tracing.WorkspaceSizingAdvisor;
+import org.nd4j.linalg.memory.tracing.WorkspaceTrace;
+import org.nd4j.linalg.memory.tracing.WorkspaceTracer;
+import org.nd4j.shade.jackson.core.JsonProcessingException;
+import org.nd4j.shade.jackson.databind.ObjectMapper;
+import org.nd4j.shade.jackson.databind.SerializationFeature;
 
 import java.lang.ref.ReferenceQueue;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -32,6 +40,14 @@ public abstract class BasicWorkspaceManager implements MemoryWorkspaceManager {
     private WorkspaceDeallocatorThread thread;
     private Map<String, Nd4jWorkspace.GarbageWorkspaceReference> referenceMap = new ConcurrentHashMap<>();
 
+    // tracers are kept for all threads, so allocation traces can be dumped from any thread. keys match GarbageWorkspaceReference keys
+    protected volatile boolean tracingEnabled = false;
+    protected volatile int tracingSamplingRate = WorkspaceTracer.DEFAULT_SAMPLING_RATE;
+    protected Map<String, TracedWorkspace> tracers = new ConcurrentHashMap<>();
+
+    // if shared pool is enabled, getAndActivateWorkspace() calls lease workspaces from it instead of thread-local map
+    protected volatile SharedWorkspacePool sharedPool;
+
     public BasicWorkspaceManager() {
         this(WorkspaceConfiguration.builder().initialSize(0).maxSize(0).overallocationLimit(0.3).policyAllocation(AllocationPolicy.OVERALLOCATE).policyLearning(LearningPolicy.FIRST_LOOP).policyMirroring(MirroringPolicy.FULL).policySpill(SpillPolicy.EXTERNAL).build());
     }
@@ -82,9 +98,200 @@ public abstract class BasicWorkspaceManager implements MemoryWorkspaceManager {
     }
     */
 
+    /**
+     * This method creates new workspace for shared pool. Unlike createNewWorkspace(), workspace isn't attached to current thread.
+     *
+     * @param configuration
+     * @param id
+     * @param deviceId
+     * @return
+     */
+    protected MemoryWorkspace createPooledWorkspace(@NonNull WorkspaceConfiguration configuration, @NonNull String id, Integer deviceId) {
+        throw new UnsupportedOperationException("Shared workspace pool isn't supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * This method makes workspace leased from shared pool available via getWorkspaceForCurrentThread() calls of current thread
+     *
+     * @param workspace
+     * @return workspace attached to current thread under the same id before, if any
+     */
+    protected MemoryWorkspace attachLeasedWorkspace(@NonNull Nd4jWorkspace workspace) {
+        ensureThreadExistense();
+
+        return backingMap.get().put(workspace.getId(), workspace);
+    }
+
+    /**
+     * This method detaches workspace returned to shared pool from current thread, and restores workspace it displaced, if any
+     *
+     * @param workspace
+     * @param displaced
+     */
+    protected void detachLeasedWorkspace(@NonNull Nd4jWorkspace workspace, MemoryWorkspace displaced) {
+        Map<String, MemoryWorkspace> map = backingMap.get();
+        if (map == null || map.get(workspace.getId()) != workspace)
+            return;
+
+        if (displaced != null)
+            map.put(workspace.getId(), displaced);
+        else
+            map.remove(workspace.getId());
+    }
+
+    /**
+     * This method enables shared pool mode: getAndActivateWorkspace() calls will lease workspaces from bounded pool
+     * for the duration of scope, instead of using thread-local workspaces.
+     *
+     * PLEASE NOTE: getWorkspaceForCurrentThread() calls return leased workspace while it's leased, and thread-local one otherwise.
+     * If shared pool was enabled before, workspaces leased from it are released once their outermost scope is closed
+     *
+     * @param maxWorkspaces maximal number of workspaces per workspace id & device
+     */
+    public void enableSharedPool(int maxWorkspaces) {
+        SharedWorkspacePool previous = sharedPool;
+        sharedPool = new SharedWorkspacePool(this, maxWorkspaces);
+
+        if (previous != null)
+            previous.destroy();
+    }
+
+    /**
+     * This method disables shared pool mode, and releases memory of all idle pooled workspaces.
+     * Workspaces leased at the moment of this call are released once their outermost scope is closed
+     */
+    public void disableSharedPool() {
+        SharedWorkspacePool previous = sharedPool;
+        sharedPool = null;
+
+        if (previous != null)
+            previous.destroy();
+    }
+
+    /**
+     * This method returns shared pool, or null if shared pool mode is disabled
+     *
+     * @return
+     */
+    public SharedWorkspacePool getSharedPool() {
+        return sharedPool;
+    }
+
     protected void pickReference(MemoryWorkspace workspace) {
         Nd4jWorkspace.GarbageWorkspaceReference reference = new Nd4jWorkspace.GarbageWorkspaceReference(workspace, queue);
         referenceMap.put(reference.getKey(), reference);
+
+        if (tracingEnabled)
+            attachTracer(workspace);
+    }
+
+    protected void attachTracer(MemoryWorkspace workspace) {
+        if (!(workspace instanceof Nd4jWorkspace) || ((Nd4jWorkspace) workspace).getTracer() != null)
+            return;
+
+        Nd4jWorkspace nd4jWorkspace = (Nd4jWorkspace) workspace;
+        WorkspaceTracer tracer = new WorkspaceTracer(workspace.getId(), workspace.getThreadId(),
+                        WorkspaceTracer.DEFAULT_EVENTS_CAPACITY, WorkspaceTracer.DEFAULT_CYCLES_CAPACITY,
+                        tracingSamplingRate);
+        nd4jWorkspace.enableTracing(tracer);
+
+        // tracers are keyed by workspace instance, since id & thread id pair isn't unique for pooled workspaces
+        tracers.put(nd4jWorkspace.getUniqueId(), new TracedWorkspace(tracer, nd4jWorkspace.getWorkspaceConfiguration()));
+    }
+
+    /**
+     * This method enables or disables allocations tracing for workspaces.
+     * Tracing gets enabled for all workspaces created after this call, and for existing workspaces of the calling thread.
+     *
+     * PLEASE NOTE: Tracing has measurable overhead, so it's supposed to be used for diagnostics only.
+     *
+     * @param reallyEnable
+     */
+    public void enableTracing(boolean reallyEnable) {
+        this.tracingEnabled = reallyEnable;
+
+        ensureThreadExistense();
+        for (MemoryWorkspace workspace : backingMap.get().values()) {
+            if (reallyEnable)
+                attachTracer(workspace);
+            else if (workspace instanceof Nd4jWorkspace)
+                ((Nd4jWorkspace) workspace).enableTracing(null);
+        }
+    }
+
+    /**
+     * This method defines how often call sites are captured by tracers: once per given number of allocations.
+     * 0 disables call sites capture. Applies to tracers created after this call.
+     *
+     * @param samplingRate
+     */
+    public void setTracingSamplingRate(int samplingRate) {
+        this.tracingSamplingRate = samplingRate;
+    }
+
+    public boolean isTracingEnabled() {
+        return tracingEnabled;
+    }
+
+    /**
+     * This method returns snapshots of all traced workspaces, across all threads
+     *
+     * @return
+     */
+    public List<WorkspaceTrace> getTraces() {
+        List<WorkspaceTrace> traces = new ArrayList<>();
+        for (TracedWorkspace traced : tracers.values())
+            traces.add(traced.tracer.snapshot());
+
+        return traces;
+    }
+
+    /**
+     * This method returns configuration advice for all traced workspaces, across all threads
+     *
+     * @return
+     */
+    public List<WorkspaceAdvice> getConfigurationAdvice() {
+        List<WorkspaceAdvice> advice = new ArrayList<>();
+        for (TracedWorkspace traced : tracers.values())
+            advice.add(WorkspaceSizingAdvisor.advise(traced.tracer.snapshot(), traced.configuration));
+
+        return advice;
+    }
+
+    /**
+     * This method returns traces and configuration advice for all traced workspaces as JSON
+     *
+     * @return
+     */
+    public String dumpTracesAsJson() {
+        Map<String, Object> dump = new LinkedHashMap<>();
+        dump.put("traces", getTraces());
+        dump.put("advice", getConfigurationAdvice());
+
+        try {
+            return new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(dump);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * This method drops all recorded traces, without disabling tracing
+     */
+    public void resetTraces() {
+        for (TracedWorkspace traced : tracers.values())
+            traced.tracer.reset();
+    }
+
+    protected static class TracedWorkspace {
+        protected final WorkspaceTracer tracer;
+        protected final WorkspaceConfiguration configuration;
+
+        protected TracedWorkspace(WorkspaceTracer tracer, WorkspaceConfiguration configuration) {
+            this.tracer = tracer;
+            this.configuration = configuration;
+        }
     }
 
     @Override
@@ -109,7 +316,12 @@ public abstract class BasicWorkspaceManager implements MemoryWorkspaceManager {
         if (workspace == null || workspace instanceof DummyWorkspace)
             return;
 
+        // leased workspace isn't returned to the pool, it's just dropped
+        if (workspace instanceof Nd4jWorkspace && ((Nd4jWorkspace) workspace).getPool() != null)
+            ((Nd4jWorkspace) workspace).getPool().discard((Nd4jWorkspace) workspace);
+
         //workspace.destroyWorkspace();
+        ensureThreadExistense();
         backingMap.get().remove(workspace.getId());
     }
 
@@ -124,7 +336,8 @@ public abstract class BasicWorkspaceManager implements MemoryWorkspaceManager {
         //if (workspace != null)
             //workspace.destroyWorkspace();
 
-        backingMap.get().remove(MemoryWorkspace.DEFAULT_ID);
+        if (workspace != null)
+            destroyWorkspace(workspace);
     }
 
     /**
@@ -156,6 +369,9 @@ public abstract class BasicWorkspaceManager implements MemoryWorkspaceManager {
      */
     @Override
     public MemoryWorkspace getAndActivateWorkspace() {
+        if (sharedPool != null)
+            return getAndActivateWorkspace(defaultConfiguration, MemoryWorkspace.DEFAULT_ID);
+
         return getWorkspaceForCurrentThread().notifyScopeEntered();
     }
 
@@ -167,6 +383,9 @@ public abstract class BasicWorkspaceManager implements MemoryWorkspaceManager {
      */
     @Override
     public MemoryWorkspace getAndActivateWorkspace(@NonNull String id) {
+        if (sharedPool != null)
+            return getAndActivateWorkspace(defaultConfiguration, id);
+
         return getWorkspaceForCurrentThread(id).notifyScopeEntered();
     }
 
@@ -179,6 +398,10 @@ public abstract class BasicWorkspaceManager implements MemoryWorkspaceManager {
      */
     @Override
     public MemoryWorkspace getAndActivateWorkspace(@NonNull WorkspaceConfiguration configuration,@NonNull String id) {
+        SharedWorkspacePool pool = sharedPool;
+        if (pool != null)
+            return pool.lease(configuration, id).notifyScopeEntered();
+
         return getWorkspaceForCurrentThread(configuration, id).notifyScopeEntered();
     }
 
@@ -256,6 +479,12 @@ public abstract class BasicWorkspaceManager implements MemoryWorkspaceManager {
                             }
                         }
 
+                        // purging all chained segments
+                        for (PointersPair segment : reference.getSegmentPointers()) {
+                            if (segment != null && segment.getHostPointer() != null)
+                                Nd4j.getMemoryManager().release(segment.getHostPointer(), MemoryKind.HOST);
+                        }
+
                         // purging all pinned pointers
                         while ((pair = reference.getPinnedPointers().poll()) != null) {
                             if (pair.getHostPointer() != null)
@@ -266,6 +495,7 @@ public abstract class BasicWorkspaceManager implements MemoryWorkspaceManager {
                         }
 
                         referenceMap.remove(reference.getKey());
+                        tracers.remove(reference.getKey());
                     }
                 } catch (Exception e) {
                     //
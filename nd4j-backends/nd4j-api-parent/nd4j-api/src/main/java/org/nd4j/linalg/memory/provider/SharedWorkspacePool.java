@@ -0,0 +1,370 @@
+package org.nd4j.linalg.memory.provider;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.memory.abstracts.Nd4jWorkspace;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded pool of workspaces shared between threads.
+ *
+ * Instead of keeping one workspace per thread, workspaces are leased for the duration of the outermost scope,
+ * and returned back to the pool once that scope is closed. So, for thread pools used for inference,
+ * number of workspaces depends on number of concurrent requests, not on number of threads.
+ *
+ * Workspace last used by the same thread is preferred, for better cache locality.
+ * If all workspaces are leased, and limit is reached - caller is blocked until one of workspaces is released,
+ * or pool is destroyed.
+ * While leased, workspace is also available via getWorkspaceForCurrentThread() calls of the leasing thread.
+ *
+ * PLEASE NOTE: Pool is separate for each workspace id and device.
+ */
+@Slf4j
+public class SharedWorkspacePool {
+    protected final BasicWorkspaceManager manager;
+
+    @Getter protected final int maxWorkspaces;
+
+    protected final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    // workspaces leased by current thread, used to handle nested scopes of the same workspace
+    protected final ThreadLocal<Map<String, Lease>> leases = new ThreadLocal<>();
+
+    protected volatile boolean destroyed = false;
+
+    protected final AtomicLong leasesCount = new AtomicLong(0);
+    protected final AtomicLong affinityHits = new AtomicLong(0);
+    protected final AtomicLong waitsCount = new AtomicLong(0);
+
+    /**
+     *
+     * @param manager manager used to instantiate backend-specific workspaces
+     * @param maxWorkspaces maximal number of workspaces per workspace id & device
+     */
+    public SharedWorkspacePool(@NonNull BasicWorkspaceManager manager, int maxWorkspaces) {
+        if (maxWorkspaces < 1)
+            throw new IllegalArgumentException("Number of workspaces should be positive value");
+
+        this.manager = manager;
+        this.maxWorkspaces = maxWorkspaces;
+    }
+
+    /**
+     * This method leases workspace for current thread. Workspace is returned to the pool once its outermost scope is closed.
+     * If current thread already holds workspace with given id - the same workspace is returned.
+     *
+     * @throws ND4JIllegalStateException if pool was destroyed, including destruction while waiting for workspace
+     *
+     * @param configuration configuration used if new workspace has to be created
+     * @param id workspace id
+     * @return
+     */
+    public MemoryWorkspace lease(@NonNull WorkspaceConfiguration configuration, @NonNull String id) {
+        Map<String, Lease> current = leases.get();
+        if (current == null) {
+            current = new HashMap<>();
+            leases.set(current);
+        }
+
+        Lease lease = current.get(id);
+        if (lease != null)
+            return lease.workspace;
+
+        int deviceId = Nd4j.getAffinityManager().getDeviceForCurrentThread();
+        Nd4jWorkspace workspace = getBucket(id, deviceId).acquire(configuration, id, deviceId);
+        workspace.attachToPool(this);
+
+        MemoryWorkspace displaced = manager.attachLeasedWorkspace(workspace);
+
+        current.put(id, new Lease(workspace, displaced));
+        leasesCount.incrementAndGet();
+
+        return workspace;
+    }
+
+    /**
+     * This method returns workspace back to the pool. It's called by workspace itself, once outermost scope is closed.
+     * If this pool was destroyed while workspace was leased - workspace memory is released instead.
+     *
+     * @param workspace
+     */
+    public void release(@NonNull Nd4jWorkspace workspace) {
+        // workspace isn't leased by this thread, i.e. scope was opened on idle workspace directly
+        if (!detach(workspace, true))
+            return;
+
+        if (!getBucket(workspace.getId(), workspace.getDeviceId()).release(workspace)) {
+            workspace.detachFromPool();
+            workspace.destroyWorkspace(true);
+        }
+    }
+
+    /**
+     * This method removes workspace leased by current thread from the pool, without returning it back.
+     * Pool limit is decreased accordingly, so other threads can create new workspace. Used by destroyWorkspace() calls.
+     *
+     * @param workspace
+     */
+    public void discard(@NonNull Nd4jWorkspace workspace) {
+        if (!detach(workspace, false))
+            return;
+
+        workspace.detachFromPool();
+        getBucket(workspace.getId(), workspace.getDeviceId()).forget();
+    }
+
+    /**
+     * This method ends lease of given workspace by current thread
+     *
+     * @param workspace
+     * @param restore if true, workspace attached to current thread before lease is restored
+     * @return true if workspace was leased by current thread, false otherwise
+     */
+    protected boolean detach(Nd4jWorkspace workspace, boolean restore) {
+        Map<String, Lease> current = leases.get();
+        Lease lease = current == null ? null : current.get(workspace.getId());
+        if (lease == null || lease.workspace != workspace)
+            return false;
+
+        current.remove(workspace.getId());
+
+        if (restore)
+            manager.detachLeasedWorkspace(workspace, lease.displaced);
+
+        return true;
+    }
+
+    protected Bucket getBucket(String id, int deviceId) {
+        String key = id + "_" + deviceId;
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            synchronized (buckets) {
+                bucket = buckets.get(key);
+                if (bucket == null) {
+                    bucket = new Bucket();
+                    buckets.put(key, bucket);
+                }
+            }
+        }
+
+        return bucket;
+    }
+
+    /**
+     * This method returns number of workspaces created by this pool, across all ids and devices
+     *
+     * @return
+     */
+    public int getNumberOfWorkspaces() {
+        int result = 0;
+        for (Bucket bucket : buckets.values())
+            result += bucket.created;
+
+        return result;
+    }
+
+    /**
+     * This method returns number of workspaces currently available for lease, across all ids and devices
+     *
+     * @return
+     */
+    public int getNumberOfIdleWorkspaces() {
+        int result = 0;
+        for (Bucket bucket : buckets.values())
+            result += bucket.size();
+
+        return result;
+    }
+
+    /**
+     * This method returns total number of leases since this pool was created
+     *
+     * @return
+     */
+    public long getNumberOfLeases() {
+        return leasesCount.get();
+    }
+
+    /**
+     * This method returns number of leases served with workspace last used by the same thread
+     *
+     * @return
+     */
+    public long getNumberOfAffinityHits() {
+        return affinityHits.get();
+    }
+
+    /**
+     * This method returns number of leases that had to wait for workspace release
+     *
+     * @return
+     */
+    public long getNumberOfWaits() {
+        return waitsCount.get();
+    }
+
+    /**
+     * This method releases memory of all idle workspaces.
+     *
+     * Threads waiting for workspace are woken up, and their lease() calls fail.
+     *
+     * PLEASE NOTE: Workspaces leased at the moment of this call are released once their outermost scope is closed
+     */
+    public void destroy() {
+        destroyed = true;
+
+        for (Bucket bucket : buckets.values())
+            bucket.destroy();
+    }
+
+    protected static class Lease {
+        protected final Nd4jWorkspace workspace;
+        // workspace attached to leasing thread under the same id before lease, if any
+        protected final MemoryWorkspace displaced;
+
+        protected Lease(Nd4jWorkspace workspace, MemoryWorkspace displaced) {
+            this.workspace = workspace;
+            this.displaced = displaced;
+        }
+    }
+
+    protected class Bucket {
+        protected final ReentrantLock lock = new ReentrantLock();
+        protected final Condition available = lock.newCondition();
+
+        // most recently released workspaces go first
+        protected final Deque<Nd4jWorkspace> idle = new ArrayDeque<>();
+        protected volatile int created;
+
+        protected Nd4jWorkspace acquire(WorkspaceConfiguration configuration, String id, int deviceId) {
+            long threadId = Thread.currentThread().getId();
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (destroyed)
+                        throw new ND4JIllegalStateException("Workspace [" + id + "] can't be leased: pool was destroyed");
+
+                    // first of all we're looking for workspace that was used by this thread before
+                    Iterator<Nd4jWorkspace> iterator = idle.iterator();
+                    while (iterator.hasNext()) {
+                        Nd4jWorkspace workspace = iterator.next();
+                        if (workspace.getThreadId() == threadId) {
+                            iterator.remove();
+                            affinityHits.incrementAndGet();
+                            return workspace;
+                        }
+                    }
+
+                    if (!idle.isEmpty())
+                        return idle.pollFirst();
+
+                    if (created < maxWorkspaces) {
+                        created++;
+                        break;
+                    }
+
+                    waitsCount.incrementAndGet();
+                    available.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } finally {
+                lock.unlock();
+            }
+
+            // actual allocation happens out of lock
+            try {
+                Nd4jWorkspace workspace = (Nd4jWorkspace) manager.createPooledWorkspace(configuration, id, deviceId);
+
+                // pooled workspaces are deallocated & traced the same way as thread-local ones
+                manager.pickReference(workspace);
+
+                return workspace;
+            } catch (RuntimeException e) {
+                lock.lock();
+                try {
+                    created--;
+                    available.signal();
+                } finally {
+                    lock.unlock();
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Returns workspace to the bucket, or false if pool was destroyed, and workspace should be released by caller
+         */
+        protected boolean release(Nd4jWorkspace workspace) {
+            lock.lock();
+            try {
+                if (destroyed) {
+                    created--;
+                    available.signalAll();
+                    return false;
+                }
+
+                idle.addFirst(workspace);
+                available.signal();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        protected void forget() {
+            lock.lock();
+            try {
+                created--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        protected int size() {
+            lock.lock();
+            try {
+                return idle.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        protected void destroy() {
+            List<Nd4jWorkspace> workspaces;
+            lock.lock();
+            try {
+                workspaces = new ArrayList<>(idle);
+                idle.clear();
+                created -= workspaces.size();
+
+                // waiting threads will see destroyed flag and bail out
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            for (Nd4jWorkspace workspace : workspaces)
+                workspace.destroyWorkspace(true);
+        }
+    }
+}
@@ -1,26 +1,55 @@
 package org.nd4j.linalg.memory.stash;
 
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.serde.binary.BinarySerde;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Basic Stash implementation.
+ *
+ * Arrays are stored as detached copies, outside of Java heap and outside of any workspace.
+ * If memory budget is defined, least recently used entries are moved to memory-mapped files once budget is exceeded.
+ * Optionally, entries can be compressed with BasicNDArrayCompressor.
+ *
  * @author raver119@gmail.com
  */
-public abstract class BasicStash<T extends Object> implements Stash<T> {
-    protected Map<T, INDArray> stash = new ConcurrentHashMap<>();
+@Slf4j
+public class BasicStash<T extends Object> implements Stash<T> {
+    // access-ordered, so first entries are least recently used ones
+    protected Map<T, StashEntry> stash = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Getter protected final StashConfiguration configuration;
+
+    protected AtomicLong residentBytes = new AtomicLong(0);
+    protected AtomicLong spilledBytes = new AtomicLong(0);
+    protected AtomicLong spillsCount = new AtomicLong(0);
 
     protected BasicStash() {
+        this(StashConfiguration.builder().build());
+    }
 
+    public BasicStash(@NonNull StashConfiguration configuration) {
+        this.configuration = configuration;
     }
 
     @Override
-    public boolean checkIfExists(T key) {
-        /*
-            Just checkin'
-         */
-        return false;
+    public synchronized boolean checkIfExists(T key) {
+        return stash.containsKey(key);
     }
 
     @Override
@@ -29,20 +58,191 @@ public abstract class BasicStash<T extends Object> implements Stash<T> {
             Basically we want to get DataBuffer here, and store it here together with shape
             Special case here is GPU: we want to synchronize HOST memory, and store only HOST memory.
          */
+        INDArray stored;
+        try (MemoryWorkspace workspace = Nd4j.getWorkspaceManager().scopeOutOfWorkspaces()) {
+            if (object.isCompressed())
+                object = Nd4j.getCompressor().decompress(object);
+
+            Nd4j.getExecutioner().commit();
+            Nd4j.getAffinityManager().ensureLocation(object, AffinityManager.Location.HOST);
+
+            stored = object.dup(object.ordering());
+
+            if (configuration.getCompressionAlgorithm() != null)
+                Nd4j.getCompressor().compressi(stored, configuration.getCompressionAlgorithm());
+        }
+
+        StashEntry entry = new StashEntry(stored, BinarySerde.dataBytes(stored));
+
+        synchronized (this) {
+            // existing entry is dropped only once new one is stored, so failed spill doesn't lose it
+            StashEntry existing = stash.get(key);
+
+            long budget = configuration.getMaxResidentBytes();
+            if (budget > 0) {
+                if (entry.bytes > budget) {
+                    // there's no sense in evicting everything else, this entry goes to disk straight away
+                    spill(entry);
+                } else {
+                    long released = existing != null && existing.isResident() ? existing.bytes : 0;
+                    evict(budget - entry.bytes + released, existing);
+                }
+            }
+
+            drop(key);
+
+            if (entry.isResident())
+                residentBytes.addAndGet(entry.bytes);
+
+            stash.put(key, entry);
+        }
     }
 
+    /**
+     * This method returns detached copy of stored array, so changes made to it don't affect the Stash
+     *
+     * @param key
+     * @return
+     */
     @Override
     public INDArray get(T key) {
         /*
             We want to restore INDArray here, In case of GPU backend - we want to ensure data is replicated to device.
          */
-        return null;
+        INDArray array;
+        try (MemoryWorkspace workspace = Nd4j.getWorkspaceManager().scopeOutOfWorkspaces()) {
+            // entry state is read under lock, so concurrent spill() or drop() can't change it midway
+            synchronized (this) {
+                StashEntry entry = stash.get(key);
+                if (entry == null)
+                    return null;
+
+                if (entry.isResident()) {
+                    array = entry.array.isCompressed() ? Nd4j.getCompressor().decompress(entry.array)
+                                    : entry.array.dup(entry.array.ordering());
+                } else {
+                    try {
+                        array = BinarySerde.readFromDisk(entry.file);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }
+
+            if (array.isCompressed())
+                array = Nd4j.getCompressor().decompress(array);
+        }
+
+        Nd4j.getAffinityManager().tagLocation(array, AffinityManager.Location.HOST);
+
+        return array;
     }
 
     @Override
-    public void purge() {
+    public synchronized void drop(T key) {
+        StashEntry entry = stash.remove(key);
+        if (entry == null)
+            return;
+
+        if (entry.isResident()) {
+            residentBytes.addAndGet(-entry.bytes);
+        } else {
+            spilledBytes.addAndGet(-entry.bytes);
+            if (!entry.file.delete())
+                log.warn("Unable to delete spilled entry file: [{}]", entry.file.getAbsolutePath());
+        }
+    }
+
+    @Override
+    public synchronized void purge() {
         /*
             We want to purge all stored stuff here.
          */
+        List<T> keys = new ArrayList<>(stash.keySet());
+        for (T key : keys)
+            drop(key);
+    }
+
+    @Override
+    public long getResidentBytes() {
+        return residentBytes.get();
+    }
+
+    @Override
+    public long getSpilledBytes() {
+        return spilledBytes.get();
+    }
+
+    /**
+     * This method returns number of entries moved to disk since this Stash was created
+     *
+     * @return
+     */
+    public long getNumberOfSpills() {
+        return spillsCount.get();
+    }
+
+    /**
+     * This method returns number of entries in this Stash
+     *
+     * @return
+     */
+    public synchronized int size() {
+        return stash.size();
+    }
+
+    /**
+     * This method moves least recently used entries to disk, until resident size fits into given limit
+     *
+     * @param limit
+     * @param excluded entry that is about to be replaced, it's never spilled
+     */
+    protected void evict(long limit, StashEntry excluded) {
+        Iterator<StashEntry> iterator = stash.values().iterator();
+        while (residentBytes.get() > limit && iterator.hasNext()) {
+            StashEntry entry = iterator.next();
+            if (!entry.isResident() || entry == excluded)
+                continue;
+
+            spill(entry);
+            residentBytes.addAndGet(-entry.bytes);
+        }
+    }
+
+    protected void spill(StashEntry entry) {
+        if (!configuration.isSpillToDisk())
+            throw new ND4JIllegalStateException("Stash memory budget of " + configuration.getMaxResidentBytes()
+                            + " bytes exceeded, and spilling to disk is disabled");
+
+        try {
+            File directory = configuration.getSpillDirectory() == null ? null : new File(configuration.getSpillDirectory());
+            File file = File.createTempFile("nd4j_stash_", ".bin", directory);
+            file.deleteOnExit();
+
+            BinarySerde.writeArrayToDisk(entry.array, file);
+
+            entry.file = file;
+            entry.array = null;
+
+            spilledBytes.addAndGet(entry.bytes);
+            spillsCount.incrementAndGet();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    protected static class StashEntry {
+        protected INDArray array;
+        protected File file;
+        protected final long bytes;
+
+        protected StashEntry(INDArray array, long bytes) {
+            this.array = array;
+            this.bytes = bytes;
+        }
+
+        protected boolean isResident() {
+            return array != null;
+        }
     }
 }
@@ -1,22 +1,57 @@
 package org.nd4j.linalg.memory.stash;
 
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * @author raver119@gmail.com
  */
 public class BasicStashManager implements StashManager {
+    protected Map<Object, Stash<?>> stashes = new ConcurrentHashMap<>();
+
+    @Getter
+    @Setter
+    protected StashConfiguration defaultConfiguration = StashConfiguration.builder().build();
 
     @Override
     public <T> boolean checkIfStashExists(T stashId) {
-        return false;
+        return stashes.containsKey(stashId);
     }
 
     @Override
     public <T> Stash<T> getStash(T stashId) {
-        return null;
+        return (Stash<T>) stashes.get(stashId);
     }
 
     @Override
     public <T> Stash<T> createStashIfNotExists(T stashId) {
-        return null;
+        return createStashIfNotExists(stashId, defaultConfiguration);
+    }
+
+    @Override
+    public <T> Stash<T> createStashIfNotExists(@NonNull T stashId, @NonNull StashConfiguration configuration) {
+        Stash<?> stash = stashes.get(stashId);
+        if (stash == null) {
+            synchronized (this) {
+                stash = stashes.get(stashId);
+                if (stash == null) {
+                    stash = new BasicStash<T>(configuration);
+                    stashes.put(stashId, stash);
+                }
+            }
+        }
+
+        return (Stash<T>) stash;
+    }
+
+    @Override
+    public <T> void destroyStash(T stashId) {
+        Stash<?> stash = stashes.remove(stashId);
+        if (stash != null)
+            stash.purge();
     }
 }
@@ -13,7 +13,35 @@ public interface Stash<T extends Object> {
 
     void put(T key, INDArray object);
 
+    /**
+     * This method returns copy of stored array, or null if there's no such key.
+     * Returned array is detached from this Stash, so changes made to it are not reflected in stored entry
+     *
+     * @param key
+     * @return
+     */
     INDArray get(T key);
 
+    /**
+     * This method removes single entry from this Stash, releasing memory or disk space used by it
+     *
+     * @param key
+     */
+    void drop(T key);
+
     void purge();
+
+    /**
+     * This method returns number of bytes currently kept in off-heap memory
+     *
+     * @return
+     */
+    long getResidentBytes();
+
+    /**
+     * This method returns number of bytes currently spilled to disk
+     *
+     * @return
+     */
+    long getSpilledBytes();
 }
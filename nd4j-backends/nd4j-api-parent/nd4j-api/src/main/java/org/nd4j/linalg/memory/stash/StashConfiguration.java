@@ -0,0 +1,46 @@
+package org.nd4j.linalg.memory.stash;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * This class is configuration bean for Stash.
+ * It defines memory budget for resident entries, and behaviour for entries that don't fit into that budget.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StashConfiguration implements Serializable {
+
+    /**
+     * This variable specifies max number of bytes kept in off-heap memory. 0 means no limit
+     */
+    protected long maxResidentBytes;
+
+    /**
+     * If TRUE, entries exceeding memory budget will be moved to memory-mapped files. Otherwise exception will be thrown
+     */
+    protected boolean spillToDisk;
+
+    /**
+     * This variable specifies directory for spilled entries. If null, system temp directory will be used
+     */
+    protected String spillDirectory;
+
+    /**
+     * Compression algorithm name, as registered in BasicNDArrayCompressor. If null, entries are stored uncompressed
+     */
+    protected String compressionAlgorithm;
+
+    public static class StashConfigurationBuilder {
+        private long maxResidentBytes = 0;
+        private boolean spillToDisk = true;
+        private String spillDirectory = null;
+        private String compressionAlgorithm = null;
+    }
+}
@@ -0,0 +1,29 @@
+package org.nd4j.linalg.memory.tracing;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of WorkspaceSizingAdvisor: recommended configuration, cycle statistics it's based on, and human-readable notes
+ */
+@Data
+@NoArgsConstructor
+public class WorkspaceAdvice implements Serializable {
+    private String workspaceId;
+    private long threadId;
+
+    private long observedCycles;
+    private long medianCycleBytes;
+    private long p95CycleBytes;
+    private long maxCycleBytes;
+
+    private WorkspaceConfiguration currentConfiguration;
+    private WorkspaceConfiguration recommendedConfiguration;
+
+    private List<String> notes = new ArrayList<>();
+}
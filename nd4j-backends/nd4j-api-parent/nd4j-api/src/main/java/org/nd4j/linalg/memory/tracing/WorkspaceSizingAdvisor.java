@@ -0,0 +1,142 @@
+package org.nd4j.linalg.memory.tracing;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
+import org.nd4j.linalg.api.memory.enums.LearningPolicy;
+import org.nd4j.linalg.api.memory.enums.ResetPolicy;
+import org.nd4j.linalg.api.memory.enums.SpillPolicy;
+
+import java.util.Arrays;
+
+/**
+ * This class derives WorkspaceConfiguration recommendations from traced cycle sizes.
+ *
+ * Basic idea is simple:
+ * 1) initialSize covers 95% of observed cycles, so learning phase isn't needed anymore
+ * 2) overallocationLimit covers the gap between p95 and max cycle, so spills become rare
+ * 3) if cycle sizes are growing over time, or max cycle is far away from typical one - REALLOCATE spill policy is recommended
+ */
+public class WorkspaceSizingAdvisor {
+    protected static final double MIN_OVERALLOCATION = 0.1;
+    protected static final double MAX_OVERALLOCATION = 1.0;
+
+    private WorkspaceSizingAdvisor() {
+        //
+    }
+
+    /**
+     * This method builds advice for given trace
+     *
+     * @param trace traced workspace state
+     * @param current configuration workspace was created with
+     * @return
+     */
+    public static WorkspaceAdvice advise(@NonNull WorkspaceTrace trace, @NonNull WorkspaceConfiguration current) {
+        WorkspaceAdvice advice = new WorkspaceAdvice();
+        advice.setWorkspaceId(trace.getWorkspaceId());
+        advice.setThreadId(trace.getThreadId());
+        advice.setCurrentConfiguration(current);
+        advice.setObservedCycles(trace.getCycles());
+
+        long[] sizes = trace.getCycleSizes() == null ? new long[0] : trace.getCycleSizes().clone();
+        if (sizes.length == 0) {
+            advice.setRecommendedConfiguration(current);
+            advice.getNotes().add("No finished cycles were traced, current configuration is kept");
+            return advice;
+        }
+
+        long[] sorted = sizes.clone();
+        Arrays.sort(sorted);
+
+        long median = percentile(sorted, 0.50);
+        long p95 = percentile(sorted, 0.95);
+        long max = sorted[sorted.length - 1];
+
+        advice.setMedianCycleBytes(median);
+        advice.setP95CycleBytes(p95);
+        advice.setMaxCycleBytes(max);
+
+        WorkspaceConfiguration recommended = WorkspaceConfiguration.builder()
+                        .policyMirroring(current.getPolicyMirroring())
+                        .policyReset(current.getPolicyReset())
+                        .minSize(current.getMinSize())
+                        .maxSize(current.getMaxSize())
+                        .stepsNumber(current.getStepsNumber())
+                        .cyclesBeforeInitialization(0)
+                        .build();
+
+        long initialSize = align(p95);
+        if (current.getMaxSize() > 0 && initialSize > current.getMaxSize()) {
+            initialSize = current.getMaxSize();
+            advice.getNotes().add("p95 cycle size exceeds maxSize, initialSize is capped at maxSize");
+        }
+
+        recommended.setInitialSize(initialSize);
+        recommended.setPolicyLearning(LearningPolicy.NONE);
+        advice.getNotes().add("initialSize set to p95 cycle size: " + initialSize + " bytes, learning phase isn't needed");
+
+        if (current.getPolicyReset() == ResetPolicy.ENDOFBUFFER_REACHED) {
+            // circular workspaces use overallocation as number of steps, so we don't touch it
+            recommended.setPolicyAllocation(current.getPolicyAllocation());
+            recommended.setOverallocationLimit(current.getOverallocationLimit());
+        } else {
+            double overallocation = p95 > 0 ? (double) (max - p95) / p95 : 0.0;
+            overallocation = Math.min(MAX_OVERALLOCATION, Math.max(MIN_OVERALLOCATION, overallocation));
+            overallocation = Math.ceil(overallocation * 100) / 100.0;
+
+            recommended.setPolicyAllocation(AllocationPolicy.OVERALLOCATE);
+            recommended.setOverallocationLimit(overallocation);
+            advice.getNotes().add("overallocationLimit set to " + overallocation + " to cover max cycle of " + max + " bytes");
+        }
+
+        boolean growing = isGrowing(sizes);
+        boolean volatileSizes = max > p95 * 2;
+        if (growing || volatileSizes) {
+            recommended.setPolicySpill(SpillPolicy.REALLOCATE);
+            advice.getNotes().add(growing ? "Cycle sizes are growing over time, REALLOCATE spill policy recommended"
+                            : "Max cycle is more than 2x of p95 cycle, REALLOCATE spill policy recommended");
+        } else {
+            recommended.setPolicySpill(current.getPolicySpill() == SpillPolicy.FAIL ? SpillPolicy.FAIL : SpillPolicy.EXTERNAL);
+        }
+
+        if (trace.getSpills() > 0)
+            advice.getNotes().add(trace.getSpills() + " spilled allocations (" + trace.getSpilledBytes()
+                            + " bytes) were traced with current configuration");
+
+        if (trace.getPinned() > 0)
+            advice.getNotes().add(trace.getPinned() + " pinned allocations (" + trace.getPinnedBytes()
+                            + " bytes) were traced with current configuration");
+
+        advice.setRecommendedConfiguration(recommended);
+        return advice;
+    }
+
+    protected static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * Compares mean of the last quarter of cycles against mean of the first quarter
+     */
+    protected static boolean isGrowing(long[] sizes) {
+        if (sizes.length < 8)
+            return false;
+
+        int quarter = sizes.length / 4;
+        double head = 0;
+        double tail = 0;
+        for (int i = 0; i < quarter; i++) {
+            head += sizes[i];
+            tail += sizes[sizes.length - 1 - i];
+        }
+
+        return tail > head * 1.1;
+    }
+
+    protected static long align(long bytes) {
+        long div = bytes % 8;
+        return div == 0 ? bytes : bytes + 8 - div;
+    }
+}
@@ -0,0 +1,64 @@
+package org.nd4j.linalg.memory.tracing;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Snapshot of WorkspaceTracer state
+ */
+@Data
+@NoArgsConstructor
+public class WorkspaceTrace implements Serializable {
+    private String workspaceId;
+    private long threadId;
+
+    private long allocations;
+    private long allocatedBytes;
+    private long spills;
+    private long spilledBytes;
+    private long pinned;
+    private long pinnedBytes;
+
+    private long cycles;
+    private long maxCycleBytes;
+    private long maxWorkspaceSize;
+
+    /**
+     * Bytes allocated within recent cycles, oldest first
+     */
+    private long[] cycleSizes;
+
+    /**
+     * Recent events, oldest first
+     */
+    private List<Event> events;
+
+    private List<CallSite> callSites;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Event implements Serializable {
+        private WorkspaceTracer.EventType type;
+        private long cycle;
+        private long bytes;
+
+        /**
+         * Offset within workspace for allocations, workspace size for cycles, -1 otherwise
+         */
+        private long offset;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CallSite implements Serializable {
+        private String stack;
+        private long count;
+        private long bytes;
+    }
+}
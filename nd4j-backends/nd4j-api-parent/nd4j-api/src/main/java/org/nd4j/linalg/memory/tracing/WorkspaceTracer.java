@@ -0,0 +1,275 @@
+package org.nd4j.linalg.memory.tracing;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class records workspace allocation events into fixed-size ring buffers.
+ *
+ * Each event takes 3 longs: packed event type & cycle number, number of bytes, and offset within workspace.
+ * Per-cycle totals are kept in separate ring buffer, to be used by WorkspaceSizingAdvisor.
+ * Call sites are captured for every N-th allocation only, since stack trace capture is expensive.
+ *
+ * PLEASE NOTE: Tracer is attached to single workspace instance, and all methods are synchronized, so pooled workspaces
+ * can be traced from whichever thread currently holds them, and snapshots can be taken from any thread.
+ */
+public class WorkspaceTracer {
+    public static final int DEFAULT_EVENTS_CAPACITY = 4096;
+    public static final int DEFAULT_CYCLES_CAPACITY = 1024;
+    public static final int DEFAULT_SAMPLING_RATE = 100;
+    public static final int MAX_CALL_SITES = 256;
+
+    protected static final int EVENT_WIDTH = 3;
+    protected static final int STACK_DEPTH = 4;
+
+    public enum EventType {
+        ALLOCATION, SPILL, PINNED, CYCLE,
+    }
+
+    @Getter protected final String workspaceId;
+    @Getter protected final long threadId;
+
+    protected final long[] events;
+    protected final int eventsCapacity;
+    protected long eventsCount;
+
+    protected final long[] cycles;
+    protected final int cyclesCapacity;
+    protected long cyclesCount;
+
+    protected final int samplingRate;
+    protected final Map<String, long[]> callSites = new HashMap<>();
+
+    protected long allocations;
+    protected long allocatedBytes;
+    protected long spills;
+    protected long spilledBytes;
+    protected long pinned;
+    protected long pinnedBytes;
+    protected long maxCycle;
+    protected long maxSize;
+    protected long cyclePeak;
+
+    public WorkspaceTracer(@NonNull String workspaceId, long threadId) {
+        this(workspaceId, threadId, DEFAULT_EVENTS_CAPACITY, DEFAULT_CYCLES_CAPACITY, DEFAULT_SAMPLING_RATE);
+    }
+
+    /**
+     *
+     * @param workspaceId id of traced workspace
+     * @param threadId id of thread owning traced workspace
+     * @param eventsCapacity number of most recent events kept
+     * @param cyclesCapacity number of most recent cycles kept
+     * @param samplingRate call site is captured for every samplingRate allocation. 0 disables call sites capture
+     */
+    public WorkspaceTracer(@NonNull String workspaceId, long threadId, int eventsCapacity, int cyclesCapacity,
+                    int samplingRate) {
+        if (eventsCapacity < 1 || cyclesCapacity < 1)
+            throw new IllegalArgumentException("Capacity should be positive value");
+
+        this.workspaceId = workspaceId;
+        this.threadId = threadId;
+        this.eventsCapacity = eventsCapacity;
+        this.cyclesCapacity = cyclesCapacity;
+        this.samplingRate = samplingRate;
+        this.events = new long[eventsCapacity * EVENT_WIDTH];
+        this.cycles = new long[cyclesCapacity];
+    }
+
+    /**
+     * This method records allocation served from workspace block
+     *
+     * @param cycle current cycle number
+     * @param bytes number of bytes
+     * @param offset offset within workspace block
+     */
+    public synchronized void recordAllocation(long cycle, long bytes, long offset) {
+        allocations++;
+        allocatedBytes += bytes;
+        record(EventType.ALLOCATION, cycle, bytes, offset);
+
+        if (samplingRate > 0 && (allocations - 1) % samplingRate == 0)
+            recordCallSite(bytes);
+    }
+
+    /**
+     * This method records spilled (external) allocation
+     *
+     * @param cycle current cycle number
+     * @param bytes number of bytes
+     */
+    public synchronized void recordSpill(long cycle, long bytes) {
+        spills++;
+        spilledBytes += bytes;
+        record(EventType.SPILL, cycle, bytes, -1);
+
+        // spills are rare and important, so we always want to know where they come from
+        if (samplingRate > 0)
+            recordCallSite(bytes);
+    }
+
+    /**
+     * This method records chained segment appended to workspace. Only the allocation that didn't fit into
+     * existing memory is counted as spill, since the rest of the segment stays available for further allocations.
+     *
+     * @param cycle current cycle number
+     * @param overflowBytes number of bytes that didn't fit into workspace
+     * @param workspaceSize size of workspace, including all chained segments, after this segment was appended
+     */
+    public synchronized void recordSegment(long cycle, long overflowBytes, long workspaceSize) {
+        recordSpill(cycle, overflowBytes);
+        cyclePeak = Math.max(cyclePeak, workspaceSize);
+    }
+
+    /**
+     * This method records pinned allocation, used in circular mode
+     *
+     * @param cycle current cycle number
+     * @param bytes number of bytes
+     */
+    public synchronized void recordPinned(long cycle, long bytes) {
+        pinned++;
+        pinnedBytes += bytes;
+        record(EventType.PINNED, cycle, bytes, -1);
+    }
+
+    /**
+     * This method records end of cycle
+     *
+     * @param cycle number of finished cycle
+     * @param cycleBytes number of bytes allocated during this cycle
+     * @param workspaceSize current size of workspace, including all chained segments
+     */
+    public synchronized void recordCycle(long cycle, long cycleBytes, long workspaceSize) {
+        record(EventType.CYCLE, cycle, cycleBytes, workspaceSize);
+
+        cycles[(int) (cyclesCount % cyclesCapacity)] = cycleBytes;
+        cyclesCount++;
+
+        maxCycle = Math.max(maxCycle, cycleBytes);
+        // workspace might have been larger somewhere within this cycle
+        maxSize = Math.max(maxSize, Math.max(cyclePeak, workspaceSize));
+        cyclePeak = 0;
+    }
+
+    protected void record(EventType type, long cycle, long bytes, long offset) {
+        int position = (int) (eventsCount % eventsCapacity) * EVENT_WIDTH;
+        events[position] = ((long) type.ordinal() << 56) | (cycle & 0x00FFFFFFFFFFFFFFL);
+        events[position + 1] = bytes;
+        events[position + 2] = offset;
+        eventsCount++;
+    }
+
+    protected void recordCallSite(long bytes) {
+        StackTraceElement[] stack = new Throwable().getStackTrace();
+        StringBuilder builder = new StringBuilder();
+        int depth = 0;
+        for (StackTraceElement element : stack) {
+            String className = element.getClassName();
+            if (className.startsWith("org.nd4j.linalg.memory") || className.startsWith("org.nd4j.linalg.api.buffer")
+                            || className.endsWith("Workspace"))
+                continue;
+
+            if (depth > 0)
+                builder.append(" <- ");
+
+            builder.append(element.toString());
+            if (++depth >= STACK_DEPTH)
+                break;
+        }
+
+        String key = builder.toString();
+        long[] stats = callSites.get(key);
+        if (stats == null) {
+            if (callSites.size() >= MAX_CALL_SITES)
+                return;
+
+            stats = new long[2];
+            callSites.put(key, stats);
+        }
+
+        stats[0]++;
+        stats[1] += bytes;
+    }
+
+    /**
+     * This method returns number of bytes allocated during recent cycles, oldest first
+     *
+     * @return
+     */
+    public synchronized long[] getCycleSizes() {
+        int count = (int) Math.min(cyclesCount, cyclesCapacity);
+        long[] result = new long[count];
+        long first = cyclesCount - count;
+        for (int i = 0; i < count; i++)
+            result[i] = cycles[(int) ((first + i) % cyclesCapacity)];
+
+        return result;
+    }
+
+    /**
+     * This method returns immutable snapshot of current tracer state
+     *
+     * @return
+     */
+    public synchronized WorkspaceTrace snapshot() {
+        WorkspaceTrace trace = new WorkspaceTrace();
+        trace.setWorkspaceId(workspaceId);
+        trace.setThreadId(threadId);
+        trace.setAllocations(allocations);
+        trace.setAllocatedBytes(allocatedBytes);
+        trace.setSpills(spills);
+        trace.setSpilledBytes(spilledBytes);
+        trace.setPinned(pinned);
+        trace.setPinnedBytes(pinnedBytes);
+        trace.setCycles(cyclesCount);
+        trace.setMaxCycleBytes(maxCycle);
+        trace.setMaxWorkspaceSize(maxSize);
+        trace.setCycleSizes(getCycleSizes());
+
+        int count = (int) Math.min(eventsCount, eventsCapacity);
+        long first = eventsCount - count;
+        List<WorkspaceTrace.Event> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int position = (int) ((first + i) % eventsCapacity) * EVENT_WIDTH;
+            long header = events[position];
+            EventType type = EventType.values()[(int) (header >>> 56)];
+            long cycle = header & 0x00FFFFFFFFFFFFFFL;
+            list.add(new WorkspaceTrace.Event(type, cycle, events[position + 1], events[position + 2]));
+        }
+        trace.setEvents(list);
+
+        List<WorkspaceTrace.CallSite> sites = new ArrayList<>(callSites.size());
+        for (Map.Entry<String, long[]> entry : callSites.entrySet())
+            sites.add(new WorkspaceTrace.CallSite(entry.getKey(), entry.getValue()[0], entry.getValue()[1]));
+        trace.setCallSites(sites);
+
+        return trace;
+    }
+
+    /**
+     * This method drops all recorded data
+     */
+    public synchronized void reset() {
+        Arrays.fill(events, 0L);
+        Arrays.fill(cycles, 0L);
+        eventsCount = 0;
+        cyclesCount = 0;
+        callSites.clear();
+        allocations = 0;
+        allocatedBytes = 0;
+        spills = 0;
+        spilledBytes = 0;
+        pinned = 0;
+        pinnedBytes = 0;
+        maxCycle = 0;
+        maxSize = 0;
+        cyclePeak = 0;
+    }
+}
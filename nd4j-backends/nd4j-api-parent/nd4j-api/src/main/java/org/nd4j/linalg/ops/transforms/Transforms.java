@@ -29,6 +29,7 @@ import org.nd4j.linalg.api.ops.impl.scalar.ScalarMax;
 import org.nd4j.linalg.api.ops.impl.scalar.ScalarMin;
 import org.nd4j.linalg.api.ops.impl.transforms.*;
 import org.nd4j.linalg.api.ops.impl.transforms.comparison.*;
+import org.nd4j.linalg.distances.PairwiseDistances;
 import org.nd4j.linalg.factory.Nd4j;
 
 /**
@@ -74,6 +75,28 @@ public class Transforms {
         return d1.distance2(d2);
     }
 
+    /**
+     * Euclidean distances between all rows of d1 and all rows of d2
+     *
+     * @param d1 matrix of shape [n, d]
+     * @param d2 matrix of shape [m, d]
+     * @return matrix of shape [n, m]
+     */
+    public static INDArray allEuclideanDistances(@NonNull INDArray d1, @NonNull INDArray d2) {
+        return PairwiseDistances.pairwise(d1, d2, PairwiseDistances.Metric.EUCLIDEAN);
+    }
+
+    /**
+     * Cosine similarities between all rows of d1 and all rows of d2
+     *
+     * @param d1 matrix of shape [n, d]
+     * @param d2 matrix of shape [m, d]
+     * @return matrix of shape [n, m]
+     */
+    public static INDArray allCosineSimilarities(@NonNull INDArray d1, @NonNull INDArray d2) {
+        return PairwiseDistances.pairwise(d1, d2, PairwiseDistances.Metric.COSINE_SIMILARITY);
+    }
+
 
     /**
      * Normalize data to zero mean and unit variance
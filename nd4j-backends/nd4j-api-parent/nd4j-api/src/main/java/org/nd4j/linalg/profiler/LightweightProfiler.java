@@ -0,0 +1,404 @@
+package org.nd4j.linalg.profiler;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.ops.*;
+import org.nd4j.linalg.profiler.data.LatencyHistogram;
+import org.nd4j.linalg.profiler.data.ProfilerSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Low-overhead alternative to {@link OpProfiler}, used with ProfilingMode.LIGHTWEIGHT.
+ *
+ * Ops are identified by integer id (op type + opNum), and every op call only updates counters and latency histogram
+ * owned by the calling thread, so there are no strings built, no hashing and no contention on hot path.
+ * Statistics are kept per op and per shape class (array length rounded up to power of 2).
+ * Call stacks are captured only for every N-th op call of each thread, see {@link #setStackSamplingInterval(int)}.
+ *
+ * Per-thread statistics are merged on {@link #snapshot()} only, which can be exported as JSON or Prometheus text format,
+ * optionally on schedule via {@link #scheduleSnapshots(long, TimeUnit, SnapshotListener)}.
+ * Statistics of terminated threads are folded into single aggregate, so short-lived threads don't accumulate.
+ *
+ * PLEASE NOTE: snapshots taken while ops are running are approximate, since thread-local counters aren't synchronized.
+ */
+public class LightweightProfiler {
+    private static final Logger logger = LoggerFactory.getLogger(LightweightProfiler.class);
+
+    // names match OpProfiler.getOpClass()
+    protected static final String[] OP_TYPES = new String[] {"ScalarOp", "MetaOp", "GridOp", "BroadcastOp", "RandomOp",
+                    "AccumulationOp", "TransformOp", "PairWiseTransformOp", "IndexAccumulationOp", "Unknown Op calls"};
+
+    // opNums above this value share the last slot of their op type
+    protected static final int MAX_OP_NUM = 512;
+    protected static final int NUM_SHAPE_CLASSES = 64;
+
+    // histogram layout: count, total time, max time, followed by buckets
+    protected static final int COUNT = 0;
+    protected static final int TOTAL = 1;
+    protected static final int MAX = 2;
+    protected static final int BUCKETS = 3;
+
+    private static final LightweightProfiler INSTANCE = new LightweightProfiler();
+
+    protected final AtomicReferenceArray<String> opNames = new AtomicReferenceArray<>(OP_TYPES.length * MAX_OP_NUM);
+    protected final List<ThreadStats> threads = new CopyOnWriteArrayList<>();
+    // statistics of terminated threads, guarded by itself
+    protected final ThreadStats retired = new ThreadStats(null);
+    protected final ConcurrentHashMap<String, AtomicLong> stackSamples = new ConcurrentHashMap<>();
+
+    protected final ThreadLocal<ThreadStats> threadStats = new ThreadLocal<ThreadStats>() {
+        @Override
+        protected ThreadStats initialValue() {
+            pruneThreads();
+
+            ThreadStats stats = new ThreadStats(Thread.currentThread());
+            threads.add(stats);
+            return stats;
+        }
+    };
+
+    protected volatile int stackSamplingInterval = 1024;
+    protected ScheduledExecutorService scheduler;
+
+    private LightweightProfiler() {}
+
+    public static LightweightProfiler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * This method sets how often call stacks are captured: once per given number of op calls, per thread.
+     * 0 disables stack sampling.
+     */
+    public void setStackSamplingInterval(int interval) {
+        if (interval < 0)
+            throw new IllegalArgumentException("Sampling interval can't be negative");
+
+        this.stackSamplingInterval = interval;
+    }
+
+    public int getStackSamplingInterval() {
+        return stackSamplingInterval;
+    }
+
+    /**
+     * This method records op execution time
+     *
+     * @param op executed op
+     * @param timeStart System.nanoTime() value taken before op execution
+     */
+    public void timeOpCall(Op op, long timeStart) {
+        long time = System.nanoTime() - timeStart;
+
+        int type = opType(op);
+        int opNum = Math.min(Math.max(op.opNum(), 0), MAX_OP_NUM - 1);
+        int opId = type * MAX_OP_NUM + opNum;
+        long length = op.x() == null ? 0 : op.x().length();
+        int shapeClass = 64 - Long.numberOfLeadingZeros(Math.max(0, length - 1));
+
+        ThreadStats stats = threadStats.get();
+        long[] histogram = stats.histogram(opId, shapeClass);
+        if (histogram == null) {
+            histogram = stats.allocate(opId, shapeClass);
+            opNames.compareAndSet(opId, null, op.name());
+        }
+
+        histogram[COUNT]++;
+        histogram[TOTAL] += time;
+        if (time > histogram[MAX])
+            histogram[MAX] = time;
+        histogram[BUCKETS + LatencyHistogram.bucketFor(time)]++;
+
+        int interval = stackSamplingInterval;
+        if (interval > 0 && ++stats.calls % interval == 0)
+            sampleStack(type, op);
+    }
+
+    protected void sampleStack(int type, Op op) {
+        StackTraceElement[] stack = new Throwable().getStackTrace();
+        String site = "unknown";
+        for (StackTraceElement element : stack) {
+            String className = element.getClassName();
+            if (className.startsWith("org.nd4j.") || className.startsWith("java.") || className.startsWith("sun."))
+                continue;
+
+            site = className + "#" + element.getMethodName() + ":" + element.getLineNumber();
+            break;
+        }
+
+        String key = OP_TYPES[type] + " " + op.name() + " <- " + site;
+        AtomicLong counter = stackSamples.get(key);
+        if (counter == null) {
+            AtomicLong created = new AtomicLong(0);
+            counter = stackSamples.putIfAbsent(key, created);
+            if (counter == null)
+                counter = created;
+        }
+        counter.incrementAndGet();
+    }
+
+    /**
+     * This method merges statistics of all threads
+     *
+     * @return
+     */
+    public ProfilerSnapshot snapshot() {
+        Map<Long, long[]> merged = new HashMap<>();
+        synchronized (retired) {
+            pruneThreads();
+
+            List<ThreadStats> sources = new ArrayList<>(threads);
+            sources.add(retired);
+            for (ThreadStats stats : sources) {
+                long[][][] slots = stats.slots;
+                for (int opId = 0; opId < slots.length; opId++) {
+                    long[][] classes = slots[opId];
+                    if (classes == null)
+                        continue;
+
+                    for (int shapeClass = 0; shapeClass < classes.length; shapeClass++) {
+                        long[] histogram = classes[shapeClass];
+                        if (histogram == null)
+                            continue;
+
+                        long key = ((long) opId) * NUM_SHAPE_CLASSES + shapeClass;
+                        long[] target = merged.get(key);
+                        if (target == null) {
+                            target = new long[histogram.length];
+                            merged.put(key, target);
+                        }
+
+                        for (int i = 0; i < histogram.length; i++) {
+                            if (i == MAX)
+                                target[i] = Math.max(target[i], histogram[i]);
+                            else
+                                target[i] += histogram[i];
+                        }
+                    }
+                }
+            }
+        }
+
+        List<ProfilerSnapshot.OpStats> opStats = new ArrayList<>(merged.size());
+        for (Map.Entry<Long, long[]> entry : merged.entrySet()) {
+            long[] histogram = entry.getValue();
+            if (histogram[COUNT] == 0)
+                continue;
+
+            int opId = (int) (entry.getKey() / NUM_SHAPE_CLASSES);
+            int shapeClass = (int) (entry.getKey() % NUM_SHAPE_CLASSES);
+            long[] buckets = new long[LatencyHistogram.NUM_BUCKETS];
+            System.arraycopy(histogram, BUCKETS, buckets, 0, buckets.length);
+
+            opStats.add(new ProfilerSnapshot.OpStats(OP_TYPES[opId / MAX_OP_NUM], opNames.get(opId), opId % MAX_OP_NUM,
+                            shapeClass >= 63 ? Long.MAX_VALUE : 1L << shapeClass, histogram[COUNT], histogram[TOTAL],
+                            histogram[MAX], buckets));
+        }
+
+        Map<String, Long> samples = new HashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : stackSamples.entrySet())
+            samples.put(entry.getKey(), entry.getValue().get());
+
+        return new ProfilerSnapshot(System.currentTimeMillis(), opStats, samples);
+    }
+
+    /**
+     * This method folds statistics of terminated threads into the aggregate, and stops tracking these threads
+     */
+    protected void pruneThreads() {
+        synchronized (retired) {
+            for (ThreadStats stats : threads) {
+                if (stats.isAlive())
+                    continue;
+
+                // owner thread is gone, so nobody updates these counters anymore
+                retired.merge(stats);
+                threads.remove(stats);
+            }
+        }
+    }
+
+    /**
+     * This method resets all counters
+     */
+    public void reset() {
+        for (ThreadStats stats : threads)
+            stats.reset();
+
+        synchronized (retired) {
+            retired.reset();
+        }
+
+        stackSamples.clear();
+    }
+
+    /**
+     * This method starts periodic snapshots, delivered to given listener on background thread
+     *
+     * @param period snapshot period
+     * @param unit time unit of period
+     * @param listener listener to receive snapshots
+     * @return future, which can be used to cancel snapshots
+     */
+    public synchronized ScheduledFuture<?> scheduleSnapshots(long period, @NonNull TimeUnit unit,
+                    @NonNull final SnapshotListener listener) {
+        if (scheduler == null)
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "LightweightProfiler-snapshots");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+        return scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    listener.onSnapshot(snapshot());
+                } catch (Exception e) {
+                    logger.error("Snapshot listener failed", e);
+                }
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * This method prints out ops sorted by total time spent
+     */
+    public void printOutDashboard() {
+        ProfilerSnapshot snapshot = snapshot();
+        logger.info("---Total Op Calls: {}", snapshot.getTotalCalls());
+        logger.info("--- Op time statistics (us): ---");
+        for (ProfilerSnapshot.OpStats stats : snapshot.getSortedByTime())
+            System.out.println(String.format("%s %s, length <= %d: %d calls, total %d, mean %d, p50 %d, p99 %d, max %d",
+                            stats.getOpType(), stats.getOpName(), stats.getMaxLength(), stats.getCount(),
+                            stats.getTotalTime() / 1000, stats.getMeanTime() / 1000, stats.getPercentile(50) / 1000,
+                            stats.getPercentile(99) / 1000, stats.getMaxTime() / 1000));
+
+        if (!snapshot.getStackSamples().isEmpty()) {
+            logger.info("--- Sampled call sites: ---");
+            for (Map.Entry<String, Long> entry : snapshot.getStackSamples().entrySet())
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+        }
+    }
+
+    /**
+     * This method returns op type index, same classification as OpProfiler.getOpClass() uses
+     */
+    protected static int opType(Op op) {
+        if (op instanceof ScalarOp)
+            return 0;
+        else if (op instanceof MetaOp)
+            return 1;
+        else if (op instanceof GridOp)
+            return 2;
+        else if (op instanceof BroadcastOp)
+            return 3;
+        else if (op instanceof RandomOp)
+            return 4;
+        else if (op instanceof Accumulation)
+            return 5;
+        else if (op instanceof TransformOp)
+            return op.y() == null ? 6 : 7;
+        else if (op instanceof IndexAccumulation)
+            return 8;
+        else
+            return 9;
+    }
+
+    public interface SnapshotListener {
+        void onSnapshot(ProfilerSnapshot snapshot);
+    }
+
+    /**
+     * Statistics owned by single thread: [opId][shapeClass] -> histogram
+     */
+    protected static class ThreadStats {
+        protected final long[][][] slots = new long[OP_TYPES.length * MAX_OP_NUM][][];
+        // weak, so stats don't keep terminated thread reachable. Null for the aggregate of terminated threads
+        protected final WeakReference<Thread> owner;
+        protected long calls;
+
+        protected ThreadStats(Thread owner) {
+            this.owner = owner == null ? null : new WeakReference<>(owner);
+        }
+
+        protected boolean isAlive() {
+            if (owner == null)
+                return true;
+
+            Thread thread = owner.get();
+            return thread != null && thread.isAlive();
+        }
+
+        protected long[] histogram(int opId, int shapeClass) {
+            long[][] classes = slots[opId];
+            return classes == null ? null : classes[shapeClass];
+        }
+
+        protected long[] allocate(int opId, int shapeClass) {
+            if (slots[opId] == null)
+                slots[opId] = new long[NUM_SHAPE_CLASSES][];
+
+            long[] histogram = new long[BUCKETS + LatencyHistogram.NUM_BUCKETS];
+            slots[opId][shapeClass] = histogram;
+            return histogram;
+        }
+
+        protected void merge(ThreadStats source) {
+            for (int opId = 0; opId < source.slots.length; opId++) {
+                long[][] classes = source.slots[opId];
+                if (classes == null)
+                    continue;
+
+                for (int shapeClass = 0; shapeClass < classes.length; shapeClass++) {
+                    long[] histogram = classes[shapeClass];
+                    if (histogram == null)
+                        continue;
+
+                    long[] target = histogram(opId, shapeClass);
+                    if (target == null)
+                        target = allocate(opId, shapeClass);
+
+                    for (int i = 0; i < histogram.length; i++) {
+                        if (i == MAX)
+                            target[i] = Math.max(target[i], histogram[i]);
+                        else
+                            target[i] += histogram[i];
+                    }
+                }
+            }
+            calls += source.calls;
+        }
+
+        protected void reset() {
+            for (long[][] classes : slots) {
+                if (classes == null)
+                    continue;
+
+                for (long[] histogram : classes)
+                    if (histogram != null)
+                        Arrays.fill(histogram, 0L);
+            }
+            calls = 0;
+        }
+    }
+}
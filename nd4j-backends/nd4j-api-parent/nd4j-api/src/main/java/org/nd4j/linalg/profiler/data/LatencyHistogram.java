@@ -0,0 +1,75 @@
+package org.nd4j.linalg.profiler.data;
+
+/**
+ * Log-linear histogram layout, similar to HdrHistogram with 3 significant bits: every power of 2 is split into 8 buckets,
+ * so relative error of recorded value is below 12.5%, and whole positive long range fits into {@link #NUM_BUCKETS} buckets.
+ *
+ * Histogram itself is plain long[] owned by the caller, this class only maps values to buckets and back,
+ * so recording doesn't allocate anything.
+ */
+public class LatencyHistogram {
+    protected static final int SUB_BUCKET_BITS = 3;
+    protected static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    public static final int NUM_BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private LatencyHistogram() {}
+
+    /**
+     * This method returns bucket index for given non-negative value
+     */
+    public static int bucketFor(long value) {
+        if (value < SUB_BUCKETS)
+            return value < 0 ? 0 : (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int mantissa = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + mantissa;
+    }
+
+    /**
+     * This method returns the smallest value that falls into given bucket
+     */
+    public static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long mantissa = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + mantissa) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * This method returns the largest value that falls into given bucket
+     */
+    public static long upperBound(int bucket) {
+        return bucket + 1 >= NUM_BUCKETS ? Long.MAX_VALUE : lowerBound(bucket + 1) - 1;
+    }
+
+    /**
+     * This method returns value at given percentile, i.e. upper bound of the bucket holding it
+     *
+     * @param counts histogram buckets
+     * @param offset index of the first bucket within counts array
+     * @param percentile value in range [0, 100]
+     * @return
+     */
+    public static long valueAtPercentile(long[] counts, int offset, double percentile) {
+        long total = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++)
+            total += counts[offset + i];
+
+        if (total == 0)
+            return 0;
+
+        long target = Math.max(1, (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += counts[offset + i];
+            if (seen >= target)
+                return upperBound(i);
+        }
+
+        return upperBound(NUM_BUCKETS - 1);
+    }
+}
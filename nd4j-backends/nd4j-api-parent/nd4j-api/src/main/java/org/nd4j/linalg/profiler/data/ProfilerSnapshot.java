@@ -0,0 +1,193 @@
+package org.nd4j.linalg.profiler.data;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of {@link org.nd4j.linalg.profiler.LightweightProfiler} statistics,
+ * with JSON and Prometheus text exposition format exports.
+ *
+ * All times are in nanoseconds, counters are cumulative since last reset.
+ */
+@Getter
+public class ProfilerSnapshot {
+    protected static final double[] QUANTILES = new double[] {0.5, 0.9, 0.99, 0.999};
+
+    private final long timestamp;
+    private final long totalCalls;
+    private final List<OpStats> opStats;
+    private final Map<String, Long> stackSamples;
+
+    public ProfilerSnapshot(long timestamp, @NonNull List<OpStats> opStats, @NonNull Map<String, Long> stackSamples) {
+        this.timestamp = timestamp;
+        this.opStats = Collections.unmodifiableList(opStats);
+        this.stackSamples = Collections.unmodifiableMap(stackSamples);
+
+        long calls = 0;
+        for (OpStats stats : opStats)
+            calls += stats.getCount();
+        this.totalCalls = calls;
+    }
+
+    /**
+     * This method returns op stats sorted by total time spent, descending
+     */
+    public List<OpStats> getSortedByTime() {
+        List<OpStats> sorted = new ArrayList<>(opStats);
+        Collections.sort(sorted, new Comparator<OpStats>() {
+            @Override
+            public int compare(OpStats o1, OpStats o2) {
+                return Long.compare(o2.getTotalTime(), o1.getTotalTime());
+            }
+        });
+        return sorted;
+    }
+
+    /**
+     * This method returns snapshot as JSON document
+     */
+    public String toJson() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("{\"timestamp\":").append(timestamp).append(",\"totalCalls\":").append(totalCalls)
+                        .append(",\"ops\":[");
+
+        for (int i = 0; i < opStats.size(); i++) {
+            OpStats stats = opStats.get(i);
+            if (i > 0)
+                builder.append(',');
+
+            builder.append("{\"type\":\"").append(escape(stats.getOpType())).append("\",\"name\":\"")
+                            .append(escape(stats.getOpName())).append("\",\"opNum\":").append(stats.getOpNum())
+                            .append(",\"maxLength\":").append(stats.getMaxLength()).append(",\"count\":")
+                            .append(stats.getCount()).append(",\"totalTime\":").append(stats.getTotalTime())
+                            .append(",\"maxTime\":").append(stats.getMaxTime()).append(",\"percentiles\":{");
+
+            for (int q = 0; q < QUANTILES.length; q++) {
+                if (q > 0)
+                    builder.append(',');
+                builder.append('"').append(QUANTILES[q]).append("\":").append(stats.getPercentile(QUANTILES[q] * 100));
+            }
+            builder.append("}}");
+        }
+
+        builder.append("],\"stackSamples\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> entry : stackSamples.entrySet()) {
+            if (!first)
+                builder.append(',');
+            first = false;
+            builder.append('"').append(escape(entry.getKey())).append("\":").append(entry.getValue());
+        }
+        builder.append("}}");
+
+        return builder.toString();
+    }
+
+    /**
+     * This method returns snapshot in Prometheus text exposition format: call counters,
+     * and time summaries with quantiles, labeled by op type, op name and shape class
+     */
+    public String toPrometheus() {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append("# HELP nd4j_op_calls_total Number of op invocations\n");
+        builder.append("# TYPE nd4j_op_calls_total counter\n");
+        for (OpStats stats : opStats)
+            builder.append("nd4j_op_calls_total").append(labels(stats, null)).append(' ').append(stats.getCount())
+                            .append('\n');
+
+        builder.append("# HELP nd4j_op_time_seconds Op execution time\n");
+        builder.append("# TYPE nd4j_op_time_seconds summary\n");
+        for (OpStats stats : opStats) {
+            for (double quantile : QUANTILES)
+                builder.append("nd4j_op_time_seconds").append(labels(stats, quantile)).append(' ')
+                                .append(stats.getPercentile(quantile * 100) / 1e9).append('\n');
+
+            builder.append("nd4j_op_time_seconds_sum").append(labels(stats, null)).append(' ')
+                            .append(stats.getTotalTime() / 1e9).append('\n');
+            builder.append("nd4j_op_time_seconds_count").append(labels(stats, null)).append(' ')
+                            .append(stats.getCount()).append('\n');
+        }
+
+        builder.append("# HELP nd4j_op_stack_samples_total Sampled op call sites\n");
+        builder.append("# TYPE nd4j_op_stack_samples_total counter\n");
+        for (Map.Entry<String, Long> entry : stackSamples.entrySet())
+            builder.append("nd4j_op_stack_samples_total{site=\"").append(escape(entry.getKey())).append("\"} ")
+                            .append(entry.getValue()).append('\n');
+
+        return builder.toString();
+    }
+
+    protected static String labels(OpStats stats, Double quantile) {
+        StringBuilder builder = new StringBuilder("{type=\"").append(escape(stats.getOpType())).append("\",op=\"")
+                        .append(escape(stats.getOpName())).append("\",max_length=\"").append(stats.getMaxLength())
+                        .append('"');
+        if (quantile != null)
+            builder.append(",quantile=\"").append(quantile).append('"');
+
+        return builder.append('}').toString();
+    }
+
+    protected static String escape(String value) {
+        if (value == null)
+            return "";
+
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\')
+                builder.append('\\').append(c);
+            else if (c == '\n')
+                builder.append("\\n");
+            else if (c >= 0x20)
+                builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Statistics for single op within single shape class. Shape class is defined by array length: all arrays with
+     * length in (maxLength / 2, maxLength] fall into the same class.
+     */
+    @Getter
+    public static class OpStats {
+        private final String opType;
+        private final String opName;
+        private final int opNum;
+        private final long maxLength;
+        private final long count;
+        private final long totalTime;
+        private final long maxTime;
+        private final long[] histogram;
+
+        public OpStats(String opType, String opName, int opNum, long maxLength, long count, long totalTime,
+                        long maxTime, @NonNull long[] histogram) {
+            this.opType = opType;
+            this.opName = opName;
+            this.opNum = opNum;
+            this.maxLength = maxLength;
+            this.count = count;
+            this.totalTime = totalTime;
+            this.maxTime = maxTime;
+            this.histogram = histogram;
+        }
+
+        /**
+         * @param percentile value in range [0, 100]
+         * @return time in nanoseconds, within 12.5% precision, and never above max time observed
+         */
+        public long getPercentile(double percentile) {
+            return Math.min(maxTime, LatencyHistogram.valueAtPercentile(histogram, 0, percentile));
+        }
+
+        public long getMeanTime() {
+            return count == 0 ? 0 : totalTime / count;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package org.nd4j.linalg.util;
+
+import lombok.NonNull;
+import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.javacpp.FloatPointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Element-wise sum and average of many equally sized arrays, i.e. for combining gradients of many workers.
+ *
+ * Arrays are split into cache-sized chunks, and chunks are processed in parallel. Within chunk, inputs are summed
+ * as pairwise tree in heap scratch arrays, so every input is read exactly once, and rounding error grows as log(N)
+ * instead of N. Result is written into target, and optionally back into every input, while chunk is still in cache.
+ *
+ * Contiguous FLOAT and DOUBLE arrays are supported, everything else falls back to sequential ops.
+ */
+public class AccumulationUtil {
+    // elements per chunk, scratch arrays of this length should fit into L2 cache
+    protected static final int CHUNK_LENGTH = 8 * 1024;
+
+    // below this number of elements read, everything is done by calling thread
+    protected static final long PARALLEL_THRESHOLD = 1L << 20;
+
+    private AccumulationUtil() {}
+
+    /**
+     * This method adds sum of given arrays to target: target += sum(arrays)
+     *
+     * @param target array to add sum into
+     * @param arrays arrays to sum, same length as target
+     * @param propagate if true, resulting target is copied into every input array
+     * @return target
+     */
+    public static INDArray accumulate(@NonNull INDArray target, @NonNull INDArray[] arrays, boolean propagate) {
+        return reduce(target, arrays, false, propagate);
+    }
+
+    /**
+     * This method stores mean of given arrays into target: target = sum(arrays) / N
+     *
+     * @param target array to store mean into
+     * @param arrays arrays to average, same length as target
+     * @param propagate if true, mean is copied into every input array
+     * @return target
+     */
+    public static INDArray average(@NonNull INDArray target, @NonNull INDArray[] arrays, boolean propagate) {
+        return reduce(target, arrays, true, propagate);
+    }
+
+    protected static INDArray reduce(final INDArray target, final INDArray[] arrays, final boolean average,
+                    final boolean propagate) {
+        if (arrays.length == 0)
+            throw new ND4JIllegalStateException("Input arrays are missing");
+
+        final long length = target.lengthLong();
+        for (INDArray array : arrays) {
+            if (array.lengthLong() != length)
+                throw new ND4JIllegalStateException("All arrays should have equal length for accumulation");
+
+            Nd4j.getCompressor().autoDecompress(array);
+        }
+
+        if (!isSupported(target, arrays))
+            return reduceSequential(target, arrays, average, propagate);
+
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(target, AffinityManager.Location.HOST);
+        for (INDArray array : arrays)
+            Nd4j.getAffinityManager().ensureLocation(array, AffinityManager.Location.HOST);
+
+        long numChunks = (length + CHUNK_LENGTH - 1) / CHUNK_LENGTH;
+        int numTasks = 1;
+        if (length * (arrays.length + 1) >= PARALLEL_THRESHOLD)
+            numTasks = (int) Math.min(numChunks, 4L * ExecutorServiceProvider.getForkJoinPool().getParallelism());
+
+        final boolean isDouble = target.data().dataType() == DataBuffer.Type.DOUBLE;
+        List<RecursiveAction> tasks = new ArrayList<>(numTasks);
+        for (int t = 0; t < numTasks; t++) {
+            final long first = numChunks * t / numTasks * CHUNK_LENGTH;
+            final long last = Math.min(length, numChunks * (t + 1) / numTasks * CHUNK_LENGTH);
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    int chunkLength = (int) Math.min(CHUNK_LENGTH, last - first);
+                    if (isDouble)
+                        new DoubleChunks(target, arrays, average, propagate, chunkLength).reduce(first, last);
+                    else
+                        new FloatChunks(target, arrays, average, propagate, chunkLength).reduce(first, last);
+                }
+            });
+        }
+
+        if (tasks.size() == 1) {
+            tasks.get(0).invoke();
+        } else {
+            final List<RecursiveAction> all = tasks;
+            ExecutorServiceProvider.getForkJoinPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(all);
+                }
+            });
+        }
+
+        Nd4j.getAffinityManager().tagLocation(target, AffinityManager.Location.HOST);
+        if (propagate)
+            for (INDArray array : arrays)
+                Nd4j.getAffinityManager().tagLocation(array, AffinityManager.Location.HOST);
+
+        return target;
+    }
+
+    protected static boolean isSupported(INDArray target, INDArray[] arrays) {
+        DataBuffer.Type type = target.data().dataType();
+        if (type != DataBuffer.Type.FLOAT && type != DataBuffer.Type.DOUBLE)
+            return false;
+
+        if (!isContiguous(target))
+            return false;
+
+        for (INDArray array : arrays)
+            if (array.data().dataType() != type || !isContiguous(array) || array.ordering() != target.ordering())
+                return false;
+
+        return true;
+    }
+
+    protected static boolean isContiguous(INDArray array) {
+        return !array.isCompressed() && array.elementWiseStride() == 1 && array.data().length() >= array.lengthLong();
+    }
+
+    protected static INDArray reduceSequential(INDArray target, INDArray[] arrays, boolean average, boolean propagate) {
+        if (average)
+            target.assign(arrays[0]);
+        else
+            target.addi(arrays[0]);
+
+        for (int i = 1; i < arrays.length; i++)
+            target.addi(arrays[i]);
+
+        if (average)
+            target.divi(arrays.length);
+
+        if (propagate)
+            for (INDArray array : arrays)
+                array.assign(target);
+
+        return target;
+    }
+
+    /**
+     * Number of scratch arrays needed for pairwise tree over given number of inputs
+     */
+    protected static int depth(int inputs) {
+        int depth = 1;
+        while ((1 << (depth - 1)) < inputs)
+            depth++;
+
+        return depth;
+    }
+
+    protected static class FloatChunks {
+        private final FloatPointer target;
+        private final FloatPointer[] inputs;
+        private final float[][] scratch;
+        private final boolean average;
+        private final boolean propagate;
+
+        protected FloatChunks(INDArray target, INDArray[] arrays, boolean average, boolean propagate,
+                        int chunkLength) {
+            // pointers are created per task, since their positions are changed
+            this.target = new FloatPointer(target.data().addressPointer());
+            this.inputs = new FloatPointer[arrays.length];
+            for (int i = 0; i < arrays.length; i++)
+                inputs[i] = new FloatPointer(arrays[i].data().addressPointer());
+
+            // small inputs don't need full-sized scratch arrays
+            this.scratch = new float[depth(arrays.length) + 1][chunkLength];
+            this.average = average;
+            this.propagate = propagate;
+        }
+
+        protected void reduce(long first, long last) {
+            for (long start = first; start < last; start += CHUNK_LENGTH) {
+                int length = (int) Math.min(CHUNK_LENGTH, last - start);
+                float[] result = tree(0, inputs.length, 0, start, length);
+
+                if (average) {
+                    float scale = 1.0f / inputs.length;
+                    for (int i = 0; i < length; i++)
+                        result[i] *= scale;
+                } else {
+                    float[] existing = scratch[scratch.length - 1];
+                    target.position(start).get(existing, 0, length);
+                    for (int i = 0; i < length; i++)
+                        result[i] += existing[i];
+                }
+
+                target.position(start).put(result, 0, length);
+                if (propagate)
+                    for (FloatPointer input : inputs)
+                        input.position(start).put(result, 0, length);
+            }
+        }
+
+        /**
+         * Sums inputs [lo, hi) for elements [start, start + length), result is stored in scratch[level]
+         */
+        protected float[] tree(int lo, int hi, int level, long start, int length) {
+            if (hi - lo == 1) {
+                inputs[lo].position(start).get(scratch[level], 0, length);
+                return scratch[level];
+            }
+
+            int mid = (lo + hi) >>> 1;
+            float[] left = tree(lo, mid, level, start, length);
+            float[] right = tree(mid, hi, level + 1, start, length);
+            for (int i = 0; i < length; i++)
+                left[i] += right[i];
+
+            return left;
+        }
+    }
+
+    protected static class DoubleChunks {
+        private final DoublePointer target;
+        private final DoublePointer[] inputs;
+        private final double[][] scratch;
+        private final boolean average;
+        private final boolean propagate;
+
+        protected DoubleChunks(INDArray target, INDArray[] arrays, boolean average, boolean propagate,
+                        int chunkLength) {
+            this.target = new DoublePointer(target.data().addressPointer());
+            this.inputs = new DoublePointer[arrays.length];
+            for (int i = 0; i < arrays.length; i++)
+                inputs[i] = new DoublePointer(arrays[i].data().addressPointer());
+
+            this.scratch = new double[depth(arrays.length) + 1][chunkLength];
+            this.average = average;
+            this.propagate = propagate;
+        }
+
+        protected void reduce(long first, long last) {
+            for (long start = first; start < last; start += CHUNK_LENGTH) {
+                int length = (int) Math.min(CHUNK_LENGTH, last - start);
+                double[] result = tree(0, inputs.length, 0, start, length);
+
+                if (average) {
+                    double scale = 1.0 / inputs.length;
+                    for (int i = 0; i < length; i++)
+                        result[i] *= scale;
+                } else {
+                    double[] existing = scratch[scratch.length - 1];
+                    target.position(start).get(existing, 0, length);
+                    for (int i = 0; i < length; i++)
+                        result[i] += existing[i];
+                }
+
+                target.position(start).put(result, 0, length);
+                if (propagate)
+                    for (DoublePointer input : inputs)
+                        input.position(start).put(result, 0, length);
+            }
+        }
+
+        protected double[] tree(int lo, int hi, int level, long start, int length) {
+            if (hi - lo == 1) {
+                inputs[lo].position(start).get(scratch[level], 0, length);
+                return scratch[level];
+            }
+
+            int mid = (lo + hi) >>> 1;
+            double[] left = tree(lo, mid, level, start, length);
+            double[] right = tree(mid, hi, level + 1, start, length);
+            for (int i = 0; i < length; i++)
+                left[i] += right[i];
+
+            return left;
+        }
+    }
+}
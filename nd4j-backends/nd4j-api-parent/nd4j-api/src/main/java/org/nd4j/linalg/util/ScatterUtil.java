@@ -0,0 +1,341 @@
+package org.nd4j.linalg.util;
+
+import lombok.NonNull;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.javacpp.FloatPointer;
+import org.bytedeco.javacpp.Pointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.INDArrayIndex;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Indexed gather and scatter of slices along given dimension, i.e. for sparse updates of embedding tables.
+ *
+ * Slice i along dimension d is the sub-array with index i at d, so for matrices and d = 0 slices are rows.
+ * For c-ordered compact arrays and dimension 0 every slice is continuous block of memory, so slices are
+ * copied with memcpy, and indexes are processed in parallel.
+ *
+ * Scatter-add is done as sort-then-segment-sum: updates are grouped by target slice, and every target slice is
+ * updated by exactly one task, so duplicate indexes are accumulated without atomics, and results are deterministic.
+ */
+public class ScatterUtil {
+    // elements processed at once by scatter-add
+    protected static final int CHUNK_LENGTH = 8 * 1024;
+
+    // below this number of elements copied, everything is done by calling thread
+    protected static final long PARALLEL_THRESHOLD = 1L << 20;
+
+    private ScatterUtil() {}
+
+    /**
+     * This method copies slices of source with given indexes into target: target[i] = source[indexes[i]]
+     *
+     * @param source    array to gather slices from
+     * @param dimension dimension slices are indexed along
+     * @param indexes   indexes of source slices
+     * @param target    array to store slices into, of source shape with indexes.length at dimension
+     * @return target
+     */
+    public static INDArray gather(@NonNull INDArray source, int dimension, @NonNull int[] indexes,
+                    @NonNull INDArray target) {
+        validate(source, target, dimension, indexes, "Source", source.size(dimension));
+
+        if (!isCompact(dimension, false, source, target)) {
+            for (int i = 0; i < indexes.length; i++)
+                slice(target, dimension, i).assign(slice(source, dimension, indexes[i]));
+
+            return target;
+        }
+
+        final int[] idx = indexes;
+        run(source, target, (long) indexes.length * sliceLength(target), indexes.length, new Range() {
+            @Override
+            public void process(INDArray source, INDArray target, int first, int last) {
+                long bytes = sliceBytes(target);
+                BytePointer src = new BytePointer(source.data().addressPointer());
+                BytePointer dst = new BytePointer(target.data().addressPointer());
+                for (int i = first; i < last; i++)
+                    Pointer.memcpy(dst.position(i * bytes), src.position(idx[i] * bytes), bytes);
+            }
+        });
+
+        return target;
+    }
+
+    /**
+     * This method copies slices of updates into target slices with given indexes: target[indexes[i]] = updates[i].
+     * If index is duplicated, last update wins
+     *
+     * @param target    array to store slices into
+     * @param dimension dimension slices are indexed along
+     * @param indexes   indexes of target slices
+     * @param updates   slices to store, of target shape with indexes.length at dimension
+     * @return target
+     */
+    public static INDArray scatter(@NonNull INDArray target, int dimension, @NonNull int[] indexes,
+                    @NonNull INDArray updates) {
+        validate(target, updates, dimension, indexes, "Target", target.size(dimension));
+
+        if (!isCompact(dimension, false, updates, target)) {
+            for (int i = 0; i < indexes.length; i++)
+                slice(target, dimension, indexes[i]).assign(slice(updates, dimension, i));
+
+            return target;
+        }
+
+        final Segments segments = new Segments(indexes);
+        run(updates, target, (long) segments.size() * sliceLength(target), segments.size(), new Range() {
+            @Override
+            public void process(INDArray updates, INDArray target, int first, int last) {
+                long bytes = sliceBytes(target);
+                BytePointer src = new BytePointer(updates.data().addressPointer());
+                BytePointer dst = new BytePointer(target.data().addressPointer());
+                for (int s = first; s < last; s++)
+                    Pointer.memcpy(dst.position(segments.index(s) * bytes),
+                                    src.position(segments.position(segments.end(s) - 1) * bytes), bytes);
+            }
+        });
+
+        return target;
+    }
+
+    /**
+     * This method adds slices of updates to target slices with given indexes: target[indexes[i]] += updates[i].
+     * Updates with duplicate indexes are all accumulated
+     *
+     * @param target    array to add slices to
+     * @param dimension dimension slices are indexed along
+     * @param indexes   indexes of target slices
+     * @param updates   slices to add, of target shape with indexes.length at dimension
+     * @return target
+     */
+    public static INDArray scatterAdd(@NonNull INDArray target, int dimension, @NonNull int[] indexes,
+                    @NonNull INDArray updates) {
+        validate(target, updates, dimension, indexes, "Target", target.size(dimension));
+
+        if (!isCompact(dimension, true, updates, target)) {
+            for (int i = 0; i < indexes.length; i++)
+                slice(target, dimension, indexes[i]).addi(slice(updates, dimension, i));
+
+            return target;
+        }
+
+        final Segments segments = new Segments(indexes);
+        final boolean isDouble = target.data().dataType() == DataBuffer.Type.DOUBLE;
+        run(updates, target, (long) indexes.length * sliceLength(target), segments.size(), new Range() {
+            @Override
+            public void process(INDArray updates, INDArray target, int first, int last) {
+                if (isDouble)
+                    addDoubles(updates, target, segments, first, last);
+                else
+                    addFloats(updates, target, segments, first, last);
+            }
+        });
+
+        return target;
+    }
+
+    protected static void addFloats(INDArray updates, INDArray target, Segments segments, int first, int last) {
+        long length = sliceLength(target);
+        FloatPointer src = new FloatPointer(updates.data().addressPointer());
+        FloatPointer dst = new FloatPointer(target.data().addressPointer());
+        float[] sum = new float[(int) Math.min(length, CHUNK_LENGTH)];
+        float[] buffer = new float[sum.length];
+
+        for (int s = first; s < last; s++) {
+            for (long offset = 0; offset < length; offset += CHUNK_LENGTH) {
+                int num = (int) Math.min(CHUNK_LENGTH, length - offset);
+                dst.position(segments.index(s) * length + offset).get(sum, 0, num);
+                for (int p = segments.start(s); p < segments.end(s); p++) {
+                    src.position(segments.position(p) * length + offset).get(buffer, 0, num);
+                    for (int e = 0; e < num; e++)
+                        sum[e] += buffer[e];
+                }
+                dst.position(segments.index(s) * length + offset).put(sum, 0, num);
+            }
+        }
+    }
+
+    protected static void addDoubles(INDArray updates, INDArray target, Segments segments, int first, int last) {
+        long length = sliceLength(target);
+        DoublePointer src = new DoublePointer(updates.data().addressPointer());
+        DoublePointer dst = new DoublePointer(target.data().addressPointer());
+        double[] sum = new double[(int) Math.min(length, CHUNK_LENGTH)];
+        double[] buffer = new double[sum.length];
+
+        for (int s = first; s < last; s++) {
+            for (long offset = 0; offset < length; offset += CHUNK_LENGTH) {
+                int num = (int) Math.min(CHUNK_LENGTH, length - offset);
+                dst.position(segments.index(s) * length + offset).get(sum, 0, num);
+                for (int p = segments.start(s); p < segments.end(s); p++) {
+                    src.position(segments.position(p) * length + offset).get(buffer, 0, num);
+                    for (int e = 0; e < num; e++)
+                        sum[e] += buffer[e];
+                }
+                dst.position(segments.index(s) * length + offset).put(sum, 0, num);
+            }
+        }
+    }
+
+    /**
+     * Checks that indexed array has indexes.length slices, and both arrays have the same slice shape
+     */
+    protected static void validate(INDArray indexed, INDArray other, int dimension, int[] indexes, String name,
+                    int numSlices) {
+        if (dimension < 0 || dimension >= indexed.rank())
+            throw new IllegalArgumentException("Illegal dimension " + dimension + " for array of rank " + indexed.rank());
+
+        int[] expected = indexed.shape().clone();
+        expected[dimension] = indexes.length;
+        if (!Arrays.equals(expected, other.shape()))
+            throw new IllegalArgumentException("Expected array of shape " + Arrays.toString(expected) + ", got "
+                            + Arrays.toString(other.shape()));
+
+        for (int index : indexes)
+            if (index < 0 || index >= numSlices)
+                throw new IllegalArgumentException(
+                                "Index " + index + " is out of bounds: " + name + " has " + numSlices + " slices");
+    }
+
+    protected static boolean isCompact(int dimension, boolean arithmetic, INDArray... arrays) {
+        if (dimension != 0)
+            return false;
+
+        DataBuffer.Type type = arrays[0].data().dataType();
+        if (arithmetic && type != DataBuffer.Type.FLOAT && type != DataBuffer.Type.DOUBLE)
+            return false;
+
+        for (INDArray array : arrays) {
+            if (array.isCompressed() || array.data().dataType() != type || array.ordering() != 'c'
+                            || !Arrays.equals(array.stride(), ArrayUtil.calcStrides(array.shape())))
+                return false;
+        }
+
+        return true;
+    }
+
+    protected static INDArray slice(INDArray array, int dimension, int index) {
+        INDArrayIndex[] indexes = new INDArrayIndex[array.rank()];
+        for (int i = 0; i < indexes.length; i++)
+            indexes[i] = i == dimension ? NDArrayIndex.interval(index, index + 1) : NDArrayIndex.all();
+
+        return array.get(indexes);
+    }
+
+    protected static long sliceLength(INDArray array) {
+        return array.size(0) == 0 ? 0 : array.lengthLong() / array.size(0);
+    }
+
+    protected static long sliceBytes(INDArray array) {
+        return sliceLength(array) * array.data().getElementSize();
+    }
+
+    /**
+     * Splits [0, size) into ranges processed in parallel, if there's enough work
+     */
+    protected static void run(final INDArray source, final INDArray target, long work, int size, final Range range) {
+        Nd4j.getCompressor().autoDecompress(source);
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(source, AffinityManager.Location.HOST);
+        Nd4j.getAffinityManager().ensureLocation(target, AffinityManager.Location.HOST);
+
+        int numTasks = 1;
+        if (work >= PARALLEL_THRESHOLD)
+            numTasks = Math.max(1, Math.min(size, 4 * ExecutorServiceProvider.getForkJoinPool().getParallelism()));
+
+        List<RecursiveAction> tasks = new ArrayList<>(numTasks);
+        for (int t = 0; t < numTasks; t++) {
+            final int first = (int) ((long) size * t / numTasks);
+            final int last = (int) ((long) size * (t + 1) / numTasks);
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    range.process(source, target, first, last);
+                }
+            });
+        }
+
+        if (tasks.size() == 1) {
+            tasks.get(0).invoke();
+        } else {
+            final List<RecursiveAction> all = tasks;
+            ExecutorServiceProvider.getForkJoinPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(all);
+                }
+            });
+        }
+
+        Nd4j.getAffinityManager().tagLocation(target, AffinityManager.Location.HOST);
+    }
+
+    protected interface Range {
+        void process(INDArray source, INDArray target, int first, int last);
+    }
+
+    /**
+     * Positions of indexes, grouped by index value. Within segment positions keep their original order
+     */
+    protected static class Segments {
+        private final int[] positions;
+        private final int[] indexes;
+        private final int[] starts;
+
+        protected Segments(int[] indexes) {
+            // sorting (index, position) pairs keeps sort stable
+            long[] keys = new long[indexes.length];
+            for (int i = 0; i < indexes.length; i++)
+                keys[i] = ((long) indexes[i] << 32) | i;
+            Arrays.sort(keys);
+
+            this.positions = new int[indexes.length];
+            int[] values = new int[indexes.length];
+            int[] bounds = new int[indexes.length + 1];
+            int cnt = 0;
+            for (int i = 0; i < keys.length; i++) {
+                positions[i] = (int) keys[i];
+                int index = (int) (keys[i] >>> 32);
+                if (cnt == 0 || values[cnt - 1] != index) {
+                    values[cnt] = index;
+                    bounds[cnt++] = i;
+                }
+            }
+            bounds[cnt] = keys.length;
+
+            this.indexes = Arrays.copyOf(values, cnt);
+            this.starts = Arrays.copyOf(bounds, cnt + 1);
+        }
+
+        protected int size() {
+            return indexes.length;
+        }
+
+        protected int index(int segment) {
+            return indexes[segment];
+        }
+
+        protected int start(int segment) {
+            return starts[segment];
+        }
+
+        protected int end(int segment) {
+            return starts[segment + 1];
+        }
+
+        protected int position(int p) {
+            return positions[p];
+        }
+    }
+}
@@ -0,0 +1,505 @@
+package org.nd4j.linalg.util;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorting and selection along dimension, working on primitive arrays: no boxing, and no comparator calls.
+ *
+ * Each vector along given dimension is copied out of DataBuffer once, processed, and copied back.
+ * Vectors are processed in parallel on shared ForkJoinPool, if there's enough work.
+ *
+ * Ordering follows Double.compare(): NaNs go after all other values. Sorting with indices is stable,
+ * so equal values keep their original order, both for ascending and descending sort.
+ */
+public class SortUtil {
+    // runs shorter than this are sorted with insertion sort
+    protected static final int INSERTION_THRESHOLD = 32;
+
+    // minimal number of elements processed by single task
+    protected static final int TASK_LENGTH = 64 * 1024;
+
+    private SortUtil() {}
+
+    /**
+     * This method sorts given array along specified dimension, in-place
+     *
+     * @param array array to sort
+     * @param dimension dimension to sort along
+     * @param ascending sort order
+     * @return the same array
+     */
+    public static INDArray sort(@NonNull INDArray array, int dimension, final boolean ascending) {
+        forEachVector(array, dimension, new VectorJob() {
+            @Override
+            public void process(INDArray vector, int index, Scratch scratch) {
+                int length = vector.length();
+                double[] values = scratch.values(length);
+                read(vector, values, !ascending);
+                Arrays.sort(values, 0, length);
+                write(vector, values, length, !ascending);
+            }
+        });
+
+        return array;
+    }
+
+    /**
+     * This method sorts given array along specified dimension, in-place, and returns original positions of sorted values
+     *
+     * @param array array to sort
+     * @param dimension dimension to sort along
+     * @param ascending sort order
+     * @return array of indices and the sorted array
+     */
+    public static INDArray[] sortWithIndices(@NonNull INDArray array, int dimension, final boolean ascending) {
+        final INDArray indices = Nd4j.create(array.shape(), array.ordering());
+        final int dim = normalize(array, dimension);
+
+        forEachVector(array, dim, new VectorJob() {
+            @Override
+            public void process(INDArray vector, int index, Scratch scratch) {
+                int length = vector.length();
+                double[] values = scratch.values(length);
+                int[] order = scratch.indices(length);
+
+                read(vector, values, !ascending);
+                argsort(values, order, length, scratch);
+
+                write(vector, values, length, !ascending);
+                write(indices.vectorAlongDimension(index, dim), order, length);
+            }
+        });
+
+        return new INDArray[] {indices, array};
+    }
+
+    /**
+     * This method returns positions that would sort given array along specified dimension. Array itself isn't modified.
+     *
+     * @param array array to sort
+     * @param dimension dimension to sort along
+     * @param ascending sort order
+     * @return array of indices, same shape as original array
+     */
+    public static INDArray argsort(@NonNull INDArray array, int dimension, final boolean ascending) {
+        final INDArray indices = Nd4j.create(array.shape(), array.ordering());
+        final int dim = normalize(array, dimension);
+
+        forEachVector(array, dim, new VectorJob() {
+            @Override
+            public void process(INDArray vector, int index, Scratch scratch) {
+                int length = vector.length();
+                double[] values = scratch.values(length);
+                int[] order = scratch.indices(length);
+
+                read(vector, values, !ascending);
+                argsort(values, order, length, scratch);
+                write(indices.vectorAlongDimension(index, dim), order, length);
+            }
+        });
+
+        return indices;
+    }
+
+    /**
+     * This method returns positions that would sort given vector
+     *
+     * @param vector vector to sort
+     * @param ascending sort order
+     * @return positions of values, in sorted order
+     */
+    public static int[] argsortVector(@NonNull INDArray vector, boolean ascending) {
+        if (!vector.isVector() && !vector.isScalar())
+            throw new IllegalArgumentException("Vector expected, but got array of shape " + Arrays.toString(vector.shape()));
+
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(vector, AffinityManager.Location.HOST);
+
+        Scratch scratch = new Scratch();
+        int length = vector.length();
+        double[] values = scratch.values(length);
+        int[] order = scratch.indices(length);
+
+        read(vector, values, !ascending);
+        argsort(values, order, length, scratch);
+
+        return Arrays.copyOf(order, length);
+    }
+
+    /**
+     * This method selects k largest values along specified dimension, without sorting whole vectors
+     *
+     * @param array source array, isn't modified
+     * @param k number of values to select
+     * @param dimension dimension to select along
+     * @return array of values, and array of their positions. Both have size k along given dimension,
+     *         and are sorted from largest to smallest value
+     */
+    public static INDArray[] topK(@NonNull INDArray array, final int k, int dimension) {
+        final int dim = normalize(array, dimension);
+        if (k < 1 || k > array.size(dim))
+            throw new IllegalArgumentException("k should be in range [1, " + array.size(dim) + "], but got " + k);
+
+        int[] shape = array.shape().clone();
+        shape[dim] = k;
+        final INDArray values = Nd4j.create(shape, array.ordering());
+        final INDArray indices = Nd4j.create(shape, array.ordering());
+
+        forEachVector(array, dim, new VectorJob() {
+            @Override
+            public void process(INDArray vector, int index, Scratch scratch) {
+                int length = vector.length();
+                double[] data = scratch.values(length);
+                read(vector, data, false);
+
+                // min-heap of k best values, root is the worst of them
+                double[] heapValues = scratch.tmpValues(k);
+                int[] heapIndices = scratch.tmpIndices(k);
+                int size = 0;
+                for (int i = 0; i < length; i++) {
+                    if (size < k) {
+                        heapValues[size] = data[i];
+                        heapIndices[size] = i;
+                        siftUp(heapValues, heapIndices, size++);
+                    } else if (better(data[i], i, heapValues[0], heapIndices[0])) {
+                        heapValues[0] = data[i];
+                        heapIndices[0] = i;
+                        siftDown(heapValues, heapIndices, 0, size);
+                    }
+                }
+
+                // popping the worst value goes to the end
+                double[] sortedValues = scratch.values(k);
+                int[] sortedIndices = scratch.indices(k);
+                while (size > 0) {
+                    size--;
+                    sortedValues[size] = heapValues[0];
+                    sortedIndices[size] = heapIndices[0];
+                    heapValues[0] = heapValues[size];
+                    heapIndices[0] = heapIndices[size];
+                    siftDown(heapValues, heapIndices, 0, size);
+                }
+
+                write(values.vectorAlongDimension(index, dim), sortedValues, k, false);
+                write(indices.vectorAlongDimension(index, dim), sortedIndices, k);
+            }
+        });
+
+        return new INDArray[] {values, indices};
+    }
+
+    /**
+     * This method returns new matrix with rows of given matrix, in specified order. Rows are copied in bulk.
+     *
+     * @param matrix source matrix
+     * @param order indices of rows
+     * @return
+     */
+    public static INDArray permuteRows(@NonNull INDArray matrix, @NonNull int[] order) {
+        if (matrix.rank() != 2)
+            throw new IllegalArgumentException("Matrix expected, but got array of rank " + matrix.rank());
+
+        return Nd4j.pullRows(matrix, 1, order);
+    }
+
+    /**
+     * This method returns new matrix with columns of given matrix, in specified order. Columns are copied in bulk.
+     *
+     * @param matrix source matrix
+     * @param order indices of columns
+     * @return
+     */
+    public static INDArray permuteColumns(@NonNull INDArray matrix, @NonNull int[] order) {
+        if (matrix.rank() != 2)
+            throw new IllegalArgumentException("Matrix expected, but got array of rank " + matrix.rank());
+
+        return Nd4j.pullRows(matrix, 0, order);
+    }
+
+    /**
+     * Stable merge sort of values, with positions going along. Positions are initialized here.
+     */
+    protected static void argsort(double[] values, int[] order, int length, Scratch scratch) {
+        for (int i = 0; i < length; i++)
+            order[i] = i;
+
+        // insertion sort for short runs
+        for (int from = 0; from < length; from += INSERTION_THRESHOLD) {
+            int to = Math.min(length, from + INSERTION_THRESHOLD);
+            for (int i = from + 1; i < to; i++) {
+                double value = values[i];
+                int position = order[i];
+                int j = i - 1;
+                while (j >= from && less(value, values[j])) {
+                    values[j + 1] = values[j];
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                values[j + 1] = value;
+                order[j + 1] = position;
+            }
+        }
+
+        if (length <= INSERTION_THRESHOLD)
+            return;
+
+        double[] srcValues = values;
+        int[] srcOrder = order;
+        double[] dstValues = scratch.tmpValues(length);
+        int[] dstOrder = scratch.tmpIndices(length);
+
+        for (int width = INSERTION_THRESHOLD; width < length; width *= 2) {
+            for (int left = 0; left < length; left += 2 * width) {
+                int mid = Math.min(length, left + width);
+                int right = Math.min(length, left + 2 * width);
+
+                int i = left, j = mid, d = left;
+                while (i < mid && j < right) {
+                    // taking from the right half only if it's strictly smaller keeps sort stable
+                    if (less(srcValues[j], srcValues[i])) {
+                        dstValues[d] = srcValues[j];
+                        dstOrder[d++] = srcOrder[j++];
+                    } else {
+                        dstValues[d] = srcValues[i];
+                        dstOrder[d++] = srcOrder[i++];
+                    }
+                }
+
+                int leftover = mid - i;
+                System.arraycopy(srcValues, i, dstValues, d, leftover);
+                System.arraycopy(srcOrder, i, dstOrder, d, leftover);
+                d += leftover;
+
+                leftover = right - j;
+                System.arraycopy(srcValues, j, dstValues, d, leftover);
+                System.arraycopy(srcOrder, j, dstOrder, d, leftover);
+            }
+
+            double[] swapValues = srcValues;
+            srcValues = dstValues;
+            dstValues = swapValues;
+
+            int[] swapOrder = srcOrder;
+            srcOrder = dstOrder;
+            dstOrder = swapOrder;
+        }
+
+        if (srcValues != values) {
+            System.arraycopy(srcValues, 0, values, 0, length);
+            System.arraycopy(srcOrder, 0, order, 0, length);
+        }
+    }
+
+    /**
+     * Same ordering as Double.compare(a, b) < 0, except -0.0 and 0.0 being equal
+     */
+    protected static boolean less(double a, double b) {
+        return a < b || (b != b && a == a);
+    }
+
+    /**
+     * Larger value is better, and for equal values the one seen first wins
+     */
+    protected static boolean better(double value, int index, double otherValue, int otherIndex) {
+        if (less(otherValue, value))
+            return true;
+
+        if (less(value, otherValue))
+            return false;
+
+        return index < otherIndex;
+    }
+
+    protected static void siftUp(double[] values, int[] indices, int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!better(values[parent], indices[parent], values[position], indices[position]))
+                break;
+
+            swap(values, indices, parent, position);
+            position = parent;
+        }
+    }
+
+    protected static void siftDown(double[] values, int[] indices, int position, int size) {
+        while (true) {
+            int worst = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+
+            if (left < size && better(values[worst], indices[worst], values[left], indices[left]))
+                worst = left;
+
+            if (right < size && better(values[worst], indices[worst], values[right], indices[right]))
+                worst = right;
+
+            if (worst == position)
+                return;
+
+            swap(values, indices, worst, position);
+            position = worst;
+        }
+    }
+
+    protected static void swap(double[] values, int[] indices, int a, int b) {
+        double value = values[a];
+        values[a] = values[b];
+        values[b] = value;
+
+        int index = indices[a];
+        indices[a] = indices[b];
+        indices[b] = index;
+    }
+
+    /**
+     * Copies vector into given array, optionally negated: descending sort is ascending sort of negated values
+     */
+    protected static void read(INDArray vector, double[] target, boolean negate) {
+        DataBuffer buffer = vector.data();
+        int length = vector.length();
+        int stride = vector.elementWiseStride();
+
+        if (stride > 0) {
+            for (int i = 0; i < length; i++)
+                target[i] = buffer.getDouble((long) i * stride);
+        } else {
+            for (int i = 0; i < length; i++)
+                target[i] = vector.getDouble(i);
+        }
+
+        if (negate)
+            for (int i = 0; i < length; i++)
+                target[i] = -target[i];
+    }
+
+    protected static void write(INDArray vector, double[] source, int length, boolean negate) {
+        DataBuffer buffer = vector.data();
+        int stride = vector.elementWiseStride();
+
+        for (int i = 0; i < length; i++) {
+            double value = negate ? -source[i] : source[i];
+            if (stride > 0)
+                buffer.put((long) i * stride, value);
+            else
+                vector.putScalar(i, value);
+        }
+    }
+
+    protected static void write(INDArray vector, int[] source, int length) {
+        DataBuffer buffer = vector.data();
+        int stride = vector.elementWiseStride();
+
+        for (int i = 0; i < length; i++) {
+            if (stride > 0)
+                buffer.put((long) i * stride, source[i]);
+            else
+                vector.putScalar(i, source[i]);
+        }
+    }
+
+    protected static int normalize(INDArray array, int dimension) {
+        if (dimension < 0)
+            dimension += array.rank();
+
+        if (dimension < 0 || dimension >= array.rank())
+            throw new IllegalArgumentException("Dimension " + dimension + " is out of bounds for array of rank " + array.rank());
+
+        return dimension;
+    }
+
+    /**
+     * Runs job for every vector along dimension. Views are created in calling thread, and processed in parallel
+     */
+    protected static void forEachVector(INDArray array, int dimension, final VectorJob job) {
+        dimension = normalize(array, dimension);
+
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(array, AffinityManager.Location.HOST);
+
+        int numVectors = array.vectorsAlongDimension(dimension);
+        final INDArray[] vectors = new INDArray[numVectors];
+        for (int i = 0; i < numVectors; i++)
+            vectors[i] = array.vectorAlongDimension(i, dimension);
+
+        int vectorLength = Math.max(1, array.size(dimension));
+        int vectorsPerTask = Math.max(1, TASK_LENGTH / vectorLength);
+
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (int v = 0; v < numVectors; v += vectorsPerTask) {
+            final int from = v;
+            final int to = Math.min(numVectors, v + vectorsPerTask);
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    Scratch scratch = new Scratch();
+                    for (int i = from; i < to; i++)
+                        job.process(vectors[i], i, scratch);
+                }
+            });
+        }
+
+        if (tasks.size() == 1) {
+            tasks.get(0).invoke();
+        } else {
+            final List<RecursiveAction> all = tasks;
+            ExecutorServiceProvider.getForkJoinPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(all);
+                }
+            });
+        }
+
+        // outputs are written on host too, but those are new arrays, already on host
+        Nd4j.getAffinityManager().tagLocation(array, AffinityManager.Location.HOST);
+    }
+
+    protected interface VectorJob {
+        void process(INDArray vector, int index, Scratch scratch);
+    }
+
+    /**
+     * Work arrays reused across vectors processed by the same task
+     */
+    protected static class Scratch {
+        private double[] values = new double[0];
+        private int[] indices = new int[0];
+        private double[] tmpValues = new double[0];
+        private int[] tmpIndices = new int[0];
+
+        protected double[] values(int length) {
+            if (values.length < length)
+                values = new double[length];
+            return values;
+        }
+
+        protected int[] indices(int length) {
+            if (indices.length < length)
+                indices = new int[length];
+            return indices;
+        }
+
+        protected double[] tmpValues(int length) {
+            if (tmpValues.length < length)
+                tmpValues = new double[length];
+            return tmpValues;
+        }
+
+        protected int[] tmpIndices(int length) {
+            if (tmpIndices.length < length)
+                tmpIndices = new int[length];
+            return tmpIndices;
+        }
+    }
+}
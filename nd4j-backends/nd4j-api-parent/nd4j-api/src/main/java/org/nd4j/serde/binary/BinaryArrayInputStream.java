@@ -0,0 +1,73 @@
+package org.nd4j.serde.binary;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * InputStream producing {@link BinarySerde} layout of given array.
+ *
+ * Only header is copied to heap, data bytes are read straight from off-heap memory of the array.
+ * Useful for APIs accepting InputStream with known length, i.e. JsonGenerator.writeBinary()
+ */
+public class BinaryArrayInputStream extends InputStream {
+    protected final INDArray array;
+    protected final ByteBuffer header;
+    protected final ByteBuffer data;
+    protected final int length;
+
+    public BinaryArrayInputStream(@NonNull INDArray array) {
+        this.array = BinarySerde.prepare(array);
+        this.header = BinarySerde.headerFor(this.array);
+        this.data = BinarySerde.dataBufferFor(this.array);
+        this.length = header.remaining() + data.remaining();
+    }
+
+    /**
+     * This method returns total number of bytes in this stream
+     *
+     * @return
+     */
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public int read() {
+        if (header.hasRemaining())
+            return header.get() & 0xFF;
+
+        if (data.hasRemaining())
+            return data.get() & 0xFF;
+
+        return -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0)
+            return 0;
+
+        int read = 0;
+        if (header.hasRemaining()) {
+            int chunk = Math.min(len, header.remaining());
+            header.get(b, off, chunk);
+            read += chunk;
+        }
+
+        if (read < len && data.hasRemaining()) {
+            int chunk = Math.min(len - read, data.remaining());
+            data.get(b, off + read, chunk);
+            read += chunk;
+        }
+
+        return read == 0 ? -1 : read;
+    }
+
+    @Override
+    public int available() {
+        return header.remaining() + data.remaining();
+    }
+}
@@ -0,0 +1,140 @@
+package org.nd4j.serde.binary;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.shape.Shape;
+import org.nd4j.linalg.compression.CompressedDataBuffer;
+import org.nd4j.linalg.compression.CompressionDescriptor;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * OutputStream decoding {@link BinarySerde} layout written into it.
+ *
+ * Header is accumulated on heap, and as soon as it's complete - DataBuffer of required size is allocated,
+ * so data bytes go straight into off-heap memory, without intermediate byte arrays.
+ * Useful for APIs writing into OutputStream, i.e. JsonParser.readBinaryValue()
+ *
+ * PLEASE NOTE: If there's workspace open for current thread - array will be allocated in it.
+ */
+public class BinaryArrayOutputStream extends OutputStream {
+    // byte order mark, rank & data type go first, everything else depends on them
+    protected ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.nativeOrder());
+    protected boolean headerExtended = false;
+
+    protected DataBuffer.Type type;
+    protected DataBuffer shapeInfo;
+    protected DataBuffer buffer;
+    protected ByteBuffer target;
+    protected long bytes;
+    // data written with non-native byte order is converted once all bytes are here
+    protected boolean swapped;
+
+    @Override
+    public void write(int b) {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        while (len > 0) {
+            if (target == null) {
+                int chunk = Math.min(len, header.remaining());
+                header.put(b, off, chunk);
+                off += chunk;
+                len -= chunk;
+
+                if (!header.hasRemaining())
+                    processHeader();
+            } else {
+                if (len > target.remaining())
+                    throw new ND4JIllegalStateException("Got more bytes then expected: " + len + " bytes left, but only "
+                                    + target.remaining() + " expected");
+
+                target.put(b, off, len);
+                len = 0;
+            }
+        }
+    }
+
+    protected void processHeader() {
+        if (!headerExtended) {
+            header.order(BinarySerde.byteOrder(header.getInt(0)));
+            swapped = header.order() != ByteOrder.nativeOrder();
+
+            int rank = header.getInt(4);
+            if (rank < 0)
+                throw new IllegalStateException("Found negative integer. Corrupt serialization?");
+
+            type = DataBuffer.Type.values()[header.getInt(8)];
+
+            int size = 12 + Shape.shapeInfoLength(rank) * 4;
+            if (type == DataBuffer.Type.COMPRESSED) {
+                BinarySerde.checkCompressedOrder(header.order());
+                size += CompressionDescriptor.COMPRESSION_BYTE_BUFFER_LENGTH;
+            }
+
+            ByteBuffer extended = ByteBuffer.allocate(size).order(header.order());
+            header.rewind();
+            extended.put(header);
+
+            header = extended;
+            headerExtended = true;
+            return;
+        }
+
+        header.rewind();
+        header.getInt();
+        int rank = header.getInt();
+        header.getInt();
+
+        int shapeBufferLength = Shape.shapeInfoLength(rank);
+        shapeInfo = Nd4j.createBufferDetached(new int[shapeBufferLength]);
+        for (int i = 0; i < shapeBufferLength; i++)
+            shapeInfo.put(i, header.getInt());
+
+        int length = Shape.length(shapeInfo);
+        if (type != DataBuffer.Type.COMPRESSED) {
+            buffer = Nd4j.createBuffer(type, length, false);
+            bytes = length * (long) buffer.getElementSize();
+        } else {
+            CompressionDescriptor descriptor = CompressionDescriptor.fromByteBuffer(header);
+            bytes = descriptor.getCompressedLength();
+            buffer = new CompressedDataBuffer(new BytePointer(bytes), descriptor);
+        }
+
+        target = buffer.pointer().asByteBuffer();
+        target.limit((int) bytes);
+    }
+
+    /**
+     * This method returns TRUE if all bytes of serialized array were written into this stream
+     *
+     * @return
+     */
+    public boolean isComplete() {
+        return target != null && !target.hasRemaining();
+    }
+
+    /**
+     * This method returns decoded array
+     *
+     * @return
+     */
+    public INDArray getArray() {
+        if (!isComplete())
+            throw new ND4JIllegalStateException("Serialized array is incomplete");
+
+        if (swapped) {
+            BinarySerde.swapBytes(buffer.pointer(), buffer.getElementSize(), bytes);
+            swapped = false;
+        }
+
+        return Nd4j.createArrayFromShapeBuffer(buffer, shapeInfo);
+    }
+}
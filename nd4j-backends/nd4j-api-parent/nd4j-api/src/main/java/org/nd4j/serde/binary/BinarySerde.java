@@ -0,0 +1,472 @@
+package org.nd4j.serde.binary;
+
+import lombok.NonNull;
+import org.apache.commons.math3.util.Pair;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.Pointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.shape.Shape;
+import org.nd4j.linalg.compression.CompressedDataBuffer;
+import org.nd4j.linalg.compression.CompressionDescriptor;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Raw binary serialization for INDArrays.
+ *
+ * Unlike {@link Nd4j#write(INDArray, java.io.DataOutputStream)}, which goes element by element through DataOutputStream,
+ * this class copies shape information and data buffer as raw bytes, in native byte order of the writer.
+ * Byte order mark goes first, so arrays saved on a machine with different byte order are detected on read:
+ * uncompressed data is swapped then, and compressed data is rejected, since its layout is up to compression algorithm.
+ *
+ * Layout for uncompressed arrays:
+ * 4 bytes int byte order mark
+ * 4 bytes int for rank
+ * 4 bytes int for data type ordinal
+ * shape information buffer
+ * data buffer
+ *
+ * Layout for compressed arrays:
+ * 4 bytes int byte order mark
+ * 4 bytes int for rank
+ * 4 bytes int for data type ordinal (always COMPRESSED)
+ * shape information buffer
+ * compression descriptor
+ * compressed data buffer
+ */
+public class BinarySerde {
+    /**
+     * Written in byte order of the writer, so reader sees either this value, or its reversed bytes
+     */
+    public static final int BYTE_ORDER_MARK = 0x4E443442;
+
+    private BinarySerde() {
+        //
+    }
+
+    /**
+     * This method returns number of bytes required to store given array
+     *
+     * @param arr the array to compute the size for
+     * @return number of bytes
+     */
+    public static int byteBufferSizeFor(@NonNull INDArray arr) {
+        // 3 four byte ints at the beginning
+        long size = 12 + shapeInfoBytes(arr.rank()) + dataBytes(arr);
+        if (arr.isCompressed())
+            size += CompressionDescriptor.COMPRESSION_BYTE_BUFFER_LENGTH;
+
+        if (size >= Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Array is too large for ByteBuffer serialization: " + size + " bytes");
+
+        return (int) size;
+    }
+
+    /**
+     * This method returns number of bytes used by data buffer of given array
+     *
+     * @param arr
+     * @return
+     */
+    public static long dataBytes(@NonNull INDArray arr) {
+        if (arr.isCompressed())
+            return ((CompressedDataBuffer) arr.data()).getCompressionDescriptor().getCompressedLength();
+
+        return arr.length() * (long) arr.data().getElementSize();
+    }
+
+    /**
+     * This method returns number of bytes used by everything except data buffer: byte order mark, rank, data type,
+     * shape information and optional compression descriptor
+     *
+     * @param arr
+     * @return
+     */
+    public static int headerSizeFor(@NonNull INDArray arr) {
+        int size = 12 + shapeInfoBytes(arr.rank());
+        if (arr.isCompressed())
+            size += CompressionDescriptor.COMPRESSION_BYTE_BUFFER_LENGTH;
+
+        return size;
+    }
+
+    /**
+     * This method returns heap ByteBuffer, containing everything except data buffer.
+     * Header followed by {@link #dataBufferFor(INDArray)} bytes gives exactly the same layout as {@link #toByteBuffer(INDArray)}.
+     *
+     * PLEASE NOTE: array is expected to be passed through {@link #prepare(INDArray)} already
+     *
+     * @param arr
+     * @return rewound ByteBuffer
+     */
+    public static ByteBuffer headerFor(@NonNull INDArray arr) {
+        ByteBuffer header = ByteBuffer.allocate(headerSizeFor(arr)).order(ByteOrder.nativeOrder());
+        header.putInt(BYTE_ORDER_MARK);
+        header.putInt(arr.rank());
+        header.putInt(arr.data().dataType().ordinal());
+        header.put(rawBytes(arr.shapeInfoDataBuffer(), shapeInfoBytes(arr.rank())));
+
+        if (arr.isCompressed())
+            header.put(((CompressedDataBuffer) arr.data()).getCompressionDescriptor().toByteBuffer());
+
+        header.rewind();
+        return header;
+    }
+
+    /**
+     * This method returns ByteBuffer backed by off-heap memory of given array, without any copies.
+     *
+     * PLEASE NOTE: array is expected to be passed through {@link #prepare(INDArray)} already
+     *
+     * @param arr
+     * @return
+     */
+    public static ByteBuffer dataBufferFor(@NonNull INDArray arr) {
+        return rawBytes(arr.data(), dataBytes(arr));
+    }
+
+    protected static int shapeInfoBytes(int rank) {
+        return Shape.shapeInfoLength(rank) * 4;
+    }
+
+    /**
+     * This method returns direct ByteBuffer, containing serialized array
+     *
+     * @param arr the array to serialize
+     * @return rewound ByteBuffer
+     */
+    public static ByteBuffer toByteBuffer(@NonNull INDArray arr) {
+        arr = prepare(arr);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(byteBufferSizeFor(arr)).order(ByteOrder.nativeOrder());
+        put(arr, buffer);
+        buffer.rewind();
+
+        return buffer;
+    }
+
+    /**
+     * This method writes serialized array into given ByteBuffer, starting at its current position.
+     * Position is advanced past the written bytes.
+     *
+     * @param arr the array to serialize
+     * @param allocated buffer with at least {@link #byteBufferSizeFor(INDArray)} bytes remaining
+     */
+    public static void put(@NonNull INDArray arr, @NonNull ByteBuffer allocated) {
+        arr = prepare(arr);
+
+        ByteOrder order = allocated.order();
+        allocated.order(ByteOrder.nativeOrder());
+
+        allocated.putInt(BYTE_ORDER_MARK);
+        allocated.putInt(arr.rank());
+        // put data type next so its self describing
+        allocated.putInt(arr.data().dataType().ordinal());
+        allocated.put(rawBytes(arr.shapeInfoDataBuffer(), shapeInfoBytes(arr.rank())));
+
+        if (arr.isCompressed())
+            allocated.put(((CompressedDataBuffer) arr.data()).getCompressionDescriptor().toByteBuffer());
+
+        allocated.put(rawBytes(arr.data(), dataBytes(arr)));
+        allocated.order(order);
+    }
+
+    /**
+     * This method writes serialized array into given OutputStream.
+     *
+     * PLEASE NOTE: Data is written straight from off-heap memory, without element-wise conversion
+     *
+     * @param arr the array to serialize
+     * @param outputStream stream to write to. Stream is NOT closed by this method
+     * @throws IOException
+     */
+    public static void writeArrayToOutputStream(@NonNull INDArray arr, @NonNull OutputStream outputStream)
+                    throws IOException {
+        WritableByteChannel channel = Channels.newChannel(outputStream);
+        ByteBuffer buffer = toByteBuffer(arr);
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    /**
+     * This method stores serialized array into given file, using memory-mapped IO
+     *
+     * @param arr the array to serialize
+     * @param toWrite the file to write to. Existing file will be overwritten
+     * @throws IOException
+     */
+    public static void writeArrayToDisk(@NonNull INDArray arr, @NonNull File toWrite) throws IOException {
+        arr = prepare(arr);
+        int size = byteBufferSizeFor(arr);
+
+        try (RandomAccessFile file = new RandomAccessFile(toWrite, "rw"); FileChannel channel = file.getChannel()) {
+            file.setLength(size);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            mapped.order(ByteOrder.nativeOrder());
+            put(arr, mapped);
+            mapped.force();
+        }
+    }
+
+    /**
+     * This method restores array from given file, using memory-mapped IO
+     *
+     * @param readFrom the file previously written with {@link #writeArrayToDisk(INDArray, File)}
+     * @return restored array
+     * @throws IOException
+     */
+    public static INDArray readFromDisk(@NonNull File readFrom) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(readFrom, "r"); FileChannel channel = file.getChannel()) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return toArray(mapped);
+        }
+    }
+
+    /**
+     * This method restores array from given ByteBuffer, starting at its current position
+     *
+     * @param buffer buffer to read from
+     * @return restored array
+     */
+    public static INDArray toArray(@NonNull ByteBuffer buffer) {
+        return toArrayAndByteBuffer(buffer, buffer.position()).getFirst();
+    }
+
+    /**
+     * This method restores array from given ByteBuffer, starting at specified offset
+     *
+     * @param buffer buffer to read from
+     * @param offset offset of serialized array within buffer
+     * @return restored array
+     */
+    public static INDArray toArray(@NonNull ByteBuffer buffer, int offset) {
+        return toArrayAndByteBuffer(buffer, offset).getFirst();
+    }
+
+    /**
+     * This method restores array from given ByteBuffer, and returns it together with the buffer,
+     * positioned right after serialized array. That's useful for buffers holding multiple arrays.
+     *
+     * PLEASE NOTE: data is copied into a newly allocated DataBuffer, so returned array doesn't reference given ByteBuffer.
+     * If there's workspace open for current thread - array will be allocated in it.
+     * Returned ByteBuffer has byte order of the writer.
+     *
+     * @param buffer buffer to read from
+     * @param offset offset of serialized array within buffer
+     * @return Pair of restored array and ByteBuffer
+     */
+    public static Pair<INDArray, ByteBuffer> toArrayAndByteBuffer(@NonNull ByteBuffer buffer, int offset) {
+        ByteBuffer byteBuffer = ordered(buffer, offset);
+
+        int rank = byteBuffer.getInt();
+        if (rank < 0)
+            throw new IllegalStateException("Found negative integer. Corrupt serialization?");
+
+        DataBuffer.Type type = DataBuffer.Type.values()[byteBuffer.getInt()];
+
+        int shapeBufferLength = Shape.shapeInfoLength(rank);
+        DataBuffer shapeBuff = Nd4j.createBufferDetached(new int[shapeBufferLength]);
+        for (int i = 0; i < shapeBufferLength; i++)
+            shapeBuff.put(i, byteBuffer.getInt());
+
+        int length = Shape.length(shapeBuff);
+
+        if (type != DataBuffer.Type.COMPRESSED) {
+            DataBuffer data = Nd4j.createBuffer(type, length, false);
+            long bytes = length * (long) data.getElementSize();
+
+            copyFrom(byteBuffer, data.pointer(), bytes);
+            if (byteBuffer.order() != ByteOrder.nativeOrder())
+                swapBytes(data.pointer(), data.getElementSize(), bytes);
+
+            INDArray arr = Nd4j.createArrayFromShapeBuffer(data, shapeBuff);
+            return new Pair<>(arr, byteBuffer);
+        } else {
+            checkCompressedOrder(byteBuffer.order());
+
+            CompressionDescriptor descriptor = CompressionDescriptor.fromByteBuffer(byteBuffer);
+            long bytes = descriptor.getCompressedLength();
+
+            BytePointer pointer = new BytePointer(bytes);
+            copyFrom(byteBuffer, pointer, bytes);
+
+            CompressedDataBuffer compressed = new CompressedDataBuffer(pointer, descriptor);
+            INDArray arr = Nd4j.createArrayFromShapeBuffer(compressed, shapeBuff);
+            return new Pair<>(arr, byteBuffer);
+        }
+    }
+
+    /**
+     * This method reads shape information only, without touching data
+     *
+     * @param buffer buffer to read from
+     * @param offset offset of serialized array within buffer
+     * @return shape information buffer
+     */
+    public static DataBuffer readShapeInfo(@NonNull ByteBuffer buffer, int offset) {
+        ByteBuffer byteBuffer = ordered(buffer, offset);
+
+        int rank = byteBuffer.getInt();
+        byteBuffer.getInt();
+
+        int shapeBufferLength = Shape.shapeInfoLength(rank);
+        DataBuffer shapeBuff = Nd4j.createBufferDetached(new int[shapeBufferLength]);
+        for (int i = 0; i < shapeBufferLength; i++)
+            shapeBuff.put(i, byteBuffer.getInt());
+
+        return shapeBuff;
+    }
+
+    /**
+     * This method prepares array for raw serialization.
+     * Views are duplicated, since we want only actual data serialized. Also we ensure HOST memory is up-to-date.
+     *
+     * @param arr
+     * @return
+     */
+    public static INDArray prepare(@NonNull INDArray arr) {
+        if (arr.isCompressed())
+            return arr;
+
+        if (arr.isView())
+            arr = arr.dup(arr.ordering());
+
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(arr, AffinityManager.Location.HOST);
+
+        return arr;
+    }
+
+    /**
+     * This method prepares array for serialization of its data buffer without strides, i.e. as plain list of values.
+     * Compressed arrays are decompressed. Views, and arrays with strides other then default ones for their ordering
+     * (i.e. permuted arrays), are duplicated, so buffer holds exactly array elements, in array ordering.
+     *
+     * @param arr
+     * @return
+     */
+    public static INDArray prepareDense(@NonNull INDArray arr) {
+        if (arr.isCompressed())
+            arr = Nd4j.getCompressor().decompress(arr);
+
+        if (arr.isView() || !Arrays.equals(arr.stride(), Nd4j.getStrides(arr.shape(), arr.ordering())))
+            arr = arr.dup(arr.ordering());
+
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(arr, AffinityManager.Location.HOST);
+
+        return arr;
+    }
+
+    /**
+     * This method returns duplicate of given buffer, positioned right after byte order mark,
+     * and set to byte order the array was serialized with
+     */
+    protected static ByteBuffer ordered(ByteBuffer buffer, int offset) {
+        ByteBuffer byteBuffer = buffer.duplicate().order(ByteOrder.nativeOrder());
+        byteBuffer.position(offset);
+
+        int mark = byteBuffer.getInt();
+        byteBuffer.order(byteOrder(mark));
+        return byteBuffer;
+    }
+
+    /**
+     * This method returns byte order of serialized array, given its byte order mark read in native byte order
+     */
+    protected static ByteOrder byteOrder(int mark) {
+        if (mark == BYTE_ORDER_MARK)
+            return ByteOrder.nativeOrder();
+
+        if (mark == Integer.reverseBytes(BYTE_ORDER_MARK))
+            return ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+
+        throw new IllegalStateException("Byte order mark wasn't found. Corrupt serialization?");
+    }
+
+    /**
+     * This method throws exception for compressed arrays serialized with non-native byte order
+     */
+    protected static void checkCompressedOrder(ByteOrder order) {
+        if (order != ByteOrder.nativeOrder())
+            throw new IllegalStateException("Compressed array was serialized with " + order
+                            + " byte order, and can't be restored with " + ByteOrder.nativeOrder());
+    }
+
+    protected static ByteBuffer rawBytes(DataBuffer buffer, long bytes) {
+        ByteBuffer raw = buffer.pointer().asByteBuffer();
+        raw.limit((int) bytes);
+        return raw;
+    }
+
+    protected static void copyFrom(ByteBuffer source, Pointer target, long bytes) {
+        if (source.remaining() < bytes)
+            throw new IllegalStateException("Buffer underflow: " + bytes + " bytes expected, but only "
+                            + source.remaining() + " available. Corrupt serialization?");
+
+        ByteBuffer slice = source.slice();
+        slice.limit((int) bytes);
+
+        ByteBuffer dst = target.asByteBuffer();
+        dst.limit((int) bytes);
+        dst.put(slice);
+
+        source.position(source.position() + (int) bytes);
+    }
+
+    /**
+     * This method converts elements stored at given pointer from non-native byte order into native one, in-place
+     */
+    protected static void swapBytes(Pointer pointer, int elementSize, long bytes) {
+        ByteBuffer raw = pointer.asByteBuffer();
+        raw.limit((int) bytes);
+
+        ByteOrder foreign = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? ByteOrder.BIG_ENDIAN
+                        : ByteOrder.LITTLE_ENDIAN;
+        ByteBuffer src = raw.duplicate().order(foreign);
+        ByteBuffer dst = raw.duplicate().order(ByteOrder.nativeOrder());
+
+        // each element is read and written back at the same index, so both views can share memory
+        switch (elementSize) {
+            case 8: {
+                LongBuffer from = src.asLongBuffer();
+                LongBuffer to = dst.asLongBuffer();
+                for (int i = 0; i < from.limit(); i++)
+                    to.put(i, from.get(i));
+                break;
+            }
+            case 4: {
+                IntBuffer from = src.asIntBuffer();
+                IntBuffer to = dst.asIntBuffer();
+                for (int i = 0; i < from.limit(); i++)
+                    to.put(i, from.get(i));
+                break;
+            }
+            case 2: {
+                ShortBuffer from = src.asShortBuffer();
+                ShortBuffer to = dst.asShortBuffer();
+                for (int i = 0; i < from.limit(); i++)
+                    to.put(i, from.get(i));
+                break;
+            }
+            default:
+                // single byte elements don't depend on byte order
+        }
+    }
+}
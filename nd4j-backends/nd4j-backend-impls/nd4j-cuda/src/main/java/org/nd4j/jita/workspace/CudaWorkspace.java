@@ -188,6 +188,8 @@ public class CudaWorkspace extends Nd4jWorkspace {
                     return null;
 
                 switch (workspaceConfiguration.getPolicySpill()) {
+                    // chained segments aren't supported for device memory yet, so we fall back to external allocations
+                    case SEGMENTED:
                     case REALLOCATE:
                     case EXTERNAL:
                         if (!trimmer) {
@@ -236,6 +238,8 @@ public class CudaWorkspace extends Nd4jWorkspace {
                 AllocationShape shape = new AllocationShape(requiredMemory / Nd4j.sizeOfDataType(type), Nd4j.sizeOfDataType(type), type);
 
                 switch (workspaceConfiguration.getPolicySpill()) {
+                    // chained segments aren't supported for device memory yet, so we fall back to external allocations
+                    case SEGMENTED:
                     case REALLOCATE:
                     case EXTERNAL:
                         if (!trimmer) {
@@ -64,6 +64,11 @@ public class CudaWorkspaceManager extends BasicWorkspaceManager {
         return workspace;
     }
 
+    @Override
+    protected MemoryWorkspace createPooledWorkspace(@NonNull WorkspaceConfiguration configuration, @NonNull String id, Integer deviceId) {
+        return new CudaWorkspace(configuration, id, deviceId);
+    }
+
     @Override
     public MemoryWorkspace getWorkspaceForCurrentThread(@NonNull WorkspaceConfiguration configuration, @NonNull String id) {
         ensureThreadExistense();
@@ -43,6 +43,7 @@ import org.nd4j.linalg.cpu.nativecpu.complex.ComplexNDArray;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.BaseNDArrayFactory;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.AccumulationUtil;
 import org.nd4j.linalg.util.ArrayUtil;
 import org.nd4j.nativeblas.NativeOps;
 import org.nd4j.nativeblas.NativeOpsHolder;
@@ -61,6 +62,14 @@ import java.util.*;
  */
 @Slf4j
 public class CpuNDArrayFactory extends BaseNDArrayFactory {
+    /*
+        Native accumulate/average kernels are faster than AccumulationUtil for inputs that fit into single chunk,
+        and for many inputs of moderate length. AccumulationUtil wins for longer inputs
+     */
+    protected static final long NATIVE_ACCUMULATION_LENGTH = 8 * 1024;
+    protected static final long NATIVE_ACCUMULATION_LENGTH_MANY_INPUTS = 64 * 1024;
+    protected static final int MANY_INPUTS = 16;
+
     private NativeOps nativeOps = NativeOpsHolder.getInstance().getDeviceNativeOps();
 
     public CpuNDArrayFactory() {}
@@ -657,10 +666,48 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
 
         outputShape[dimension] = sumAlongDim;
 
-        PointerPointer dummy = new PointerPointer(new Pointer[] {null});
-
         INDArray ret = Nd4j.createUninitialized(outputShape, Nd4j.order());
 
+        return nativeConcat(ret, dimension, toConcat, shapeInfoPointers, dataPointers);
+    }
+
+    /**
+     * Concatneate ndarrays along a dimension, into given target array.
+     * Along dimension 0 of c-ordered target inputs are just copied one after another,
+     * otherwise native concat is used, unless target is a view
+     *
+     * @param target    the array to store result into
+     * @param dimension the dimension to concatneate along
+     * @param toConcat  the ndarrays to concateneate
+     * @return target array
+     */
+    @Override
+    public INDArray concat(INDArray target, int dimension, INDArray... toConcat) {
+        int[] outputShape = concatShape(dimension, toConcat);
+        if (!Arrays.equals(outputShape, target.shape()))
+            throw new IllegalArgumentException("Target shape " + Arrays.toString(target.shape())
+                            + " doesn't match concatenated shape " + Arrays.toString(outputShape));
+
+        if ((dimension == 0 && isCompactC(target)) || target.isView() || target.isCompressed())
+            return super.concat(target, dimension, toConcat);
+
+        PointerPointer shapeInfoPointers = new PointerPointer(toConcat.length);
+        PointerPointer dataPointers = new PointerPointer(toConcat.length);
+        for (int i = 0; i < toConcat.length; i++) {
+            if (toConcat[i].isCompressed())
+                Nd4j.getCompressor().decompressi(toConcat[i]);
+
+            shapeInfoPointers.put(i, toConcat[i].shapeInfoDataBuffer().addressPointer());
+            dataPointers.put(i, toConcat[i].data().addressPointer());
+        }
+
+        return nativeConcat(target, dimension, toConcat, shapeInfoPointers, dataPointers);
+    }
+
+    protected INDArray nativeConcat(INDArray ret, int dimension, INDArray[] toConcat, PointerPointer shapeInfoPointers,
+                    PointerPointer dataPointers) {
+        PointerPointer dummy = new PointerPointer(new Pointer[] {null});
+
         if (ret.data().dataType() == DataBuffer.Type.DOUBLE) {
             nativeOps.concatDouble(dummy, dimension, toConcat.length, dataPointers, shapeInfoPointers,
                     (DoublePointer) ret.data().addressPointer(),
@@ -681,7 +728,6 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
             throw new ND4JIllegalStateException("Unknown dataType: " + ret.data().dataType());
         }
         return ret;
-        // return super.concat(dimension,toConcat);
     }
 
     /**
@@ -782,29 +828,33 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
         return ret;
     }
 
+    /**
+     * This method sums given arrays to target. Small inputs, and HALF inputs, are summed by native kernel,
+     * otherwise arrays are processed in cache-sized chunks in parallel, see {@link AccumulationUtil} for details
+     *
+     * @param target
+     * @param arrays
+     * @return
+     */
+    @Override
     public INDArray accumulate(INDArray target, INDArray... arrays) {
+        return accumulate(target, arrays, false);
+    }
 
+    @Override
+    public INDArray accumulate(INDArray target, INDArray[] arrays, boolean propagate) {
         if (arrays == null || arrays.length == 0)
             throw new RuntimeException("Input arrays are missing");
 
+        // native kernel can't propagate sum back to inputs
+        if (propagate || !useNativeAccumulation(target, arrays))
+            return AccumulationUtil.accumulate(target, arrays, propagate);
+
         if (arrays.length == 1)
             return target.addi(arrays[0]);
 
         long len = target.lengthLong();
-
-        PointerPointer dataPointers = new PointerPointer(arrays.length);
-
-        for (int i = 0; i < arrays.length; i++) {
-            Nd4j.getCompressor().autoDecompress(arrays[i]);
-
-            if (arrays[i].elementWiseStride() != 1)
-                throw new ND4JIllegalStateException("Native accumulation is applicable only to continuous INDArrays");
-
-            if (arrays[i].lengthLong() != len)
-                throw new ND4JIllegalStateException("All arrays should have equal length for accumulation");
-
-            dataPointers.put(i, arrays[i].data().addressPointer());
-        }
+        PointerPointer dataPointers = nativePointers(arrays);
 
         if (target.data().dataType() == DataBuffer.Type.DOUBLE) {
             nativeOps.accumulateDouble(null, dataPointers, (DoublePointer) target.data().addressPointer(), arrays.length, len);
@@ -818,7 +868,8 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
     }
 
     /**
-     * This method averages input arrays, and returns averaged array
+     * This method averages input arrays, and returns averaged array.
+     * Averaged array is propagated back to all input arrays
      *
      * @param target
      * @param arrays
@@ -829,24 +880,14 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
         if (arrays == null || arrays.length == 0)
             throw new RuntimeException("Input arrays are missing");
 
+        if (!useNativeAccumulation(target, arrays))
+            return AccumulationUtil.average(target, arrays, true);
+
         if (arrays.length == 1)
             return target.assign(arrays[0]);
 
         long len = target.lengthLong();
-
-        PointerPointer dataPointers = new PointerPointer(arrays.length);
-
-        for (int i = 0; i < arrays.length; i++) {
-            Nd4j.getCompressor().autoDecompress(arrays[i]);
-
-            if (arrays[i].elementWiseStride() != 1)
-                throw new ND4JIllegalStateException("Native averaging is applicable only to continuous INDArrays");
-
-            if (arrays[i].lengthLong() != len)
-                throw new ND4JIllegalStateException("All arrays should have equal length for averaging");
-
-            dataPointers.put(i, arrays[i].data().addressPointer());
-        }
+        PointerPointer dataPointers = nativePointers(arrays);
 
         if (target.data().dataType() == DataBuffer.Type.DOUBLE) {
             nativeOps.averageDouble(null, dataPointers, (DoublePointer) target.data().addressPointer(), arrays.length,
@@ -862,6 +903,43 @@ public class CpuNDArrayFactory extends BaseNDArrayFactory {
         return target;
     }
 
+    /**
+     * This method checks, if native accumulate/average kernel should be used for given arrays:
+     * HALF arrays always go native, FLOAT and DOUBLE arrays only while they're faster there.
+     * Kernels treat buffers as flat, so all arrays should be contiguous, with the same data type and ordering
+     */
+    protected boolean useNativeAccumulation(INDArray target, INDArray[] arrays) {
+        long len = target.lengthLong();
+        DataBuffer.Type type = target.data().dataType();
+        if (target.isCompressed() || target.elementWiseStride() != 1)
+            return false;
+
+        for (INDArray array : arrays) {
+            Nd4j.getCompressor().autoDecompress(array);
+
+            if (array.lengthLong() != len)
+                throw new ND4JIllegalStateException("All arrays should have equal length for accumulation");
+
+            if (array.data().dataType() != type || array.elementWiseStride() != 1
+                            || array.ordering() != target.ordering())
+                return false;
+        }
+
+        if (type == DataBuffer.Type.HALF)
+            return true;
+
+        return len <= NATIVE_ACCUMULATION_LENGTH
+                        || (arrays.length >= MANY_INPUTS && len <= NATIVE_ACCUMULATION_LENGTH_MANY_INPUTS);
+    }
+
+    protected PointerPointer nativePointers(INDArray[] arrays) {
+        PointerPointer dataPointers = new PointerPointer(arrays.length);
+        for (int i = 0; i < arrays.length; i++)
+            dataPointers.put(i, arrays[i].data().addressPointer());
+
+        return dataPointers;
+    }
+
     /**
      * This method averages input arrays, and returns averaged array
      *
@@ -105,6 +105,8 @@ public class CpuWorkspace extends Nd4jWorkspace {
 
         clearPinnedAllocations(extended);
 
+        clearSegments();
+
         if (workspace.getHostPointer() != null)
             NativeOpsHolder.getInstance().getDeviceNativeOps().freeHost(workspace.getHostPointer());
 
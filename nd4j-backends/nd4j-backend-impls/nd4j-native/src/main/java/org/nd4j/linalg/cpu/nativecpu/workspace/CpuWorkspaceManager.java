@@ -63,6 +63,11 @@ public class CpuWorkspaceManager extends BasicWorkspaceManager {
         return workspace;
     }
 
+    @Override
+    protected MemoryWorkspace createPooledWorkspace(@NonNull WorkspaceConfiguration configuration, @NonNull String id, Integer deviceId) {
+        return new CpuWorkspace(configuration, id, deviceId);
+    }
+
     @Override
     public MemoryWorkspace getWorkspaceForCurrentThread(@NonNull WorkspaceConfiguration configuration, @NonNull String id) {
         ensureThreadExistense();
@@ -13,6 +13,7 @@ import org.nd4j.linalg.api.buffer.util.DataTypeUtil;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.util.AccumulationUtil;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -160,6 +161,71 @@ public class AveragingTests extends BaseNd4jTest {
         Nd4j.getAffinityManager().allowCrossDeviceAccess(true);
     }
 
+    @Test
+    public void testAccumulationPropagate() {
+        // spans several chunks, with odd number of inputs and partial last chunk
+        int length = 100003;
+        INDArray[] arrays = new INDArray[9];
+        for (int i = 0; i < arrays.length; i++)
+            arrays[i] = Nd4j.linspace(1, length, length).muli(i + 1);
+
+        INDArray target = Nd4j.valueArrayOf(length, 1.0);
+        INDArray exp = Nd4j.linspace(1, length, length).muli(45).addi(1.0);
+
+        INDArray accum = Nd4j.accumulate(target, arrays, true);
+
+        assertTrue(accum == target);
+        assertEquals(exp, accum);
+        for (INDArray array : arrays)
+            assertEquals(exp, array);
+    }
+
+    @Test
+    public void testAveragingFloat() {
+        DataTypeUtil.setDTypeForContext(DataBuffer.Type.FLOAT);
+
+        INDArray[] arrays = new INDArray[THREADS];
+        for (int i = 0; i < THREADS; i++)
+            arrays[i] = Nd4j.valueArrayOf(new int[] {300, 1000}, i + 1.0);
+
+        INDArray mean = Nd4j.averageAndPropagate(arrays);
+
+        assertEquals(DataBuffer.Type.FLOAT, mean.data().dataType());
+        assertEquals(8.5f, mean.minNumber().floatValue(), 1e-5f);
+        assertEquals(8.5f, mean.maxNumber().floatValue(), 1e-5f);
+        for (INDArray array : arrays)
+            assertEquals(mean, array);
+    }
+
+    @Test
+    public void testAccumulationViews() {
+        // non-contiguous inputs fall back to sequential ops
+        INDArray matrix = Nd4j.linspace(1, 200, 200).reshape(10, 20);
+        INDArray[] columns = new INDArray[] {matrix.getColumn(0).dup(), matrix.getColumn(1), matrix.getColumn(2)};
+        INDArray exp = matrix.getColumn(0).add(matrix.getColumn(1)).addi(matrix.getColumn(2));
+
+        INDArray accum = Nd4j.accumulate(Nd4j.create(10, 1), columns, true);
+
+        assertEquals(exp, accum);
+        assertEquals(exp, matrix.getColumn(2));
+    }
+
+    @Test
+    public void testAccumulationPrecision() {
+        // pairwise sum keeps rounding error of float sum low
+        DataTypeUtil.setDTypeForContext(DataBuffer.Type.FLOAT);
+
+        int numArrays = 4096;
+        INDArray[] arrays = new INDArray[numArrays];
+        for (int i = 0; i < numArrays; i++)
+            arrays[i] = Nd4j.valueArrayOf(16, 0.1);
+
+        // short arrays go to native kernel via Nd4j.accumulate(), so chunked path is called directly
+        INDArray accum = AccumulationUtil.accumulate(Nd4j.create(16), arrays, false);
+
+        assertEquals(409.6, accum.getDouble(3), 1e-3);
+    }
+
     @Override
     public char ordering() {
         return 'c';
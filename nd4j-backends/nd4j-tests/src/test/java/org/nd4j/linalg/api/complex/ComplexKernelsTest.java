@@ -0,0 +1,173 @@
+package org.nd4j.linalg.api.complex;
+
+import org.junit.Test;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ComplexKernelsTest extends BaseNd4jTest {
+
+    public ComplexKernelsTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testScalarOps() {
+        IComplexNumber scalar = Nd4j.createComplexNumber(2, -1);
+        double[] data = randomData(24, 119);
+
+        IComplexNDArray x = complex(data, 3, 4);
+        x.addi(scalar);
+        assertValues(x, data, 2, -1, ComplexKernels.Op.ADD);
+
+        x = complex(data, 3, 4);
+        x.muli(scalar);
+        assertValues(x, data, 2, -1, ComplexKernels.Op.MUL);
+
+        x = complex(data, 3, 4);
+        x.divi(scalar);
+        assertValues(x, data, 2, -1, ComplexKernels.Op.DIV);
+
+        x = complex(data, 3, 4);
+        x.rsubi(scalar);
+        assertValues(x, data, 2, -1, ComplexKernels.Op.RSUB);
+
+        x = complex(data, 3, 4);
+        x.rdivi(scalar);
+        assertValues(x, data, 2, -1, ComplexKernels.Op.RDIV);
+
+        // real scalars go through the same kernels
+        x = complex(data, 3, 4);
+        x.subi(3.0);
+        assertValues(x, data, 3, 0, ComplexKernels.Op.SUB);
+    }
+
+    @Test
+    public void testPairwiseOpsOnViews() {
+        double[] data = randomData(24, 12345);
+        double[] otherData = randomData(24, 119);
+
+        for (ComplexKernels.Op op : ComplexKernels.Op.values()) {
+            IComplexNDArray x = complex(data, 3, 4);
+            IComplexNDArray other = complex(otherData, 3, 4);
+
+            // column views are strided
+            IComplexNDArray column = x.getColumn(1);
+            ComplexKernels.pairwise(column, other.getColumn(2), op, column);
+
+            for (int r = 0; r < 3; r++) {
+                for (int c = 0; c < 4; c++) {
+                    int i = 2 * (r * 4 + c);
+                    int j = 2 * (r * 4 + 2);
+                    double[] expected = c == 1 ? apply(op, data[i], data[i + 1], otherData[j], otherData[j + 1])
+                                    : new double[] {data[i], data[i + 1]};
+
+                    assertEquals(op.name(), expected[0], x.data().getDouble(i), 1e-5);
+                    assertEquals(op.name(), expected[1], x.data().getDouble(i + 1), 1e-5);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRealOperand() {
+        double[] data = randomData(8, 1);
+        IComplexNDArray x = complex(data, 2, 2);
+        INDArray real = Nd4j.create(new double[] {1, 2, 3, 4}, new int[] {2, 2});
+        IComplexNDArray z = Nd4j.createComplex(new int[] {2, 2}, 'c');
+
+        x.muli(real, z);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(data[2 * i] * (i + 1), z.data().getDouble(2 * i), 1e-5);
+            assertEquals(data[2 * i + 1] * (i + 1), z.data().getDouble(2 * i + 1), 1e-5);
+        }
+    }
+
+    @Test
+    public void testReductions() {
+        // long enough to be split into several chunks
+        int length = 100000;
+        double[] data = randomData(2 * length, 42);
+        IComplexNDArray x = complex(data, 100, 1000);
+
+        double sumRe = 0, sumIm = 0, norm1 = 0, norm2 = 0, normmax = 0;
+        for (int i = 0; i < length; i++) {
+            double a = data[2 * i], b = data[2 * i + 1];
+            sumRe += a;
+            sumIm += b;
+            norm1 += Math.hypot(a, b);
+            norm2 += a * a + b * b;
+            normmax = Math.max(normmax, Math.hypot(a, b));
+        }
+
+        IComplexNumber sum = x.sumComplex();
+        assertEquals(sumRe, sum.realComponent().doubleValue(), 1e-2);
+        assertEquals(sumIm, sum.imaginaryComponent().doubleValue(), 1e-2);
+
+        IComplexNumber mean = x.meanComplex();
+        assertEquals(sumRe / length, mean.realComponent().doubleValue(), 1e-6);
+
+        assertEquals(norm1, x.norm1Complex().realComponent().doubleValue(), 1e-1);
+        assertEquals(Math.sqrt(norm2), x.norm2Complex().realComponent().doubleValue(), 1e-2);
+        assertEquals(normmax, x.normmaxComplex().realComponent().doubleValue(), 1e-5);
+
+        INDArray abs = ComplexKernels.abs(x);
+        assertEquals(norm1, abs.sumNumber().doubleValue(), 1e-1);
+
+        // (1 + i) * (1 - i) * 2i = 4i
+        IComplexNDArray small = complex(new double[] {1, 1, 1, -1, 0, 2}, 1, 3);
+        IComplexNumber prod = small.prodComplex();
+        assertEquals(0.0, prod.realComponent().doubleValue(), 1e-6);
+        assertEquals(4.0, prod.imaginaryComponent().doubleValue(), 1e-6);
+    }
+
+    protected static IComplexNDArray complex(double[] interleaved, int rows, int columns) {
+        IComplexNDArray array = Nd4j.createComplex(new int[] {rows, columns}, 'c');
+        for (int i = 0; i < interleaved.length; i++)
+            array.data().put(i, interleaved[i]);
+        return array;
+    }
+
+    protected static double[] randomData(int length, long seed) {
+        Random random = new Random(seed);
+        double[] data = new double[length];
+        for (int i = 0; i < length; i++)
+            data[i] = random.nextDouble() * 2 - 1;
+        return data;
+    }
+
+    protected static double[] apply(ComplexKernels.Op op, double a, double b, double c, double d) {
+        switch (op) {
+            case ADD:
+                return new double[] {a + c, b + d};
+            case SUB:
+                return new double[] {a - c, b - d};
+            case RSUB:
+                return new double[] {c - a, d - b};
+            case MUL:
+                return new double[] {a * c - b * d, a * d + b * c};
+            case DIV:
+                return new double[] {(a * c + b * d) / (c * c + d * d), (b * c - a * d) / (c * c + d * d)};
+            default:
+                return new double[] {(c * a + d * b) / (a * a + b * b), (d * a - c * b) / (a * a + b * b)};
+        }
+    }
+
+    protected static void assertValues(IComplexNDArray x, double[] source, double c, double d, ComplexKernels.Op op) {
+        for (int i = 0; i < source.length; i += 2) {
+            double[] expected = apply(op, source[i], source[i + 1], c, d);
+            assertEquals(op.name(), expected[0], x.data().getDouble(i), 1e-5);
+            assertEquals(op.name(), expected[1], x.data().getDouble(i + 1), 1e-5);
+        }
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
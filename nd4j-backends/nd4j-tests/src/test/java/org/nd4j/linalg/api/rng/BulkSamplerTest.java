@@ -0,0 +1,118 @@
+package org.nd4j.linalg.api.rng;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.rng.distribution.BulkSampler;
+import org.nd4j.linalg.api.rng.distribution.impl.BinomialDistribution;
+import org.nd4j.linalg.api.rng.distribution.impl.NormalDistribution;
+import org.nd4j.linalg.api.rng.distribution.impl.UniformDistribution;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.ops.transforms.Transforms;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class BulkSamplerTest extends BaseNd4jTest {
+
+    public BulkSamplerTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testNormal() {
+        // DefaultRandom has no state pointer, so bulk sampler is used
+        INDArray samples = new NormalDistribution(new DefaultRandom(119), 3.0, 2.0).sample(new int[] {100, 1000});
+
+        assertArrayEquals(new int[] {100, 1000}, samples.shape());
+        assertEquals(3.0, samples.meanNumber().doubleValue(), 0.02);
+        assertEquals(2.0, samples.stdNumber().doubleValue(), 0.02);
+
+        INDArray means = Nd4j.linspace(1, 20000, 20000).reshape(200, 100);
+        INDArray shifted = new NormalDistribution(new DefaultRandom(119), 0.1, means).sample(new int[] {200, 100});
+        INDArray noise = shifted.sub(means);
+        assertEquals(0.0, noise.meanNumber().doubleValue(), 0.01);
+        assertEquals(0.1, noise.stdNumber().doubleValue(), 0.01);
+    }
+
+    @Test
+    public void testUniform() {
+        INDArray samples = new UniformDistribution(new DefaultRandom(42), -2.0, 6.0).sample(new int[] {1, 100000});
+
+        assertEquals(2.0, samples.meanNumber().doubleValue(), 0.05);
+        assertTrue(samples.minNumber().doubleValue() >= -2.0);
+        assertTrue(samples.maxNumber().doubleValue() < 6.0);
+    }
+
+    @Test
+    public void testBinomial() {
+        // inversion, BTPE, and mirrored BTPE
+        int[] trials = {10, 1000, 1000};
+        double[] probabilities = {0.3, 0.4, 0.9};
+
+        for (int i = 0; i < trials.length; i++) {
+            int n = trials[i];
+            double p = probabilities[i];
+            INDArray samples = new BinomialDistribution(new PhiloxRandom(i), n, p).sample(new int[] {1, 100000});
+
+            double mean = n * p;
+            double std = Math.sqrt(n * p * (1 - p));
+            assertEquals(mean, samples.meanNumber().doubleValue(), 0.02 * std);
+            assertEquals(std, samples.stdNumber().doubleValue(), 0.02 * std);
+            assertTrue(samples.minNumber().doubleValue() >= 0);
+            assertTrue(samples.maxNumber().doubleValue() <= n);
+            assertEquals(samples, Transforms.floor(samples, true));
+        }
+
+        INDArray p = Nd4j.create(new double[] {0.0, 1.0, 0.5, 0.5}, new int[] {2, 2});
+        INDArray edges = BulkSampler.binomial(new DefaultRandom(1), new int[] {2, 2}, 5, 0.5, p);
+        assertEquals(0.0, edges.getDouble(0, 0), 0.0);
+        assertEquals(5.0, edges.getDouble(0, 1), 0.0);
+    }
+
+    @Test
+    public void testReproducibleAndOrderIndependent() {
+        int[] shape = {50, 1000};
+
+        INDArray first = new NormalDistribution(new DefaultRandom(7), 0.0, 1.0).sample(shape);
+        INDArray second = new NormalDistribution(new DefaultRandom(7), 0.0, 1.0).sample(shape);
+        assertEquals(first, second);
+
+        INDArray other = new NormalDistribution(new DefaultRandom(8), 0.0, 1.0).sample(shape);
+        assertNotEquals(first, other);
+
+        char order = Nd4j.order();
+        try {
+            Nd4j.factory().setOrder('f');
+            INDArray fortran = new NormalDistribution(new DefaultRandom(7), 0.0, 1.0).sample(shape);
+            assertEquals('f', fortran.ordering());
+            assertEquals(first, fortran);
+        } finally {
+            Nd4j.factory().setOrder(order);
+        }
+    }
+
+    @Test
+    public void testParametersShape() {
+        INDArray means = Nd4j.create(new double[] {10, 20, 30, 40, 50, 60}, new int[] {2, 3});
+
+        // transposed parameters are read in c order of their own shape
+        INDArray samples = BulkSampler.normal(new DefaultRandom(1), new int[] {3, 2}, 0.0, 1e-6, means.transpose());
+        assertEquals(means.transpose(), samples);
+
+        try {
+            BulkSampler.normal(new DefaultRandom(1), new int[] {3, 2}, 0.0, 1.0, means);
+            fail("Parameters of the same length, but different shape, should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -0,0 +1,148 @@
+package org.nd4j.linalg.api.rng;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class PhiloxRandomTest extends BaseNd4jTest {
+
+    public PhiloxRandomTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testKnownAnswers() {
+        // Random123 known-answer vectors for philox4x32-10
+        int[] out = new int[4];
+        PhiloxRandom.generate(0L, 0L, 0L, out);
+        assertArrayEquals(new int[] {0x6627e8d5, 0xe169c58d, 0xbc57ac4c, 0x9b00dbd8}, out);
+
+        PhiloxRandom.generate(-1L, -1L, -1L, out);
+        assertArrayEquals(new int[] {0x408f276d, 0x41c83b0e, 0xa20bc7c6, 0x6d5451fd}, out);
+
+        PhiloxRandom.generate(0x299f31d0a4093822L, 0x0370734413198a2eL, 0x85a308d3243f6a88L, out);
+        assertArrayEquals(new int[] {0xd16cfe09, 0x94fdcceb, 0x5001e420, 0x24126ea1}, out);
+    }
+
+    @Test
+    public void testReproducibility() {
+        PhiloxRandom first = new PhiloxRandom(119);
+        PhiloxRandom second = new PhiloxRandom(119);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.nextLong(), second.nextLong());
+            assertEquals(first.nextDouble(), second.nextDouble(), 0.0);
+            assertEquals(first.nextGaussian(), second.nextGaussian(), 0.0);
+        }
+
+        first.setSeed(42);
+        second.setSeed(42);
+        assertEquals(first.nextDouble(new int[] {10, 10}), second.nextDouble(new int[] {10, 10}));
+
+        // jump skips exactly one block per scalar call
+        PhiloxRandom skipped = new PhiloxRandom(7);
+        PhiloxRandom stepped = new PhiloxRandom(7);
+        skipped.jump(5);
+        for (int i = 0; i < 5; i++)
+            stepped.nextInt();
+        assertEquals(stepped.nextLong(), skipped.nextLong());
+    }
+
+    @Test
+    public void testBulkFillIsIndependentOfChunking() {
+        PhiloxRandom random = new PhiloxRandom(12345);
+
+        // long enough for several parallel chunks
+        int length = 3 * PhiloxRandom.CHUNK_LENGTH + 17;
+        INDArray uniform = random.nextDouble(new int[] {1, length});
+        INDArray gaussian = random.nextGaussian(new int[] {1, length});
+
+        // same values, generated block by block
+        PhiloxRandom reference = new PhiloxRandom(12345);
+        long uniformBlock = 0;
+        long gaussianBlock = (length + 1) / 2;
+        int[] block = new int[4];
+        for (int i = 0; i < length; i += 997) {
+            PhiloxRandom.generate(reference.getSeed(), 0L, uniformBlock + i / 2, block);
+            assertEquals(PhiloxRandom.value(PhiloxRandom.Kind.DOUBLE, block, i % 2, 0), uniform.getDouble(i), 1e-6);
+
+            PhiloxRandom.generate(reference.getSeed(), 0L, gaussianBlock + i / 2, block);
+            assertEquals(PhiloxRandom.value(PhiloxRandom.Kind.GAUSSIAN, block, i % 2, 0), gaussian.getDouble(i),
+                            1e-5);
+        }
+
+        assertEquals(0.5, uniform.meanNumber().doubleValue(), 0.01);
+        assertTrue(uniform.minNumber().doubleValue() >= 0.0);
+        assertTrue(uniform.maxNumber().doubleValue() < 1.0);
+
+        assertEquals(0.0, gaussian.meanNumber().doubleValue(), 0.01);
+        assertEquals(1.0, gaussian.stdNumber().doubleValue(), 0.01);
+
+        INDArray ints = random.nextInt(10, new int[] {1, 10000});
+        assertEquals(0.0, ints.minNumber().doubleValue(), 0.0);
+        assertEquals(9.0, ints.maxNumber().doubleValue(), 0.0);
+    }
+
+    @Test
+    public void testSplitStreams() {
+        PhiloxRandom parent = new PhiloxRandom(1);
+        PhiloxRandom child1 = parent.split();
+        PhiloxRandom child2 = parent.split();
+
+        assertNotEquals(child1.getStream(), child2.getStream());
+        assertNotEquals(parent.getStream(), child1.getStream());
+
+        Set<Long> values = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(parent.nextLong());
+            values.add(child1.nextLong());
+            values.add(child2.nextLong());
+        }
+        assertEquals(3000, values.size());
+
+        // explicit stream ids are reproducible
+        assertEquals(new PhiloxRandom(1).split(99).nextLong(), new PhiloxRandom(1, 99).nextLong());
+    }
+
+    @Test
+    public void testConcurrentScalarCalls() throws Exception {
+        final PhiloxRandom random = new PhiloxRandom(5);
+        final Set<Long> values = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+        final int perThread = 10000;
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < perThread; i++)
+                        values.add(random.nextLong());
+                }
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        // every call got its own block
+        assertEquals(threads.length * perThread, random.getCounter());
+        assertEquals(threads.length * perThread, values.size());
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
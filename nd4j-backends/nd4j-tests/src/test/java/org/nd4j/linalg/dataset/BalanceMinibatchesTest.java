@@ -1,29 +1,40 @@
 package org.nd4j.linalg.dataset;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.TestDataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 
 import java.io.File;
 import java.lang.reflect.Array;
 import java.util.*;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
  * Created by agibsonccc on 6/24/16.
  */
 public class BalanceMinibatchesTest extends BaseNd4jTest {
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
     public BalanceMinibatchesTest(Nd4jBackend backend) {
         super(backend);
     }
 
     @Test
-    public void testBalance() {
+    public void testBalance() throws Exception {
         DataSetIterator iterator = new IrisDataSetIterator(10, 150);
         BalanceMinibatches balanceMinibatches = BalanceMinibatches.builder().dataSetIterator(iterator).miniBatchSize(10)
-                        .numLabels(3).rootDir(new File("minibatches")).rootSaveDir(new File("minibatchessave")).build();
+                        .numLabels(3).rootDir(testDir.newFolder("minibatches"))
+                        .rootSaveDir(testDir.newFolder("minibatchessave")).build();
         balanceMinibatches.balance();
         DataSetIterator balanced = new ExistingMiniBatchDataSetIterator(balanceMinibatches.getRootSaveDir());
         while (balanced.hasNext()) {
@@ -33,12 +44,13 @@ public class BalanceMinibatchesTest extends BaseNd4jTest {
     }
 
     @Test
-    public void testMiniBatchBalanced() {
+    public void testMiniBatchBalanced() throws Exception {
 
         int miniBatchSize = 100;
         DataSetIterator iterator = new IrisDataSetIterator(miniBatchSize, 150);
         BalanceMinibatches balanceMinibatches = BalanceMinibatches.builder().dataSetIterator(iterator).miniBatchSize(miniBatchSize)
-                .numLabels(iterator.totalOutcomes()).rootDir(new File("minibatches")).rootSaveDir(new File("minibatchessave")).build();
+                .numLabels(iterator.totalOutcomes()).rootDir(testDir.newFolder("minibatches"))
+                .rootSaveDir(testDir.newFolder("minibatchessave")).build();
         balanceMinibatches.balance();
         DataSetIterator balanced = new ExistingMiniBatchDataSetIterator(balanceMinibatches.getRootSaveDir());
 
@@ -79,6 +91,95 @@ public class BalanceMinibatchesTest extends BaseNd4jTest {
 
 
 
+    @Test
+    public void testStreamingWithSpills() throws Exception {
+        // imbalanced labels, example id stored in the first feature
+        int numExamples = 1000;
+        INDArray features = Nd4j.create(numExamples, 2);
+        INDArray labels = Nd4j.create(numExamples, 3);
+        List<List<Integer>> expected = new ArrayList<>();
+        for (int l = 0; l < 3; l++)
+            expected.add(new ArrayList<Integer>());
+
+        for (int i = 0; i < numExamples; i++) {
+            int label = i % 7 == 0 ? 0 : i % 3 == 0 ? 1 : 2;
+            features.putScalar(i, 0, i);
+            features.putScalar(i, 1, 2 * i);
+            labels.putScalar(i, label, 1.0);
+            expected.get(label).add(i);
+        }
+
+        File root = testDir.newFolder("balance");
+
+        // tiny memory budget, so every label chunk goes through segment files
+        BalanceMinibatches balancer = BalanceMinibatches.builder()
+                        .dataSetIterator(new TestDataSetIterator(new DataSet(features, labels), 20)).numLabels(3)
+                        .miniBatchSize(32).rootDir(root).memoryBudget(1).build();
+
+        DataSetIterator balanced = balancer.iterator();
+        int[] next = new int[3];
+        int total = 0;
+        while (balanced.hasNext()) {
+            DataSet batch = balanced.next();
+
+            // rounds over labels with examples left, until minibatch is full
+            List<Integer> batchIds = new ArrayList<>();
+            while (batchIds.size() < 32 && next[0] + next[1] + next[2] < numExamples)
+                for (int l = 0; l < 3; l++)
+                    if (next[l] < expected.get(l).size())
+                        batchIds.add(expected.get(l).get(next[l]++));
+
+            assertEquals(batchIds.size(), batch.numExamples());
+            for (int i = 0; i < batchIds.size(); i++) {
+                int id = batchIds.get(i);
+                assertEquals(id, batch.getFeatures().getDouble(i, 0), 0.0);
+                assertEquals(2.0 * id, batch.getFeatures().getDouble(i, 1), 0.0);
+                assertEquals(labels.getRow(id), batch.getLabels().getRow(i));
+            }
+            total += batch.numExamples();
+        }
+
+        assertEquals(numExamples, total);
+
+        // consumed segments are removed
+        File[] left = root.listFiles();
+        assertTrue(left == null || left.length == 0);
+
+        // reset starts new pass over source
+        balanced.reset();
+        assertTrue(balanced.hasNext());
+        assertEquals(33, balanced.next().numExamples());
+        while (balanced.hasNext())
+            balanced.next();
+    }
+
+    @Test
+    public void testCloseAbandoned() throws Exception {
+        INDArray features = Nd4j.linspace(1, 200, 200).reshape(100, 2);
+        INDArray labels = Nd4j.create(100, 2);
+        for (int i = 0; i < 100; i++)
+            labels.putScalar(i, i % 2, 1.0);
+
+        File root = testDir.newFolder("balance");
+
+        // minibatch size isn't set, so it's inferred from the first DataSet
+        BalanceMinibatches balancer = BalanceMinibatches.builder()
+                        .dataSetIterator(new TestDataSetIterator(new DataSet(features, labels), 20)).numLabels(2)
+                        .rootDir(root).memoryBudget(1).build();
+
+        BalanceMinibatches.BalancedIterator balanced = balancer.iterator();
+        assertEquals(20, balanced.batch());
+        assertEquals(20, balanced.next().numExamples());
+
+        // iteration is abandoned: background thread is stopped and segment files are removed
+        balanced.close();
+
+        File[] left = root.listFiles();
+        assertTrue(left == null || left.length == 0);
+        for (Thread thread : Thread.getAllStackTraces().keySet())
+            assertFalse(thread.getName().equals("BalanceMinibatches-bucketing") && thread.isAlive());
+    }
+
     /**
      * The ordering for this test
      * This test will only be invoked for
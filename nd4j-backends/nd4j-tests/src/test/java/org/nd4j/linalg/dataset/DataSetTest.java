@@ -814,6 +814,62 @@ public class DataSetTest extends BaseNd4jTest {
     }
 
 
+    @Test
+    public void testBatchBy() {
+        DataSet ds = new DataSet(Nd4j.rand(10, 4), Nd4j.rand(10, 3));
+        INDArray features = ds.getFeatures().dup();
+
+        List<DataSet> batches = ds.batchBy(3);
+        assertEquals(4, batches.size());
+        assertEquals(batches, ds.dataSetBatches(3));
+
+        // batches are copies, so they don't see changes of original dataset
+        ds.getFeatures().assign(0.0);
+        for (int i = 0; i < 4; i++) {
+            DataSet batch = batches.get(i);
+            int end = Math.min(10, i * 3 + 3);
+            assertEquals(end - i * 3, batch.numExamples());
+            assertFalse(batch.getFeatures().isView());
+            assertEquals(features.get(interval(i * 3, end), all()), batch.getFeatures());
+            assertEquals(ds.getLabels().get(interval(i * 3, end), all()), batch.getLabels());
+        }
+    }
+
+    @Test
+    public void testBatchByViews() {
+        DataSet ds = new DataSet(Nd4j.rand(10, 4), Nd4j.rand(10, 3));
+
+        List<DataSet> batches = ds.batchByViews(3);
+        assertEquals(4, batches.size());
+        for (int i = 0; i < 4; i++) {
+            DataSet batch = batches.get(i);
+            int end = Math.min(10, i * 3 + 3);
+            assertEquals(end - i * 3, batch.numExamples());
+            assertTrue(batch.getFeatures().isView());
+            assertEquals(ds.getFeatures().get(interval(i * 3, end), all()), batch.getFeatures());
+            assertEquals(ds.getLabels().get(interval(i * 3, end), all()), batch.getLabels());
+        }
+
+        assertEquals(batches, ds.batchBy(3));
+    }
+
+    @Test
+    public void testSampleWithoutReplacement() {
+        INDArray features = Nd4j.linspace(1, 10, 10).reshape(10, 1);
+        DataSet ds = new DataSet(features, features.dup());
+
+        DataSet sample = ds.sample(10, false);
+        assertEquals(10, sample.numExamples());
+        assertEquals(sample.getFeatures(), sample.getLabels());
+
+        // every example picked exactly once
+        assertEquals(55.0, sample.getFeatures().sumNumber().doubleValue(), 1e-5);
+        Set<Double> values = new HashSet<>();
+        for (int i = 0; i < 10; i++)
+            values.add(sample.getFeatures().getDouble(i));
+        assertEquals(10, values.size());
+    }
+
     @Override
     public char ordering() {
         return 'f';
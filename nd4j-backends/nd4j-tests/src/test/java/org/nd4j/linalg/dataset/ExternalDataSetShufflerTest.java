@@ -0,0 +1,196 @@
+package org.nd4j.linalg.dataset;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.io.File;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class ExternalDataSetShufflerTest extends BaseNd4jTest {
+    private File root;
+
+    public ExternalDataSetShufflerTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Before
+    public void setUp() {
+        root = new File(System.getProperty("java.io.tmpdir"), "shuffler-" + UUID.randomUUID().toString());
+        root.mkdirs();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(root);
+    }
+
+    /**
+     * Each example has its own index in all feature columns, and in the first label column
+     */
+    protected DataSet indexedDataSet(int numExamples, int numColumns) {
+        INDArray features = Nd4j.create(numExamples, numColumns);
+        INDArray labels = Nd4j.create(numExamples, 2);
+        for (int i = 0; i < numExamples; i++) {
+            features.getRow(i).assign(i);
+            labels.putScalar(i, 0, i);
+            labels.putScalar(i, 1, -i);
+        }
+
+        return new DataSet(features, labels);
+    }
+
+    @Test
+    public void testMiniBatchFileWriter1() throws Exception {
+        DataSet dataSet = indexedDataSet(103, 5);
+        File directory = new File(root, "batches");
+
+        MiniBatchFileWriter writer = new MiniBatchFileWriter(directory, 10, 2);
+        // chunks of uneven size, to make sure examples are carried over between calls
+        writer.write((DataSet) dataSet.getRange(0, 7));
+        writer.write((DataSet) dataSet.getRange(7, 40));
+        writer.write((DataSet) dataSet.getRange(40, 103));
+        writer.close();
+
+        assertEquals(11, writer.getNumberOfBatches());
+        assertEquals(103, writer.getNumberOfExamples());
+
+        ExistingMiniBatchDataSetIterator iterator = new ExistingMiniBatchDataSetIterator(directory);
+        int cnt = 0;
+        while (iterator.hasNext()) {
+            DataSet batch = iterator.next();
+            assertEquals(cnt < 100 ? 10 : 3, batch.numExamples());
+            for (int i = 0; i < batch.numExamples(); i++)
+                assertEquals(cnt++, batch.getFeatures().getDouble(i, 0), 1e-5);
+        }
+
+        assertEquals(103, cnt);
+    }
+
+    @Test
+    public void testMiniBatchFileWriter3() throws Exception {
+        DataSet dataSet = indexedDataSet(25, 5);
+        File directory = new File(root, "batches");
+
+        // same DataSet instance is reused by caller between calls, as iterators with preallocated arrays do
+        DataSet reused = indexedDataSet(5, 5);
+        MiniBatchFileWriter writer = new MiniBatchFileWriter(directory, 10, 2);
+        for (int i = 0; i < 5; i++) {
+            reused.getFeatures().assign(dataSet.getRange(i * 5, i * 5 + 5).getFeatures());
+            reused.getLabels().assign(dataSet.getRange(i * 5, i * 5 + 5).getLabels());
+            writer.write((DataSet) reused.getRange(0, 5));
+            // whatever was handed over to writer, can't be affected anymore
+            reused.getFeatures().assign(-1.0);
+        }
+        writer.close();
+
+        assertEquals(3, writer.getNumberOfBatches());
+
+        ExistingMiniBatchDataSetIterator iterator = new ExistingMiniBatchDataSetIterator(directory);
+        int cnt = 0;
+        while (iterator.hasNext()) {
+            DataSet batch = iterator.next();
+            for (int i = 0; i < batch.numExamples(); i++) {
+                assertEquals(cnt, batch.getFeatures().getDouble(i, 0), 1e-5);
+                assertEquals(cnt++, batch.getLabels().getDouble(i, 0), 1e-5);
+            }
+        }
+
+        assertEquals(25, cnt);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMiniBatchFileWriter2() throws Exception {
+        File directory = new File(root, "batches");
+        directory.mkdirs();
+        new File(directory, "something.txt").createNewFile();
+
+        new MiniBatchFileWriter(directory, 10);
+    }
+
+    @Test
+    public void testExternalShuffle1() throws Exception {
+        int numExamples = 1000;
+        DataSet dataSet = indexedDataSet(numExamples, 16);
+
+        // budget allows ~100 examples per buffer, so partitions are spilled many times and split again on gather
+        ExternalDataSetShuffler shuffler = ExternalDataSetShuffler.builder().outputDirectory(new File(root, "output"))
+                        .tempDirectory(root).batchSize(32).numPartitions(4).numWriters(3)
+                        .memoryBudget(2 * 100 * 18 * 4).seed(119).build();
+
+        ExistingMiniBatchDataSetIterator iterator = shuffler.shuffle(new ViewIterator(dataSet, 50));
+
+        boolean[] seen = new boolean[numExamples];
+        int cnt = 0;
+        int inPlace = 0;
+        int batches = 0;
+        while (iterator.hasNext()) {
+            DataSet batch = iterator.next();
+            batches++;
+            if (iterator.hasNext())
+                assertEquals(32, batch.numExamples());
+
+            for (int i = 0; i < batch.numExamples(); i++) {
+                int idx = (int) batch.getFeatures().getDouble(i, 0);
+                assertFalse("Example " + idx + " was seen twice", seen[idx]);
+                seen[idx] = true;
+
+                assertEquals(idx, batch.getFeatures().getDouble(i, 15), 1e-5);
+                assertEquals(idx, batch.getLabels().getDouble(i, 0), 1e-5);
+                assertEquals(-idx, batch.getLabels().getDouble(i, 1), 1e-5);
+
+                if (idx == cnt)
+                    inPlace++;
+                cnt++;
+            }
+        }
+
+        assertEquals(numExamples, cnt);
+        assertEquals(32, batches);
+        assertTrue("Too many examples kept their position: " + inPlace, inPlace < 50);
+
+        // only output directory should be left
+        assertArrayEquals(new String[] {"output"}, root.list());
+    }
+
+    @Test
+    public void testExternalShuffle2() throws Exception {
+        DataSet dataSet = indexedDataSet(300, 4);
+
+        File output1 = new File(root, "output1");
+        File output2 = new File(root, "output2");
+
+        ExistingMiniBatchDataSetIterator first = ExternalDataSetShuffler.builder().outputDirectory(output1)
+                        .tempDirectory(root).batchSize(25).numPartitions(3).seed(12345).build()
+                        .shuffle(new ViewIterator(dataSet, 60));
+        ExistingMiniBatchDataSetIterator second = ExternalDataSetShuffler.builder().outputDirectory(output2)
+                        .tempDirectory(root).batchSize(25).numPartitions(3).seed(12345).build()
+                        .shuffle(new ViewIterator(dataSet, 60));
+
+        // same seed gives the same order
+        int batches = 0;
+        while (first.hasNext()) {
+            assertTrue(second.hasNext());
+            assertEquals(first.next(), second.next());
+            batches++;
+        }
+
+        assertFalse(second.hasNext());
+        assertEquals(12, batches);
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
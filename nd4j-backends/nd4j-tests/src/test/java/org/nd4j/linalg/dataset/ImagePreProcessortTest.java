@@ -6,10 +6,16 @@ import org.junit.runners.Parameterized;
 import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.dataset.api.preprocessor.ImagePreProcessingScaler;
+import org.nd4j.linalg.dataset.api.preprocessor.QuantizedImageTransform;
+import org.nd4j.linalg.dataset.api.preprocessor.VGG16ImagePreProcessor;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 import org.nd4j.linalg.ops.transforms.Transforms;
 
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -74,6 +80,73 @@ public class ImagePreProcessortTest extends BaseNd4jTest {
 
     }
 
+    @Test
+    public void testQuantizedImageScaler() {
+        int n = 5, c = 3, h = 17, w = 23;
+        byte[] nchw = new byte[n * c * h * w];
+        new Random(119).nextBytes(nchw);
+        INDArray pixels = pixelsOf(nchw, new int[] {n, c, h, w});
+        byte[] nhwc = bytesOf(pixels.permute(0, 2, 3, 1));
+
+        ImagePreProcessingScaler scaler = new ImagePreProcessingScaler(-1, 1);
+        INDArray expected = pixels.dup();
+        scaler.transform(expected);
+
+        INDArray fromNCHW = scaler.preProcess(nchw, new int[] {n, c, h, w}, QuantizedImageTransform.Layout.NCHW);
+        INDArray fromNHWC = scaler.preProcess(nhwc, new int[] {n, h, w, c}, QuantizedImageTransform.Layout.NHWC);
+        assertArrayEquals(new int[] {n, c, h, w}, fromNCHW.shape());
+        assertArrayEquals(new int[] {n, c, h, w}, fromNHWC.shape());
+        assertTrue(Transforms.abs(fromNCHW.sub(expected)).maxNumber().doubleValue() <= 1e-5);
+        assertTrue(Transforms.abs(fromNHWC.sub(expected)).maxNumber().doubleValue() <= 1e-5);
+
+        // buffer position is respected, and layout can be changed on the way
+        ByteBuffer buffer = ByteBuffer.allocateDirect(nchw.length + 7);
+        buffer.position(7);
+        buffer.put(nchw);
+        buffer.position(7);
+        INDArray permuted = scaler.preProcess(buffer, new int[] {n, c, h, w}, QuantizedImageTransform.Layout.NCHW,
+                        QuantizedImageTransform.Layout.NHWC);
+        assertEquals(7, buffer.position());
+        assertArrayEquals(new int[] {n, h, w, c}, permuted.shape());
+        assertTrue(Transforms.abs(permuted.sub(expected.permute(0, 2, 3, 1))).maxNumber().doubleValue() <= 1e-5);
+    }
+
+    @Test
+    public void testQuantizedVGG16() {
+        int n = 2, c = 3, h = 9, w = 4;
+        byte[] nhwc = new byte[n * c * h * w];
+        new Random(12345).nextBytes(nhwc);
+        INDArray pixels = pixelsOf(nhwc, new int[] {n, h, w, c}).permute(0, 3, 1, 2).dup('c');
+
+        VGG16ImagePreProcessor preProcessor = new VGG16ImagePreProcessor();
+        INDArray expected = pixels.dup();
+        preProcessor.transform(expected);
+
+        INDArray features = preProcessor.preProcess(nhwc, new int[] {n, h, w, c}, QuantizedImageTransform.Layout.NHWC);
+        assertArrayEquals(new int[] {n, c, h, w}, features.shape());
+        assertTrue(Transforms.abs(features.sub(expected)).maxNumber().doubleValue() <= 1e-4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQuantizedTooShort() {
+        new ImagePreProcessingScaler().preProcess(new byte[10], new int[] {1, 3, 2, 2}, QuantizedImageTransform.Layout.NCHW);
+    }
+
+    protected static INDArray pixelsOf(byte[] bytes, int[] shape) {
+        INDArray array = Nd4j.create(shape, 'c');
+        for (int i = 0; i < bytes.length; i++)
+            array.putScalar(i, bytes[i] & 0xFF);
+        return array;
+    }
+
+    protected static byte[] bytesOf(INDArray pixels) {
+        INDArray linear = pixels.dup('c');
+        byte[] bytes = new byte[linear.length()];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = (byte) linear.data().getInt(i);
+        return bytes;
+    }
+
     @Override
     public char ordering() {
         return 'c';
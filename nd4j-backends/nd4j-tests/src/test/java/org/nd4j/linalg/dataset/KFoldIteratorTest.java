@@ -5,11 +5,16 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.dataset.api.iterator.KFoldIterator;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
 
-import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
 
 /**
  * Created by susaneraly on 11/4/16.
@@ -87,6 +92,101 @@ public class KFoldIteratorTest extends BaseNd4jTest {
         assertEquals(i, 2);
     }
 
+    @Test
+    public void checkTrainIterator() {
+        randomDataSet randomDS = new randomDataSet(new int[] {2, 3}, new int[] {3, 3, 3, 2});
+        DataSet allData = randomDS.getAllFolds();
+        KFoldIterator kiter = new KFoldIterator(4, allData);
+        int i = 0;
+        while (kiter.hasNext()) {
+            DataSet now = kiter.next();
+
+            List<INDArray> features = new ArrayList<>();
+            List<INDArray> labels = new ArrayList<>();
+            DataSetIterator trainIter = kiter.trainIterator(2);
+            while (trainIter.hasNext()) {
+                DataSet batch = trainIter.next();
+                features.add(batch.getFeatures().dup());
+                labels.add(batch.getLabels().dup());
+            }
+
+            assertEquals(randomDS.getFoldbutk(i, true), Nd4j.concat(0, features.toArray(new INDArray[0])));
+            assertEquals(randomDS.getFoldbutk(i, false), Nd4j.concat(0, labels.toArray(new INDArray[0])));
+            assertEquals(now.getFeatures(), Nd4j.concat(0, features.toArray(new INDArray[0])));
+            i++;
+        }
+        assertEquals(4, i);
+    }
+
+    @Test
+    public void checkViews() {
+        randomDataSet randomDS = new randomDataSet(new int[] {2, 3}, new int[] {3, 3, 3, 2});
+        DataSet allData = randomDS.getAllFolds();
+        KFoldIterator kiter = new KFoldIterator(4, allData);
+
+        // first fold held out, so train folds are contiguous
+        DataSet now = kiter.next();
+        assertTrue(now.getFeatures().isView());
+        assertTrue(kiter.testFold().getFeatures().isView());
+
+        DataSet batch = kiter.trainIterator(4).next();
+        assertTrue(batch.getFeatures().isView());
+        assertEquals(allData.getFeatures().get(NDArrayIndex.interval(3, 7)), batch.getFeatures());
+    }
+
+    @Test
+    public void checkSourceIsolation() {
+        randomDataSet randomDS = new randomDataSet(new int[] {2, 3}, new int[] {3, 3, 3, 2});
+        DataSet allData = randomDS.getAllFolds();
+        KFoldIterator kiter = new KFoldIterator(4, allData);
+
+        // folds are built from the iterator's own copy of the data
+        allData.getFeatures().assign(0.0);
+
+        int i = 0;
+        while (kiter.hasNext()) {
+            DataSet now = kiter.next();
+            assertEquals(randomDS.getFoldbutk(i, true), now.getFeatures());
+            assertEquals(randomDS.getfoldK(i, true), kiter.testFold().getFeatures());
+            i++;
+        }
+        assertEquals(4, i);
+    }
+
+    @Test
+    public void checkShuffledFolds() {
+        randomDataSet randomDS = new randomDataSet(new int[] {2, 3}, new int[] {3, 3, 3, 2});
+        DataSet allData = randomDS.getAllFolds();
+        INDArray original = allData.getFeatures().dup();
+
+        KFoldIterator kiter = new KFoldIterator(4, allData);
+        kiter.reset();
+
+        double testSum = 0.0;
+        int i = 0;
+        while (kiter.hasNext()) {
+            DataSet now = kiter.next();
+            DataSet test = kiter.testFold();
+            assertEquals(allData.numExamples(), now.numExamples() + test.numExamples());
+            assertEquals(original.sumNumber().doubleValue(),
+                            now.getFeatures().sumNumber().doubleValue() + test.getFeatures().sumNumber().doubleValue(), 1e-3);
+            testSum += test.getFeatures().sumNumber().doubleValue();
+
+            List<INDArray> features = new ArrayList<>();
+            DataSetIterator trainIter = kiter.trainIterator(3);
+            while (trainIter.hasNext())
+                features.add(trainIter.next().getFeatures().dup());
+
+            assertEquals(now.getFeatures(), Nd4j.concat(0, features.toArray(new INDArray[0])));
+            i++;
+        }
+
+        // every example is held out exactly once, and original data is intact
+        assertEquals(4, i);
+        assertEquals(original.sumNumber().doubleValue(), testSum, 1e-3);
+        assertEquals(original, allData.getFeatures());
+    }
+
     public class randomDataSet {
         //only one label
         private int[] dataShape;
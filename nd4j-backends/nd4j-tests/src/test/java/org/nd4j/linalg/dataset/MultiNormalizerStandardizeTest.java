@@ -6,11 +6,14 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastDivOp;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastSubOp;
 import org.nd4j.linalg.dataset.api.iterator.MultiDataSetIterator;
 import org.nd4j.linalg.dataset.api.iterator.TestMultiDataSetIterator;
 import org.nd4j.linalg.dataset.api.preprocessor.MultiNormalizerStandardize;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.ops.transforms.Transforms;
 
 import static org.junit.Assert.*;
@@ -132,6 +135,60 @@ public class MultiNormalizerStandardizeTest extends BaseNd4jTest {
         assertEquals(2f, SUT.getLabelMean(0).getFloat(0), 1e-6);
     }
 
+    @Test
+    public void testManyArraysConcurrently() {
+        // mix of ranks, orders and views, so both fused and broadcast paths are exercised
+        INDArray[] features = new INDArray[] {Nd4j.rand(300, 17), Nd4j.rand('f', 300, 5), Nd4j.rand(new int[] {300, 3, 7}),
+                        Nd4j.rand(new int[] {300, 2, 4, 4}), Nd4j.rand(600, 9).get(NDArrayIndex.interval(100, 400), NDArrayIndex.all()),
+                        Nd4j.rand(300, 1)};
+        INDArray[] labels = new INDArray[] {Nd4j.rand(300, 3), Nd4j.rand(new int[] {300, 2, 7})};
+        for (int i = 0; i < features.length; i++)
+            features[i].muli(i + 1).addi(10 * i);
+
+        MultiDataSet multiDataSet = new MultiDataSet(features, labels);
+        SUT.fit(multiDataSet);
+
+        MultiDataSet transformed = multiDataSet.copy();
+        SUT.preProcess(transformed);
+
+        // same ops in the same order, so results are expected to be exactly the same
+        for (int i = 0; i < features.length; i++)
+            assertClose(expectedStandardized(features[i], SUT.getFeatureMean(i), SUT.getFeatureStd(i)),
+                            transformed.getFeatures(i), 0.0);
+
+        for (int i = 0; i < labels.length; i++)
+            assertClose(expectedStandardized(labels[i], SUT.getLabelMean(i), SUT.getLabelStd(i)),
+                            transformed.getLabels(i), 0.0);
+
+        SUT.revert(transformed);
+        for (int i = 0; i < features.length; i++)
+            assertClose(features[i], transformed.getFeatures(i));
+        for (int i = 0; i < labels.length; i++)
+            assertClose(labels[i], transformed.getLabels(i));
+    }
+
+    /**
+     * Values close to zero are compared with absolute tolerance
+     */
+    private void assertClose(INDArray expected, INDArray actual) {
+        assertClose(expected, actual, 1e-5);
+    }
+
+    private void assertClose(INDArray expected, INDArray actual, double eps) {
+        assertArrayEquals(expected.shape(), actual.shape());
+        assertEquals(0.0, Transforms.abs(expected.sub(actual)).maxNumber().doubleValue(), eps);
+    }
+
+    private INDArray expectedStandardized(INDArray array, INDArray mean, INDArray std) {
+        INDArray result = array.dup();
+        if (array.rank() <= 2)
+            return result.subiRowVector(mean).diviRowVector(std);
+
+        Nd4j.getExecutioner().execAndReturn(new BroadcastSubOp(result, mean, result, 1));
+        Nd4j.getExecutioner().execAndReturn(new BroadcastDivOp(result, std, result, 1));
+        return result;
+    }
+
     private double getMaxRelativeDifference(MultiDataSet a, MultiDataSet b) {
         double max = 0;
         for (int i = 0; i < a.getFeatures().length; i++) {
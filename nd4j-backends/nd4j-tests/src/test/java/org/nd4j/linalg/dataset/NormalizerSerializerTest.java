@@ -19,7 +19,10 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Ede Meijer
@@ -232,6 +235,94 @@ public class NormalizerSerializerTest extends BaseNd4jTest {
         assertEquals(original, restored);
     }
 
+    @Test
+    public void testLegacyFormatStillLoads() throws Exception {
+        NormalizerStandardize original = new NormalizerStandardize(Nd4j.create(new double[] {0.5, 1.5}),
+                        Nd4j.create(new double[] {2.5, 3.5}), Nd4j.create(new double[] {4.5, 5.5}),
+                        Nd4j.create(new double[] {6.5, 7.5}));
+        original.fitLabel(true);
+
+        // same layout as files written before bulk format was introduced
+        NormalizerSerializer legacy = new NormalizerSerializer()
+                        .addStrategy(new StandardizeSerializerStrategy(StatsFormat.LEGACY));
+        legacy.write(original, tmpFile);
+
+        NormalizerStandardize restored = SUT.restore(tmpFile);
+        assertEquals(original, restored);
+    }
+
+    @Test
+    public void testDefaultFormat() throws Exception {
+        NormalizerStandardize original = new NormalizerStandardize(Nd4j.create(new double[] {0.5, 1.5}),
+                        Nd4j.create(new double[] {2.5, 3.5}));
+
+        // default output should stay readable by older versions: header version 1, followed by legacy stats
+        SUT.write(original, tmpFile);
+        assertEquals(1, headerVersion(tmpFile));
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        new StandardizeSerializerStrategy(StatsFormat.LEGACY).write(original, expected);
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        new StandardizeSerializerStrategy().write(original, actual);
+        assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
+
+    private static int headerVersion(File file) throws IOException {
+        try (DataInputStream dis = new DataInputStream(new FileInputStream(file))) {
+            dis.readUTF();
+            return dis.readInt();
+        }
+    }
+
+    @Test
+    public void testBulkFormatLargeStats() throws Exception {
+        MultiNormalizerHybrid original = new MultiNormalizerHybrid();
+        Map<Integer, NormalizerStats> inputStats = new HashMap<>();
+        inputStats.put(0, new DistributionStats(Nd4j.rand(1, 100000), Nd4j.rand(1, 100000).addi(0.5)));
+        inputStats.put(1, new MinMaxStats(Nd4j.rand(1, 333), Nd4j.rand(1, 333).addi(1)));
+        original.setInputStats(inputStats);
+        original.setOutputStats(new HashMap<Integer, NormalizerStats>());
+        original.minMaxScaleInput(1, 0.1, 0.9).standardizeInput(0);
+
+        new NormalizerSerializer().addStrategy(new MultiHybridSerializerStrategy(StatsFormat.BULK)).write(original,
+                        tmpFile);
+        assertEquals(2, headerVersion(tmpFile));
+
+        // restore from non-markable stream works as well
+        try (InputStream in = new FilterInputStream(new FileInputStream(tmpFile)) {
+            @Override
+            public boolean markSupported() {
+                return false;
+            }
+        }) {
+            MultiNormalizerHybrid restored = SUT.restore(in);
+            assertEquals(original, restored);
+        }
+    }
+
+    @Test
+    public void testRestoreLazily() throws Exception {
+        NormalizerMinMaxScaler original = new NormalizerMinMaxScaler(0.1, 0.9);
+        original.setFeatureStats(Nd4j.create(new double[] {0.5, 1.5}), Nd4j.create(new double[] {2.5, 3.5}));
+        SUT.write(original, tmpFile);
+
+        Normalizer restored = SUT.restoreLazily(tmpFile);
+        assertTrue(restored instanceof DataNormalization);
+        assertFalse(restored instanceof MultiDataNormalization);
+
+        DataNormalization lazy = (DataNormalization) restored;
+        assertEquals(NormalizerType.MIN_MAX, lazy.getType());
+        assertFalse(lazy instanceof NormalizerMinMaxScaler);
+
+        DataSet expected = new DataSet(Nd4j.create(new double[][] {{0.5, 3.5}, {1.5, 2.0}}), Nd4j.zeros(2, 1));
+        DataSet actual = expected.copy();
+        original.transform(expected);
+        lazy.transform(actual);
+
+        assertEquals(expected.getFeatures(), actual.getFeatures());
+        assertTrue(lazy.toString().contains("NormalizerMinMaxScaler"));
+    }
+
     public static class MyNormalizer extends AbstractDataSetNormalizer<MinMaxStats> {
         @Getter
         private final int foo;
@@ -0,0 +1,153 @@
+package org.nd4j.linalg.dataset;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class ReservoirSamplerTest extends BaseNd4jTest {
+
+    public ReservoirSamplerTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testUniformSample() {
+        int numBatches = 200;
+        int batchSize = 100;
+        int capacity = 2000;
+
+        ReservoirSampler.Reservoir reservoir = ReservoirSampler.builder().capacity(capacity).seed(119).build()
+                        .sample(stream(numBatches, batchSize).iterator());
+
+        assertEquals(capacity, reservoir.size());
+        assertEquals(numBatches * batchSize, reservoir.getNumberOfExamplesSeen());
+
+        DataSet sample = reservoir.getDataSet();
+        assertArrayEquals(new int[] {capacity, 3}, sample.getFeatures().shape());
+
+        Set<Integer> ids = new HashSet<>();
+        int firstHalf = 0;
+        for (int i = 0; i < capacity; i++) {
+            int id = (int) sample.getFeatures().getDouble(i, 0);
+            // rows are copied as a whole
+            assertEquals(id * 2.0, sample.getFeatures().getDouble(i, 2), 0.0);
+            assertEquals(id % 2, (int) sample.getLabels().getDouble(i, 1));
+            ids.add(id);
+
+            if (id < numBatches * batchSize / 2)
+                firstHalf++;
+        }
+
+        // no replacement, and both halves of the stream are represented equally
+        assertEquals(capacity, ids.size());
+        assertEquals(0.5, firstHalf / (double) capacity, 0.05);
+
+        // same seed gives the same sample
+        DataSet again = ReservoirSampler.builder().capacity(capacity).seed(119).build()
+                        .sample(stream(numBatches, batchSize).iterator()).getDataSet();
+        assertEquals(sample.getFeatures(), again.getFeatures());
+    }
+
+    @Test
+    public void testSmallStream() {
+        ReservoirSampler.Reservoir reservoir = ReservoirSampler.builder().capacity(100).build()
+                        .sample(stream(3, 10).iterator());
+
+        assertEquals(30, reservoir.size());
+        assertEquals(30, reservoir.getDataSet().numExamples());
+
+        DataSetIterator iterator = reservoir.iterator(8);
+        int examples = 0;
+        while (iterator.hasNext())
+            examples += iterator.next().numExamples();
+        assertEquals(30, examples);
+    }
+
+    @Test
+    public void testClassWeights() {
+        int capacity = 1000;
+
+        // classes are balanced in the stream, but class 1 is weighted 3 times higher
+        DataSet weighted = ReservoirSampler.builder().capacity(capacity).seed(12345)
+                        .weights(ReservoirSampler.classWeights(1.0, 3.0)).build()
+                        .sample(stream(500, 100).iterator()).getDataSet();
+
+        double ones = weighted.getLabels().getColumn(1).sumNumber().doubleValue();
+        assertEquals(0.75, ones / capacity, 0.05);
+
+        // zero weight excludes class completely
+        DataSet filtered = ReservoirSampler.builder().capacity(capacity).seed(12345)
+                        .weights(ReservoirSampler.classWeights(0.0, 1.0)).build()
+                        .sample(stream(50, 100).iterator()).getDataSet();
+
+        assertEquals(capacity, filtered.getLabels().getColumn(1).sumNumber().doubleValue(), 0.0);
+    }
+
+    @Test
+    public void testTimeSeriesWithMasks() {
+        List<DataSet> stream = new ArrayList<>();
+        for (int b = 0; b < 10; b++) {
+            INDArray features = Nd4j.rand(new int[] {20, 4, 7});
+            INDArray labels = Nd4j.rand(new int[] {20, 2, 7});
+            INDArray mask = Nd4j.ones(20, 7);
+            for (int i = 0; i < 20; i++)
+                features.putScalar(new int[] {i, 0, 0}, b * 20 + i);
+            stream.add(new DataSet(features, labels, mask, mask.dup()));
+        }
+
+        DataSet sample = ReservoirSampler.builder().capacity(50).seed(1).build().sample(stream.iterator())
+                        .getDataSet();
+
+        assertArrayEquals(new int[] {50, 4, 7}, sample.getFeatures().shape());
+        assertArrayEquals(new int[] {50, 2, 7}, sample.getLabels().shape());
+        assertArrayEquals(new int[] {50, 7}, sample.getFeaturesMaskArray().shape());
+        assertArrayEquals(new int[] {50, 7}, sample.getLabelsMaskArray().shape());
+
+        for (int i = 0; i < 50; i++) {
+            int id = (int) sample.getFeatures().getDouble(i, 0, 0);
+            DataSet source = stream.get(id / 20);
+            assertEquals(source.getFeatures().tensorAlongDimension(id % 20, 1, 2),
+                            sample.getFeatures().tensorAlongDimension(i, 1, 2));
+            assertEquals(source.getLabels().tensorAlongDimension(id % 20, 1, 2),
+                            sample.getLabels().tensorAlongDimension(i, 1, 2));
+        }
+    }
+
+    /**
+     * Example i has features [i, i % 2, 2 * i] and one-hot label i % 2
+     */
+    protected static List<DataSet> stream(int numBatches, int batchSize) {
+        List<DataSet> result = new ArrayList<>();
+        for (int b = 0; b < numBatches; b++) {
+            INDArray features = Nd4j.create(batchSize, 3);
+            INDArray labels = Nd4j.create(batchSize, 2);
+            for (int i = 0; i < batchSize; i++) {
+                int id = b * batchSize + i;
+                features.putScalar(i, 0, id);
+                features.putScalar(i, 1, id % 2);
+                features.putScalar(i, 2, 2 * id);
+                labels.putScalar(i, id % 2, 1.0);
+            }
+            result.add(new DataSet(features, labels));
+        }
+        return result;
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
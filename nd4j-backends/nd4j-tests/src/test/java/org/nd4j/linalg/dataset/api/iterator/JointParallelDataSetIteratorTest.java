@@ -0,0 +1,311 @@
+package org.nd4j.linalg.dataset.api.iterator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.enums.InequalityHandling;
+import org.nd4j.linalg.dataset.api.iterator.parallel.JointParallelDataSetIterator;
+import org.nd4j.linalg.dataset.api.iterator.parallel.ProducerMetrics;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+@Slf4j
+@RunWith(Parameterized.class)
+public class JointParallelDataSetIteratorTest extends BaseNd4jTest {
+
+    public JointParallelDataSetIteratorTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    /**
+     * Each DataSet holds single value: producer * 100 + index
+     */
+    protected static DataSetIterator source(int producer, int numBatches) {
+        List<DataSet> list = new ArrayList<>();
+        for (int i = 0; i < numBatches; i++)
+            list.add(new DataSet(Nd4j.create(new double[] {producer * 100 + i}), Nd4j.create(new double[] {i})));
+
+        return new TestDataSetIterator(list, 1);
+    }
+
+    protected static int value(DataSet dataSet) {
+        return (int) dataSet.getFeatures().getDouble(0);
+    }
+
+    @Test
+    public void testStopEveryone1() throws Exception {
+        JointParallelDataSetIterator iterator = new JointParallelDataSetIterator(
+                        Arrays.asList(source(0, 10), source(1, 5)), InequalityHandling.STOP_EVERYONE);
+
+        List<Integer> values = new ArrayList<>();
+        while (iterator.hasNext())
+            values.add(value(iterator.next()));
+
+        // round-robin until second producer runs out of data
+        assertEquals(11, values.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, (int) values.get(i * 2));
+            assertEquals(100 + i, (int) values.get(i * 2 + 1));
+        }
+
+        iterator.shutdown();
+    }
+
+    @Test
+    public void testPassNull1() throws Exception {
+        JointParallelDataSetIterator iterator = new JointParallelDataSetIterator(
+                        Arrays.asList(source(0, 10), source(1, 5)), InequalityHandling.PASS_NULL);
+
+        int nulls = 0;
+        int values = 0;
+        while (iterator.hasNext()) {
+            DataSet ds = iterator.next();
+            if (ds == null)
+                nulls++;
+            else
+                values++;
+        }
+
+        // nulls are returned for exhausted producer, until the last one runs out of data
+        assertEquals(15, values);
+        assertEquals(4, nulls);
+
+        iterator.shutdown();
+    }
+
+    @Test
+    public void testReset1() throws Exception {
+        JointParallelDataSetIterator iterator = new JointParallelDataSetIterator(
+                        Arrays.asList(source(0, 10), source(1, 5)), InequalityHandling.RESET, 2);
+
+        Set<Integer> first = new HashSet<>();
+        int count = 0;
+        while (iterator.hasNext()) {
+            int value = value(iterator.next());
+            if (value < 100)
+                first.add(value);
+            count++;
+        }
+
+        // second producer is reset until the first one is exhausted
+        assertEquals(10, first.size());
+        assertTrue(count > 15);
+
+        iterator.shutdown();
+    }
+
+    @Test
+    public void testRelocate1() throws Exception {
+        JointParallelDataSetIterator iterator = new JointParallelDataSetIterator(
+                        Arrays.asList(source(0, 10), source(1, 5), source(2, 3)), InequalityHandling.RELOCATE);
+
+        for (int e = 0; e < 2; e++) {
+            Set<Integer> values = new HashSet<>();
+            while (iterator.hasNext())
+                values.add(value(iterator.next()));
+
+            assertEquals(18, values.size());
+            iterator.reset();
+        }
+
+        iterator.shutdown();
+    }
+
+    @Test
+    public void testNextFor1() throws Exception {
+        final JointParallelDataSetIterator iterator = new JointParallelDataSetIterator(
+                        Arrays.asList(source(0, 10), source(1, 5)), InequalityHandling.RELOCATE);
+
+        final List<Integer> values = new ArrayList<>();
+        Thread consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                iterator.attachThread(1);
+                while (iterator.hasNextFor())
+                    values.add(value(iterator.nextFor()));
+            }
+        });
+        consumer.start();
+        consumer.join();
+
+        // attached producer goes first, then consumer gets data relocated from other producer
+        assertEquals(15, values.size());
+        for (int i = 0; i < 5; i++)
+            assertEquals(100 + i, (int) values.get(i));
+
+        List<ProducerMetrics> metrics = iterator.getProducerMetrics();
+        assertEquals(2, metrics.size());
+        assertEquals(10, metrics.get(0).getProducedBatches());
+        assertEquals(5, metrics.get(1).getProducedBatches());
+        assertEquals(10, metrics.get(0).getConsumedBatches());
+
+        iterator.shutdown();
+    }
+
+    @Test
+    public void testNextNum1() throws Exception {
+        List<DataSet> list = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            list.add(new DataSet(Nd4j.create(new double[] {i}), Nd4j.create(new double[] {i})));
+
+        // batches of 3 examples
+        JointParallelDataSetIterator iterator = new JointParallelDataSetIterator(
+                        Arrays.<DataSetIterator>asList(new TestDataSetIterator(list, 3)), InequalityHandling.STOP_EVERYONE);
+
+        DataSet first = iterator.next(5);
+        assertEquals(5, first.numExamples());
+        for (int i = 0; i < 5; i++)
+            assertEquals(i, first.getFeatures().getDouble(i), 1e-5);
+
+        // example left over from the second batch goes first
+        DataSet second = iterator.next();
+        assertEquals(1, second.numExamples());
+        assertEquals(5, value(second));
+
+        // there's less examples left then requested
+        DataSet third = iterator.next(5);
+        assertEquals(4, third.numExamples());
+        for (int i = 0; i < 4; i++)
+            assertEquals(6 + i, third.getFeatures().getDouble(i), 1e-5);
+
+        assertFalse(iterator.hasNext());
+        assertEquals(10, iterator.cursor());
+
+        iterator.reset();
+        assertEquals(0, iterator.cursor());
+
+        iterator.shutdown();
+    }
+
+    @Test
+    public void testShutdownWakesConsumer1() throws Exception {
+        final JointParallelDataSetIterator iterator = new JointParallelDataSetIterator(
+                        Arrays.asList(source(0, 10)), InequalityHandling.STOP_EVERYONE);
+
+        // producer is stuck on the first DataSet, so consumer is blocked on empty queue
+        final CountDownLatch latch = new CountDownLatch(1);
+        iterator.setPreProcessor(new DataSetPreProcessor() {
+            @Override
+            public void preProcess(org.nd4j.linalg.dataset.api.DataSet toPreProcess) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    //
+                }
+            }
+        });
+
+        Thread consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                iterator.hasNextFor(0);
+            }
+        });
+        consumer.start();
+
+        Thread shutdown = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                iterator.shutdown();
+            }
+        });
+        shutdown.start();
+
+        Thread.sleep(100);
+        latch.countDown();
+
+        shutdown.join(10000);
+        consumer.join(10000);
+
+        assertFalse(shutdown.isAlive());
+        assertFalse(consumer.isAlive());
+    }
+
+    @Test
+    public void testShutdownWakesConsumer2() throws Exception {
+        final JointParallelDataSetIterator iterator = new JointParallelDataSetIterator(
+                        Arrays.asList(source(0, 10), source(1, 10)), InequalityHandling.RELOCATE);
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        iterator.setPreProcessor(new DataSetPreProcessor() {
+            @Override
+            public void preProcess(org.nd4j.linalg.dataset.api.DataSet toPreProcess) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    //
+                }
+            }
+        });
+
+        final AtomicReference<Object> result = new AtomicReference<>();
+        Thread consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    result.set(iterator.next());
+                } catch (NoSuchElementException e) {
+                    result.set(e);
+                }
+            }
+        });
+        consumer.start();
+
+        // producers are released only after shutdown was requested
+        Thread releaser = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    //
+                }
+                latch.countDown();
+            }
+        });
+
+        Thread.sleep(100);
+        releaser.start();
+
+        // consumer is blocked within next() at this moment, and shutdown doesn't wait for it
+        iterator.shutdown();
+
+        consumer.join(10000);
+        releaser.join(10000);
+
+        assertFalse(consumer.isAlive());
+        assertTrue(result.get() instanceof NoSuchElementException);
+
+        // restart after shutdown works as usual
+        iterator.reset();
+        iterator.setPreProcessor(null);
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        assertEquals(20, count);
+
+        iterator.shutdown();
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -0,0 +1,100 @@
+package org.nd4j.linalg.distances;
+
+import org.junit.Test;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.ops.transforms.Transforms;
+import org.nd4j.linalg.util.SortUtil;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class PairwiseDistancesTest extends BaseNd4jTest {
+
+    public PairwiseDistancesTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testPairwiseMatchesSingleDistances() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray a = Nd4j.rand(7, 10);
+        INDArray b = Nd4j.rand(13, 10).subi(0.5);
+
+        INDArray euclidean = Transforms.allEuclideanDistances(a, b);
+        INDArray squared = PairwiseDistances.pairwise(a, b, PairwiseDistances.Metric.SQUARED_EUCLIDEAN);
+        INDArray cosine = Transforms.allCosineSimilarities(a, b);
+        INDArray cosineDistance = PairwiseDistances.pairwise(a, b, PairwiseDistances.Metric.COSINE_DISTANCE);
+        INDArray dot = PairwiseDistances.pairwise(a, b, PairwiseDistances.Metric.DOT);
+        assertArrayEquals(new int[] {7, 13}, euclidean.shape());
+
+        for (int i = 0; i < 7; i++) {
+            for (int j = 0; j < 13; j++) {
+                double distance = Transforms.euclideanDistance(a.getRow(i), b.getRow(j));
+                double similarity = Transforms.cosineSim(a.getRow(i), b.getRow(j));
+
+                assertEquals(distance, euclidean.getDouble(i, j), 1e-4);
+                assertEquals(distance * distance, squared.getDouble(i, j), 1e-4);
+                assertEquals(similarity, cosine.getDouble(i, j), 1e-4);
+                assertEquals(1.0 - similarity, cosineDistance.getDouble(i, j), 1e-4);
+                assertEquals(Nd4j.getBlasWrapper().dot(a.getRow(i), b.getRow(j)), dot.getDouble(i, j), 1e-4);
+            }
+        }
+
+        // distance to itself is zero, and zero vectors get zero similarity
+        INDArray self = PairwiseDistances.pairwise(a, PairwiseDistances.Metric.EUCLIDEAN);
+        for (int i = 0; i < 7; i++)
+            assertEquals(0.0, self.getDouble(i, i), 1e-3);
+
+        INDArray zero = Transforms.allCosineSimilarities(Nd4j.zeros(1, 10), b);
+        assertEquals(0.0, zero.sumNumber().doubleValue(), 0.0);
+    }
+
+    @Test
+    public void testKNearestMatchesFullSort() {
+        Nd4j.getRandom().setSeed(119);
+        INDArray queries = Nd4j.rand(37, 16);
+        INDArray corpus = Nd4j.rand(250, 16);
+        int k = 5;
+
+        for (PairwiseDistances.Metric metric : PairwiseDistances.Metric.values()) {
+            INDArray full = PairwiseDistances.pairwise(queries, corpus, metric);
+
+            // small blocks and tiles, so every query spans several tiles, and there are several tasks
+            INDArray[] knn = PairwiseDistances.kNearest(queries, corpus, k, metric, 8, 30);
+            assertArrayEquals(new int[] {37, k}, knn[0].shape());
+
+            for (int q = 0; q < 37; q++) {
+                int[] order = SortUtil.argsortVector(full.getRow(q), !metric.isSimilarity());
+                for (int j = 0; j < k; j++) {
+                    assertEquals(metric.name(), full.getDouble(q, order[j]), knn[0].getDouble(q, j), 1e-4);
+                    assertEquals(metric.name(), full.getDouble(q, knn[1].getInt(q, j)), knn[0].getDouble(q, j),
+                                    1e-4);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testKNearestFindsSelf() {
+        INDArray corpus = Nd4j.rand(100, 8);
+        INDArray[] knn = PairwiseDistances.kNearest(corpus, corpus, 1, PairwiseDistances.Metric.EUCLIDEAN);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, knn[1].getInt(i, 0));
+            assertEquals(0.0, knn[0].getDouble(i, 0), 1e-3);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testColumnsMismatch() {
+        PairwiseDistances.pairwise(Nd4j.rand(3, 4), Nd4j.rand(3, 5), PairwiseDistances.Metric.EUCLIDEAN);
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -0,0 +1,276 @@
+package org.nd4j.linalg.executors;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+@Slf4j
+@RunWith(Parameterized.class)
+public class ExecutorServiceProviderTests extends BaseNd4jTest {
+
+    public ExecutorServiceProviderTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testDefaultExecutors1() throws Exception {
+        assertNotNull(ExecutorServiceProvider.getExecutorService());
+        assertTrue(ExecutorServiceProvider.getExecutorService() == ExecutorServiceProvider.getExecutorService(ExecutorServiceProvider.COMPUTE));
+        assertNotNull(ExecutorServiceProvider.getExecutorService(ExecutorServiceProvider.IO));
+        assertNotNull(ExecutorServiceProvider.getExecutorService(ExecutorServiceProvider.SERDE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownExecutor1() throws Exception {
+        ExecutorServiceProvider.getExecutorService("some_unknown_executor");
+    }
+
+    @Test
+    public void testMetrics1() throws Exception {
+        ExecutorServiceProvider.register(ExecutorConfiguration.builder().name("metrics_test").threads(2).build());
+        ExecutorService executor = ExecutorServiceProvider.getExecutorService("metrics_test");
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Thread.sleep(2);
+                    } catch (InterruptedException e) {
+                        //
+                    }
+                }
+            }));
+        }
+
+        for (Future<?> future : futures)
+            future.get();
+
+        ExecutorMetrics metrics = ExecutorServiceProvider.getMetrics("metrics_test");
+        assertEquals("metrics_test", metrics.getName());
+        assertEquals(20, metrics.getSubmittedTasks());
+        assertEquals(0, metrics.getRejectedTasks());
+        assertTrue(metrics.getAverageExecutionTime() > 0);
+        assertTrue(metrics.getMaxExecutionTime() >= metrics.getAverageExecutionTime());
+
+        ExecutorServiceProvider.shutdown("metrics_test");
+        assertNull(ExecutorServiceProvider.getMetrics("metrics_test"));
+    }
+
+    @Test
+    public void testRejection1() throws Exception {
+        ExecutorServiceProvider.register(ExecutorConfiguration.builder().name("rejection_test").threads(1).queueCapacity(1)
+                        .rejectionPolicy(RejectionPolicy.ABORT).build());
+        ExecutorService executor = ExecutorServiceProvider.getExecutorService("rejection_test");
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        Runnable blocker = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    //
+                }
+            }
+        };
+
+        // first task occupies the only thread, second one sits in queue
+        executor.submit(blocker);
+        executor.submit(blocker);
+
+        try {
+            executor.submit(blocker);
+            fail("RejectedExecutionException expected");
+        } catch (RejectedExecutionException e) {
+            //
+        }
+
+        latch.countDown();
+
+        ExecutorMetrics metrics = ExecutorServiceProvider.getMetrics("rejection_test");
+        assertEquals(1, metrics.getRejectedTasks());
+
+        ExecutorServiceProvider.shutdown("rejection_test");
+    }
+
+    @Test
+    public void testFailedSubmit1() throws Exception {
+        InstrumentedExecutorService executor = new InstrumentedExecutorService(ExecutorConfiguration.builder().name("failure_test").threads(1).build());
+
+        Future<Integer> future = executor.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                throw new IllegalStateException("expected failure");
+            }
+        });
+
+        try {
+            future.get();
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        ExecutorMetrics metrics = executor.getMetrics();
+        assertEquals(1, metrics.getCompletedTasks());
+        assertEquals(1, metrics.getFailedTasks());
+    }
+
+    @Test
+    public void testDiscardOldest1() throws Exception {
+        InstrumentedExecutorService executor = new InstrumentedExecutorService(ExecutorConfiguration.builder().name("discard_test").threads(1).queueCapacity(1)
+                        .rejectionPolicy(RejectionPolicy.DISCARD_OLDEST).build());
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    //
+                }
+            }
+        });
+        started.await();
+
+        Runnable oldest = new Runnable() {
+            @Override
+            public void run() {}
+        };
+        Runnable newest = new Runnable() {
+            @Override
+            public void run() {}
+        };
+
+        executor.execute(oldest);
+        executor.execute(newest);
+
+        // queue holds tasks as they were passed, not internal wrappers
+        assertEquals(1, executor.getQueue().size());
+        assertTrue(executor.getQueue().peek() == newest);
+        assertTrue(executor.remove(newest));
+        assertFalse(executor.remove(oldest));
+
+        executor.execute(newest);
+        List<Runnable> pending = executor.shutdownNow();
+        latch.countDown();
+
+        assertEquals(1, pending.size());
+        assertTrue(pending.get(0) == newest);
+
+        ExecutorMetrics metrics = executor.getMetrics();
+        assertEquals(4, metrics.getSubmittedTasks());
+        assertEquals(1, metrics.getRejectedTasks());
+    }
+
+    @Test
+    public void testBlockedShutdown1() throws Exception {
+        final InstrumentedExecutorService executor = new InstrumentedExecutorService(ExecutorConfiguration.builder().name("block_test").threads(1).queueCapacity(1)
+                        .rejectionPolicy(RejectionPolicy.BLOCK).build());
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        Runnable blocker = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    //
+                }
+            }
+        };
+
+        // thread & queue are both occupied, so next submitter is blocked
+        executor.execute(blocker);
+        executor.execute(blocker);
+
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread submitter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {}
+                    });
+                } catch (Exception e) {
+                    failure.set(e);
+                }
+            }
+        });
+        submitter.start();
+        Thread.sleep(200);
+
+        executor.shutdown();
+        submitter.join(10000);
+        latch.countDown();
+
+        assertFalse(submitter.isAlive());
+        assertTrue(failure.get() instanceof RejectedExecutionException);
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1, executor.getMetrics().getRejectedTasks());
+    }
+
+    @Test
+    public void testReplacedExecutor1() throws Exception {
+        ExecutorServiceProvider.register(ExecutorConfiguration.builder().name("replace_test").threads(1).build());
+        ExecutorService previous = ExecutorServiceProvider.getExecutorService("replace_test");
+
+        ExecutorServiceProvider.register(ExecutorConfiguration.builder().name("replace_test").threads(2).build());
+        ExecutorService current = ExecutorServiceProvider.getExecutorService("replace_test");
+
+        // previous executor might be still referenced by someone, so it keeps working
+        assertTrue(previous != current);
+        assertFalse(previous.isShutdown());
+        assertEquals(1, previous.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return 1;
+            }
+        }).get().intValue());
+
+        previous.shutdown();
+        ExecutorServiceProvider.shutdown("replace_test");
+    }
+
+    @Test
+    public void testDeviceAffinity1() throws Exception {
+        ExecutorServiceProvider.register(ExecutorConfiguration.builder().name("affinity_test").threads(2).deviceId(0).build());
+        ExecutorService executor = ExecutorServiceProvider.getExecutorService("affinity_test");
+
+        Integer deviceId = executor.submit(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return Nd4j.getAffinityManager().getDeviceForCurrentThread();
+            }
+        }).get();
+
+        assertEquals(0, deviceId.intValue());
+
+        ExecutorServiceProvider.shutdown("affinity_test");
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
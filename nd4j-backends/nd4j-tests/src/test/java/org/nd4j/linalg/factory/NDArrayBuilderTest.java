@@ -0,0 +1,75 @@
+package org.nd4j.linalg.factory;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class NDArrayBuilderTest extends BaseNd4jTest {
+
+    public NDArrayBuilderTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testAppendRowsAndBlocks() {
+        INDArray exp = Nd4j.linspace(1, 700, 700).reshape(100, 7);
+
+        NDArrayBuilder builder = new NDArrayBuilder(new int[] {7}, 4);
+        for (int i = 0; i < 10; i++)
+            builder.append(exp.getRow(i));
+        // block crossing several chunks, and strided block
+        builder.append(exp.get(NDArrayIndex.interval(10, 50)));
+        builder.append(exp.get(NDArrayIndex.interval(50, 100)).dup('f'));
+
+        assertEquals(100, builder.size());
+        assertEquals(exp, builder.build());
+        assertEquals(exp.getRow(42), builder.getRow(42));
+
+        // chunks are views, concatenation of which is the whole array
+        List<INDArray> chunks = builder.chunks();
+        assertTrue(chunks.size() > 1);
+        assertTrue(chunks.size() < 8);
+        assertEquals(exp, Nd4j.vstack(chunks));
+
+        INDArray target = Nd4j.create(100, 7);
+        assertTrue(target == builder.build(target));
+        assertEquals(exp, target);
+    }
+
+    @Test
+    public void testRank3AndClear() {
+        INDArray exp = Nd4j.linspace(1, 240, 240).reshape(10, 4, 6);
+
+        NDArrayBuilder builder = new NDArrayBuilder(new int[] {4, 6}, 3);
+        for (int i = 0; i < 10; i++)
+            builder.append(exp.tensorAlongDimension(i, 1, 2));
+
+        assertArrayEquals(new int[] {10, 4, 6}, builder.build().shape());
+        assertEquals(exp, builder.build());
+
+        builder.clear();
+        assertEquals(0, builder.size());
+
+        builder.append(exp);
+        builder.append(exp);
+        assertEquals(exp, builder.build().get(NDArrayIndex.interval(10, 20)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongShape() {
+        new NDArrayBuilder(new int[] {7}).append(Nd4j.create(3, 8));
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -0,0 +1,158 @@
+package org.nd4j.linalg.memory.stash;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class BasicStashTests extends BaseNd4jTest {
+
+    public BasicStashTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testResidentStash1() throws Exception {
+        Stash<String> stash = new BasicStash<>(StashConfiguration.builder().build());
+
+        INDArray array = Nd4j.linspace(1, 100, 100);
+        INDArray exp = array.dup();
+
+        stash.put("alpha", array);
+
+        // stash holds its own copy
+        array.assign(0.0);
+
+        assertTrue(stash.checkIfExists("alpha"));
+        assertFalse(stash.checkIfExists("beta"));
+        assertEquals(exp, stash.get("alpha"));
+        assertEquals(100 * Nd4j.sizeOfDataType(), stash.getResidentBytes());
+        assertEquals(0, stash.getSpilledBytes());
+    }
+
+    @Test
+    public void testSpilledStash1() throws Exception {
+        long bytes = 100 * Nd4j.sizeOfDataType();
+        BasicStash<Integer> stash = new BasicStash<>(StashConfiguration.builder().maxResidentBytes(bytes * 2).build());
+
+        INDArray[] arrays = new INDArray[5];
+        for (int i = 0; i < arrays.length; i++) {
+            arrays[i] = Nd4j.linspace(i, i + 100, 100);
+            stash.put(i, arrays[i]);
+        }
+
+        assertEquals(bytes * 2, stash.getResidentBytes());
+        assertEquals(bytes * 3, stash.getSpilledBytes());
+        assertEquals(3, stash.getNumberOfSpills());
+
+        for (int i = 0; i < arrays.length; i++)
+            assertEquals(arrays[i], stash.get(i));
+
+        stash.drop(0);
+        assertFalse(stash.checkIfExists(0));
+        assertEquals(bytes * 2, stash.getSpilledBytes());
+
+        stash.purge();
+        assertEquals(0, stash.size());
+        assertEquals(0, stash.getResidentBytes());
+        assertEquals(0, stash.getSpilledBytes());
+    }
+
+    @Test
+    public void testCompressedStash1() throws Exception {
+        BasicStash<Integer> stash = new BasicStash<>(StashConfiguration.builder().compressionAlgorithm("FLOAT16")
+                        .maxResidentBytes(250).build());
+
+        INDArray first = Nd4j.linspace(1, 100, 100);
+        INDArray second = Nd4j.linspace(101, 200, 100);
+
+        stash.put(1, first);
+        stash.put(2, second);
+
+        // half precision entries are 200 bytes each, so first one goes to disk
+        assertEquals(200, stash.getResidentBytes());
+        assertEquals(200, stash.getSpilledBytes());
+
+        assertEquals(first, stash.get(1));
+        assertEquals(second, stash.get(2));
+    }
+
+    @Test
+    public void testViewStash1() throws Exception {
+        Stash<String> stash = new BasicStash<>(StashConfiguration.builder().maxResidentBytes(1).build());
+
+        INDArray matrix = Nd4j.linspace(1, 20, 20).reshape(4, 5);
+        INDArray column = matrix.getColumn(2);
+
+        stash.put("column", column);
+
+        assertEquals(column, stash.get("column"));
+    }
+
+    @Test
+    public void testDetachedGet1() throws Exception {
+        BasicStash<String> stash = new BasicStash<>(StashConfiguration.builder().maxResidentBytes(1000000).build());
+
+        INDArray exp = Nd4j.linspace(1, 100, 100);
+        stash.put("alpha", exp);
+
+        // resident entry isn't affected by changes to returned array
+        stash.get("alpha").assign(0.0);
+        assertEquals(exp, stash.get("alpha"));
+    }
+
+    @Test
+    public void testFailedPut1() throws Exception {
+        long bytes = 100 * Nd4j.sizeOfDataType();
+        BasicStash<String> stash = new BasicStash<>(
+                        StashConfiguration.builder().maxResidentBytes(bytes).spillToDisk(false).build());
+
+        INDArray exp = Nd4j.linspace(1, 100, 100);
+        stash.put("alpha", exp);
+
+        try {
+            stash.put("alpha", Nd4j.create(200));
+            fail("Entry exceeding budget should be rejected");
+        } catch (ND4JIllegalStateException e) {
+            // expected
+        }
+
+        // previous value is kept
+        assertEquals(exp, stash.get("alpha"));
+        assertEquals(bytes, stash.getResidentBytes());
+
+        // replacing entry within budget doesn't need to evict the entry being replaced
+        stash.put("alpha", exp.mul(2));
+        assertEquals(exp.mul(2), stash.get("alpha"));
+        assertEquals(bytes, stash.getResidentBytes());
+    }
+
+    @Test
+    public void testStashManager1() throws Exception {
+        StashManager manager = new BasicStashManager();
+
+        assertFalse(manager.checkIfStashExists("first"));
+
+        Stash<String> stash = manager.createStashIfNotExists("first");
+        assertTrue(manager.checkIfStashExists("first"));
+        assertTrue(stash == manager.createStashIfNotExists("first"));
+
+        stash.put("ones", Nd4j.ones(10));
+        manager.destroyStash("first");
+
+        assertFalse(manager.checkIfStashExists("first"));
+        assertFalse(stash.checkIfExists("ones"));
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
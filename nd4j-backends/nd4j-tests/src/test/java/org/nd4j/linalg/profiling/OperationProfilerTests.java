@@ -12,7 +12,11 @@ import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.linalg.profiler.LightweightProfiler;
 import org.nd4j.linalg.profiler.OpProfiler;
+import org.nd4j.linalg.profiler.data.LatencyHistogram;
+import org.nd4j.linalg.profiler.data.ProfilerSnapshot;
 
 import java.util.Arrays;
 
@@ -285,4 +289,102 @@ public class OperationProfilerTests {
         a.muli(3f);
     }
 
+    @Test
+    public void testLightweightProfiler1() throws Exception {
+        Nd4j.getExecutioner().setProfilingMode(OpExecutioner.ProfilingMode.LIGHTWEIGHT);
+        LightweightProfiler profiler = LightweightProfiler.getInstance();
+        profiler.reset();
+        profiler.setStackSamplingInterval(2);
+
+        try {
+            INDArray small = Nd4j.create(100);
+            INDArray large = Nd4j.create(5000);
+            for (int i = 0; i < 10; i++) {
+                small.addi(1.0);
+                large.addi(1.0);
+            }
+            small.muli(large.get(NDArrayIndex.interval(0, 100)));
+
+            ProfilerSnapshot snapshot = profiler.snapshot();
+            assertEquals(21, snapshot.getTotalCalls());
+
+            // scalar add is tracked separately for each shape class
+            int scalarEntries = 0;
+            for (ProfilerSnapshot.OpStats stats : snapshot.getOpStats()) {
+                if (!stats.getOpType().equals("ScalarOp"))
+                    continue;
+
+                scalarEntries++;
+                assertEquals(10, stats.getCount());
+                assertTrue(stats.getMaxLength() == 128 || stats.getMaxLength() == 8192);
+                assertTrue(stats.getPercentile(50) <= stats.getMaxTime());
+                assertTrue(stats.getTotalTime() >= stats.getMaxTime());
+            }
+            assertEquals(2, scalarEntries);
+
+            assertTrue(snapshot.getStackSamples().size() > 0);
+            assertTrue(snapshot.toJson().startsWith("{\"timestamp\":"));
+            assertTrue(snapshot.toPrometheus().contains("nd4j_op_calls_total{type=\"ScalarOp\""));
+
+            profiler.reset();
+            assertEquals(0, profiler.snapshot().getTotalCalls());
+        } finally {
+            profiler.setStackSamplingInterval(1024);
+        }
+    }
+
+    @Test
+    public void testLightweightProfiler2() throws Exception {
+        Nd4j.getExecutioner().setProfilingMode(OpExecutioner.ProfilingMode.LIGHTWEIGHT);
+        LightweightProfiler profiler = LightweightProfiler.getInstance();
+        profiler.reset();
+
+        // calls made by terminated threads are kept after their stats are released
+        for (int e = 0; e < 3; e++) {
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        INDArray array = Nd4j.create(100);
+                        for (int i = 0; i < 5; i++)
+                            array.addi(1.0);
+                    }
+                });
+                threads[t].start();
+            }
+
+            for (Thread thread : threads)
+                thread.join();
+
+            assertEquals(20 * (e + 1), profiler.snapshot().getTotalCalls());
+        }
+
+        assertEquals(60, profiler.snapshot().getTotalCalls());
+
+        profiler.reset();
+        assertEquals(0, profiler.snapshot().getTotalCalls());
+    }
+
+    @Test
+    public void testLatencyHistogram1() throws Exception {
+        long[] values = new long[] {0, 1, 7, 8, 9, 15, 16, 17, 100, 1000, 123456789L, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucketFor(value);
+            assertTrue(bucket < LatencyHistogram.NUM_BUCKETS);
+            assertTrue(LatencyHistogram.lowerBound(bucket) <= value);
+            assertTrue(LatencyHistogram.upperBound(bucket) >= value);
+            // 3 significant bits
+            assertTrue(LatencyHistogram.upperBound(bucket) - LatencyHistogram.lowerBound(bucket) <= value / 8);
+        }
+
+        long[] counts = new long[LatencyHistogram.NUM_BUCKETS];
+        for (int i = 1; i <= 1000; i++)
+            counts[LatencyHistogram.bucketFor(i)]++;
+
+        long median = LatencyHistogram.valueAtPercentile(counts, 0, 50);
+        assertTrue(median >= 500 && median <= 500 * 9 / 8);
+        assertEquals(LatencyHistogram.upperBound(LatencyHistogram.bucketFor(1000)),
+                        LatencyHistogram.valueAtPercentile(counts, 0, 100));
+    }
 }
@@ -284,6 +284,39 @@ public class ConcatTestsC extends BaseNd4jTest {
         }
     }
 
+    @Test
+    public void testConcatIntoTarget() {
+        INDArray first = Nd4j.linspace(1, 24, 24).reshape(4, 6);
+        INDArray second = Nd4j.linspace(25, 36, 12).reshape(2, 6);
+        INDArray third = Nd4j.linspace(37, 48, 12).reshape(6, 2).transpose();
+
+        // dimension 0, compact and strided inputs
+        INDArray exp = Nd4j.concat(0, first, second, third);
+        INDArray target = Nd4j.create(8, 6);
+        INDArray result = Nd4j.concat(target, 0, first, second, third);
+        assertTrue(result == target);
+        assertEquals(exp, target);
+
+        // dimension 1, into fortran target and into view of bigger array
+        INDArray left = first.transpose();
+        INDArray right = Nd4j.linspace(1, 12, 12).reshape(6, 2);
+        exp = Nd4j.concat(1, left, right);
+
+        INDArray fortran = Nd4j.create(new int[] {6, 6}, 'f');
+        assertEquals(exp, Nd4j.concat(fortran, 1, left, right));
+
+        INDArray bigger = Nd4j.zeros(8, 10);
+        INDArray view = bigger.get(NDArrayIndex.interval(1, 7), NDArrayIndex.interval(2, 8));
+        Nd4j.concat(view, 1, left, right);
+        assertEquals(exp, view);
+        assertEquals(exp.sumNumber().doubleValue(), bigger.sumNumber().doubleValue(), 1e-5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConcatIntoWrongTarget() {
+        Nd4j.concat(Nd4j.create(3, 5), 0, Nd4j.create(2, 5), Nd4j.create(2, 5));
+    }
+
 
     @Override
     public char ordering() {
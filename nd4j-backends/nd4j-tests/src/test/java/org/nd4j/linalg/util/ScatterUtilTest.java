@@ -0,0 +1,125 @@
+package org.nd4j.linalg.util;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.util.DataTypeUtil;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class ScatterUtilTest extends BaseNd4jTest {
+
+    public ScatterUtilTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testGatherRows() {
+        INDArray source = Nd4j.linspace(1, 60, 60).reshape(10, 6);
+        int[] indexes = {7, 0, 7, 3};
+
+        INDArray rows = Nd4j.gather(source, 0, indexes);
+        assertEquals(Nd4j.pullRows(source, 1, indexes), rows);
+
+        // fortran target goes through views
+        INDArray target = Nd4j.create(new int[] {4, 6}, 'f');
+        assertTrue(target == Nd4j.gather(source, 0, indexes, target));
+        assertEquals(rows, target);
+
+        INDArray columns = Nd4j.gather(source, 1, new int[] {5, 1});
+        assertEquals(Nd4j.hstack(source.getColumn(5), source.getColumn(1)), columns);
+    }
+
+    @Test
+    public void testGather3d() {
+        INDArray source = Nd4j.linspace(1, 120, 120).reshape(5, 4, 6);
+
+        INDArray result = Nd4j.gather(source, 0, new int[] {4, 2});
+        assertArrayEquals(new int[] {2, 4, 6}, result.shape());
+        assertEquals(source.tensorAlongDimension(4, 1, 2), result.tensorAlongDimension(0, 1, 2));
+        assertEquals(source.tensorAlongDimension(2, 1, 2), result.tensorAlongDimension(1, 1, 2));
+
+        INDArray middle = Nd4j.gather(source, 1, new int[] {3});
+        assertEquals(source.get(NDArrayIndex.all(), NDArrayIndex.interval(3, 4), NDArrayIndex.all()), middle);
+    }
+
+    @Test
+    public void testScatter() {
+        INDArray target = Nd4j.zeros(5, 3);
+        INDArray updates = Nd4j.linspace(1, 9, 9).reshape(3, 3);
+
+        // duplicate index: last update wins
+        Nd4j.scatter(target, 0, new int[] {4, 1, 4}, updates);
+
+        assertEquals(updates.getRow(2), target.getRow(4));
+        assertEquals(updates.getRow(1), target.getRow(1));
+        assertEquals(0.0, target.getRow(0).sumNumber().doubleValue(), 0.0);
+        assertEquals(0.0, target.getRow(2).sumNumber().doubleValue(), 0.0);
+    }
+
+    @Test
+    public void testScatterAddDuplicates() {
+        for (DataBuffer.Type type : new DataBuffer.Type[] {DataBuffer.Type.FLOAT, DataBuffer.Type.DOUBLE}) {
+            DataBuffer.Type initial = Nd4j.dataType();
+            DataTypeUtil.setDTypeForContext(type);
+            try {
+                Random random = new Random(119);
+                int numRows = 50;
+                int numUpdates = 2000;
+                INDArray target = Nd4j.rand(numRows, 32);
+                INDArray updates = Nd4j.rand(numUpdates, 32);
+                int[] indexes = new int[numUpdates];
+                for (int i = 0; i < numUpdates; i++)
+                    indexes[i] = random.nextInt(numRows);
+
+                INDArray exp = target.dup();
+                for (int i = 0; i < numUpdates; i++)
+                    exp.getRow(indexes[i]).addi(updates.getRow(i));
+
+                Nd4j.scatterAdd(target, 0, indexes, updates);
+                assertEquals(type, target.data().dataType());
+                assertTrue(exp.equalsWithEps(target, 1e-3));
+
+                // columns go through views
+                INDArray columns = Nd4j.zeros(32, 4);
+                Nd4j.scatterAdd(columns, 1, new int[] {1, 1, 3}, Nd4j.ones(32, 3));
+                assertEquals(64.0, columns.getColumn(1).sumNumber().doubleValue(), 1e-5);
+                assertEquals(32.0, columns.getColumn(3).sumNumber().doubleValue(), 1e-5);
+                assertEquals(0.0, columns.getColumn(0).sumNumber().doubleValue(), 1e-5);
+            } finally {
+                DataTypeUtil.setDTypeForContext(initial);
+            }
+        }
+    }
+
+    @Test
+    public void testLongRows() {
+        // rows longer than single chunk
+        INDArray target = Nd4j.zeros(3, 20000);
+        INDArray updates = Nd4j.linspace(1, 40000, 40000).reshape(2, 20000);
+
+        Nd4j.scatterAdd(target, 0, new int[] {2, 2}, updates);
+
+        assertEquals(updates.sum(0), target.getRow(2));
+        assertEquals(updates.getRow(1), Nd4j.gather(updates, 0, new int[] {1}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIndexOutOfBounds() {
+        Nd4j.scatterAdd(Nd4j.zeros(3, 2), 0, new int[] {3}, Nd4j.ones(1, 2));
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -0,0 +1,133 @@
+package org.nd4j.linalg.util;
+
+import org.junit.Test;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class SortUtilTest extends BaseNd4jTest {
+
+    public SortUtilTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testSortAndArgsortAlongDimensions() {
+        for (char order : new char[] {'c', 'f'}) {
+            INDArray in = Nd4j.rand(new int[] {7, 130}, order);
+            for (int dimension = 0; dimension < 2; dimension++) {
+                for (boolean ascending : new boolean[] {true, false}) {
+                    INDArray indices = Nd4j.argsort(in, dimension, ascending);
+                    INDArray[] sorted = Nd4j.sortWithIndices(in.dup(order), dimension, ascending);
+                    INDArray plain = Nd4j.sort(in.dup(order), dimension, ascending);
+
+                    assertEquals(indices, sorted[0]);
+                    assertEquals(plain, sorted[1]);
+
+                    for (int v = 0; v < in.vectorsAlongDimension(dimension); v++) {
+                        double[] expected = in.vectorAlongDimension(v, dimension).dup().data().asDouble();
+                        Arrays.sort(expected);
+                        INDArray vector = sorted[1].vectorAlongDimension(v, dimension);
+                        INDArray source = in.vectorAlongDimension(v, dimension);
+                        INDArray positions = indices.vectorAlongDimension(v, dimension);
+                        for (int j = 0; j < expected.length; j++) {
+                            double value = expected[ascending ? j : expected.length - j - 1];
+                            assertEquals(value, vector.getDouble(j), 0.0);
+                            assertEquals(value, source.getDouble(positions.getInt(j)), 0.0);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testArgsortIsStable() {
+        INDArray in = Nd4j.create(new double[] {3, 1, 2, 1, 3, 2, 1, 0});
+
+        INDArray ascending = Nd4j.argsort(in, 1, true);
+        assertEquals(Nd4j.create(new double[] {7, 1, 3, 6, 2, 5, 0, 4}), ascending);
+
+        INDArray descending = Nd4j.argsort(in, 1, false);
+        assertEquals(Nd4j.create(new double[] {0, 4, 2, 5, 1, 3, 6, 7}), descending);
+
+        // source isn't modified
+        assertEquals(Nd4j.create(new double[] {3, 1, 2, 1, 3, 2, 1, 0}), in);
+    }
+
+    @Test
+    public void testLongVectorArgsort() {
+        int length = 100000;
+        Random r = new Random(119);
+        double[] data = new double[length];
+        for (int i = 0; i < length; i++)
+            data[i] = r.nextInt(1000);
+
+        int[] order = SortUtil.argsortVector(Nd4j.create(data), true);
+        for (int i = 1; i < length; i++) {
+            double previous = data[order[i - 1]];
+            double current = data[order[i]];
+            assertEquals(true, previous < current || (previous == current && order[i - 1] < order[i]));
+        }
+    }
+
+    @Test
+    public void testTopK() {
+        INDArray in = Nd4j.create(new double[][] {{1, 5, 3, 5, 0}, {9, -1, 2, 8, 7}});
+
+        INDArray[] rows = Nd4j.topK(in, 3, 1);
+        assertArrayEquals(new int[] {2, 3}, rows[0].shape());
+        assertEquals(Nd4j.create(new double[][] {{5, 5, 3}, {9, 8, 7}}), rows[0]);
+        assertEquals(Nd4j.create(new double[][] {{1, 3, 2}, {0, 3, 4}}), rows[1]);
+
+        INDArray[] columns = Nd4j.topK(in, 1, 0);
+        assertArrayEquals(new int[] {1, 5}, columns[0].shape());
+        assertEquals(Nd4j.create(new double[] {9, 5, 3, 8, 7}), columns[0]);
+        assertEquals(Nd4j.create(new double[] {1, 0, 0, 1, 1}), columns[1]);
+
+        // top-k should match the head of full descending sort
+        INDArray random = Nd4j.rand(20, 300);
+        INDArray[] top = Nd4j.topK(random, 10, 1);
+        INDArray[] sorted = Nd4j.sortWithIndices(random.dup(), 1, false);
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j < 10; j++) {
+                assertEquals(sorted[1].getDouble(i, j), top[0].getDouble(i, j), 0.0);
+                assertEquals(sorted[0].getDouble(i, j), top[1].getDouble(i, j), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testSortColumns() {
+        INDArray in = Nd4j.create(new double[][] {{1, 2, 3}, {1, -1, 0}, {4, 5, 6}});
+
+        INDArray ascending = Nd4j.sortColumns(in, 1, true);
+        assertEquals(Nd4j.create(new double[][] {{2, 3, 1}, {-1, 0, 1}, {5, 6, 4}}), ascending);
+
+        INDArray descending = Nd4j.sortColumns(in, 1, false);
+        assertEquals(Nd4j.create(new double[][] {{1, 3, 2}, {1, 0, -1}, {4, 6, 5}}), descending);
+    }
+
+    @Test
+    public void testPermuteRows() {
+        INDArray in = Nd4j.linspace(1, 12, 12).reshape(4, 3);
+        INDArray out = SortUtil.permuteRows(in, new int[] {2, 0, 3, 1});
+
+        assertEquals(in.getRow(2), out.getRow(0));
+        assertEquals(in.getRow(0), out.getRow(1));
+        assertEquals(in.getRow(3), out.getRow(2));
+        assertEquals(in.getRow(1), out.getRow(3));
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
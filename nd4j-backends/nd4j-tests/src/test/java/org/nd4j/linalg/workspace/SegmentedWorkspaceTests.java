@@ -0,0 +1,167 @@
+package org.nd4j.linalg.workspace;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
+import org.nd4j.linalg.api.memory.enums.LearningPolicy;
+import org.nd4j.linalg.api.memory.enums.SpillPolicy;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.memory.abstracts.Nd4jWorkspace;
+
+import static org.junit.Assert.*;
+
+@Slf4j
+@RunWith(Parameterized.class)
+public class SegmentedWorkspaceTests extends BaseNd4jTest {
+
+    private static final WorkspaceConfiguration segmentedConfig = WorkspaceConfiguration.builder()
+            .initialSize(1024 * 1024)
+            .policyAllocation(AllocationPolicy.STRICT)
+            .policyLearning(LearningPolicy.NONE)
+            .policySpill(SpillPolicy.SEGMENTED)
+            .build();
+
+    public SegmentedWorkspaceTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @After
+    public void shutdown() {
+        Nd4j.getMemoryManager().setCurrentWorkspace(null);
+        Nd4j.getWorkspaceManager().destroyAllWorkspacesForCurrentThread();
+    }
+
+    @Test
+    public void testSegments1() throws Exception {
+        Nd4jWorkspace workspace = (Nd4jWorkspace) Nd4j.getWorkspaceManager().getWorkspaceForCurrentThread(segmentedConfig, "WSEG1");
+
+        for (int e = 0; e < 5; e++) {
+            try (MemoryWorkspace ws = workspace.notifyScopeEntered()) {
+                // 800KB fits into main block
+                INDArray array1 = Nd4j.create(200000).assign(1.0);
+
+                // next 2 arrays don't, so they go into the same chained segment
+                INDArray array2 = Nd4j.create(100000).assign(2.0);
+                INDArray array3 = Nd4j.create(100000).assign(3.0);
+
+                assertEquals(0, workspace.getNumberOfExternalAllocations());
+                assertEquals(1, workspace.getNumberOfSegments());
+
+                assertEquals(200000, array1.sumNumber().doubleValue(), 1e-5);
+                assertEquals(200000, array2.sumNumber().doubleValue(), 1e-5);
+                assertEquals(300000, array3.sumNumber().doubleValue(), 1e-5);
+            }
+        }
+
+        assertEquals(1, workspace.getNumberOfSegments());
+        assertEquals(1024 * 1024, workspace.getSegmentsSize());
+        assertEquals(0, workspace.getSpilledSize());
+    }
+
+    @Test
+    public void testSegmentsGrowth1() throws Exception {
+        Nd4jWorkspace workspace = (Nd4jWorkspace) Nd4j.getWorkspaceManager().getWorkspaceForCurrentThread(segmentedConfig, "WSEG2");
+
+        try (MemoryWorkspace ws = workspace.notifyScopeEntered()) {
+            for (int e = 0; e < 4; e++) {
+                INDArray array = Nd4j.create(200000).assign(e);
+                assertEquals(200000 * e, array.sumNumber().doubleValue(), 1e-5);
+            }
+        }
+
+        // 3.2MB total: 1MB main block, then 1MB and 2MB segments
+        assertEquals(2, workspace.getNumberOfSegments());
+        assertEquals(3 * 1024 * 1024, workspace.getSegmentsSize());
+    }
+
+    @Test
+    public void testSegmentsRelease1() throws Exception {
+        Nd4jWorkspace workspace = (Nd4jWorkspace) Nd4j.getWorkspaceManager().getWorkspaceForCurrentThread(segmentedConfig, "WSEG3");
+
+        try (MemoryWorkspace ws = workspace.notifyScopeEntered()) {
+            INDArray array1 = Nd4j.create(200000);
+            INDArray array2 = Nd4j.create(200000);
+        }
+
+        assertEquals(1, workspace.getNumberOfSegments());
+
+        // small cycles don't touch segment, so it gets released eventually
+        for (int e = 0; e < 15; e++) {
+            try (MemoryWorkspace ws = workspace.notifyScopeEntered()) {
+                INDArray array1 = Nd4j.create(1000);
+            }
+        }
+
+        assertEquals(0, workspace.getNumberOfSegments());
+        assertEquals(0, workspace.getSegmentsSize());
+    }
+
+    @Test
+    public void testSegmentsDestroy1() throws Exception {
+        Nd4jWorkspace workspace = (Nd4jWorkspace) Nd4j.getWorkspaceManager().getWorkspaceForCurrentThread(segmentedConfig, "WSEG4");
+
+        try (MemoryWorkspace ws = workspace.notifyScopeEntered()) {
+            INDArray array1 = Nd4j.create(300000);
+        }
+
+        assertEquals(1, workspace.getNumberOfSegments());
+
+        workspace.destroyWorkspace();
+
+        assertEquals(0, workspace.getNumberOfSegments());
+        assertEquals(0, workspace.getSegmentsSize());
+    }
+
+    @Test
+    public void testSegmentsMaxSize1() throws Exception {
+        WorkspaceConfiguration configuration = WorkspaceConfiguration.builder()
+                .initialSize(1024 * 1024)
+                .maxSize(2 * 1024 * 1024)
+                .policyAllocation(AllocationPolicy.STRICT)
+                .policyLearning(LearningPolicy.NONE)
+                .policySpill(SpillPolicy.SEGMENTED)
+                .build();
+
+        Nd4jWorkspace workspace = (Nd4jWorkspace) Nd4j.getWorkspaceManager().getWorkspaceForCurrentThread(configuration, "WSEG5");
+
+        try (MemoryWorkspace ws = workspace.notifyScopeEntered()) {
+            INDArray array1 = Nd4j.create(200000).assign(1.0);
+
+            // 1.6MB doesn't fit into 1MB left within maxSize, so it goes out of workspace
+            INDArray array2 = Nd4j.create(400000).assign(2.0);
+
+            assertEquals(0, workspace.getNumberOfSegments());
+            assertEquals(1, workspace.getNumberOfExternalAllocations());
+
+            // this one fits into the budget, but segment is capped to what's left
+            INDArray array3 = Nd4j.create(200000).assign(3.0);
+            assertEquals(1, workspace.getNumberOfSegments());
+            assertEquals(1024 * 1024, workspace.getSegmentsSize());
+
+            // and nothing is left for this one
+            INDArray array4 = Nd4j.create(200000).assign(4.0);
+            assertEquals(1, workspace.getNumberOfSegments());
+            assertEquals(2, workspace.getNumberOfExternalAllocations());
+
+            assertTrue(workspace.getCurrentSize() + workspace.getSegmentsSize() <= configuration.getMaxSize());
+
+            assertEquals(200000, array1.sumNumber().doubleValue(), 1e-5);
+            assertEquals(800000, array2.sumNumber().doubleValue(), 1e-5);
+            assertEquals(600000, array3.sumNumber().doubleValue(), 1e-5);
+            assertEquals(800000, array4.sumNumber().doubleValue(), 1e-5);
+        }
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -0,0 +1,288 @@
+package org.nd4j.linalg.workspace;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
+import org.nd4j.linalg.api.memory.enums.LearningPolicy;
+import org.nd4j.linalg.api.memory.enums.SpillPolicy;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.memory.abstracts.Nd4jWorkspace;
+import org.nd4j.linalg.memory.provider.BasicWorkspaceManager;
+import org.nd4j.linalg.memory.provider.SharedWorkspacePool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+@Slf4j
+@RunWith(Parameterized.class)
+public class SharedWorkspacePoolTests extends BaseNd4jTest {
+
+    private static final WorkspaceConfiguration poolConfig = WorkspaceConfiguration.builder()
+            .initialSize(10 * 1024 * 1024)
+            .policyAllocation(AllocationPolicy.STRICT)
+            .policyLearning(LearningPolicy.NONE)
+            .policySpill(SpillPolicy.EXTERNAL)
+            .build();
+
+    public SharedWorkspacePoolTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @After
+    public void shutdown() {
+        ((BasicWorkspaceManager) Nd4j.getWorkspaceManager()).disableSharedPool();
+        Nd4j.getMemoryManager().setCurrentWorkspace(null);
+    }
+
+    @Test
+    public void testPoolAffinity1() throws Exception {
+        BasicWorkspaceManager manager = (BasicWorkspaceManager) Nd4j.getWorkspaceManager();
+        manager.enableSharedPool(2);
+
+        MemoryWorkspace first = null;
+        for (int e = 0; e < 10; e++) {
+            try (MemoryWorkspace ws = manager.getAndActivateWorkspace(poolConfig, "WPOOL1")) {
+                if (first == null)
+                    first = ws;
+
+                // single thread gets the same workspace every time
+                assertTrue(first == ws);
+                assertEquals(ws, Nd4j.getMemoryManager().getCurrentWorkspace());
+
+                INDArray array = Nd4j.create(100).assign(e);
+                assertTrue(array.isAttached());
+            }
+        }
+
+        assertNull(Nd4j.getMemoryManager().getCurrentWorkspace());
+
+        SharedWorkspacePool pool = manager.getSharedPool();
+        assertEquals(1, pool.getNumberOfWorkspaces());
+        assertEquals(1, pool.getNumberOfIdleWorkspaces());
+        assertEquals(10, pool.getNumberOfLeases());
+        assertEquals(9, pool.getNumberOfAffinityHits());
+    }
+
+    @Test
+    public void testPoolNested1() throws Exception {
+        BasicWorkspaceManager manager = (BasicWorkspaceManager) Nd4j.getWorkspaceManager();
+        manager.enableSharedPool(2);
+
+        try (MemoryWorkspace ws1 = manager.getAndActivateWorkspace(poolConfig, "WPOOL2")) {
+            INDArray array1 = Nd4j.create(100);
+
+            try (MemoryWorkspace ws2 = manager.getAndActivateWorkspace(poolConfig, "WPOOL2")) {
+                assertTrue(ws1 == ws2);
+            }
+
+            // nested scope closed, but workspace is still leased
+            assertEquals(0, manager.getSharedPool().getNumberOfIdleWorkspaces());
+            assertEquals(ws1, Nd4j.getMemoryManager().getCurrentWorkspace());
+        }
+
+        assertEquals(1, manager.getSharedPool().getNumberOfIdleWorkspaces());
+    }
+
+    @Test
+    public void testPoolNested2() throws Exception {
+        BasicWorkspaceManager manager = (BasicWorkspaceManager) Nd4j.getWorkspaceManager();
+        manager.enableSharedPool(2);
+
+        SharedWorkspacePool pool = manager.getSharedPool();
+
+        try (MemoryWorkspace ws1 = manager.getAndActivateWorkspace(poolConfig, "WPOOL4")) {
+            try (MemoryWorkspace ws2 = manager.getAndActivateWorkspace(poolConfig, "WPOOL5")) {
+                // same id opened again, but not adjacent to outer scope
+                try (MemoryWorkspace ws3 = manager.getAndActivateWorkspace(poolConfig, "WPOOL4")) {
+                    assertTrue(ws1 == ws3);
+                }
+
+                // outer scope of WPOOL4 is still open, so it's still leased
+                assertEquals(0, pool.getNumberOfIdleWorkspaces());
+            }
+
+            assertEquals(1, pool.getNumberOfIdleWorkspaces());
+        }
+
+        assertEquals(2, pool.getNumberOfIdleWorkspaces());
+        assertEquals(2, pool.getNumberOfWorkspaces());
+    }
+
+    @Test
+    public void testPoolVisibility1() throws Exception {
+        BasicWorkspaceManager manager = (BasicWorkspaceManager) Nd4j.getWorkspaceManager();
+        manager.enableSharedPool(2);
+
+        assertFalse(manager.checkIfWorkspaceExists("WPOOL6"));
+
+        try (MemoryWorkspace ws = manager.getAndActivateWorkspace(poolConfig, "WPOOL6")) {
+            // leased workspace is visible to the leasing thread, i.e. for leverageTo()
+            assertTrue(manager.checkIfWorkspaceExists("WPOOL6"));
+            assertTrue(ws == manager.getWorkspaceForCurrentThread("WPOOL6"));
+
+            // thread-local workspace, not leased from pool
+            try (MemoryWorkspace local = manager.getWorkspaceForCurrentThread(poolConfig, "WPOOL6_LOCAL").notifyScopeEntered()) {
+                INDArray array = Nd4j.create(10).assign(1.0);
+                INDArray leveraged = array.leverageTo("WPOOL6");
+
+                assertTrue(leveraged.data().getParentWorkspace() == ws);
+                assertEquals(10, leveraged.sumNumber().doubleValue(), 1e-5);
+            }
+
+            try (MemoryWorkspace out = manager.scopeOutOfWorkspaces()) {
+                assertNull(Nd4j.getMemoryManager().getCurrentWorkspace());
+            }
+
+            // out of workspace block doesn't end lease
+            assertEquals(0, manager.getSharedPool().getNumberOfIdleWorkspaces());
+        }
+
+        assertFalse(manager.checkIfWorkspaceExists("WPOOL6"));
+        assertEquals(1, manager.getSharedPool().getNumberOfIdleWorkspaces());
+
+        manager.destroyWorkspace(manager.getWorkspaceForCurrentThread("WPOOL6_LOCAL"));
+    }
+
+    @Test
+    public void testPoolDisabled1() throws Exception {
+        BasicWorkspaceManager manager = (BasicWorkspaceManager) Nd4j.getWorkspaceManager();
+        manager.enableSharedPool(2);
+
+        SharedWorkspacePool pool = manager.getSharedPool();
+
+        Nd4jWorkspace workspace;
+        try (MemoryWorkspace ws = manager.getAndActivateWorkspace(poolConfig, "WPOOL7")) {
+            workspace = (Nd4jWorkspace) ws;
+            INDArray array = Nd4j.create(100).assign(1.0);
+
+            manager.disableSharedPool();
+
+            // workspace is still usable within its scope
+            assertEquals(100, array.sumNumber().doubleValue(), 1e-5);
+        }
+
+        // and released once scope is closed
+        assertEquals(0, pool.getNumberOfWorkspaces());
+        assertEquals(0, pool.getNumberOfIdleWorkspaces());
+        assertEquals(0, workspace.getCurrentSize());
+        assertNull(workspace.getPool());
+        assertFalse(manager.checkIfWorkspaceExists("WPOOL7"));
+    }
+
+    @Test
+    public void testPoolDestroy1() throws Exception {
+        BasicWorkspaceManager manager = (BasicWorkspaceManager) Nd4j.getWorkspaceManager();
+        manager.enableSharedPool(1);
+
+        SharedWorkspacePool pool = manager.getSharedPool();
+
+        MemoryWorkspace ws = manager.getAndActivateWorkspace(poolConfig, "WPOOL8");
+        manager.destroyWorkspace(ws);
+        ws.close();
+
+        // destroyed workspace isn't returned to the pool, but pool limit is available again
+        assertEquals(0, pool.getNumberOfWorkspaces());
+        assertEquals(0, pool.getNumberOfIdleWorkspaces());
+
+        try (MemoryWorkspace ws2 = manager.getAndActivateWorkspace(poolConfig, "WPOOL8")) {
+            assertTrue(ws != ws2);
+        }
+
+        assertEquals(1, pool.getNumberOfIdleWorkspaces());
+    }
+
+    @Test
+    public void testPoolDestroy2() throws Exception {
+        final BasicWorkspaceManager manager = (BasicWorkspaceManager) Nd4j.getWorkspaceManager();
+        manager.enableSharedPool(1);
+
+        final SharedWorkspacePool pool = manager.getSharedPool();
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        try (MemoryWorkspace ws = manager.getAndActivateWorkspace(poolConfig, "WPOOL9")) {
+            // the only workspace is leased by this thread, so waiter is blocked
+            Thread waiter = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try (MemoryWorkspace ws2 = pool.lease(poolConfig, "WPOOL9").notifyScopeEntered()) {
+                        // shouldn't get here
+                    } catch (Exception e) {
+                        failure.set(e);
+                    }
+                }
+            });
+            waiter.start();
+
+            while (pool.getNumberOfWaits() == 0)
+                Thread.sleep(1);
+
+            pool.destroy();
+            waiter.join(10000);
+
+            assertFalse(waiter.isAlive());
+            assertTrue(failure.get() instanceof ND4JIllegalStateException);
+        }
+
+        // leased workspace is released instead of going back to destroyed pool
+        assertEquals(0, pool.getNumberOfWorkspaces());
+        assertEquals(0, pool.getNumberOfIdleWorkspaces());
+    }
+
+    @Test
+    public void testPoolBounded1() throws Exception {
+        final BasicWorkspaceManager manager = (BasicWorkspaceManager) Nd4j.getWorkspaceManager();
+        manager.enableSharedPool(2);
+
+        final AtomicInteger failures = new AtomicInteger(0);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final int threadNumber = t;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int e = 0; e < 20; e++) {
+                        try (MemoryWorkspace ws = manager.getAndActivateWorkspace(poolConfig, "WPOOL3")) {
+                            INDArray array = Nd4j.create(1000).assign(threadNumber);
+                            Thread.sleep(1);
+
+                            if (Math.abs(array.sumNumber().doubleValue() - 1000.0 * threadNumber) > 1e-5)
+                                failures.incrementAndGet();
+                        } catch (Exception ex) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        SharedWorkspacePool pool = manager.getSharedPool();
+
+        assertEquals(0, failures.get());
+        assertTrue(pool.getNumberOfWorkspaces() <= 2);
+        assertEquals(pool.getNumberOfWorkspaces(), pool.getNumberOfIdleWorkspaces());
+        assertEquals(160, pool.getNumberOfLeases());
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -0,0 +1,200 @@
+package org.nd4j.linalg.workspace;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
+import org.nd4j.linalg.api.memory.enums.LearningPolicy;
+import org.nd4j.linalg.api.memory.enums.SpillPolicy;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.memory.abstracts.Nd4jWorkspace;
+import org.nd4j.linalg.memory.provider.BasicWorkspaceManager;
+import org.nd4j.linalg.memory.tracing.WorkspaceAdvice;
+import org.nd4j.linalg.memory.tracing.WorkspaceSizingAdvisor;
+import org.nd4j.linalg.memory.tracing.WorkspaceTrace;
+import org.nd4j.linalg.memory.tracing.WorkspaceTracer;
+
+import static org.junit.Assert.*;
+
+@Slf4j
+@RunWith(Parameterized.class)
+public class WorkspaceTracingTests extends BaseNd4jTest {
+
+    private static final WorkspaceConfiguration smallConfig = WorkspaceConfiguration.builder()
+            .initialSize(1024)
+            .policyAllocation(AllocationPolicy.STRICT)
+            .policyLearning(LearningPolicy.NONE)
+            .policySpill(SpillPolicy.EXTERNAL)
+            .build();
+
+    public WorkspaceTracingTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @After
+    public void shutdown() {
+        ((BasicWorkspaceManager) Nd4j.getWorkspaceManager()).enableTracing(false);
+        Nd4j.getMemoryManager().setCurrentWorkspace(null);
+    }
+
+    @Test
+    public void testTracer1() throws Exception {
+        BasicWorkspaceManager manager = (BasicWorkspaceManager) Nd4j.getWorkspaceManager();
+        manager.setTracingSamplingRate(1);
+        manager.enableTracing(true);
+
+        Nd4jWorkspace workspace = (Nd4jWorkspace) manager.getWorkspaceForCurrentThread(smallConfig, "WTRACE1");
+        assertNotNull(workspace.getTracer());
+
+        for (int e = 0; e < 3; e++) {
+            try (MemoryWorkspace ws = workspace.notifyScopeEntered()) {
+                INDArray small = Nd4j.create(10);
+
+                // this one doesn't fit into 1024 bytes, so it gets spilled
+                INDArray large = Nd4j.create(1000);
+            }
+        }
+
+        WorkspaceTrace trace = workspace.getTracer().snapshot();
+
+        assertEquals(3, trace.getCycles());
+        assertEquals(3, trace.getAllocations());
+        assertEquals(3, trace.getSpills());
+        assertEquals(3, trace.getCycleSizes().length);
+        assertEquals(9, trace.getEvents().size());
+        assertEquals(WorkspaceTracer.EventType.CYCLE, trace.getEvents().get(trace.getEvents().size() - 1).getType());
+        assertFalse(trace.getCallSites().isEmpty());
+
+        String json = manager.dumpTracesAsJson();
+        assertTrue(json.contains("WTRACE1"));
+    }
+
+    @Test
+    public void testTracerPerInstance1() throws Exception {
+        BasicWorkspaceManager manager = (BasicWorkspaceManager) Nd4j.getWorkspaceManager();
+        manager.enableTracing(true);
+
+        Nd4jWorkspace first = (Nd4jWorkspace) manager.getWorkspaceForCurrentThread(smallConfig, "WTRACE2");
+        manager.destroyWorkspace(first);
+
+        // same id & same thread, but different workspace instance
+        Nd4jWorkspace second = (Nd4jWorkspace) manager.getWorkspaceForCurrentThread(smallConfig, "WTRACE2");
+
+        assertNotSame(first, second);
+        assertNotEquals(first.getUniqueId(), second.getUniqueId());
+        assertNotSame(first.getTracer(), second.getTracer());
+
+        int traced = 0;
+        for (WorkspaceTrace trace : manager.getTraces())
+            if ("WTRACE2".equals(trace.getWorkspaceId()))
+                traced++;
+
+        assertEquals(2, traced);
+    }
+
+    @Test
+    public void testTracerRing1() throws Exception {
+        WorkspaceTracer tracer = new WorkspaceTracer("RING", 1L, 10, 4, 0);
+
+        for (int e = 0; e < 10; e++) {
+            tracer.recordAllocation(e, 8, 0);
+            tracer.recordCycle(e, 100 + e, 1024);
+        }
+
+        WorkspaceTrace trace = tracer.snapshot();
+
+        assertEquals(10, trace.getEvents().size());
+        assertArrayEquals(new long[] {106, 107, 108, 109}, trace.getCycleSizes());
+        assertEquals(109, trace.getMaxCycleBytes());
+        assertEquals(9, trace.getEvents().get(9).getCycle());
+    }
+
+    @Test
+    public void testTracerSegments1() throws Exception {
+        WorkspaceTracer tracer = new WorkspaceTracer("SEGMENTS", 1L);
+
+        // segment of 2048 bytes appended for 100 bytes that didn't fit into 1024 bytes block
+        tracer.recordAllocation(0, 1000, 0);
+        tracer.recordSegment(0, 100, 3072);
+        tracer.recordAllocation(0, 100, 0);
+        tracer.recordCycle(0, 1100, 1024);
+
+        tracer.recordAllocation(1, 500, 0);
+        tracer.recordCycle(1, 500, 1024);
+
+        WorkspaceTrace trace = tracer.snapshot();
+
+        assertEquals(1, trace.getSpills());
+        assertEquals(100, trace.getSpilledBytes());
+        assertEquals(3072, trace.getMaxWorkspaceSize());
+        assertEquals(1100, trace.getMaxCycleBytes());
+    }
+
+    @Test
+    public void testTracerSegments2() throws Exception {
+        WorkspaceConfiguration segmentedConfig = WorkspaceConfiguration.builder()
+                .initialSize(1024 * 1024)
+                .policyAllocation(AllocationPolicy.STRICT)
+                .policyLearning(LearningPolicy.NONE)
+                .policySpill(SpillPolicy.SEGMENTED)
+                .build();
+
+        BasicWorkspaceManager manager = (BasicWorkspaceManager) Nd4j.getWorkspaceManager();
+        manager.enableTracing(true);
+
+        Nd4jWorkspace workspace = (Nd4jWorkspace) manager.getWorkspaceForCurrentThread(segmentedConfig, "WTRACE3");
+        try (MemoryWorkspace ws = workspace.notifyScopeEntered()) {
+            // 800KB fits into main block, 400KB goes into 1MB chained segment
+            INDArray array1 = Nd4j.create(200000);
+            INDArray array2 = Nd4j.create(100000);
+        }
+
+        WorkspaceTrace trace = workspace.getTracer().snapshot();
+        manager.destroyWorkspace(workspace);
+
+        assertEquals(1, trace.getSpills());
+        assertEquals(100000 * Nd4j.sizeOfDataType(), trace.getSpilledBytes());
+        assertEquals(2 * 1024 * 1024, trace.getMaxWorkspaceSize());
+    }
+
+    @Test
+    public void testAdvisor1() throws Exception {
+        WorkspaceTracer tracer = new WorkspaceTracer("ADVISED", 1L);
+        for (int e = 0; e < 100; e++)
+            tracer.recordCycle(e, e == 99 ? 1500 : 1000, 1024);
+
+        WorkspaceAdvice advice = WorkspaceSizingAdvisor.advise(tracer.snapshot(), smallConfig);
+        WorkspaceConfiguration recommended = advice.getRecommendedConfiguration();
+
+        assertEquals(1000, advice.getP95CycleBytes());
+        assertEquals(1500, advice.getMaxCycleBytes());
+        assertEquals(1000, recommended.getInitialSize());
+        assertEquals(0.5, recommended.getOverallocationLimit(), 1e-5);
+        assertEquals(AllocationPolicy.OVERALLOCATE, recommended.getPolicyAllocation());
+        assertEquals(LearningPolicy.NONE, recommended.getPolicyLearning());
+        assertEquals(SpillPolicy.EXTERNAL, recommended.getPolicySpill());
+    }
+
+    @Test
+    public void testAdvisor2() throws Exception {
+        WorkspaceTracer tracer = new WorkspaceTracer("GROWING", 1L);
+        for (int e = 0; e < 100; e++)
+            tracer.recordCycle(e, 1000 + e * 100, 1024);
+
+        WorkspaceAdvice advice = WorkspaceSizingAdvisor.advise(tracer.snapshot(), smallConfig);
+
+        assertEquals(SpillPolicy.REALLOCATE, advice.getRecommendedConfiguration().getPolicySpill());
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
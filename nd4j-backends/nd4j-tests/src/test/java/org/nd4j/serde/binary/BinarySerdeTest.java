@@ -0,0 +1,91 @@
+package org.nd4j.serde.binary;
+
+import org.junit.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class BinarySerdeTest {
+
+    @Test
+    public void testByteBuffer1() throws Exception {
+        INDArray array = Nd4j.linspace(1, 20, 20).reshape(4, 5);
+
+        ByteBuffer buffer = BinarySerde.toByteBuffer(array);
+        assertEquals(BinarySerde.byteBufferSizeFor(array), buffer.remaining());
+
+        INDArray restored = BinarySerde.toArray(buffer);
+        assertEquals(array, restored);
+    }
+
+    @Test
+    public void testStreams1() throws Exception {
+        INDArray array = Nd4j.linspace(1, 60, 60).reshape(6, 10).getColumns(2, 5, 7);
+
+        BinaryArrayInputStream inputStream = new BinaryArrayInputStream(array);
+        assertEquals(BinarySerde.byteBufferSizeFor(array.dup()), inputStream.length());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[7];
+        int read;
+        while ((read = inputStream.read(chunk, 0, chunk.length)) > 0)
+            bytes.write(chunk, 0, read);
+
+        assertEquals(inputStream.length(), bytes.size());
+
+        // layout should be exactly the same as for ByteBuffer serialization
+        INDArray restored = BinarySerde.toArray(ByteBuffer.wrap(bytes.toByteArray()));
+        assertEquals(array, restored);
+
+        // now we feed decoder with small chunks
+        BinaryArrayOutputStream outputStream = new BinaryArrayOutputStream();
+        byte[] serialized = bytes.toByteArray();
+        for (int i = 0; i < serialized.length; i += 5) {
+            assertFalse(outputStream.isComplete());
+            outputStream.write(serialized, i, Math.min(5, serialized.length - i));
+        }
+
+        assertTrue(outputStream.isComplete());
+        assertEquals(array, outputStream.getArray());
+    }
+
+    @Test
+    public void testByteOrder1() throws Exception {
+        INDArray array = Nd4j.linspace(1, 20, 20).reshape(4, 5);
+
+        // serialized array as it would be written on a machine with opposite byte order
+        byte[] bytes = new byte[BinarySerde.byteBufferSizeFor(array)];
+        BinarySerde.toByteBuffer(array).get(bytes);
+        int header = BinarySerde.headerSizeFor(array);
+        reverse(bytes, 0, header, 4);
+        reverse(bytes, header, bytes.length, array.data().getElementSize());
+
+        assertEquals(array, BinarySerde.toArray(ByteBuffer.wrap(bytes)));
+
+        BinaryArrayOutputStream outputStream = new BinaryArrayOutputStream();
+        outputStream.write(bytes, 0, bytes.length);
+        assertEquals(array, outputStream.getArray());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testByteOrderMark1() throws Exception {
+        ByteBuffer buffer = BinarySerde.toByteBuffer(Nd4j.linspace(1, 20, 20));
+        buffer.putInt(0, 1);
+
+        BinarySerde.toArray(buffer);
+    }
+
+    protected static void reverse(byte[] bytes, int from, int to, int wordSize) {
+        for (int w = from; w < to; w += wordSize) {
+            for (int i = 0; i < wordSize / 2; i++) {
+                byte b = bytes[w + i];
+                bytes[w + i] = bytes[w + wordSize - 1 - i];
+                bytes[w + wordSize - 1 - i] = b;
+            }
+        }
+    }
+}
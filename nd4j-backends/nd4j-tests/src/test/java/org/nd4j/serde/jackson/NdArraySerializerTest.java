@@ -2,14 +2,20 @@ package org.nd4j.serde.jackson;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.serde.base64.Nd4jBase64;
+import org.nd4j.shade.jackson.core.JsonParser;
 import org.nd4j.shade.jackson.databind.ObjectMapper;
 import org.nd4j.shade.jackson.databind.module.SimpleModule;
+import org.nd4j.shade.jackson.databind.util.TokenBuffer;
 import org.nd4j.shade.serde.jackson.shaded.NDArrayDeSerializer;
 import org.nd4j.shade.serde.jackson.shaded.NDArraySerializer;
 
-import static org.junit.Assert.assertEquals;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
 
 /**
  * Created by agibsonccc on 6/23/16.
@@ -32,6 +38,159 @@ public class NdArraySerializerTest {
         assertEquals(assertion, test);
     }
 
+    @Test
+    public void testNumericSerde1() throws Exception {
+        INDArray array = Nd4j.linspace(1, 12, 12).reshape(3, 4);
+        String json = objectMapper.writeValueAsString(array);
+
+        assertTrue(json.contains("\"data\""));
+        assertFalse(json.contains("\"array\""));
+
+        INDArray test = objectMapper.readValue(json, INDArray.class);
+        assertEquals(array, test);
+    }
+
+    @Test
+    public void testNumericSerdeViews1() throws Exception {
+        INDArray array = Nd4j.linspace(1, 24, 24).reshape('f', 4, 6);
+        INDArray view = array.getColumns(1, 3);
+
+        INDArray test = objectMapper.readValue(objectMapper.writeValueAsString(view), INDArray.class);
+        assertArrayEquals(view.shape(), test.shape());
+        assertEquals(view, test);
+    }
+
+    @Test
+    public void testNumericSerdePermuted1() throws Exception {
+        INDArray array = Nd4j.linspace(1, 24, 24).reshape(2, 3, 4).permute(2, 0, 1);
+
+        String json = objectMapper.writeValueAsString(array);
+        assertTrue(json.contains("\"data\""));
+
+        INDArray test = objectMapper.readValue(json, INDArray.class);
+        assertArrayEquals(array.shape(), test.shape());
+        assertEquals(array, test);
+    }
+
+    @Test
+    public void testNumericSerdePermuted2() throws Exception {
+        INDArray array = Nd4j.linspace(1, 24, 24).reshape(2, 3, 4).permute(2, 0, 1);
+
+        com.fasterxml.jackson.databind.ObjectMapper mapper = plainObjectMapper();
+
+        INDArray test = mapper.readValue(mapper.writeValueAsString(array), INDArray.class);
+        assertArrayEquals(array.shape(), test.shape());
+        assertEquals(array, test);
+    }
+
+    @Test
+    public void testNumericFieldsOrder1() throws Exception {
+        INDArray expected = Nd4j.create(new float[] {1, 2, 3, 4, 5, 6}, new int[] {2, 3}, 'f');
+        String type = Nd4j.dataType().name();
+
+        // data comes first, and ordering comes last
+        String json = "{\"data\":[1,2,3,4,5,6],\"shape\":[2,3],\"dataType\":\"" + type + "\",\"ordering\":\"f\"}";
+
+        INDArray test = objectMapper.readValue(json, INDArray.class);
+        assertEquals('f', test.ordering());
+        assertEquals(expected, test);
+
+        INDArray test2 = plainObjectMapper().readValue(json, INDArray.class);
+        assertEquals('f', test2.ordering());
+        assertEquals(expected, test2);
+
+        // ordering goes after data of known type & shape
+        json = "{\"dataType\":\"" + type + "\",\"shape\":[2,3],\"data\":[1,2,3,4,5,6],\"ordering\":\"f\"}";
+        assertEquals(expected, objectMapper.readValue(json, INDArray.class));
+        assertEquals(expected, plainObjectMapper().readValue(json, INDArray.class));
+    }
+
+    @Test
+    public void testNumericLengthMismatch1() throws Exception {
+        String type = Nd4j.dataType().name();
+        String[] jsons = new String[] {
+                        "{\"dataType\":\"" + type + "\",\"shape\":[2,2],\"data\":[1,2,3,4,5,6]}",
+                        "{\"dataType\":\"" + type + "\",\"shape\":[2,2],\"data\":[1,2,3]}",
+                        "{\"data\":[1,2,3,4,5,6],\"dataType\":\"" + type + "\",\"shape\":[2,2]}"};
+
+        for (String json : jsons) {
+            try {
+                objectMapper.readValue(json, INDArray.class);
+                fail("Exception expected for " + json);
+            } catch (java.io.IOException e) {
+                assertTrue(e.getMessage().contains("shape [2, 2]"));
+            }
+
+            try {
+                plainObjectMapper().readValue(json, INDArray.class);
+                fail("Exception expected for " + json);
+            } catch (java.io.IOException e) {
+                assertTrue(e.getMessage().contains("shape [2, 2]"));
+            }
+        }
+    }
+
+    @Test
+    public void testNumericSerdeDouble1() throws Exception {
+        DataBuffer.Type initial = Nd4j.dataType();
+        try {
+            Nd4j.setDataType(DataBuffer.Type.DOUBLE);
+            INDArray array = Nd4j.rand(5, 7);
+
+            INDArray test = objectMapper.readValue(objectMapper.writeValueAsString(array), INDArray.class);
+            assertEquals(DataBuffer.Type.DOUBLE, test.data().dataType());
+            assertEquals(array, test);
+        } finally {
+            Nd4j.setDataType(initial);
+        }
+    }
+
+    @Test
+    public void testLargeArraySerde1() throws Exception {
+        INDArray array = Nd4j.rand(100, 100);
+        String json = objectMapper.writeValueAsString(array);
+
+        // large arrays are written in binary form, base64-encoded by generator
+        assertTrue(json.contains("\"binary\""));
+        assertFalse(json.contains("\"data\""));
+
+        INDArray test = objectMapper.readValue(json, INDArray.class);
+        assertEquals(array, test);
+    }
+
+    @Test
+    public void testLegacySerde1() throws Exception {
+        INDArray array = Nd4j.linspace(1, 6, 6).reshape(2, 3);
+        String json = objectMapper.writeValueAsString(Collections.singletonMap("array", Nd4jBase64.base64String(array)));
+
+        INDArray test = objectMapper.readValue(json, INDArray.class);
+        assertEquals(array, test);
+    }
+
+    @Test
+    public void testBinarySerde1() throws Exception {
+        INDArray array = Nd4j.linspace(1, 100, 100).reshape(10, 10);
+
+        // TokenBuffer supports binary data natively, just like Smile or CBOR generators
+        TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+        objectMapper.writeValue(buffer, array.getRows(1, 3, 5));
+
+        JsonParser parser = buffer.asParser();
+        parser.nextToken();
+        INDArray test = objectMapper.readValue(parser, INDArray.class);
+
+        assertEquals(array.getRows(1, 3, 5), test);
+    }
+
+    private static com.fasterxml.jackson.databind.ObjectMapper plainObjectMapper() {
+        com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
+        com.fasterxml.jackson.databind.module.SimpleModule nd4j = new com.fasterxml.jackson.databind.module.SimpleModule("nd4j");
+        nd4j.addDeserializer(INDArray.class, new org.nd4j.shade.serde.jackson.ndarray.NDArrayDeSerializer());
+        nd4j.addSerializer(INDArray.class, new org.nd4j.shade.serde.jackson.ndarray.NDArraySerializer());
+        mapper.registerModule(nd4j);
+        return mapper;
+    }
+
     private static ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         SimpleModule nd4j = new SimpleModule("nd4j");
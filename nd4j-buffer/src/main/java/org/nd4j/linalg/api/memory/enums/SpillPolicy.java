@@ -22,4 +22,12 @@ public enum SpillPolicy {
      * PLEASE NOTE: basically useful for debugging.
      */
     FAIL,
+
+    /**
+     * This policy means - workspace grows by chaining additional large blocks, and bump allocation continues in the new block.
+     * Chained blocks are reused in subsequent cycles, and released once they weren't used for a number of cycles.
+     *
+     * PLEASE NOTE: applicable to BLOCK_LEFT reset policy only. For circular workspaces this policy behaves as EXTERNAL.
+     */
+    SEGMENTED,
 }
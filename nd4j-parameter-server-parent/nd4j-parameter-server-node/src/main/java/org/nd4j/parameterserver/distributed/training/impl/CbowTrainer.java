@@ -188,10 +188,11 @@ public class CbowTrainer extends BaseTrainer<CbowRequestMessage> {
             }
         }
 
-        if (updated)
-            for (int i = 0; i < cbr.getSyn0rows().length; i++) {
-                Nd4j.getBlasWrapper().axpy(new Double(1.0), neu1e, syn0.getRow(cbr.getSyn0rows()[i]));
-            }
+        // context rows may repeat, scatterAdd accumulates update for each occurrence
+        if (updated) {
+            int[] rows = cbr.getSyn0rows();
+            Nd4j.scatterAdd(syn0, 0, rows, neu1e.broadcast(rows.length, syn0.columns()));
+        }
 
         // we send back confirmation message only from Shard which received this message
         RequestDescriptor descriptor = RequestDescriptor.createDescriptor(chain.getOriginatorId(), chain.getFrameId());
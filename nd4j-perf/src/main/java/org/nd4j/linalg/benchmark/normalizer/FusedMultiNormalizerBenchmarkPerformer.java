@@ -0,0 +1,14 @@
+package org.nd4j.linalg.benchmark.normalizer;
+
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkPerformer;
+
+/**
+ * MultiDataSet standardization: fused transform, all arrays processed concurrently
+ */
+public class FusedMultiNormalizerBenchmarkPerformer extends BaseBenchmarkPerformer {
+
+    public FusedMultiNormalizerBenchmarkPerformer(int nTimes) {
+        super(new MultiNormalizerOpRunner(MultiNormalizerOpRunner.Mode.FUSED), nTimes);
+        System.out.println("Bytes per batch: " + ((MultiNormalizerOpRunner) runner).bytesPerBatch());
+    }
+}
@@ -0,0 +1,82 @@
+package org.nd4j.linalg.benchmark.normalizer;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastDivOp;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastSubOp;
+import org.nd4j.linalg.benchmark.api.OpRunner;
+import org.nd4j.linalg.dataset.MultiDataSet;
+import org.nd4j.linalg.dataset.api.preprocessor.MultiNormalizerStandardize;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * Standardization of MultiDataSet with many inputs, i.e. multi-input model batch
+ */
+public class MultiNormalizerOpRunner implements OpRunner {
+    public enum Mode {
+        /**
+         * MultiNormalizerStandardize: fused transform, all arrays processed concurrently
+         */
+        FUSED,
+        /**
+         * Serial subtraction and division via broadcast ops, array by array, the way it was done before
+         */
+        SERIAL,
+    }
+
+    protected static final int BATCH_SIZE = 64;
+    protected static final int NUM_VECTOR_INPUTS = 24;
+    protected static final int NUM_IMAGE_INPUTS = 4;
+
+    protected final Mode mode;
+    protected final MultiDataSet dataSet;
+    protected final MultiNormalizerStandardize normalizer = new MultiNormalizerStandardize();
+
+    public MultiNormalizerOpRunner(Mode mode) {
+        this.mode = mode;
+
+        INDArray[] features = new INDArray[NUM_VECTOR_INPUTS + NUM_IMAGE_INPUTS];
+        for (int i = 0; i < NUM_VECTOR_INPUTS; i++)
+            features[i] = Nd4j.rand(BATCH_SIZE, 256).muli(i + 1);
+
+        for (int i = 0; i < NUM_IMAGE_INPUTS; i++)
+            features[NUM_VECTOR_INPUTS + i] = Nd4j.rand(new int[] {BATCH_SIZE, 3, 64, 64}).muli(255);
+
+        dataSet = new MultiDataSet(features, new INDArray[] {Nd4j.rand(BATCH_SIZE, 10)});
+        normalizer.fit(dataSet);
+    }
+
+    /**
+     * This method returns number of bytes processed by single runOp() call
+     *
+     * @return
+     */
+    public long bytesPerBatch() {
+        long bytes = 0;
+        for (INDArray array : dataSet.getFeatures())
+            bytes += array.lengthLong() * array.data().getElementSize();
+
+        return bytes;
+    }
+
+    @Override
+    public void runOp() {
+        if (mode == Mode.FUSED) {
+            normalizer.preProcess(dataSet);
+            return;
+        }
+
+        for (int i = 0; i < dataSet.numFeatureArrays(); i++) {
+            INDArray array = dataSet.getFeatures(i);
+            INDArray mean = normalizer.getFeatureMean(i);
+            INDArray std = normalizer.getFeatureStd(i);
+
+            if (array.rank() <= 2) {
+                array.subiRowVector(mean);
+                array.diviRowVector(std);
+            } else {
+                Nd4j.getExecutioner().execAndReturn(new BroadcastSubOp(array, mean, array, 1));
+                Nd4j.getExecutioner().execAndReturn(new BroadcastDivOp(array, std, array, 1));
+            }
+        }
+    }
+}
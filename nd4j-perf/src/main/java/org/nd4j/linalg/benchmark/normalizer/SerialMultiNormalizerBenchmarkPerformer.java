@@ -0,0 +1,14 @@
+package org.nd4j.linalg.benchmark.normalizer;
+
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkPerformer;
+
+/**
+ * MultiDataSet standardization: serial broadcast subtraction and division, array by array
+ */
+public class SerialMultiNormalizerBenchmarkPerformer extends BaseBenchmarkPerformer {
+
+    public SerialMultiNormalizerBenchmarkPerformer(int nTimes) {
+        super(new MultiNormalizerOpRunner(MultiNormalizerOpRunner.Mode.SERIAL), nTimes);
+        System.out.println("Bytes per batch: " + ((MultiNormalizerOpRunner) runner).bytesPerBatch());
+    }
+}
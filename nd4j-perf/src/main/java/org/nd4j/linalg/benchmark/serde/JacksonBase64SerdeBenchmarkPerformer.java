@@ -0,0 +1,15 @@
+package org.nd4j.linalg.benchmark.serde;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkPerformer;
+
+/**
+ * INDArray round trip through JSON ObjectMapper, BASE64 layout
+ */
+public class JacksonBase64SerdeBenchmarkPerformer extends BaseBenchmarkPerformer {
+
+    public JacksonBase64SerdeBenchmarkPerformer(int nTimes) {
+        super(new JacksonSerdeOpRunner(new ObjectMapper(), JacksonSerdeOpRunner.Mode.BASE64), nTimes);
+        System.out.println("Payload size: " + ((JacksonSerdeOpRunner) runner).payloadSize() + " bytes");
+    }
+}
@@ -0,0 +1,16 @@
+package org.nd4j.linalg.benchmark.serde;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkPerformer;
+
+/**
+ * INDArray round trip through Smile ObjectMapper, BINARY layout
+ */
+public class JacksonBinarySerdeBenchmarkPerformer extends BaseBenchmarkPerformer {
+
+    public JacksonBinarySerdeBenchmarkPerformer(int nTimes) {
+        super(new JacksonSerdeOpRunner(new ObjectMapper(new SmileFactory()), JacksonSerdeOpRunner.Mode.BINARY), nTimes);
+        System.out.println("Payload size: " + ((JacksonSerdeOpRunner) runner).payloadSize() + " bytes");
+    }
+}
@@ -0,0 +1,15 @@
+package org.nd4j.linalg.benchmark.serde;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkPerformer;
+
+/**
+ * INDArray round trip through JSON ObjectMapper, NUMERIC layout
+ */
+public class JacksonNumericSerdeBenchmarkPerformer extends BaseBenchmarkPerformer {
+
+    public JacksonNumericSerdeBenchmarkPerformer(int nTimes) {
+        super(new JacksonSerdeOpRunner(new ObjectMapper(), JacksonSerdeOpRunner.Mode.NUMERIC), nTimes);
+        System.out.println("Payload size: " + ((JacksonSerdeOpRunner) runner).payloadSize() + " bytes");
+    }
+}
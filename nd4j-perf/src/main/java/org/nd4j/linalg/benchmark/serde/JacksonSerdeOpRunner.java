@@ -0,0 +1,72 @@
+package org.nd4j.linalg.benchmark.serde;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.benchmark.api.OpRunner;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.serde.base64.Nd4jBase64;
+import org.nd4j.shade.serde.jackson.ndarray.NDArrayDeSerializer;
+import org.nd4j.shade.serde.jackson.ndarray.NDArraySerializer;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Round trip of INDArray through Jackson ObjectMapper
+ */
+public class JacksonSerdeOpRunner implements OpRunner {
+    public enum Mode {
+        BINARY, NUMERIC, BASE64,
+    }
+
+    protected final ObjectMapper mapper;
+    protected final Mode mode;
+    protected INDArray arr = Nd4j.rand(1000, 1000);
+
+    public JacksonSerdeOpRunner(ObjectMapper mapper, Mode mode) {
+        SimpleModule nd4j = new SimpleModule("nd4j");
+        nd4j.addDeserializer(INDArray.class, new NDArrayDeSerializer());
+        nd4j.addSerializer(INDArray.class, new NDArraySerializer());
+        mapper.registerModule(nd4j);
+
+        this.mapper = mapper;
+        this.mode = mode;
+    }
+
+    /**
+     * This method returns number of bytes in serialized payload
+     *
+     * @return
+     */
+    public int payloadSize() {
+        try {
+            return serialize().length;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    protected byte[] serialize() throws IOException {
+        if (mode == Mode.BASE64)
+            return mapper.writeValueAsBytes(Collections.singletonMap("array", Nd4jBase64.base64String(arr)));
+
+        return mapper.writeValueAsBytes(arr);
+    }
+
+    @Override
+    public void runOp() {
+        try {
+            byte[] bytes = serialize();
+
+            if (mode == Mode.BASE64) {
+                Map<?, ?> map = mapper.readValue(bytes, Map.class);
+                Nd4jBase64.fromBase64((String) map.get("array"));
+            } else
+                mapper.readValue(bytes, INDArray.class);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.nd4j.camel.kafka;
 
+import kafka.serializer.DefaultEncoder;
 import kafka.serializer.StringEncoder;
 import lombok.Builder;
 import lombok.Data;
@@ -32,4 +33,17 @@ public class KafkaConnectionInformation implements Serializable {
                         kafkaBrokerList, topicName, groupId, zookeeperHost, zookeeperPort,
                         StringEncoder.class.getName(), StringEncoder.class.getName());
     }
+
+    /**
+     * Returns a kafka connection uri for raw binary messages:
+     * keys are serialized as strings, and message bodies are passed as byte arrays
+     * @return a kafka connection uri
+     * represented by this connection information
+     */
+    public String kafkaBinaryUri() {
+        return String.format(
+                        "kafka://%s?topic=%s&groupId=%s&zookeeperHost=%s&zookeeperPort=%d&serializerClass=%s&keySerializerClass=%s",
+                        kafkaBrokerList, topicName, groupId, zookeeperHost, zookeeperPort,
+                        DefaultEncoder.class.getName(), StringEncoder.class.getName());
+    }
 }
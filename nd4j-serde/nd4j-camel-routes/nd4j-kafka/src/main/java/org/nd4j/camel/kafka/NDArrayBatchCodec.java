@@ -0,0 +1,262 @@
+package org.nd4j.camel.kafka;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.shape.Shape;
+import org.nd4j.linalg.compression.BasicNDArrayCompressor;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.linalg.util.ArrayUtil;
+import org.nd4j.serde.binary.BinarySerde;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Packs multiple arrays of the same shape into single Kafka record.
+ *
+ * Arrays are flattened into rows of one 2D matrix, optionally compressed with {@link BasicNDArrayCompressor}.
+ * So per-record overhead is paid once per batch, not once per array.
+ *
+ * Layout, all numbers are big-endian:
+ * 4 bytes int magic
+ * 4 bytes int for number of arrays
+ * 4 bytes int for rank of each array
+ * rank * 4 bytes for shape of each array
+ * 4 bytes int for flags: compressed payload, little-endian payload
+ * payload
+ *
+ * Uncompressed payload is 4 bytes int for data type ordinal, followed by big-endian elements of [numArrays, arrayLength] matrix.
+ * Compressed payload is {@link BinarySerde} layout of compressed matrix. Compressed data is opaque, so it's kept in byte order
+ * of the producer, and can only be decoded on machine with the same byte order.
+ */
+public class NDArrayBatchCodec {
+    public static final int MAGIC = 0x4E443442;
+
+    protected static final int FLAG_COMPRESSED = 1;
+    protected static final int FLAG_LITTLE_ENDIAN = 2;
+
+    private NDArrayBatchCodec() {}
+
+    /**
+     * This method packs given arrays into single record
+     *
+     * @param arrays arrays to pack, all of the same shape
+     * @param compressionAlgorithm compression algorithm, or null if no compression should be applied
+     * @return
+     */
+    public static byte[] encode(@NonNull List<INDArray> arrays, String compressionAlgorithm) {
+        if (arrays.isEmpty())
+            throw new IllegalArgumentException("Can't encode empty batch");
+
+        int[] itemShape = arrays.get(0).shape();
+        int itemLength = arrays.get(0).length();
+
+        INDArray matrix = Nd4j.createUninitialized(new int[] {arrays.size(), itemLength}, 'c');
+        for (int i = 0; i < arrays.size(); i++) {
+            INDArray array = arrays.get(i);
+            if (!Shape.shapeEquals(itemShape, array.shape()))
+                throw new IllegalArgumentException("All arrays in batch should have the same shape: expected "
+                                + Arrays.toString(itemShape) + ", got "
+                                + Arrays.toString(array.shape()));
+
+            matrix.getRow(i).assign(array.reshape('c', 1, itemLength));
+        }
+
+        int flags = 0;
+        int payloadLength;
+        if (compressionAlgorithm != null) {
+            matrix = BasicNDArrayCompressor.getInstance().compress(matrix, compressionAlgorithm);
+            flags |= FLAG_COMPRESSED;
+            if (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN)
+                flags |= FLAG_LITTLE_ENDIAN;
+
+            payloadLength = BinarySerde.byteBufferSizeFor(matrix);
+        } else {
+            matrix = BinarySerde.prepare(matrix);
+            payloadLength = 4 + (int) BinarySerde.dataBytes(matrix);
+        }
+
+        int headerLength = 16 + itemShape.length * 4;
+        byte[] result = new byte[headerLength + payloadLength];
+        ByteBuffer buffer = ByteBuffer.wrap(result).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(arrays.size());
+        buffer.putInt(itemShape.length);
+        for (int dim : itemShape)
+            buffer.putInt(dim);
+        buffer.putInt(flags);
+
+        if ((flags & FLAG_COMPRESSED) != 0) {
+            BinarySerde.put(matrix, buffer);
+        } else {
+            buffer.putInt(matrix.data().dataType().ordinal());
+            copy(BinarySerde.dataBufferFor(matrix).order(ByteOrder.nativeOrder()), buffer,
+                            matrix.data().getElementSize(), BinarySerde.dataBytes(matrix));
+        }
+
+        return result;
+    }
+
+    /**
+     * This method returns number of arrays packed into given record
+     *
+     * @param record
+     * @return
+     */
+    public static int numberOfArrays(@NonNull byte[] record) {
+        ByteBuffer buffer = header(record);
+        return buffer.getInt();
+    }
+
+    /**
+     * This method unpacks given record into the list of arrays
+     *
+     * @param record
+     * @return
+     */
+    public static List<INDArray> decode(@NonNull byte[] record) {
+        ByteBuffer buffer = header(record);
+        int numArrays = buffer.getInt();
+        int[] itemShape = new int[buffer.getInt()];
+        for (int i = 0; i < itemShape.length; i++)
+            itemShape[i] = buffer.getInt();
+
+        INDArray matrix;
+        if (isCompressed(buffer.getInt())) {
+            matrix = BasicNDArrayCompressor.getInstance().decompress(BinarySerde.toArray(buffer));
+        } else {
+            DataBuffer.Type type = DataBuffer.Type.values()[buffer.getInt()];
+            int itemLength = ArrayUtil.prod(itemShape);
+
+            DataBuffer data = Nd4j.createBuffer(type, numArrays * (long) itemLength, false);
+            copy(buffer, data.pointer().asByteBuffer().order(ByteOrder.nativeOrder()), data.getElementSize(),
+                            data.length() * data.getElementSize());
+            int[] shape = new int[] {numArrays, itemLength};
+            matrix = Nd4j.create(data, shape, Nd4j.getStrides(shape, 'c'), 0, 'c');
+        }
+
+        List<INDArray> result = new ArrayList<>(numArrays);
+        for (int i = 0; i < numArrays; i++)
+            result.add(matrix.getRow(i).reshape('c', itemShape));
+
+        return result;
+    }
+
+    /**
+     * This method unpacks given record into rows of existing 2D array, starting at given row.
+     * Each packed array becomes one row of the target array.
+     *
+     * If record isn't compressed, and target is c-ordered array of the same data type, elements are copied
+     * straight into target buffer, without any intermediate allocations.
+     *
+     * @param record record to decode
+     * @param target preallocated 2D array with enough rows
+     * @param rowOffset first row to be filled
+     * @return number of rows filled
+     */
+    public static int decode(@NonNull byte[] record, @NonNull INDArray target, int rowOffset) {
+        if (target.rank() != 2)
+            throw new IllegalArgumentException("Target array should be 2D");
+
+        ByteBuffer buffer = header(record);
+        int numArrays = buffer.getInt();
+        int[] itemShape = new int[buffer.getInt()];
+        for (int i = 0; i < itemShape.length; i++)
+            itemShape[i] = buffer.getInt();
+
+        if (rowOffset < 0 || rowOffset + numArrays > target.rows())
+            throw new IllegalArgumentException("Target array has " + target.rows() + " rows, but " + numArrays
+                            + " rows are required at offset " + rowOffset);
+
+        int columns = ArrayUtil.prod(itemShape);
+        if (columns != target.columns())
+            throw new IllegalArgumentException("Target array has " + target.columns() + " columns, but packed arrays have length " + columns);
+
+        if (isCompressed(buffer.getInt())) {
+            INDArray matrix = BasicNDArrayCompressor.getInstance().decompress(BinarySerde.toArray(buffer));
+            target.get(NDArrayIndex.interval(rowOffset, rowOffset + numArrays), NDArrayIndex.all()).assign(matrix);
+            return numArrays;
+        }
+
+        DataBuffer.Type type = DataBuffer.Type.values()[buffer.getInt()];
+        if (type == target.data().dataType() && target.ordering() == 'c' && !target.isView() && target.offset() == 0) {
+            int elementSize = target.data().getElementSize();
+
+            Nd4j.getAffinityManager().ensureLocation(target, AffinityManager.Location.HOST);
+
+            ByteBuffer destination = target.data().pointer().asByteBuffer().order(ByteOrder.nativeOrder());
+            destination.position(rowOffset * columns * elementSize);
+            copy(buffer, destination, elementSize, numArrays * (long) columns * elementSize);
+
+            Nd4j.getAffinityManager().tagLocation(target, AffinityManager.Location.HOST);
+        } else {
+            DataBuffer data = Nd4j.createBuffer(type, numArrays * (long) columns, false);
+            copy(buffer, data.pointer().asByteBuffer().order(ByteOrder.nativeOrder()), data.getElementSize(),
+                            data.length() * data.getElementSize());
+            int[] shape = new int[] {numArrays, columns};
+            INDArray matrix = Nd4j.create(data, shape, Nd4j.getStrides(shape, 'c'), 0, 'c');
+
+            target.get(NDArrayIndex.interval(rowOffset, rowOffset + numArrays), NDArrayIndex.all()).assign(matrix);
+        }
+
+        return numArrays;
+    }
+
+    protected static ByteBuffer header(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record).order(ByteOrder.BIG_ENDIAN);
+        if (record.length < 16 || buffer.getInt() != MAGIC)
+            throw new IllegalArgumentException("Record doesn't contain packed arrays");
+
+        return buffer;
+    }
+
+    protected static boolean isCompressed(int flags) {
+        if ((flags & FLAG_COMPRESSED) == 0)
+            return false;
+
+        ByteOrder order = (flags & FLAG_LITTLE_ENDIAN) != 0 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+        if (order != ByteOrder.nativeOrder())
+            throw new IllegalArgumentException("Compressed record was produced with " + order
+                            + " byte order, and can't be decoded on " + ByteOrder.nativeOrder() + " machine");
+
+        return true;
+    }
+
+    /**
+     * This method copies elements of given size, converting them from byte order of source to byte order of destination.
+     * Both buffers are advanced past copied bytes.
+     */
+    protected static void copy(ByteBuffer source, ByteBuffer destination, int elementSize, long length) {
+        if (source.remaining() < length)
+            throw new IllegalArgumentException("Record is truncated: " + length + " bytes of data expected, but only "
+                            + source.remaining() + " available");
+
+        int bytes = (int) length;
+        ByteBuffer src = source.slice().order(source.order());
+        src.limit(bytes);
+        ByteBuffer dst = destination.slice().order(destination.order());
+
+        switch (elementSize) {
+            case 8:
+                dst.asLongBuffer().put(src.asLongBuffer());
+                break;
+            case 4:
+                dst.asIntBuffer().put(src.asIntBuffer());
+                break;
+            case 2:
+                dst.asShortBuffer().put(src.asShortBuffer());
+                break;
+            default:
+                dst.put(src);
+        }
+
+        source.position(source.position() + bytes);
+        destination.position(destination.position() + bytes);
+    }
+}
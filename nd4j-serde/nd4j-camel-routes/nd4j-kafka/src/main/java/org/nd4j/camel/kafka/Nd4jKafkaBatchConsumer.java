@@ -0,0 +1,47 @@
+package org.nd4j.camel.kafka;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NonNull;
+import org.apache.camel.CamelContext;
+import org.apache.camel.ConsumerTemplate;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.util.List;
+
+/**
+ * Receives batches of ndarrays published by {@link Nd4jKafkaBatchProducer}
+ */
+@AllArgsConstructor
+@Builder
+public class Nd4jKafkaBatchConsumer {
+    private KafkaConnectionInformation connectionInformation;
+    private ConsumerTemplate consumerTemplate;
+    private CamelContext camelContext;
+
+    /**
+     * Receive next batch of ndarrays
+     * @return
+     */
+    public List<INDArray> receive() {
+        return NDArrayBatchCodec.decode(receiveRecord());
+    }
+
+    /**
+     * Receive next batch of ndarrays into rows of preallocated 2D array, starting at given row.
+     * Each array of the batch becomes one row of the target array.
+     *
+     * @param target preallocated 2D array, with number of columns equal to length of published arrays
+     * @param rowOffset first row to be filled
+     * @return number of rows filled
+     */
+    public int receive(@NonNull INDArray target, int rowOffset) {
+        return NDArrayBatchCodec.decode(receiveRecord(), target, rowOffset);
+    }
+
+    protected byte[] receiveRecord() {
+        if (consumerTemplate == null)
+            consumerTemplate = camelContext.createConsumerTemplate();
+        return consumerTemplate.receiveBody(Nd4jKafkaBatchRoute.RECEIVE_ENDPOINT, byte[].class);
+    }
+}
@@ -0,0 +1,34 @@
+package org.nd4j.camel.kafka;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import org.apache.camel.CamelContext;
+import org.apache.camel.ProducerTemplate;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+/**
+ * Publishes ndarrays through {@link Nd4jKafkaBatchRoute}.
+ * Arrays are sent to kafka in batches, so all arrays published should have the same shape.
+ */
+@AllArgsConstructor
+@Builder
+public class Nd4jKafkaBatchProducer {
+
+    private KafkaConnectionInformation connectionInformation;
+    private CamelContext camelContext;
+    private ProducerTemplate producerTemplate;
+
+    /**
+     * Publish to a kafka topic
+     * based on the connection information.
+     *
+     * PLEASE NOTE: array is sent as part of the batch, so it might be delayed up to linger time.
+     * Array is copied on publish, so it can be modified or reused right after this call
+     * @param arr
+     */
+    public void publish(INDArray arr) {
+        if (producerTemplate == null)
+            producerTemplate = camelContext.createProducerTemplate();
+        producerTemplate.sendBody(Nd4jKafkaBatchRoute.START_ENDPOINT, arr);
+    }
+}
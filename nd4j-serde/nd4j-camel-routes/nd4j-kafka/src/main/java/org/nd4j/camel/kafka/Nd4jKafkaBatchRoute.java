@@ -0,0 +1,90 @@
+package org.nd4j.camel.kafka;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.kafka.KafkaConstants;
+import org.apache.camel.processor.aggregate.AggregationStrategy;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sends ndarrays to kafka in batches.
+ *
+ * Arrays sent to {@link #START_ENDPOINT} are aggregated until either batchSize arrays are collected,
+ * or lingerMs milliseconds passed since first array of the batch. Then whole batch is packed
+ * into single kafka message with {@link NDArrayBatchCodec}, optionally compressed.
+ *
+ * Received messages are passed to {@link #RECEIVE_ENDPOINT} as raw bytes, and decoded by {@link Nd4jKafkaBatchConsumer}
+ */
+@AllArgsConstructor
+@Builder
+public class Nd4jKafkaBatchRoute extends RouteBuilder {
+    public static final String START_ENDPOINT = "direct:startBatch";
+    public static final String RECEIVE_ENDPOINT = "seda:receiveBatch";
+
+    private KafkaConnectionInformation kafkaConnectionInformation;
+    private int batchSize;
+    private long lingerMs;
+
+    // null means no compression
+    private String compressionAlgorithm;
+
+    public static class Nd4jKafkaBatchRouteBuilder {
+        private int batchSize = 64;
+        private long lingerMs = 100;
+    }
+
+    @Override
+    public void configure() throws Exception {
+        final String kafkaUri = kafkaConnectionInformation.kafkaBinaryUri();
+        from(START_ENDPOINT).aggregate(constant(true), new BatchAggregationStrategy()).completionSize(batchSize)
+                        .completionTimeout(lingerMs).process(new Processor() {
+                            @Override
+                            public void process(Exchange exchange) throws Exception {
+                                List<INDArray> batch = (List<INDArray>) exchange.getIn().getBody();
+                                byte[] bytes = NDArrayBatchCodec.encode(batch, compressionAlgorithm);
+                                exchange.getIn().setBody(bytes, byte[].class);
+                                String id = UUID.randomUUID().toString();
+                                exchange.getIn().setHeader(KafkaConstants.KEY, id);
+                                exchange.getIn().setHeader(KafkaConstants.PARTITION_KEY, id);
+                            }
+                        }).to(kafkaUri);
+
+        from(kafkaUri).to(RECEIVE_ENDPOINT);
+    }
+
+    /**
+     * Collects copies of bodies of incoming exchanges into the list of arrays.
+     * Arrays are kept for up to linger time, so caller is free to modify or release original arrays right after send.
+     */
+    public static class BatchAggregationStrategy implements AggregationStrategy {
+        @Override
+        public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+            INDArray array = newExchange.getIn().getBody(INDArray.class);
+
+            // copies are made out of any workspace, since sender's scope will be closed long before batch is sent
+            try (MemoryWorkspace ws = Nd4j.getWorkspaceManager().scopeOutOfWorkspaces()) {
+                array = array.dup();
+            }
+
+            if (oldExchange == null) {
+                List<INDArray> batch = new ArrayList<>();
+                batch.add(array);
+                newExchange.getIn().setBody(batch);
+                return newExchange;
+            }
+
+            List<INDArray> batch = (List<INDArray>) oldExchange.getIn().getBody();
+            batch.add(array);
+            return oldExchange;
+        }
+    }
+}
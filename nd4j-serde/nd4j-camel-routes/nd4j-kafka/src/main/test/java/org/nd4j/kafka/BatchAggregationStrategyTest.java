@@ -0,0 +1,54 @@
+package org.nd4j.kafka;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.junit.Test;
+import org.nd4j.camel.kafka.Nd4jKafkaBatchRoute;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BatchAggregationStrategyTest {
+
+    @Test
+    public void testAggregation1() throws Exception {
+        CamelContext context = new DefaultCamelContext();
+        Nd4jKafkaBatchRoute.BatchAggregationStrategy strategy = new Nd4jKafkaBatchRoute.BatchAggregationStrategy();
+
+        INDArray original = Nd4j.linspace(1, 6, 6);
+        Exchange first = new DefaultExchange(context);
+        first.getIn().setBody(original);
+
+        Exchange aggregated = strategy.aggregate(null, first);
+
+        WorkspaceConfiguration configuration = WorkspaceConfiguration.builder().initialSize(1024 * 1024).build();
+        INDArray attached;
+        Exchange second = new DefaultExchange(context);
+        try (MemoryWorkspace ws = Nd4j.getWorkspaceManager().getAndActivateWorkspace(configuration, "KAFKA_BATCH")) {
+            attached = Nd4j.create(6).assign(7.0);
+            assertTrue(attached.isAttached());
+
+            second.getIn().setBody(attached);
+            assertTrue(aggregated == strategy.aggregate(aggregated, second));
+        }
+
+        List<INDArray> batch = (List<INDArray>) aggregated.getIn().getBody();
+        assertEquals(2, batch.size());
+
+        // batch holds copies, so changes to original arrays aren't visible in it
+        original.assign(0.0);
+        assertEquals(Nd4j.linspace(1, 6, 6), batch.get(0));
+
+        assertFalse(batch.get(1).isAttached());
+        assertEquals(Nd4j.create(6).assign(7.0), batch.get(1));
+
+        Nd4j.getWorkspaceManager().destroyAllWorkspacesForCurrentThread();
+    }
+}
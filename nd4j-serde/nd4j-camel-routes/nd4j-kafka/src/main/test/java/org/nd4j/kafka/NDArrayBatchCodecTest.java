@@ -0,0 +1,118 @@
+package org.nd4j.kafka;
+
+import org.junit.Test;
+import org.nd4j.camel.kafka.NDArrayBatchCodec;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class NDArrayBatchCodecTest {
+
+    @Test
+    public void testDecodeIntoTarget1() throws Exception {
+        List<INDArray> arrays = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+            arrays.add(Nd4j.linspace(1, 6, 6).reshape(2, 3).addi(i * 10));
+
+        // uncompressed record & c-ordered target of the same type: bytes are copied straight into target buffer
+        byte[] record = NDArrayBatchCodec.encode(arrays, null);
+        assertEquals(3, NDArrayBatchCodec.numberOfArrays(record));
+
+        INDArray target = Nd4j.create(new int[] {5, 6}, 'c');
+        assertEquals(3, NDArrayBatchCodec.decode(record, target, 1));
+
+        assertEquals(Nd4j.create(1, 6), target.getRow(0));
+        for (int i = 0; i < 3; i++)
+            assertEquals(arrays.get(i).reshape('c', 1, 6), target.getRow(i + 1));
+        assertEquals(Nd4j.create(1, 6), target.getRow(4));
+    }
+
+    @Test
+    public void testDecodeIntoTarget2() throws Exception {
+        List<INDArray> arrays = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+            arrays.add(Nd4j.linspace(1, 6, 6).reshape(2, 3).addi(i * 10));
+
+        byte[] record = NDArrayBatchCodec.encode(arrays, null);
+
+        // f-ordered target goes through assign
+        INDArray target = Nd4j.create(new int[] {3, 6}, 'f');
+        assertEquals(3, NDArrayBatchCodec.decode(record, target, 0));
+
+        for (int i = 0; i < 3; i++)
+            assertEquals(arrays.get(i).reshape('c', 1, 6), target.getRow(i));
+    }
+
+    @Test
+    public void testDecode1() throws Exception {
+        List<INDArray> arrays = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            arrays.add(Nd4j.rand(3, 4));
+
+        List<INDArray> decoded = NDArrayBatchCodec.decode(NDArrayBatchCodec.encode(arrays, null));
+
+        assertEquals(arrays.size(), decoded.size());
+        for (int i = 0; i < arrays.size(); i++)
+            assertEquals(arrays.get(i), decoded.get(i));
+    }
+
+    @Test
+    public void testByteOrder1() throws Exception {
+        List<INDArray> arrays = new ArrayList<>();
+        arrays.add(Nd4j.create(new float[] {1.0f, 2.0f}));
+
+        byte[] record = NDArrayBatchCodec.encode(arrays, null);
+
+        // layout doesn't depend on byte order of the machine
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        assertEquals(NDArrayBatchCodec.MAGIC, buffer.getInt());
+        assertEquals(1, buffer.getInt());
+        assertEquals(2, buffer.getInt());
+        assertEquals(1, buffer.getInt());
+        assertEquals(2, buffer.getInt());
+        assertEquals(0, buffer.getInt());
+        assertEquals(arrays.get(0).data().dataType().ordinal(), buffer.getInt());
+        assertEquals(1.0f, buffer.getFloat(), 0.0f);
+        assertEquals(2.0f, buffer.getFloat(), 0.0f);
+        assertEquals(record.length, buffer.position());
+    }
+
+    @Test
+    public void testCompressed1() throws Exception {
+        List<INDArray> arrays = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            arrays.add(Nd4j.linspace(1, 12, 12).reshape(3, 4).addi(i));
+
+        byte[] record = NDArrayBatchCodec.encode(arrays, "GZIP");
+
+        List<INDArray> decoded = NDArrayBatchCodec.decode(record);
+        for (int i = 0; i < arrays.size(); i++)
+            assertEquals(arrays.get(i), decoded.get(i));
+
+        INDArray target = Nd4j.create(4, 12);
+        NDArrayBatchCodec.decode(record, target, 0);
+        for (int i = 0; i < arrays.size(); i++)
+            assertEquals(arrays.get(i).reshape('c', 1, 12), target.getRow(i));
+    }
+
+    @Test
+    public void testTruncated1() throws Exception {
+        List<INDArray> arrays = new ArrayList<>();
+        arrays.add(Nd4j.rand(3, 4));
+
+        byte[] record = NDArrayBatchCodec.encode(arrays, null);
+        try {
+            NDArrayBatchCodec.decode(Arrays.copyOf(record, record.length - 4));
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            //
+        }
+    }
+}
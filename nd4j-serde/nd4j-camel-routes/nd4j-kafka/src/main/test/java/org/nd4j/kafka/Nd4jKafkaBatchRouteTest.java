@@ -0,0 +1,79 @@
+package org.nd4j.kafka;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.nd4j.camel.kafka.KafkaConnectionInformation;
+import org.nd4j.camel.kafka.Nd4jKafkaBatchConsumer;
+import org.nd4j.camel.kafka.Nd4jKafkaBatchProducer;
+import org.nd4j.camel.kafka.Nd4jKafkaBatchRoute;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class Nd4jKafkaBatchRouteTest {
+    private EmbeddedKafkaCluster kafka;
+    private EmbeddedZookeeper zk;
+    private CamelContext camelContext;
+    public final static String TOPIC = "nd4jbatchtest";
+    public final static String GROUP_ID = "nd4j";
+    private KafkaConnectionInformation connectionInformation;
+
+    @Before
+    public void before() throws Exception {
+        zk = new EmbeddedZookeeper(TestUtils.getAvailablePort());
+        zk.startup();
+        kafka = new EmbeddedKafkaCluster(zk.getConnection());
+        kafka.startup();
+        kafka.createTopics(TOPIC);
+        camelContext = new DefaultCamelContext();
+        camelContext.start();
+        connectionInformation = KafkaConnectionInformation.builder().groupId(GROUP_ID).topicName(TOPIC)
+                        .zookeeperHost("localhost").zookeeperPort(zk.getPort()).kafkaBrokerList(kafka.getBrokerList())
+                        .build();
+        camelContext.addRoutes(Nd4jKafkaBatchRoute.builder().kafkaConnectionInformation(connectionInformation)
+                        .batchSize(4).lingerMs(1000).compressionAlgorithm("FLOAT16").build());
+    }
+
+    @After
+    public void after() throws Exception {
+        if (kafka != null)
+            kafka.shutdown();
+        if (zk != null)
+            zk.shutdown();
+        if (camelContext != null)
+            camelContext.stop();
+    }
+
+    @Test
+    public void testKafkaBatchRoute() throws Exception {
+        Nd4jKafkaBatchProducer kafkaProducer = Nd4jKafkaBatchProducer.builder().camelContext(camelContext)
+                        .connectionInformation(connectionInformation).build();
+        Nd4jKafkaBatchConsumer consumer = Nd4jKafkaBatchConsumer.builder().camelContext(camelContext)
+                        .connectionInformation(connectionInformation).build();
+
+        // first batch is completed by size
+        for (int i = 0; i < 4; i++)
+            kafkaProducer.publish(Nd4j.valueArrayOf(1, 10, i));
+
+        List<INDArray> batch = consumer.receive();
+        assertEquals(4, batch.size());
+        for (int i = 0; i < 4; i++)
+            assertEquals(Nd4j.valueArrayOf(1, 10, i), batch.get(i));
+
+        // second batch is completed by linger timeout
+        kafkaProducer.publish(Nd4j.valueArrayOf(1, 10, 5));
+        kafkaProducer.publish(Nd4j.valueArrayOf(1, 10, 6));
+
+        INDArray target = Nd4j.create(3, 10);
+        assertEquals(2, consumer.receive(target, 1));
+        assertEquals(Nd4j.create(1, 10), target.getRow(0));
+        assertEquals(Nd4j.valueArrayOf(1, 10, 5), target.getRow(1));
+        assertEquals(Nd4j.valueArrayOf(1, 10, 6), target.getRow(2));
+    }
+}
@@ -1,24 +1,151 @@
 package org.nd4j.shade.serde.jackson.ndarray;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.ArrayUtil;
 import org.nd4j.serde.base64.Nd4jBase64;
+import org.nd4j.serde.binary.BinaryArrayOutputStream;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
+ * INDArray deserializer, counterpart of {@link NDArraySerializer}.
+ *
+ * Binary data is decoded straight into pre-sized DataBuffer, numeric data is read token by token, without building JSON tree.
+ * Fields can come in any order, array is built once all of them are read.
+ * Base64 layout used by previous versions is supported as well.
+ *
  * @author Adam Gibson
  */
 
 public class NDArrayDeSerializer extends JsonDeserializer<INDArray> {
+    // base64 layout used by previous versions
+    public static final String LEGACY_FIELD = "array";
+
     @Override
     public INDArray deserialize(JsonParser jp, DeserializationContext deserializationContext) throws IOException {
-        JsonNode node = jp.getCodec().readTree(jp);
-        String field = node.get("array").asText();
-        INDArray ret = Nd4jBase64.fromBase64(field);
-        return ret;
+        INDArray result = null;
+        DataBuffer.Type type = null;
+        char ordering = 'c';
+        int[] shape = null;
+
+        // numeric data is kept as is, until all fields are read, since fields might come in any order
+        DataBuffer buffer = null;
+        double[] values = null;
+        long length = 0;
+
+        JsonToken token = jp.getCurrentToken();
+        if (token == JsonToken.START_OBJECT)
+            token = jp.nextToken();
+
+        for (; token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+            String field = jp.getCurrentName();
+            jp.nextToken();
+
+            if (NDArraySerializer.BINARY_FIELD.equals(field)) {
+                BinaryArrayOutputStream stream = new BinaryArrayOutputStream();
+                jp.readBinaryValue(stream);
+                result = stream.getArray();
+            } else if (LEGACY_FIELD.equals(field)) {
+                result = Nd4jBase64.fromBase64(jp.getText());
+            } else if (NDArraySerializer.DATA_TYPE_FIELD.equals(field)) {
+                type = DataBuffer.Type.valueOf(jp.getText());
+            } else if (NDArraySerializer.ORDERING_FIELD.equals(field)) {
+                ordering = jp.getText().charAt(0);
+            } else if (NDArraySerializer.SHAPE_FIELD.equals(field)) {
+                List<Integer> dimensions = new ArrayList<>();
+                while (jp.nextToken() != JsonToken.END_ARRAY)
+                    dimensions.add(jp.getIntValue());
+
+                shape = new int[dimensions.size()];
+                for (int i = 0; i < shape.length; i++)
+                    shape[i] = dimensions.get(i);
+            } else if (NDArraySerializer.DATA_FIELD.equals(field)) {
+                if (type != null && shape != null) {
+                    // that's the layout written by NDArraySerializer, so we decode straight into pre-sized buffer
+                    buffer = Nd4j.createBuffer(type, ArrayUtil.prodLong(shape), false);
+                    length = readData(jp, buffer, type);
+                } else {
+                    values = readData(jp);
+                    length = values.length;
+                }
+            } else {
+                jp.skipChildren();
+            }
+        }
+
+        if (result == null && (buffer != null || values != null)) {
+            if (type == null || shape == null)
+                throw new IOException("Array data found, but data type or shape is missing");
+
+            long expected = ArrayUtil.prodLong(shape);
+            if (length != expected)
+                throw new IOException("Array data has " + length + " elements, but shape " + Arrays.toString(shape)
+                                + " requires " + expected);
+
+            if (buffer == null) {
+                buffer = Nd4j.createBuffer(type, expected, false);
+                for (int i = 0; i < values.length; i++)
+                    buffer.put(i, values[i]);
+            }
+
+            result = Nd4j.create(buffer, shape, Nd4j.getStrides(shape, ordering), 0, ordering);
+        }
+
+        if (result == null)
+            throw new IOException("No INDArray found");
+
+        return result;
+    }
+
+    /**
+     * This method reads numeric array into given buffer. Elements beyond buffer length are counted, but not stored.
+     *
+     * @return number of elements read
+     */
+    protected static long readData(JsonParser jp, DataBuffer buffer, DataBuffer.Type type) throws IOException {
+        long length = buffer.length();
+        long i = 0;
+        for (; jp.nextToken() != JsonToken.END_ARRAY; i++) {
+            if (i >= length)
+                continue;
+
+            switch (type) {
+                case DOUBLE:
+                    buffer.put(i, jp.getDoubleValue());
+                    break;
+                case INT:
+                    buffer.put(i, jp.getIntValue());
+                    break;
+                default:
+                    buffer.put(i, jp.getFloatValue());
+            }
+        }
+
+        return i;
+    }
+
+    /**
+     * This method reads numeric array of unknown type and length
+     */
+    protected static double[] readData(JsonParser jp) throws IOException {
+        double[] values = new double[16];
+        int i = 0;
+        while (jp.nextToken() != JsonToken.END_ARRAY) {
+            if (i == values.length)
+                values = Arrays.copyOf(values, values.length * 2);
+
+            values[i++] = jp.getDoubleValue();
+        }
+
+        return Arrays.copyOf(values, i);
     }
 }
@@ -1,26 +1,88 @@
 package org.nd4j.shade.serde.jackson.shaded;
 
 
-import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.factory.Nd4j;
-import org.nd4j.serde.base64.Nd4jBase64;
 import org.nd4j.shade.jackson.core.JsonGenerator;
 import org.nd4j.shade.jackson.databind.JsonSerializer;
 import org.nd4j.shade.jackson.databind.SerializerProvider;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.serde.binary.BinaryArrayInputStream;
+import org.nd4j.serde.binary.BinarySerde;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 /**
+ * INDArray serializer.
+ *
+ * If generator supports binary data natively (Smile, CBOR, etc) - raw BinarySerde layout is written straight from off-heap memory.
+ * For text generators small arrays are written as data type, ordering, shape and plain numeric data array,
+ * and larger arrays are written as the same raw layout, base64-encoded by generator on the fly:
+ * for random values numeric layout is roughly twice larger, and slower to parse.
+ *
  * @author Adam Gibson
  */
 public class NDArraySerializer extends JsonSerializer<INDArray> {
+    public static final String BINARY_FIELD = "binary";
+    public static final String DATA_TYPE_FIELD = "dataType";
+    public static final String ORDERING_FIELD = "ordering";
+    public static final String SHAPE_FIELD = "shape";
+    public static final String DATA_FIELD = "data";
+
+    // arrays longer then this are written in binary form even for text generators
+    public static final int NUMERIC_THRESHOLD = 4096;
+
     @Override
     public void serialize(INDArray indArray, JsonGenerator jsonGenerator, SerializerProvider serializerProvider)
                     throws IOException {
-        String toBase64 = Nd4jBase64.base64String(indArray);
         jsonGenerator.writeStartObject();
-        jsonGenerator.writeStringField("array", toBase64);
+
+        if (jsonGenerator.canWriteBinaryNatively() || indArray.length() > NUMERIC_THRESHOLD) {
+            BinaryArrayInputStream stream = new BinaryArrayInputStream(indArray);
+            jsonGenerator.writeFieldName(BINARY_FIELD);
+            try {
+                jsonGenerator.writeBinary(stream, stream.length());
+            } catch (UnsupportedOperationException e) {
+                // some generators (i.e. TokenBuffer) accept byte arrays only
+                byte[] bytes = new byte[stream.length()];
+                int read = 0;
+                while (read < bytes.length)
+                    read += stream.read(bytes, read, bytes.length - read);
+
+                jsonGenerator.writeBinary(bytes);
+            }
+        } else {
+            // numeric layout has no strides, so buffer should hold elements in array ordering
+            indArray = BinarySerde.prepareDense(indArray);
+
+            DataBuffer buffer = indArray.data();
+
+            jsonGenerator.writeStringField(DATA_TYPE_FIELD, buffer.dataType().name());
+            jsonGenerator.writeStringField(ORDERING_FIELD, String.valueOf(indArray.ordering()));
+
+            jsonGenerator.writeArrayFieldStart(SHAPE_FIELD);
+            for (int i = 0; i < indArray.rank(); i++)
+                jsonGenerator.writeNumber(indArray.size(i));
+            jsonGenerator.writeEndArray();
+
+            int length = indArray.length();
+            jsonGenerator.writeArrayFieldStart(DATA_FIELD);
+            switch (buffer.dataType()) {
+                case DOUBLE:
+                    for (int i = 0; i < length; i++)
+                        jsonGenerator.writeNumber(buffer.getDouble(i));
+                    break;
+                case INT:
+                    for (int i = 0; i < length; i++)
+                        jsonGenerator.writeNumber(buffer.getInt(i));
+                    break;
+                default:
+                    // float representation is shorter, and enough for both FLOAT and HALF
+                    for (int i = 0; i < length; i++)
+                        jsonGenerator.writeNumber(buffer.getFloat(i));
+            }
+            jsonGenerator.writeEndArray();
+        }
+
         jsonGenerator.writeEndObject();
     }
 }
@@ -0,0 +1,56 @@
+package org.nd4j;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kryo serializer for DataSet. Features, labels and mask arrays are written with {@link Nd4jSerializer},
+ * label names are written as plain strings.
+ *
+ * PLEASE NOTE: example metadata isn't serialized
+ */
+public class DataSetSerializer extends Serializer<DataSet> {
+    private final Nd4jSerializer arraySerializer = new Nd4jSerializer();
+
+    @Override
+    public void write(Kryo kryo, Output output, DataSet object) {
+        kryo.writeObjectOrNull(output, object.getFeatures(), arraySerializer);
+        kryo.writeObjectOrNull(output, object.getLabels(), arraySerializer);
+        kryo.writeObjectOrNull(output, object.getFeaturesMaskArray(), arraySerializer);
+        kryo.writeObjectOrNull(output, object.getLabelsMaskArray(), arraySerializer);
+
+        List<String> labelNames = object.getLabelNamesList();
+        output.writeInt(labelNames == null ? -1 : labelNames.size(), false);
+        if (labelNames != null)
+            for (String name : labelNames)
+                output.writeString(name);
+    }
+
+    @Override
+    public DataSet read(Kryo kryo, Input input, Class<DataSet> type) {
+        INDArray features = kryo.readObjectOrNull(input, INDArray.class, arraySerializer);
+        INDArray labels = kryo.readObjectOrNull(input, INDArray.class, arraySerializer);
+        INDArray featuresMask = kryo.readObjectOrNull(input, INDArray.class, arraySerializer);
+        INDArray labelsMask = kryo.readObjectOrNull(input, INDArray.class, arraySerializer);
+
+        DataSet dataSet = new DataSet(features, labels, featuresMask, labelsMask);
+
+        int numNames = input.readInt(false);
+        if (numNames >= 0) {
+            List<String> labelNames = new ArrayList<>(numNames);
+            for (int e = 0; e < numNames; e++)
+                labelNames.add(input.readString());
+
+            dataSet.setLabelNames(labelNames);
+        }
+
+        return dataSet;
+    }
+}
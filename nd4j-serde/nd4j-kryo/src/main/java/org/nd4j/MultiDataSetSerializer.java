@@ -0,0 +1,53 @@
+package org.nd4j;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.MultiDataSet;
+
+/**
+ * Kryo serializer for MultiDataSet. All arrays are written with {@link Nd4jSerializer}
+ */
+public class MultiDataSetSerializer extends Serializer<MultiDataSet> {
+    private final Nd4jSerializer arraySerializer = new Nd4jSerializer();
+
+    @Override
+    public void write(Kryo kryo, Output output, MultiDataSet object) {
+        writeArrays(kryo, output, object.getFeatures());
+        writeArrays(kryo, output, object.getLabels());
+        writeArrays(kryo, output, object.getFeaturesMaskArrays());
+        writeArrays(kryo, output, object.getLabelsMaskArrays());
+    }
+
+    @Override
+    public MultiDataSet read(Kryo kryo, Input input, Class<MultiDataSet> type) {
+        INDArray[] features = readArrays(kryo, input);
+        INDArray[] labels = readArrays(kryo, input);
+        INDArray[] featuresMasks = readArrays(kryo, input);
+        INDArray[] labelsMasks = readArrays(kryo, input);
+
+        return new MultiDataSet(features, labels, featuresMasks, labelsMasks);
+    }
+
+    protected void writeArrays(Kryo kryo, Output output, INDArray[] arrays) {
+        // -1 stands for null array of arrays
+        output.writeInt(arrays == null ? -1 : arrays.length, false);
+        if (arrays != null)
+            for (INDArray array : arrays)
+                kryo.writeObjectOrNull(output, array, arraySerializer);
+    }
+
+    protected INDArray[] readArrays(Kryo kryo, Input input) {
+        int length = input.readInt(false);
+        if (length < 0)
+            return null;
+
+        INDArray[] arrays = new INDArray[length];
+        for (int e = 0; e < length; e++)
+            arrays[e] = kryo.readObjectOrNull(input, INDArray.class, arraySerializer);
+
+        return arrays;
+    }
+}
@@ -2,6 +2,8 @@ package org.nd4j;
 
 import com.esotericsoftware.kryo.Kryo;
 import org.apache.spark.serializer.KryoRegistrator;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.MultiDataSet;
 import org.nd4j.linalg.factory.Nd4j;
 
 /**
@@ -17,5 +19,7 @@ public class Nd4jRegistrator implements KryoRegistrator {
     public void registerClasses(Kryo kryo) {
         kryo.register(Nd4j.getBackend().getNDArrayClass(), new Nd4jSerializer());
         kryo.register(Nd4j.getBackend().getComplexNDArrayClass(), new Nd4jSerializer());
+        kryo.register(DataSet.class, new DataSetSerializer());
+        kryo.register(MultiDataSet.class, new MultiDataSetSerializer());
     }
 }
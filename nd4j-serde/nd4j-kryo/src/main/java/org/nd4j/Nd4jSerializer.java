@@ -1,20 +1,35 @@
 package org.nd4j;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.serde.binary.BinaryArrayOutputStream;
+import org.nd4j.serde.binary.BinarySerde;
 
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
-import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
+ * Kryo serializer for INDArrays.
+ *
+ * Array is written in {@link BinarySerde} layout: compact header, followed by raw bytes of the data buffer.
+ * Data bytes are copied from off-heap memory straight into Kryo buffer, without element-wise conversion.
+ * On read, bytes are copied straight from Kryo buffer into pre-allocated off-heap memory.
+ *
+ * Layout:
+ * 4 bytes int for total number of bytes
+ * {@link BinarySerde} layout
+ *
  * Created by agibsonccc on 5/22/16.
  */
 public class Nd4jSerializer extends Serializer<INDArray> {
+    // used only if Kryo buffer can't be accessed directly
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private byte[] chunk;
+
     /**
      * Writes the bytes for the object to the output.
      * <p>
@@ -27,12 +42,14 @@ public class Nd4jSerializer extends Serializer<INDArray> {
      */
     @Override
     public void write(Kryo kryo, Output output, INDArray object) {
-        DataOutputStream dos = new DataOutputStream(output);
-        try {
-            Nd4j.write(object, dos);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        INDArray array = BinarySerde.prepare(object);
+
+        ByteBuffer header = BinarySerde.headerFor(array);
+        ByteBuffer data = BinarySerde.dataBufferFor(array);
+
+        output.writeInt(header.remaining() + data.remaining());
+        copy(header, output);
+        copy(data, output);
         //Note: output should NOT be closed manually here - may be needed elsewhere (and closing here will cause serialization to fail)
     }
 
@@ -53,15 +70,59 @@ public class Nd4jSerializer extends Serializer<INDArray> {
      */
     @Override
     public INDArray read(Kryo kryo, Input input, Class<INDArray> type) {
-        DataInputStream dis = new DataInputStream(input);
-        try {
-            return Nd4j.read(dis);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        int length = input.readInt();
+
+        BinaryArrayOutputStream stream = new BinaryArrayOutputStream();
+        while (length > 0) {
+            int available = input.limit() - input.position();
+            if (available > 0 && input.getBuffer() != null) {
+                // bytes are already buffered, so we pass them straight to the decoder
+                int bytes = Math.min(available, length);
+                stream.write(input.getBuffer(), input.position(), bytes);
+                input.setPosition(input.position() + bytes);
+                length -= bytes;
+            } else {
+                // Input refills its buffer from underlying stream here
+                int bytes = Math.min(CHUNK_SIZE, length);
+                input.readBytes(chunk(), 0, bytes);
+                stream.write(chunk, 0, bytes);
+                length -= bytes;
+            }
         }
+
+        if (!stream.isComplete())
+            throw new KryoException("Corrupt INDArray serialization: unexpected end of array data");
+
+        return stream.getArray();
         //Note: input should NOT be closed manually here - may be needed elsewhere (and closing here will cause serialization to fail)
     }
 
+    /**
+     * This method copies bytes into Kryo output. Whenever possible, bytes go straight into Output buffer,
+     * and only overflow goes through intermediate chunk
+     */
+    protected void copy(ByteBuffer source, Output output) {
+        while (source.hasRemaining()) {
+            byte[] buffer = output.getBuffer();
+            int free = buffer == null ? 0 : buffer.length - output.position();
 
+            if (free > 0) {
+                int bytes = Math.min(free, source.remaining());
+                source.get(buffer, output.position(), bytes);
+                output.setPosition(output.position() + bytes);
+            } else {
+                // Output flushes or grows its buffer here
+                int bytes = Math.min(CHUNK_SIZE, source.remaining());
+                source.get(chunk(), 0, bytes);
+                output.writeBytes(chunk, 0, bytes);
+            }
+        }
+    }
+
+    private byte[] chunk() {
+        if (chunk == null)
+            chunk = new byte[CHUNK_SIZE];
 
+        return chunk;
+    }
 }
@@ -1,5 +1,8 @@
 package org.nd4j;
 
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
 import lombok.AllArgsConstructor;
 import org.apache.spark.SparkConf;
 import org.apache.spark.api.java.JavaRDD;
@@ -10,13 +13,19 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.MultiDataSet;
 import org.nd4j.linalg.factory.Nd4j;
 import scala.Tuple2;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * Created by Alex on 04/07/2016.
@@ -54,6 +63,46 @@ public class TestNd4jKryoSerialization {
         rdd.foreach(new AssertFn(b));
     }
 
+    @Test
+    public void testKryoRoundTrip() {
+        Kryo kryo = new Kryo();
+        new Nd4jRegistrator().registerClasses(kryo);
+
+        INDArray matrix = Nd4j.rand(100, 100);
+        // view, and array large enough to overflow Kryo buffer
+        INDArray view = matrix.getColumn(3);
+        INDArray large = Nd4j.rand(1, 100000);
+
+        DataSet dataSet = new DataSet(Nd4j.rand(10, 5), Nd4j.rand(10, 3), null, Nd4j.ones(10, 3));
+        dataSet.setLabelNames(Arrays.asList("a", "b", "c"));
+
+        MultiDataSet multiDataSet = new MultiDataSet(new INDArray[] {Nd4j.rand(10, 5), Nd4j.rand(10, 7)},
+                        new INDArray[] {Nd4j.rand(10, 3)});
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Output output = new Output(baos, 4096);
+        kryo.writeClassAndObject(output, matrix);
+        kryo.writeClassAndObject(output, view);
+        kryo.writeClassAndObject(output, large);
+        kryo.writeClassAndObject(output, dataSet);
+        kryo.writeClassAndObject(output, multiDataSet);
+        output.close();
+
+        Input input = new Input(new ByteArrayInputStream(baos.toByteArray()), 4096);
+        assertEquals(matrix, kryo.readClassAndObject(input));
+        assertEquals(view, kryo.readClassAndObject(input));
+        assertEquals(large, kryo.readClassAndObject(input));
+
+        DataSet restoredDataSet = (DataSet) kryo.readClassAndObject(input);
+        assertEquals(dataSet.getFeatures(), restoredDataSet.getFeatures());
+        assertEquals(dataSet.getLabels(), restoredDataSet.getLabels());
+        assertNull(restoredDataSet.getFeaturesMaskArray());
+        assertEquals(dataSet.getLabelsMaskArray(), restoredDataSet.getLabelsMaskArray());
+        assertEquals(dataSet.getLabelNamesList(), restoredDataSet.getLabelNamesList());
+
+        assertEquals(multiDataSet, kryo.readClassAndObject(input));
+        input.close();
+    }
 
     @After
     public void after() {